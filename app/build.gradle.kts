@@ -1,3 +1,6 @@
+import java.io.DataOutputStream
+import java.util.Locale
+
 plugins {
     id("com.android.application")
 }
@@ -30,6 +33,118 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    androidResources {
+        // Sentiment lexicons are memory-mapped, which needs them uncompressed
+        noCompress += "lex"
+    }
+}
+
+/**
+ * Converts the sentiment lexicons in src/main/lexicon from TSV to the binary
+ * format SentimentLexiconFile reads, as assets/lexicon/<name>.lex.
+ */
+abstract class ConvertSentimentLexicons : DefaultTask() {
+    @get:InputDirectory
+    abstract val sourceDir: DirectoryProperty
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    private class Term(val kind: Int, val weight: Float, val emotion: String?)
+
+    @TaskAction
+    fun convert() {
+        val lexiconDir = outputDir.get().dir("lexicon").asFile
+        lexiconDir.deleteRecursively()
+        lexiconDir.mkdirs()
+        sourceDir.get().asFile.listFiles { file -> file.extension == "tsv" }?.forEach { tsv ->
+            DataOutputStream(File(lexiconDir, tsv.nameWithoutExtension + ".lex").outputStream().buffered()).use {
+                write(tsv, it)
+            }
+        }
+    }
+
+    private fun write(tsv: File, out: DataOutputStream) {
+        // Kinds as in SentimentModel
+        val kinds = mapOf("sentiment" to 1, "negation" to 2, "modifier" to 3, "contrast" to 4)
+        val terms = sortedMapOf<String, Term>()
+        tsv.readLines().forEachIndexed { index, line ->
+            if (line.isBlank() || line.startsWith("#")) {
+                return@forEachIndexed
+            }
+            val columns = line.split('\t')
+            val term = columns[0]
+            val kind = kinds[columns.getOrNull(1)]
+            if (kind == null || !term.matches(Regex("\\S+( \\S+)*")) || term != term.lowercase(Locale.ROOT)
+                    || term in terms) {
+                throw GradleException("${tsv.name}:${index + 1}: invalid or duplicate term: $line")
+            }
+            val weight = columns.getOrNull(2)?.takeIf { it.isNotEmpty() }?.toFloat() ?: 0f
+            terms[term] = Term(kind, weight, columns.getOrNull(3)?.takeIf { it.isNotEmpty() })
+        }
+        // Every word of a phrase is a term of its own, so phrases can be matched word by word
+        for (phrase in terms.keys.filter { ' ' in it }) {
+            for (word in phrase.split(' ')) {
+                terms.putIfAbsent(word, Term(0, 0f, null))
+            }
+        }
+
+        val termList = terms.keys.toList()
+        val emotions = terms.values.mapNotNull { it.emotion }.distinct()
+        val phrases = termList.indices.filter { ' ' in termList[it] }
+        out.writeInt(0x534C4558) // "SLEX"
+        out.writeInt(1)
+        out.writeInt(termList.size)
+        out.writeInt(emotions.size)
+        out.writeInt(phrases.size)
+        out.writeInt(termList.filter { ' ' !in it }.maxOfOrNull { it.length } ?: 0)
+        var firstChar = 0
+        for (term in termList) {
+            val entry = terms.getValue(term)
+            out.writeInt(firstChar)
+            out.writeShort(term.length)
+            out.writeByte(entry.kind)
+            out.writeByte(entry.emotion?.let { emotions.indexOf(it) } ?: -1)
+            out.writeFloat(entry.weight)
+            firstChar += term.length
+        }
+        for (emotion in emotions) {
+            out.writeInt(firstChar)
+            out.writeInt(emotion.length)
+            firstChar += emotion.length
+        }
+        phrases.forEach { out.writeInt(it) }
+        termList.forEach { out.writeChars(it) }
+        emotions.forEach { out.writeChars(it) }
+    }
+}
+
+val convertSentimentLexicons = tasks.register<ConvertSentimentLexicons>("convertSentimentLexicons") {
+    sourceDir.set(layout.projectDirectory.dir("src/main/lexicon"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets
+            ?.addGeneratedSourceDirectory(convertSentimentLexicons, ConvertSentimentLexicons::outputDir)
+    }
+}
+
+// Small lexicons the unit tests need besides the app's, such as invalid ones
+val convertTestSentimentLexicons = tasks.register<ConvertSentimentLexicons>("convertTestSentimentLexicons") {
+    sourceDir.set(layout.projectDirectory.dir("src/test/lexicon"))
+    outputDir.set(layout.buildDirectory.dir("generated/testLexicons"))
+}
+
+// The unit tests read the lexicons as converted for the app, so the converter is the one under test
+tasks.withType<Test>().configureEach {
+    val appLexicons = convertSentimentLexicons.flatMap { it.outputDir.dir("lexicon") }
+    val testLexicons = convertTestSentimentLexicons.flatMap { it.outputDir.dir("lexicon") }
+    inputs.dir(appLexicons).withPropertyName("appLexicons").withPathSensitivity(PathSensitivity.RELATIVE)
+    inputs.dir(testLexicons).withPropertyName("testLexicons").withPathSensitivity(PathSensitivity.RELATIVE)
+    jvmArgumentProviders.add(CommandLineArgumentProvider {
+        listOf("-Dlexicon.dir=${appLexicons.get().asFile}", "-Dlexicon.testDir=${testLexicons.get().asFile}")
+    })
 }
 
 dependencies {
@@ -47,6 +162,11 @@ dependencies {
     annotationProcessor("androidx.room:room-compiler:$roomVersion")
     // For LiveData support
     implementation("androidx.lifecycle:lifecycle-livedata-ktx:2.6.2")
+    // For PagingSource support
+    implementation("androidx.room:room-paging:$roomVersion")
+
+    // Paging
+    implementation("androidx.paging:paging-runtime:3.2.1")
 
     // Local authentication
     implementation("androidx.security:security-crypto:1.1.0-alpha06")
@@ -0,0 +1,38 @@
+package com.example.dailymoodandmentalhealthjournalapplication;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helper for reading the first value emitted by a LiveData in instrumented tests.
+ */
+public final class LiveDataTestUtil {
+
+    private LiveDataTestUtil() {
+    }
+
+    public static <T> T getValue(LiveData<T> liveData) throws InterruptedException {
+        final Object[] data = new Object[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        Observer<T> observer = new Observer<T>() {
+            @Override
+            public void onChanged(T value) {
+                data[0] = value;
+                latch.countDown();
+                liveData.removeObserver(this);
+            }
+        };
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> liveData.observeForever(observer));
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> liveData.removeObserver(observer));
+            throw new AssertionError("LiveData value was never set");
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) data[0];
+        return value;
+    }
+}
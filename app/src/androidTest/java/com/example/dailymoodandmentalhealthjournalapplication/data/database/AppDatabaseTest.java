@@ -11,6 +11,7 @@ import com.example.dailymoodandmentalhealthjournalapplication.data.dao.MoodEntry
 import com.example.dailymoodandmentalhealthjournalapplication.data.dao.UserDao;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
 
 import org.junit.After;
@@ -91,7 +92,7 @@ public class AppDatabaseTest {
         userDao.insert(user);
         
         // Create a test mood entry
-        MoodEntry moodEntry = new MoodEntry(userId, System.currentTimeMillis(), "HAPPY", 8);
+        MoodEntry moodEntry = new MoodEntry(userId, System.currentTimeMillis(), MoodType.HAPPY, 8);
         moodEntry.setNotes("Feeling great today!");
         
         // Insert mood entry
@@ -0,0 +1,124 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test the lanes and metrics of the shared database dispatcher.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseDispatcherTest {
+    private final DatabaseDispatcher dispatcher = DatabaseDispatcher.getInstance();
+
+    @Test
+    public void testWriterRunsOneTaskAtATime() throws InterruptedException {
+        final int taskCount = 50;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            dispatcher.writer().execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(2);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals("Writes must be serialized", 1, maxRunning.get());
+    }
+
+    @Test
+    public void testReaderRunsTasksConcurrently() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            dispatcher.reader().execute(() -> {
+                bothStarted.countDown();
+                try {
+                    bothStarted.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        assertTrue("Two reads should be in flight at once", done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, bothStarted.getCount());
+    }
+
+    @Test
+    public void testStatsReportQueueDepth() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            dispatcher.maintenance().execute(() -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        DatabaseDispatcher.LaneStats maintenance = find(dispatcher.getStats(), "maintenance");
+        assertEquals(1, maintenance.getMaxThreads());
+        assertEquals(1, maintenance.getThreadCount());
+        assertEquals("One task runs while the rest wait", 3, maintenance.getQueueDepth());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRunOnMaintenanceLaneWaitsForTheLane() throws Exception {
+        String thread = dispatcher.runOnMaintenanceLane(() -> {
+            // Nested calls run in place instead of waiting on their own lane
+            String nested = dispatcher.runOnMaintenanceLane(() -> Thread.currentThread().getName());
+            assertEquals(Thread.currentThread().getName(), nested);
+            return nested;
+        });
+        assertTrue(thread, thread.startsWith("db-maintenance-"));
+
+        try {
+            dispatcher.runOnMaintenanceLane(() -> {
+                throw new IllegalStateException("Failed upkeep");
+            });
+            fail("The task's exception should be rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("Failed upkeep", e.getMessage());
+        }
+    }
+
+    private static DatabaseDispatcher.LaneStats find(List<DatabaseDispatcher.LaneStats> stats, String name) {
+        for (DatabaseDispatcher.LaneStats lane : stats) {
+            if (lane.getName().equals(name)) {
+                return lane;
+            }
+        }
+        throw new AssertionError("No lane named " + name);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the WAL configuration, maintenance and diagnostics on a file-backed
+ * database, and log write latency for a burst of single-row inserts.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMaintenanceTest {
+    private static final String TAG = "DatabaseMaintenanceTest";
+    private static final String DATABASE_NAME = "maintenance_test_db";
+
+    private Context context;
+    private AppDatabase db;
+    private String userId;
+
+    @Before
+    public void createDb() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        db = AppDatabase.build(context, DATABASE_NAME);
+        userId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(userId, "Test User", "test@example.com"));
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void testBurstWritesAndMaintenance() {
+        final int burstSize = 2_000;
+        long[] latencies = new long[burstSize];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < burstSize; i++) {
+            long start = System.nanoTime();
+            db.moodEntryDao().insert(new MoodEntry(userId, now - i * 60_000L, MoodType.HAPPY, 1 + i % 10));
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        Log.i(TAG, "Burst of " + burstSize + " inserts: p50 " + latencies[burstSize / 2] / 1000
+                + " us, p95 " + latencies[burstSize * 95 / 100] / 1000
+                + " us, max " + latencies[burstSize - 1] / 1000 + " us");
+
+        DatabaseDiagnostics before = DatabaseMaintenance.getDiagnostics(context, db);
+        Log.i(TAG, "Before maintenance: " + before);
+        assertTrue("The database should run in WAL mode", before.isWriteAheadLogging());
+        assertEquals(-DatabaseMaintenance.CACHE_SIZE_KIB, before.getCacheSize());
+        assertTrue("Burst writes should land in the WAL", before.getWalFileBytes() > 0);
+
+        db.moodEntryDao().deleteAllMoodEntriesByUser(userId);
+        DatabaseMaintenance.runMaintenance(db);
+
+        DatabaseDiagnostics after = DatabaseMaintenance.getDiagnostics(context, db);
+        Log.i(TAG, "After maintenance: " + after);
+        assertEquals("The checkpoint should truncate the WAL", 0, after.getWalFileBytes());
+        assertTrue("Free pages should be returned to the file system",
+                after.getFreelistPages() <= before.getFreelistPages());
+        assertTrue(after.getDatabaseFileBytes() <= before.getDatabaseFileBytes());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.EntryChange;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDelta;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.JournalRepository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that the change log triggers record every write and that the
+ * repository change feed turns them into deltas.
+ */
+@RunWith(AndroidJUnit4.class)
+public class EntryChangeLogTest {
+    private AppDatabase db;
+    private JournalRepository journalRepository;
+    private String userId;
+
+    @Before
+    public void createDb() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .addCallback(AppDatabase.SCHEMA_CALLBACK)
+                .build();
+        journalRepository = new JournalRepository(db, DatabaseDispatcher.getInstance());
+        userId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(userId, "Test User", "test@example.com"));
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    @Test
+    public void testTriggersLogEveryWrite() {
+        long id = db.journalEntryDao().insert(new JournalEntry(userId, 1000L, "Title", "Content"));
+        JournalEntry entry = db.journalEntryDao().getJournalEntryByIdSync(id);
+        entry.setTitle("Edited");
+        db.journalEntryDao().update(entry);
+        db.journalEntryDao().updateFavoriteStatus(id, true, 2000L);
+        db.journalEntryDao().deleteJournalEntryById(id);
+        db.moodEntryDao().insert(new MoodEntry(userId, 1000L, MoodType.HAPPY, 5));
+
+        long latest = db.entryChangeDao().getLatestSeqSync();
+        assertEquals(Arrays.asList(EntryChange.OPERATION_INSERT, EntryChange.OPERATION_UPDATE,
+                EntryChange.OPERATION_UPDATE, EntryChange.OPERATION_DELETE),
+                operations(db.entryChangeDao().getChangesSync("journal_entries", userId, 0, latest)));
+        assertEquals(Collections.singletonList(EntryChange.OPERATION_INSERT),
+                operations(db.entryChangeDao().getChangesSync("mood_entries", userId, 0, latest)));
+
+        // Entries removed by the user cascade are logged as deletions too
+        db.userDao().deleteUserById(userId);
+        List<EntryChange> changes = db.entryChangeDao().getChangesSync("mood_entries", userId, latest,
+                db.entryChangeDao().getLatestSeqSync());
+        assertEquals(Collections.singletonList(EntryChange.OPERATION_DELETE), operations(changes));
+    }
+
+    @Test
+    public void testBulkInsertOverExistingIdsUpdatesInPlace() {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            entries.add(new JournalEntry(userId, i * 1000L, "Entry " + i, "Planted tomatoes " + i));
+        }
+        List<Long> ids = db.journalEntryDao().insertAll(entries);
+        long before = db.entryChangeDao().getLatestSeqSync();
+
+        List<JournalEntry> replacements = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            JournalEntry replacement = new JournalEntry(userId, i * 1000L, "Entry " + i, "Planted peppers " + i);
+            replacement.setId(ids.get(i));
+            replacements.add(replacement);
+        }
+        assertEquals(Arrays.asList(-1L, -1L, -1L), db.journalEntryDao().insertAll(replacements));
+
+        // The old text is gone from the search index, and the overwrites are logged as updates
+        assertTrue(db.journalEntryDao().searchJournalEntriesSync(userId, "tomato*").isEmpty());
+        assertEquals(3, db.journalEntryDao().searchJournalEntriesSync(userId, "pepper*").size());
+        assertEquals(Arrays.asList(EntryChange.OPERATION_UPDATE, EntryChange.OPERATION_UPDATE,
+                EntryChange.OPERATION_UPDATE), operations(db.entryChangeDao().getChangesSync("journal_entries",
+                userId, before, db.entryChangeDao().getLatestSeqSync())));
+    }
+
+    @Test
+    public void testPruneKeepsLatestSequence() {
+        for (int i = 0; i < 10; i++) {
+            db.moodEntryDao().insert(new MoodEntry(userId, i, MoodType.SAD, 3));
+        }
+        long latest = db.entryChangeDao().getLatestSeqSync();
+
+        int pruned = db.entryChangeDao().pruneSync(System.currentTimeMillis() + 60_000);
+
+        assertEquals(9, pruned);
+        assertEquals(latest, db.entryChangeDao().getLatestSeqSync());
+        assertEquals(latest, db.entryChangeDao().getOldestSeqSync());
+    }
+
+    @Test
+    public void testChangeFeedEmitsOnlyChangedRows() throws InterruptedException {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            entries.add(new JournalEntry(userId, i * 1000L, "Entry " + i, "Content " + i));
+        }
+        db.journalEntryDao().insertAll(entries);
+
+        BlockingQueue<EntryDelta<JournalEntry>> deltas = new LinkedBlockingQueue<>();
+        LiveData<EntryDelta<JournalEntry>> feed = journalRepository.getJournalEntryChanges(userId);
+        Observer<EntryDelta<JournalEntry>> observer = deltas::add;
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> feed.observeForever(observer));
+        try {
+            EntryDelta<JournalEntry> reset = deltas.poll(10, TimeUnit.SECONDS);
+            assertNotNull("Feed should emit the initial entries", reset);
+            assertTrue(reset.isReset());
+            assertEquals(50, reset.getUpserted().size());
+
+            long id = db.journalEntryDao().insert(new JournalEntry(userId, 99_000L, "New", "New entry"));
+            EntryDelta<JournalEntry> inserted = deltas.poll(10, TimeUnit.SECONDS);
+            assertNotNull("Feed should emit the insert", inserted);
+            assertFalse(inserted.isReset());
+            assertEquals(Collections.singleton(id), inserted.getUpserted().keySet());
+
+            db.journalEntryDao().deleteJournalEntryById(id);
+            EntryDelta<JournalEntry> deleted = deltas.poll(10, TimeUnit.SECONDS);
+            assertNotNull("Feed should emit the delete", deleted);
+            assertTrue(deleted.getUpserted().isEmpty());
+            assertEquals(Collections.singleton(id), deleted.getDeletedIds());
+        } finally {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> feed.removeObserver(observer));
+        }
+    }
+
+    private static List<Integer> operations(List<EntryChange> changes) {
+        List<Integer> operations = new ArrayList<>();
+        for (EntryChange change : changes) {
+            operations.add(change.getOperation());
+        }
+        return operations;
+    }
+}
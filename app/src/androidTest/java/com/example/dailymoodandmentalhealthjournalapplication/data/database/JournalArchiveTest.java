@@ -0,0 +1,146 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.LiveDataTestUtil;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.ArchiveStats;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalEntrySummary;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.JournalRepository;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test moving old journal entries into the compressed archive and reading
+ * and searching them afterwards.
+ */
+@RunWith(AndroidJUnit4.class)
+public class JournalArchiveTest {
+    private static final String TAG = "JournalArchiveTest";
+    private static final String[] VOCABULARY = {
+            "morning", "walk", "coffee", "work", "meeting", "family", "dinner", "tired", "happy",
+            "rain", "sunshine", "friends", "gym", "reading", "project", "deadline", "calm", "music"
+    };
+
+    private AppDatabase db;
+    private JournalRepository journalRepository;
+    private String userId;
+
+    @Before
+    public void createDb() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        journalRepository = new JournalRepository(db, DatabaseDispatcher.getInstance());
+        userId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(userId, "Test User", "test@example.com"));
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    @Test
+    public void testArchivedEntriesReadAndSearchInFull() throws InterruptedException {
+        Random random = new Random(5);
+        long now = System.currentTimeMillis();
+        long old = now - 400 * DateBuckets.MILLIS_PER_DAY;
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            JournalEntry entry = new JournalEntry(userId, old - i * DateBuckets.MILLIS_PER_DAY, "Day " + i,
+                    createContent(random, 3000) + (i == 7 ? " lighthouse" : ""));
+            entry.setCreatedAt(entry.getDate());
+            entry.setUpdatedAt(entry.getDate());
+            entries.add(entry);
+        }
+        JournalEntry recent = new JournalEntry(userId, now, "Today", createContent(random, 3000));
+        entries.add(recent);
+        awaitInsert(entries);
+
+        int archived = journalRepository.archiveEntriesSync(now - 365 * DateBuckets.MILLIS_PER_DAY);
+        assertEquals("Only the old entries should be archived", 50, archived);
+        assertFalse(db.journalEntryDao().getJournalEntryByIdSync(recent.getId()).isArchived());
+
+        JournalEntry original = entries.get(7);
+        JournalEntry stored = db.journalEntryDao().getJournalEntryByIdSync(original.getId());
+        assertTrue(stored.isArchived());
+        assertEquals(JournalEntrySummary.PREVIEW_LENGTH, stored.getContent().length());
+
+        JournalEntry read = LiveDataTestUtil.getValue(journalRepository.getJournalEntryById(original.getId()));
+        assertEquals("Archived text should be decompressed", original.getContent(), read.getContent());
+        assertFalse(read.isArchived());
+
+        // The word only appears at the end of the archived text
+        List<JournalEntry> found = LiveDataTestUtil.getValue(
+                journalRepository.searchJournalEntries(userId, "lightho"));
+        assertEquals(1, found.size());
+        assertEquals(original.getId(), found.get(0).getId());
+        assertEquals(51, LiveDataTestUtil.getValue(journalRepository.searchJournalEntries(userId, "walk")).size());
+
+        ArchiveStats stats = journalRepository.getArchiveStatsSync();
+        Log.i(TAG, "Archive: " + stats);
+        assertEquals(50, stats.getEntryCount());
+        assertTrue("Archive should save space", stats.getSavedBytes() > stats.getOriginalBytes() / 2);
+        assertTrue(stats.getDecompressionCount() >= 1);
+
+        // Editing an archived entry brings its text back into journal_entries
+        read.setContent(read.getContent() + " Edited.");
+        journalRepository.updateJournalEntry(read);
+        awaitWriter();
+        stored = db.journalEntryDao().getJournalEntryByIdSync(original.getId());
+        assertFalse(stored.isArchived());
+        assertEquals(read.getContent(), stored.getContent());
+        assertNull(db.journalArchiveDao().getArchiveSync(original.getId()));
+        assertEquals(1, LiveDataTestUtil.getValue(journalRepository.searchJournalEntries(userId, "lightho")).size());
+    }
+
+    private static String createContent(Random random, int length) {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < length) {
+            content.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+        }
+        return content.toString().trim();
+    }
+
+    private void awaitInsert(List<JournalEntry> entries) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        int[] count = new int[1];
+        journalRepository.insertJournalEntries(entries, result -> {
+            count[0] = result;
+            latch.countDown();
+        });
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertEquals(entries.size(), count[0]);
+    }
+
+    /**
+     * Wait until every write queued so far on the writer lane has run.
+     */
+    private static void awaitWriter() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        DatabaseDispatcher.getInstance().writer().execute(latch::countDown);
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.paging.PagingSource;
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.LiveDataTestUtil;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.JournalEntryDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalEntrySummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmarks for loading the journal list on a 20,000 entry journal: the whole
+ * list against the first page through the paging source, and full rows against
+ * the summary projection. Results are written to logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class JournalListLoadBenchmarkTest {
+    private static final String TAG = "JournalListLoadBenchmark";
+    private static final int ENTRY_COUNT = 20_000;
+    private static final int PAGE_SIZE = 30;
+    private static final String[] VOCABULARY = {
+            "morning", "walk", "coffee", "work", "meeting", "family", "dinner", "tired", "happy",
+            "rain", "sunshine", "friends", "gym", "reading", "project", "deadline", "calm", "music"
+    };
+
+    private AppDatabase db;
+    private JournalEntryDao journalEntryDao;
+    private String userId;
+
+    @Before
+    public void createDb() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        journalEntryDao = db.journalEntryDao();
+        userId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(userId, "Test User", "test@example.com"));
+
+        Random random = new Random(7);
+        long start = System.currentTimeMillis() - ENTRY_COUNT * 3_600_000L;
+        db.runInTransaction(() -> {
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                content.setLength(0);
+                for (int word = 0; word < 150; word++) {
+                    content.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+                }
+                journalEntryDao.insert(new JournalEntry(userId, start + i * 3_600_000L,
+                        "Entry " + i, content.toString()));
+            }
+        });
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    @Test
+    public void testFirstPageAgainstFullList() throws Exception {
+        long baseline = usedHeap();
+        long fullStart = System.nanoTime();
+        List<JournalEntry> all = LiveDataTestUtil.getValue(journalEntryDao.getAllJournalEntriesByUser(userId));
+        long fullMillis = (System.nanoTime() - fullStart) / 1_000_000;
+        long fullHeap = usedHeap() - baseline;
+        assertEquals(ENTRY_COUNT, all.size());
+        all = null;
+
+        baseline = usedHeap();
+        long pageStart = System.nanoTime();
+        PagingSource<Integer, JournalEntrySummary> source = journalEntryDao.getJournalEntriesPagedByUser(userId);
+        PagingSource.LoadResult<Integer, JournalEntrySummary> result = BuildersKt.runBlocking(
+                EmptyCoroutineContext.INSTANCE,
+                (scope, continuation) -> source.load(
+                        new PagingSource.LoadParams.Refresh<>(null, PAGE_SIZE * 2, true), continuation));
+        long pageMillis = (System.nanoTime() - pageStart) / 1_000_000;
+        long pageHeap = usedHeap() - baseline;
+
+        assertTrue(result instanceof PagingSource.LoadResult.Page);
+        PagingSource.LoadResult.Page<Integer, JournalEntrySummary> page =
+                (PagingSource.LoadResult.Page<Integer, JournalEntrySummary>) result;
+        assertEquals(PAGE_SIZE * 2, page.getData().size());
+        assertEquals(ENTRY_COUNT - PAGE_SIZE * 2, page.getItemsAfter());
+
+        Log.i(TAG, "Full list: " + ENTRY_COUNT + " rows in " + fullMillis + " ms, "
+                + (fullHeap / 1024) + " KB retained; first page: " + page.getData().size()
+                + " rows in " + pageMillis + " ms, " + (pageHeap / 1024) + " KB retained");
+    }
+
+    @Test
+    public void testSummaryProjectionAgainstFullRows() {
+        long[] full = readList("SELECT * FROM journal_entries WHERE userId = ? ORDER BY date DESC");
+        long[] summary = readList("SELECT " + JournalEntryDao.SUMMARY_COLUMNS
+                + " FROM journal_entries WHERE userId = ? ORDER BY date DESC");
+
+        Log.i(TAG, "Full rows: " + (full[0] / 1024) + " KB through the cursor, "
+                + (full[1] / 1024) + " KB allocated; summaries: " + (summary[0] / 1024)
+                + " KB through the cursor, " + (summary[1] / 1024) + " KB allocated");
+        assertTrue("Summaries should read far less than full rows", summary[0] * 2 < full[0]);
+    }
+
+    /**
+     * Read every row of a list query the way a list load does and return the
+     * bytes read through the cursor and the bytes allocated by this thread.
+     */
+    @SuppressWarnings("deprecation")
+    private long[] readList(String sql) {
+        long cursorBytes = 0;
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        try (Cursor cursor = db.query(new SimpleSQLiteQuery(sql, new Object[]{userId}))) {
+            int columns = cursor.getColumnCount();
+            while (cursor.moveToNext()) {
+                for (int column = 0; column < columns; column++) {
+                    switch (cursor.getType(column)) {
+                        case Cursor.FIELD_TYPE_STRING:
+                            cursorBytes += cursor.getString(column).length() * 2L;
+                            break;
+                        case Cursor.FIELD_TYPE_BLOB:
+                            cursorBytes += cursor.getBlob(column).length;
+                            break;
+                        case Cursor.FIELD_TYPE_NULL:
+                            break;
+                        default:
+                            cursor.getLong(column);
+                            cursorBytes += 8;
+                            break;
+                    }
+                }
+            }
+        }
+        Debug.stopAllocCounting();
+        return new long[]{cursorBytes, Debug.getThreadAllocSize()};
+    }
+
+    /**
+     * Heap in use after a collection, so the delta reflects what the loaded
+     * rows keep alive rather than transient garbage.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        System.runFinalization();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
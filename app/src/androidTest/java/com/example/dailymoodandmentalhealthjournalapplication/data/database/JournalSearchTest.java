@@ -0,0 +1,161 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.JournalEntryDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalSearchResult;
+import com.example.dailymoodandmentalhealthjournalapplication.data.search.Bm25Ranker;
+import com.example.dailymoodandmentalhealthjournalapplication.data.search.FtsQuery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the full-text search over journal entries.
+ */
+@RunWith(AndroidJUnit4.class)
+public class JournalSearchTest {
+    private static final String TAG = "JournalSearchTest";
+    private static final String[] VOCABULARY = {
+            "morning", "walk", "coffee", "work", "meeting", "family", "dinner", "tired", "happy",
+            "rain", "sunshine", "friends", "gym", "reading", "project", "deadline", "calm", "music",
+            "garden", "travel", "weekend", "sleep", "anxious", "grateful", "lunch", "call", "park"
+    };
+
+    private AppDatabase db;
+    private JournalEntryDao journalEntryDao;
+    private String userId;
+
+    @Before
+    public void createDb() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        journalEntryDao = db.journalEntryDao();
+        userId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(userId, "Test User", "test@example.com"));
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    @Test
+    public void testPrefixSearchAndRanking() {
+        long now = System.currentTimeMillis();
+        long inContent = journalEntryDao.insert(new JournalEntry(userId, now,
+                "Monday", "A long walk through the park before work."));
+        long inTitle = journalEntryDao.insert(new JournalEntry(userId, now - 1000,
+                "Walking", "Walked to the station, walked home again."));
+        journalEntryDao.insert(new JournalEntry(userId, now - 2000,
+                "Tuesday", "Stayed inside all day."));
+
+        List<JournalEntry> ranked = Bm25Ranker.rank(
+                journalEntryDao.searchJournalEntriesSync(userId, FtsQuery.toPrefixMatch("WALK")));
+        assertEquals("Prefix query should match both walking entries", 2, ranked.size());
+        assertEquals("Title and repeated hits should rank first", inTitle, ranked.get(0).getId());
+        assertEquals(inContent, ranked.get(1).getId());
+
+        assertTrue("Terms are combined with AND", journalEntryDao.searchJournalEntriesSync(
+                userId, FtsQuery.toPrefixMatch("walk stay")).isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsUpdatesAndDeletes() {
+        JournalEntry entry = new JournalEntry(userId, System.currentTimeMillis(), "Garden", "Planted tomatoes.");
+        entry.setId(journalEntryDao.insert(entry));
+        assertEquals(1, journalEntryDao.searchJournalEntriesSync(userId, "tomato*").size());
+
+        entry.setContent("Planted peppers.");
+        journalEntryDao.update(entry);
+        assertTrue(journalEntryDao.searchJournalEntriesSync(userId, "tomato*").isEmpty());
+        assertEquals(1, journalEntryDao.searchJournalEntriesSync(userId, "pepper*").size());
+
+        journalEntryDao.delete(entry);
+        assertTrue(journalEntryDao.searchJournalEntriesSync(userId, "pepper*").isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsInsertOverExistingId() {
+        JournalEntry entry = new JournalEntry(userId, System.currentTimeMillis(), "Garden", "Planted tomatoes.");
+        entry.setId(journalEntryDao.insert(entry));
+
+        // Inserting an existing ID updates the row, so the update triggers re-index it
+        JournalEntry replacement = new JournalEntry(userId, entry.getDate(), "Garden", "Planted peppers.");
+        replacement.setId(entry.getId());
+        assertEquals(-1, journalEntryDao.insert(replacement));
+        assertTrue(journalEntryDao.searchJournalEntriesSync(userId, "tomato*").isEmpty());
+        assertEquals(1, journalEntryDao.searchJournalEntriesSync(userId, "pepper*").size());
+    }
+
+    @Test
+    public void testSearchIsScopedToUser() {
+        String otherUserId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(otherUserId, "Other User", "other@example.com"));
+        journalEntryDao.insert(new JournalEntry(otherUserId, System.currentTimeMillis(), "Coffee", "Coffee with friends."));
+
+        assertTrue(journalEntryDao.searchJournalEntriesSync(userId, "coffee*").isEmpty());
+        assertEquals(1, journalEntryDao.searchJournalEntriesSync(otherUserId, "coffee*").size());
+    }
+
+    @Test
+    public void testSearchTimingAgainstLikeScan() {
+        final int corpusSize = 50_000;
+        Random random = new Random(42);
+        long start = System.currentTimeMillis() - corpusSize * 60_000L;
+        db.runInTransaction(() -> {
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < corpusSize; i++) {
+                content.setLength(0);
+                for (int word = 0; word < 120; word++) {
+                    content.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+                }
+                if (i % 1000 == 0) {
+                    content.append("serendipity");
+                }
+                journalEntryDao.insert(new JournalEntry(userId, start + i * 60_000L,
+                        "Entry " + i, content.toString()));
+            }
+        });
+
+        long likeStart = System.nanoTime();
+        int likeCount = 0;
+        try (Cursor cursor = db.query(new SimpleSQLiteQuery(
+                "SELECT * FROM journal_entries WHERE userId = ? AND (title LIKE '%' || ? || '%' "
+                        + "OR content LIKE '%' || ? || '%') ORDER BY date DESC",
+                new Object[]{userId, "serendip", "serendip"}))) {
+            while (cursor.moveToNext()) {
+                likeCount++;
+            }
+        }
+        long likeMillis = (System.nanoTime() - likeStart) / 1_000_000;
+
+        long matchStart = System.nanoTime();
+        List<JournalEntry> ranked = Bm25Ranker.rank(
+                journalEntryDao.searchJournalEntriesSync(userId, FtsQuery.toPrefixMatch("serendip")));
+        long matchMillis = (System.nanoTime() - matchStart) / 1_000_000;
+
+        Log.i(TAG, "LIKE scan: " + likeCount + " rows in " + likeMillis + " ms, "
+                + "FTS MATCH + BM25: " + ranked.size() + " rows in " + matchMillis + " ms");
+        assertEquals(corpusSize / 1000, likeCount);
+        assertEquals(likeCount, ranked.size());
+    }
+}
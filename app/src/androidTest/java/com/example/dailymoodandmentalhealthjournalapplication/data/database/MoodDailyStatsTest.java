@@ -0,0 +1,195 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.LiveDataTestUtil;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodDailyStats;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.BulkCallback;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.MoodRepository;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that the daily mood rollup maintained by MoodRepository matches an
+ * aggregation of the raw mood entries after inserts, updates and deletes.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MoodDailyStatsTest {
+    private static final MoodType[] MOOD_TYPES = MoodType.values();
+
+    private AppDatabase db;
+    private MoodRepository moodRepository;
+    private String userId;
+
+    @Before
+    public void createDb() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        moodRepository = new MoodRepository(db, DatabaseDispatcher.getInstance());
+        userId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(userId, "Test User", "test@example.com"));
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    @Test
+    public void testRollupMatchesRawEntries() throws InterruptedException {
+        Random random = new Random(11);
+        long now = System.currentTimeMillis();
+        List<MoodEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            entries.add(new MoodEntry(userId, now - random.nextInt(60) * DateBuckets.MILLIS_PER_DAY
+                    - random.nextInt(86_400_000), MOOD_TYPES[random.nextInt(MOOD_TYPES.length)],
+                    1 + random.nextInt(10)));
+        }
+        awaitBulk(callback -> moodRepository.insertMoodEntries(entries, callback));
+
+        // Move some entries to other days and change their mood, in bulk and one by one
+        List<MoodEntry> stored = LiveDataTestUtil.getValue(db.moodEntryDao().getAllMoodEntriesByUser(userId));
+        List<MoodEntry> moved = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            MoodEntry entry = stored.get(i);
+            entry.setDate(entry.getDate() - random.nextInt(10) * DateBuckets.MILLIS_PER_DAY);
+            entry.setMoodType(MOOD_TYPES[random.nextInt(MOOD_TYPES.length)]);
+            moved.add(entry);
+        }
+        awaitBulk(callback -> moodRepository.insertMoodEntries(moved, callback));
+        awaitBulk(callback -> moodRepository.deleteMoodEntries(stored.subList(100, 200), callback));
+
+        MoodEntry single = stored.get(300);
+        single.setDate(now - 90 * DateBuckets.MILLIS_PER_DAY);
+        single.setMoodIntensity(10);
+        moodRepository.updateMoodEntry(single);
+        moodRepository.deleteMoodEntry(stored.get(301));
+        moodRepository.insertMoodEntry(new MoodEntry(userId, now, MoodType.HAPPY, 7), id -> { });
+        awaitWriter();
+
+        assertRollupMatchesRawEntries();
+
+        // A rebuild from scratch must produce the same rows
+        db.moodDailyStatsDao().deleteAllForUser(userId);
+        moodRepository.rebuildDailyStatsSync(userId);
+        assertRollupMatchesRawEntries();
+    }
+
+    @Test
+    public void testRecomputedBucketsSkipEditedDates() {
+        long date = 10 * DateBuckets.MILLIS_PER_DAY;
+        long id = db.moodEntryDao().insert(new MoodEntry(userId, date, MoodType.HAPPY, 5));
+        assertEquals(1, db.moodEntryDao().setDateBuckets(id, date, 10, DateBuckets.weekKey(10),
+                DateBuckets.monthKey(10)));
+
+        // Buckets computed for a date the entry no longer holds must not be stored
+        assertEquals(0, db.moodEntryDao().setDateBuckets(id, date + DateBuckets.MILLIS_PER_DAY, 11,
+                DateBuckets.weekKey(11), DateBuckets.monthKey(11)));
+        MoodEntry stored = db.moodEntryDao().getMoodEntryByIdSync(id);
+        assertEquals(10, stored.getEpochDay());
+        assertEquals(DateBuckets.weekKey(10), stored.getWeekKey());
+    }
+
+    private void assertRollupMatchesRawEntries() throws InterruptedException {
+        TimeZone timeZone = TimeZone.getDefault();
+        Map<Long, MoodDailyStats> expected = new TreeMap<>();
+        for (MoodEntry entry : LiveDataTestUtil.getValue(db.moodEntryDao().getAllMoodEntriesByUser(userId))) {
+            long epochDay = DateBuckets.epochDay(entry.getDate(), timeZone);
+            MoodDailyStats day = expected.get(epochDay);
+            if (day == null) {
+                day = new MoodDailyStats(userId, epochDay);
+                day.setMonthKey(DateBuckets.monthKey(epochDay));
+                day.setMinIntensity(Integer.MAX_VALUE);
+                expected.put(epochDay, day);
+            }
+            int intensity = entry.getMoodIntensity();
+            day.setEntryCount(day.getEntryCount() + 1);
+            day.setIntensitySum(day.getIntensitySum() + intensity);
+            day.setMinIntensity(Math.min(day.getMinIntensity(), intensity));
+            day.setMaxIntensity(Math.max(day.getMaxIntensity(), intensity));
+            switch (entry.getMoodType()) {
+                case HAPPY:
+                    day.setHappyCount(day.getHappyCount() + 1);
+                    break;
+                case SAD:
+                    day.setSadCount(day.getSadCount() + 1);
+                    break;
+                case ANGRY:
+                    day.setAngryCount(day.getAngryCount() + 1);
+                    break;
+                case ANXIOUS:
+                    day.setAnxiousCount(day.getAnxiousCount() + 1);
+                    break;
+                default:
+                    day.setNeutralCount(day.getNeutralCount() + 1);
+                    break;
+            }
+        }
+
+        List<MoodDailyStats> actual = db.moodDailyStatsDao().getAllForUserSync(userId);
+        assertEquals("One rollup row per day with entries", expected.size(), actual.size());
+        for (MoodDailyStats day : actual) {
+            MoodDailyStats want = expected.get(day.getEpochDay());
+            String label = "Day " + day.getEpochDay();
+            assertTrue(label + " should have entries", want != null);
+            assertEquals(label, want.getMonthKey(), day.getMonthKey());
+            assertEquals(label, want.getEntryCount(), day.getEntryCount());
+            assertEquals(label, want.getIntensitySum(), day.getIntensitySum());
+            assertEquals(label, want.getMinIntensity(), day.getMinIntensity());
+            assertEquals(label, want.getMaxIntensity(), day.getMaxIntensity());
+            assertEquals(label, want.getHappyCount(), day.getHappyCount());
+            assertEquals(label, want.getSadCount(), day.getSadCount());
+            assertEquals(label, want.getAngryCount(), day.getAngryCount());
+            assertEquals(label, want.getAnxiousCount(), day.getAnxiousCount());
+            assertEquals(label, want.getNeutralCount(), day.getNeutralCount());
+        }
+    }
+
+    private static void awaitBulk(BulkOperation operation) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        int[] count = new int[1];
+        operation.run(result -> {
+            count[0] = result;
+            latch.countDown();
+        });
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertTrue("Bulk operation should succeed", count[0] >= 0);
+    }
+
+    /**
+     * Wait until every write queued so far on the writer lane has run.
+     */
+    private static void awaitWriter() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        DatabaseDispatcher.getInstance().writer().execute(latch::countDown);
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+    }
+
+    private interface BulkOperation {
+        void run(BulkCallback callback);
+    }
+}
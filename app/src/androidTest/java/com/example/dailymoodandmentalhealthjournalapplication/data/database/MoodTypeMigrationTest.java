@@ -0,0 +1,149 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.EntryChange;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test the migration that stores mood types as ordinals, on a version 9
+ * mood table holding names in mixed case, unknown names and no name at all.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MoodTypeMigrationTest {
+    private static final String USER_ID = "user";
+
+    private SupportSQLiteOpenHelper helper;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void createVersion9Db() {
+        Context context = ApplicationProvider.getApplicationContext();
+        helper = new FrameworkSQLiteOpenHelperFactory().create(SupportSQLiteOpenHelper.Configuration
+                .builder(context)
+                .name(null)
+                .callback(new SupportSQLiteOpenHelper.Callback(9) {
+                    @Override
+                    public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                        createVersion9Schema(db);
+                    }
+
+                    @Override
+                    public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+                    }
+                })
+                .build());
+        db = helper.getWritableDatabase();
+    }
+
+    @After
+    public void closeDb() {
+        helper.close();
+    }
+
+    @Test
+    public void testNamesBecomeOrdinals() {
+        String[] names = {"HAPPY", "SAD", "ANGRY", "ANXIOUS", "NEUTRAL", "happy", "Sad", "bogus", "", null};
+        for (int i = 0; i < names.length; i++) {
+            db.execSQL("INSERT INTO `mood_entries` (`id`, `userId`, `date`, `moodType`, `moodIntensity`, "
+                    + "`createdAt`, `updatedAt`) VALUES (?, ?, ?, ?, 3, 0, 0)",
+                    new Object[]{i + 1, USER_ID, i * 1000L, names[i]});
+        }
+
+        Migrations.MIGRATION_9_10.migrate(db);
+
+        // Exact names keep their type; anything else, including other cases, becomes NEUTRAL
+        int neutral = MoodType.NEUTRAL.ordinal();
+        Integer[] expected = {MoodType.HAPPY.ordinal(), MoodType.SAD.ordinal(), MoodType.ANGRY.ordinal(),
+                MoodType.ANXIOUS.ordinal(), neutral, neutral, neutral, neutral, neutral, neutral};
+        Integer[] ordinals = new Integer[names.length];
+        try (Cursor cursor = db.query("SELECT `moodType`, typeof(`moodType`) FROM `mood_entries` ORDER BY `id`")) {
+            for (int i = 0; cursor.moveToNext(); i++) {
+                assertEquals("integer", cursor.getString(1));
+                ordinals[i] = cursor.getInt(0);
+            }
+        }
+        assertEquals(Arrays.asList(expected), Arrays.asList(ordinals));
+    }
+
+    @Test
+    public void testIndicesAndTriggersAreRecreated() {
+        Migrations.MIGRATION_9_10.migrate(db);
+
+        assertEquals(new HashSet<>(Arrays.asList("index_mood_entries_userId_date",
+                "index_mood_entries_userId_moodType_date", "index_mood_entries_userId_epochDay")),
+                names("index"));
+        assertEquals(new HashSet<>(Arrays.asList("entry_changes_mood_entries_AFTER_INSERT",
+                "entry_changes_mood_entries_AFTER_UPDATE", "entry_changes_mood_entries_AFTER_DELETE")),
+                names("trigger"));
+
+        db.execSQL("INSERT INTO `mood_entries` (`userId`, `date`, `moodType`, `moodIntensity`, `createdAt`, "
+                + "`updatedAt`) VALUES (?, 0, ?, 3, 0, 0)", new Object[]{USER_ID, MoodType.SAD.ordinal()});
+        db.execSQL("DELETE FROM `mood_entries`");
+        try (Cursor cursor = db.query("SELECT `operation` FROM `entry_changes` WHERE `tableName` = 'mood_entries' "
+                + "ORDER BY `seq`")) {
+            assertEquals(2, cursor.getCount());
+            cursor.moveToFirst();
+            assertEquals(EntryChange.OPERATION_INSERT, cursor.getInt(0));
+            cursor.moveToNext();
+            assertEquals(EntryChange.OPERATION_DELETE, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void testUnknownOrdinalsReadAsNeutral() {
+        assertEquals(MoodType.SAD, Converters.toMoodType(MoodType.SAD.ordinal()));
+        assertEquals(MoodType.NEUTRAL, Converters.toMoodType(MoodType.count()));
+        assertEquals(MoodType.NEUTRAL, Converters.toMoodType(-1));
+    }
+
+    private Set<String> names(String type) {
+        Set<String> names = new HashSet<>();
+        try (Cursor cursor = db.query("SELECT `name` FROM `sqlite_master` WHERE `type` = ? "
+                + "AND `tbl_name` = 'mood_entries' AND `name` NOT LIKE 'sqlite_%'", new Object[]{type})) {
+            while (cursor.moveToNext()) {
+                names.add(cursor.getString(0));
+            }
+        }
+        return names;
+    }
+
+    private static void createVersion9Schema(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TABLE `users` (`userId` TEXT NOT NULL, `name` TEXT, `email` TEXT, "
+                + "PRIMARY KEY(`userId`))");
+        db.execSQL("INSERT INTO `users` (`userId`) VALUES ('" + USER_ID + "')");
+        db.execSQL("CREATE TABLE `mood_entries` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userId` TEXT NOT NULL, "
+                + "`date` INTEGER NOT NULL, `moodType` TEXT, `moodIntensity` INTEGER NOT NULL, "
+                + "`notes` TEXT, `createdAt` INTEGER NOT NULL, `updatedAt` INTEGER NOT NULL, "
+                + "`epochDay` INTEGER NOT NULL DEFAULT 0, `weekKey` INTEGER NOT NULL DEFAULT 0, "
+                + "`monthKey` INTEGER NOT NULL DEFAULT 0, "
+                + "FOREIGN KEY(`userId`) REFERENCES `users`(`userId`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+        db.execSQL("CREATE INDEX `index_mood_entries_userId_date` ON `mood_entries` (`userId` ASC, `date` DESC)");
+        db.execSQL("CREATE INDEX `index_mood_entries_userId_moodType_date` "
+                + "ON `mood_entries` (`userId`, `moodType`, `date`)");
+        db.execSQL("CREATE INDEX `index_mood_entries_userId_epochDay` ON `mood_entries` (`userId`, `epochDay`)");
+        db.execSQL("CREATE TABLE `journal_entries` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`userId` TEXT NOT NULL)");
+        Migrations.MIGRATION_5_6.migrate(db);
+    }
+}
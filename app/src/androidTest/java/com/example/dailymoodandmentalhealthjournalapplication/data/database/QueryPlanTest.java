@@ -0,0 +1,309 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.text.TextUtils;
+
+import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.LiveDataTestUtil;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.EntryChangeDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.JournalArchiveDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.JournalEntryDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.MoodDailyStatsDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.MoodEntryDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.TagDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.UserDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Query-plan regression tests for the DAO queries.
+ * Each case calls a DAO method on an empty database, captures the statements
+ * Room actually runs through a query callback, runs EXPLAIN QUERY PLAN on
+ * each of them against the real schema and fails if the plan falls back to a
+ * full scan or, for queries that are expected to be served in index order,
+ * to a temporary sort B-tree.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+    private static final String USER = "user";
+
+    private final List<Statement> statements = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean recording;
+    private AppDatabase db;
+
+    @Before
+    public void createDb() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .setQueryCallback((sql, args) -> {
+                    if (recording) {
+                        statements.add(new Statement(sql, args.toArray()));
+                    }
+                }, Runnable::run)
+                .build();
+        // Force Room to open the database and create the schema
+        db.getOpenHelper().getWritableDatabase();
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    @Test
+    public void testMoodEntryDaoQueryPlans() {
+        MoodEntryDao dao = db.moodEntryDao();
+        List<Long> ids = Arrays.asList(1L, 2L);
+        List<String> failures = new ArrayList<>();
+        check(failures, "getMoodEntryById", false, () -> value(dao.getMoodEntryById(1)));
+        check(failures, "getAllMoodEntriesByUser", false, () -> value(dao.getAllMoodEntriesByUser(USER)));
+        check(failures, "getMoodEntriesByDateRange", false, () -> value(dao.getMoodEntriesByDateRange(USER, 0, 1)));
+        check(failures, "getMoodPointsSync", false, () -> dao.getMoodPointsSync(USER, 0, 1));
+        check(failures, "getMoodEntriesByType", false, () -> value(dao.getMoodEntriesByType(USER, MoodType.HAPPY)));
+        check(failures, "countMoodEntriesByType", false,
+                () -> value(dao.countMoodEntriesByType(USER, MoodType.HAPPY)));
+        check(failures, "getAverageMoodIntensity", false, () -> value(dao.getAverageMoodIntensity(USER, 0, 1)));
+        check(failures, "getMoodTypeCounts", false, () -> value(dao.getMoodTypeCounts(USER)));
+        // Either the date or the mood type index fits; grouping may need a temp B-tree
+        check(failures, "getMoodTypeCountsByDateRange", true,
+                () -> value(dao.getMoodTypeCountsByDateRange(USER, 0, 1)));
+        check(failures, "getMoodEntriesByIdsSync", false, () -> dao.getMoodEntriesByIdsSync(ids));
+        check(failures, "getVersionsSync", false, () -> dao.getVersionsSync(ids));
+        check(failures, "getMoodEntryDaysByUserSync", false, () -> dao.getMoodEntryDaysByUserSync(USER));
+        // Day ranges sort at most a few weeks of rows by time
+        check(failures, "getMoodEntriesByDayRange", true, () -> value(dao.getMoodEntriesByDayRange(USER, 0, 6)));
+        check(failures, "getMoodStatsByDay", false, () -> value(dao.getMoodStatsByDay(USER, 0, 30)));
+        check(failures, "getMoodStatsByWeek", true, () -> value(dao.getMoodStatsByWeek(USER, 0, 90)));
+        check(failures, "getMoodStatsByMonth", true, () -> value(dao.getMoodStatsByMonth(USER, 0, 365)));
+        check(failures, "getEntryDaysAfterSync", false, () -> dao.getEntryDaysAfterSync(0, 500));
+        check(failures, "setDateBuckets", false, () -> dao.setDateBuckets(1, 0, 1, 197001, 197001));
+        check(failures, "deleteByIds", false, () -> dao.deleteByIds(ids));
+        check(failures, "deleteMoodEntryById", false, () -> dao.deleteMoodEntryById(1));
+        check(failures, "deleteAllMoodEntriesByUser", false, () -> dao.deleteAllMoodEntriesByUser(USER));
+        assertNoFailures(failures);
+    }
+
+    @Test
+    public void testJournalEntryDaoQueryPlans() {
+        JournalEntryDao dao = db.journalEntryDao();
+        List<Long> ids = Arrays.asList(1L, 2L);
+        List<String> tags = Arrays.asList("work", "focus");
+        List<String> failures = new ArrayList<>();
+        check(failures, "getJournalEntryById", false, () -> value(dao.getJournalEntryById(1)));
+        check(failures, "getJournalEntriesByIdsSync", false, () -> dao.getJournalEntriesByIdsSync(ids));
+        check(failures, "getVersionsSync", false, () -> dao.getVersionsSync(ids));
+        check(failures, "getAllJournalEntriesByUser", false, () -> value(dao.getAllJournalEntriesByUser(USER)));
+        check(failures, "getJournalEntriesByDateRange", false,
+                () -> value(dao.getJournalEntriesByDateRange(USER, 0, 1)));
+        check(failures, "getJournalEntriesByDayRange", true,
+                () -> value(dao.getJournalEntriesByDayRange(USER, 0, 6)));
+        check(failures, "getEntryCountsByDay", false, () -> value(dao.getEntryCountsByDay(USER, 0, 30)));
+        check(failures, "getEntryCountsByWeek", true, () -> value(dao.getEntryCountsByWeek(USER, 0, 90)));
+        check(failures, "getEntryCountsByMonth", true, () -> value(dao.getEntryCountsByMonth(USER, 0, 365)));
+        check(failures, "getSentimentByDay", false, () -> value(dao.getSentimentByDay(USER, 0, 30)));
+        check(failures, "getSentimentByWeek", true, () -> value(dao.getSentimentByWeek(USER, 0, 90)));
+        check(failures, "getSentimentByMonth", true, () -> value(dao.getSentimentByMonth(USER, 0, 365)));
+        check(failures, "getEmotionVectors", false, () -> value(dao.getEmotionVectors(USER)));
+        check(failures, "searchJournalEntries", false, () -> value(dao.searchJournalEntries(USER, "walk*")));
+        // Paged search sorts only the matching rows by date
+        check(failures, "searchJournalEntriesPaged", true, () -> load(dao.searchJournalEntriesPaged(USER, "walk*")));
+        // Tag lookups sort only the matching rows, so a temporary B-tree is acceptable
+        check(failures, "getJournalEntriesByTag", true, () -> value(dao.getJournalEntriesByTag(USER, "work")));
+        check(failures, "getJournalEntriesWithAllTags", true,
+                () -> value(dao.getJournalEntriesWithAllTags(USER, tags, tags.size())));
+        check(failures, "getJournalEntriesWithAnyTag", true,
+                () -> value(dao.getJournalEntriesWithAnyTag(USER, tags)));
+        check(failures, "getFavoriteJournalEntries", false, () -> value(dao.getFavoriteJournalEntries(USER)));
+        check(failures, "updateFavoriteStatus", false, () -> dao.updateFavoriteStatus(1, true, 0));
+        check(failures, "isUnchangedSync", false, () -> dao.isUnchangedSync(1, 1, 0, false));
+        check(failures, "getEntriesWithoutContentHashSync", false, () -> dao.getEntriesWithoutContentHashSync(0, 200));
+        check(failures, "setContentHash", false, () -> dao.setContentHash(1, 1));
+        check(failures, "getEntriesWithoutSentimentSync", false,
+                () -> dao.getEntriesWithoutSentimentSync(0, 1, "en", 200));
+        check(failures, "setSentiment", false, () -> dao.setSentiment(1, 0.5f, 1, 1, "en"));
+        check(failures, "getEntryDaysAfterSync", false, () -> dao.getEntryDaysAfterSync(0, 500));
+        check(failures, "setDateBuckets", false, () -> dao.setDateBuckets(1, 0, 1, 197001, 197001));
+        check(failures, "getArchiveCandidatesSync", false, () -> dao.getArchiveCandidatesSync(0, 1, 1024, 100));
+        check(failures, "markArchived", false, () -> dao.markArchived(1, 1));
+        check(failures, "deleteByIds", false, () -> dao.deleteByIds(ids));
+        check(failures, "deleteJournalEntryById", false, () -> dao.deleteJournalEntryById(1));
+        check(failures, "deleteAllJournalEntriesByUser", false, () -> dao.deleteAllJournalEntriesByUser(USER));
+        assertNoFailures(failures);
+    }
+
+    @Test
+    public void testJournalArchiveDaoQueryPlans() {
+        JournalArchiveDao dao = db.journalArchiveDao();
+        List<String> failures = new ArrayList<>();
+        check(failures, "getArchiveSync", false, () -> dao.getArchiveSync(1));
+        check(failures, "deleteByEntryIds", false, () -> dao.deleteByEntryIds(Arrays.asList(1L, 2L)));
+        assertNoFailures(failures);
+    }
+
+    @Test
+    public void testUserDaoQueryPlans() {
+        UserDao dao = db.userDao();
+        List<String> failures = new ArrayList<>();
+        check(failures, "getUserById", false, () -> value(dao.getUserById(USER)));
+        check(failures, "getUserByEmailSync", false, () -> dao.getUserByEmailSync("test@example.com"));
+        check(failures, "getUserByEmail", false, () -> value(dao.getUserByEmail("test@example.com")));
+        check(failures, "deleteUserById", false, () -> dao.deleteUserById(USER));
+        check(failures, "updateLastLogin", false, () -> dao.updateLastLogin(USER, 0));
+        assertNoFailures(failures);
+    }
+
+    @Test
+    public void testTagDaoQueryPlans() {
+        TagDao dao = db.tagDao();
+        List<String> failures = new ArrayList<>();
+        check(failures, "getTagIdByName", false, () -> dao.getTagIdByName("work"));
+        check(failures, "deleteTagsForEntry", false, () -> dao.deleteTagsForEntry(1));
+        check(failures, "getTagCounts", true, () -> value(dao.getTagCounts(USER)));
+        check(failures, "getTaggedEntriesAfter", false, () -> dao.getTaggedEntriesAfter(0, 200));
+        assertNoFailures(failures);
+    }
+
+    @Test
+    public void testMoodDailyStatsDaoQueryPlans() {
+        MoodDailyStatsDao dao = db.moodDailyStatsDao();
+        List<String> failures = new ArrayList<>();
+        check(failures, "insertDayFromEntries", false, () -> dao.insertDayFromEntries(USER, 1, 202401));
+        check(failures, "deleteDay", false, () -> dao.deleteDay(USER, 1));
+        check(failures, "getDailySeries", false, () -> value(dao.getDailySeries(USER, 0, 7)));
+        // Monthly series group at most a year of day rows
+        check(failures, "getMonthlySeries", true, () -> value(dao.getMonthlySeries(USER, 0, 365)));
+        check(failures, "getAverageIntensity", false, () -> value(dao.getAverageIntensity(USER, 0, 7)));
+        assertNoFailures(failures);
+    }
+
+    @Test
+    public void testEntryChangeDaoQueryPlans() {
+        EntryChangeDao dao = db.entryChangeDao();
+        List<String> failures = new ArrayList<>();
+        check(failures, "getLatestSeqSync", false, dao::getLatestSeqSync);
+        check(failures, "getOldestSeqSync", false, dao::getOldestSeqSync);
+        check(failures, "getChangesSync", false, () -> dao.getChangesSync("journal_entries", USER, 0, 1));
+        assertNoFailures(failures);
+    }
+
+    /**
+     * Call a DAO method, then run EXPLAIN QUERY PLAN for each statement it ran
+     * and record a failure if one scans a table or (unless allowed) sorts
+     * through a temporary B-tree.
+     */
+    private void check(List<String> failures, String name, boolean allowTempBTree, DaoCall call) {
+        statements.clear();
+        recording = true;
+        try {
+            call.run();
+        } catch (Exception e) {
+            failures.add(name + ": " + e);
+            return;
+        } finally {
+            recording = false;
+        }
+        List<Statement> ran = new ArrayList<>();
+        synchronized (statements) {
+            for (Statement statement : statements) {
+                if (statement.isDaoQuery()) {
+                    ran.add(statement);
+                }
+            }
+        }
+        if (ran.isEmpty()) {
+            failures.add(name + ": ran no query");
+        }
+        for (Statement statement : ran) {
+            explain(failures, name, allowTempBTree, statement);
+        }
+    }
+
+    private void explain(List<String> failures, String name, boolean allowTempBTree, Statement statement) {
+        StringBuilder plan = new StringBuilder();
+        boolean regressed = false;
+        try (Cursor cursor = db.query(new SimpleSQLiteQuery("EXPLAIN QUERY PLAN " + statement.sql,
+                statement.args))) {
+            int detailColumn = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                String detail = cursor.getString(detailColumn);
+                plan.append("\n    ").append(detail);
+                // Reading back a subquery's own result is not a table scan; its plan rows are checked too
+                boolean scan = detail.startsWith("SCAN") && !detail.contains("VIRTUAL TABLE")
+                        && !detail.toLowerCase(Locale.ROOT).contains("subquery");
+                boolean tempBTree = detail.contains("USE TEMP B-TREE");
+                if (scan || (tempBTree && !allowTempBTree)) {
+                    regressed = true;
+                }
+            }
+        }
+        if (regressed) {
+            failures.add(name + ": " + statement.sql + plan);
+        }
+    }
+
+    private static <T> T value(LiveData<T> liveData) throws InterruptedException {
+        return LiveDataTestUtil.getValue(liveData);
+    }
+
+    private static <T> PagingSource.LoadResult<Integer, T> load(PagingSource<Integer, T> source)
+            throws InterruptedException {
+        return BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE, (scope, continuation) -> source.load(
+                new PagingSource.LoadParams.Refresh<>(null, 20, false), continuation));
+    }
+
+    private static void assertNoFailures(List<String> failures) {
+        if (!failures.isEmpty()) {
+            fail("Query plan regressions:\n  " + TextUtils.join("\n  ", failures));
+        }
+    }
+
+    private interface DaoCall {
+        void run() throws Exception;
+    }
+
+    /**
+     * A statement Room ran, with the arguments bound to it.
+     */
+    private static final class Statement {
+        final String sql;
+        final Object[] args;
+
+        Statement(String sql, Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+
+        /**
+         * Whether this is a DAO query rather than Room's own transaction or
+         * invalidation tracking bookkeeping.
+         */
+        boolean isDaoQuery() {
+            String verb = sql.trim().split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+            boolean dml = verb.equals("SELECT") || verb.equals("INSERT") || verb.equals("UPDATE")
+                    || verb.equals("DELETE");
+            return dml && !sql.contains("room_table_modification_log");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.JournalEntryDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.TagDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.TagCount;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.TaggedEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.TagParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.dailymoodandmentalhealthjournalapplication.LiveDataTestUtil.getValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the normalized journal tag index.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TagIndexTest {
+    private AppDatabase db;
+    private JournalEntryDao journalEntryDao;
+    private TagDao tagDao;
+    private String userId;
+
+    @Before
+    public void createDb() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        journalEntryDao = db.journalEntryDao();
+        tagDao = db.tagDao();
+        userId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(userId, "Test User", "test@example.com"));
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    private long insertTagged(String title, String tags) {
+        JournalEntry entry = new JournalEntry(userId, System.currentTimeMillis(), title, "Content");
+        entry.setTags(tags);
+        long id = journalEntryDao.insert(entry);
+        tagDao.setTagsForEntry(id, TagParser.parse(tags));
+        return id;
+    }
+
+    @Test
+    public void testExactTagMatch() throws InterruptedException {
+        long work = insertTagged("Office", "Work, Focus");
+        insertTagged("School", "homework");
+
+        List<JournalEntry> entries = getValue(journalEntryDao.getJournalEntriesByTag(userId, "work"));
+        assertEquals("Tag match should not include substrings", 1, entries.size());
+        assertEquals(work, entries.get(0).getId());
+    }
+
+    @Test
+    public void testAllAndAnyTagFilters() throws InterruptedException {
+        long both = insertTagged("Both", "work,focus");
+        long workOnly = insertTagged("Work", "work");
+        insertTagged("Other", "travel");
+        List<String> tags = Arrays.asList("work", "focus");
+
+        List<JournalEntry> all = getValue(journalEntryDao.getJournalEntriesWithAllTags(userId, tags, tags.size()));
+        assertEquals(1, all.size());
+        assertEquals(both, all.get(0).getId());
+
+        List<JournalEntry> any = getValue(journalEntryDao.getJournalEntriesWithAnyTag(userId, tags));
+        assertEquals(2, any.size());
+        assertTrue(any.get(0).getId() == both || any.get(0).getId() == workOnly);
+    }
+
+    @Test
+    public void testTagCountsAndRetagging() throws InterruptedException {
+        long first = insertTagged("First", "work, family");
+        insertTagged("Second", "Work");
+
+        List<TagCount> counts = getValue(tagDao.getTagCounts(userId));
+        assertEquals("work", counts.get(0).getName());
+        assertEquals(2, counts.get(0).getCount());
+
+        tagDao.setTagsForEntry(first, TagParser.parse("family"));
+        counts = getValue(tagDao.getTagCounts(userId));
+        assertEquals(2, counts.size());
+        assertEquals(1, counts.get(0).getCount());
+    }
+
+    @Test
+    public void testBackfillSourceBatches() {
+        insertTagged("One", "a");
+        insertTagged("Two", "");
+        long third = insertTagged("Three", "b, c");
+
+        List<TaggedEntry> batch = tagDao.getTaggedEntriesAfter(0, 10);
+        assertEquals("Entries without tags are skipped", 2, batch.size());
+        assertTrue(tagDao.getTaggedEntriesAfter(third, 10).isEmpty());
+    }
+}
@@ -1,24 +1,36 @@
 package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
 
+import android.app.Application;
 import android.content.Context;
+import android.util.Log;
 
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
+import com.example.dailymoodandmentalhealthjournalapplication.LiveDataTestUtil;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodStatistics;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.SentimentAnalyzer;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -26,6 +38,7 @@ import static org.junit.Assert.assertTrue;
  */
 @RunWith(AndroidJUnit4.class)
 public class RepositoryTest {
+    private static final String TAG = "RepositoryTest";
     private UserRepository userRepository;
     private MoodRepository moodRepository;
     private JournalRepository journalRepository;
@@ -34,9 +47,10 @@ public class RepositoryTest {
     @Before
     public void setup() {
         context = ApplicationProvider.getApplicationContext();
-        userRepository = new UserRepository(context.getApplicationContext());
-        moodRepository = new MoodRepository(context.getApplicationContext());
-        journalRepository = new JournalRepository(context.getApplicationContext());
+        Application application = (Application) context.getApplicationContext();
+        userRepository = new UserRepository(application);
+        moodRepository = new MoodRepository(application);
+        journalRepository = new JournalRepository(application);
     }
 
     @Test
@@ -83,7 +97,7 @@ public class RepositoryTest {
         Thread.sleep(1000);
 
         // Create a test mood entry
-        MoodEntry moodEntry = new MoodEntry(userId, System.currentTimeMillis(), "HAPPY", 8);
+        MoodEntry moodEntry = new MoodEntry(userId, System.currentTimeMillis(), MoodType.HAPPY, 8);
         moodEntry.setNotes("Feeling great today!");
 
         // Insert mood entry
@@ -102,6 +116,42 @@ public class RepositoryTest {
         assertTrue("Mood entry ID should be positive", moodEntryId[0] > 0);
     }
 
+    @Test
+    public void testMoodStatisticsFollowInserts() throws InterruptedException {
+        String userId = UUID.randomUUID().toString();
+        userRepository.insertUser(new User(userId, "Test User", "test@example.com"));
+        Thread.sleep(1000);
+
+        long now = System.currentTimeMillis();
+        insertMood(new MoodEntry(userId, now - 20 * DateBuckets.MILLIS_PER_DAY, MoodType.SAD, 2));
+        insertMood(new MoodEntry(userId, now - 3_600_000L, MoodType.NEUTRAL, 5));
+
+        MoodStatistics stats = LiveDataTestUtil.getValue(moodRepository.getMoodStatistics(userId));
+        assertEquals(1, stats.getWeekCount());
+        assertEquals(2, stats.getMonthCount());
+        assertEquals(3.5, stats.getMonthMean(), 1e-9);
+
+        // Fed to the loaded statistics without querying the entries again
+        insertMood(new MoodEntry(userId, now, MoodType.HAPPY, 8));
+        stats = LiveDataTestUtil.getValue(moodRepository.getMoodStatistics(userId));
+        Log.i(TAG, "Mood statistics: " + stats);
+        assertEquals(2, stats.getWeekCount());
+        assertEquals(6.5, stats.getWeekMean(), 1e-9);
+        assertEquals(5, stats.getMonthMean(), 1e-9);
+        assertEquals(3, stats.getMonthStdDev(), 1e-9);
+        // 2, 5 and 8 weighted by 0.25: trend 2.75 then 4.0625, squared change 2.25 then 3.9375
+        assertEquals(4.0625, stats.getTrend(), 1e-9);
+        assertEquals(Math.sqrt(3.9375), stats.getVolatility(), 1e-9);
+
+        userRepository.deleteUserById(userId);
+    }
+
+    private void insertMood(MoodEntry moodEntry) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        moodRepository.insertMoodEntry(moodEntry, id -> latch.countDown());
+        assertTrue("Insert should complete", latch.await(2, TimeUnit.SECONDS));
+    }
+
     @Test
     public void testJournalRepository() throws InterruptedException {
         // Create a test user
@@ -132,4 +182,160 @@ public class RepositoryTest {
         // Verify journal entry was inserted
         assertTrue("Journal entry ID should be positive", journalEntryId[0] > 0);
     }
+
+    @Test
+    public void testJournalEntryCache() throws InterruptedException {
+        String userId = UUID.randomUUID().toString();
+        userRepository.insertUser(new User(userId, "Test User", "test@example.com"));
+        Thread.sleep(1000);
+
+        JournalEntry journalEntry = new JournalEntry(userId, System.currentTimeMillis(),
+                "Cached Entry", "This entry is opened twice.");
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] journalEntryId = new long[1];
+        journalRepository.insertJournalEntry(journalEntry, id -> {
+            journalEntryId[0] = id;
+            latch.countDown();
+        });
+        assertTrue("Insert should complete", latch.await(2, TimeUnit.SECONDS));
+        long id = journalEntryId[0];
+
+        // The second open is served from the cache
+        EntityCache.Stats before = journalRepository.getCacheStats();
+        JournalEntry loaded = LiveDataTestUtil.getValue(journalRepository.getJournalEntryById(id));
+        JournalEntry again = LiveDataTestUtil.getValue(journalRepository.getJournalEntryById(id));
+        EntityCache.Stats after = journalRepository.getCacheStats();
+        assertSame("Second open should return the cached entry", loaded, again);
+        assertTrue("Second open should be a cache hit", after.getHitCount() > before.getHitCount());
+        Log.i(TAG, "Journal entry cache: " + after);
+
+        // A write that bypasses the repository evicts the entry through the invalidation tracker
+        AppDatabase database = AppDatabase.getInstance(context);
+        JournalEntry stored = database.journalEntryDao().getJournalEntryByIdSync(id);
+        stored.setTitle("Changed Elsewhere");
+        stored.setUpdatedAt(stored.getUpdatedAt() + 1);
+        database.journalEntryDao().update(stored);
+
+        String title = null;
+        for (int attempt = 0; attempt < 50 && !"Changed Elsewhere".equals(title); attempt++) {
+            Thread.sleep(100);
+            title = LiveDataTestUtil.getValue(journalRepository.getJournalEntryById(id)).getTitle();
+        }
+        assertEquals("Stale cached entry should be evicted", "Changed Elsewhere", title);
+
+        userRepository.deleteUserById(userId);
+    }
+
+    @Test
+    public void testJournalSentimentStoredAndBackfilled() throws InterruptedException {
+        String userId = UUID.randomUUID().toString();
+        userRepository.insertUser(new User(userId, "Test User", "test@example.com"));
+        Thread.sleep(1000);
+
+        String content = "Happy and grateful after the walk, only a little worried about work.";
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] journalEntryId = new long[1];
+        journalRepository.insertJournalEntry(new JournalEntry(userId, System.currentTimeMillis(),
+                "Sentiment", content), id -> {
+            journalEntryId[0] = id;
+            latch.countDown();
+        });
+        assertTrue("Insert should complete", latch.await(2, TimeUnit.SECONDS));
+
+        // Analyzed on insert
+        AppDatabase database = AppDatabase.getInstance(context);
+        JournalEntry stored = database.journalEntryDao().getJournalEntryByIdSync(journalEntryId[0]);
+        float score = SentimentAnalyzer.analyzeSentiment(content);
+        long emotionVector = SentimentAnalyzer.getEmotionVector(content);
+        assertEquals(SentimentAnalyzer.VERSION, stored.getSentimentVersion());
+        assertEquals(score, stored.getSentimentScore(), 0f);
+        assertEquals(emotionVector, stored.getEmotionVector());
+
+        // An entry written before sentiment was stored is analyzed by the backfill
+        stored.setSentimentVersion(0);
+        stored.setSentimentScore(0f);
+        stored.setEmotionVector(0L);
+        database.journalEntryDao().update(stored);
+        assertTrue("Backfill should analyze the entry", journalRepository.backfillSentimentSync() >= 1);
+        stored = database.journalEntryDao().getJournalEntryByIdSync(journalEntryId[0]);
+        assertEquals(SentimentAnalyzer.VERSION, stored.getSentimentVersion());
+        assertEquals(score, stored.getSentimentScore(), 0f);
+        assertEquals(emotionVector, stored.getEmotionVector());
+
+        // So is one scored with another language's lexicon
+        String language = SentimentAnalyzer.getLexiconLanguage(Locale.getDefault());
+        assertEquals(language, stored.getSentimentLanguage());
+        stored.setSentimentLanguage("xx");
+        stored.setSentimentScore(0f);
+        database.journalEntryDao().update(stored);
+        assertTrue("Backfill should analyze the entry again", journalRepository.backfillSentimentSync() >= 1);
+        stored = database.journalEntryDao().getJournalEntryByIdSync(journalEntryId[0]);
+        assertEquals(language, stored.getSentimentLanguage());
+        assertEquals(score, stored.getSentimentScore(), 0f);
+
+        userRepository.deleteUserById(userId);
+    }
+
+    @Test
+    public void testBulkInsertThroughput() throws InterruptedException {
+        final int rowCount = 10_000;
+        String userId = UUID.randomUUID().toString();
+        userRepository.insertUser(new User(userId, "Test User", "test@example.com"));
+        Thread.sleep(1000);
+
+        long start = System.currentTimeMillis() - rowCount * 60_000L;
+        List<MoodEntry> moodEntries = new ArrayList<>(rowCount);
+        List<JournalEntry> journalEntries = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            moodEntries.add(new MoodEntry(userId, start + i * 60_000L, MoodType.HAPPY, 1 + i % 10));
+            JournalEntry journalEntry = new JournalEntry(userId, start + i * 60_000L,
+                    "Entry " + i, "Imported journal entry number " + i);
+            journalEntry.setTags("import,batch" + (i % 10));
+            journalEntries.add(journalEntry);
+        }
+
+        long moodRowsPerSecond = runBulk(rowCount, callback -> moodRepository.insertMoodEntries(moodEntries, callback));
+        long journalRowsPerSecond = runBulk(rowCount,
+                callback -> journalRepository.insertJournalEntries(journalEntries, callback));
+        Log.i(TAG, "Bulk insert of " + rowCount + " rows: mood entries " + moodRowsPerSecond
+                + " rows/s, journal entries with tags " + journalRowsPerSecond + " rows/s");
+
+        long deleteRowsPerSecond = runBulk(rowCount,
+                callback -> journalRepository.deleteJournalEntries(journalEntries, callback));
+        Log.i(TAG, "Bulk delete of " + rowCount + " journal entries: " + deleteRowsPerSecond + " rows/s");
+
+        userRepository.deleteUserById(userId);
+    }
+
+    /**
+     * Run a bulk operation, check that it reports progress up to the total and
+     * completes with every row, and return its throughput in rows per second.
+     */
+    private long runBulk(int rowCount, BulkOperation operation) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final int[] result = new int[2];
+        long startNanos = System.nanoTime();
+        operation.run(new BulkCallback() {
+            @Override
+            public void onProgress(int completed, int total) {
+                result[0] = completed;
+            }
+
+            @Override
+            public void onComplete(int count) {
+                result[1] = count;
+                latch.countDown();
+            }
+        });
+        assertTrue("Bulk operation should complete", latch.await(60, TimeUnit.SECONDS));
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        assertEquals("Progress should reach the total", rowCount, result[0]);
+        assertEquals("Every row should be written", rowCount, result[1]);
+        return rowCount * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+
+    private interface BulkOperation {
+        void run(BulkCallback callback);
+    }
 }
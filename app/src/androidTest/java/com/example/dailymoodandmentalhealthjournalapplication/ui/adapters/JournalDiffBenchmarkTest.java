@@ -0,0 +1,155 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.adapters;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalEntrySummary;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.ContentHash;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmark for diffing a 5,000 row journal list in which one row changed:
+ * the adapter's fingerprint comparison against comparing the title and
+ * preview strings. Results are written to logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class JournalDiffBenchmarkTest {
+    private static final String TAG = "JournalDiffBenchmark";
+    private static final int ROW_COUNT = 5_000;
+    private static final int RUNS = 5;
+    private static final String[] VOCABULARY = {
+            "morning", "walk", "coffee", "work", "meeting", "family", "dinner", "tired", "happy",
+            "rain", "sunshine", "friends", "gym", "reading", "project", "deadline", "calm", "music"
+    };
+
+    /** The comparison the adapter made before rows carried a fingerprint. */
+    private static final DiffUtil.ItemCallback<JournalEntrySummary> STRING_CALLBACK =
+            new DiffUtil.ItemCallback<JournalEntrySummary>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull JournalEntrySummary oldItem,
+                                               @NonNull JournalEntrySummary newItem) {
+                    return oldItem.getId() == newItem.getId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull JournalEntrySummary oldItem,
+                                                  @NonNull JournalEntrySummary newItem) {
+                    return oldItem.getTitle().equals(newItem.getTitle())
+                            && oldItem.getPreview().equals(newItem.getPreview())
+                            && oldItem.getDate() == newItem.getDate()
+                            && oldItem.getUpdatedAt() == newItem.getUpdatedAt()
+                            && oldItem.isFavorite() == newItem.isFavorite();
+                }
+            };
+
+    @Test
+    public void testDiffWithOneChangedRow() {
+        List<JournalEntrySummary> oldList = createRows(new Random(7));
+        // A fresh load: equal rows are distinct objects, as after a database reload
+        List<JournalEntrySummary> newList = createRows(new Random(7));
+        JournalEntrySummary changed = newList.get(ROW_COUNT / 2);
+        changed.setTags(changed.getTags() + ",edited");
+        changed.setContentHash(ContentHash.of(changed.getTitle(), changed.getPreview(), changed.getTags()));
+
+        long hashNanos = Long.MAX_VALUE;
+        long stringNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            hashNanos = Math.min(hashNanos, diff(oldList, newList, JournalEntryAdapter.DIFF_CALLBACK, 1));
+            // Comparing strings misses the tag edit, so no row changes
+            stringNanos = Math.min(stringNanos, diff(oldList, newList, STRING_CALLBACK, 0));
+        }
+
+        Log.i(TAG, "Diff of " + ROW_COUNT + " rows with one changed: fingerprints "
+                + (hashNanos / 1000) + " us, strings " + (stringNanos / 1000) + " us");
+    }
+
+    /**
+     * Diff two lists, check the number of rows reported as changed and return
+     * the time taken in nanoseconds.
+     */
+    private static long diff(List<JournalEntrySummary> oldList, List<JournalEntrySummary> newList,
+                             DiffUtil.ItemCallback<JournalEntrySummary> itemCallback, int expectedChanges) {
+        long start = System.nanoTime();
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return itemCallback.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return itemCallback.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+        }, false);
+        long elapsed = System.nanoTime() - start;
+
+        final int[] changes = new int[1];
+        result.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                throw new AssertionError("No rows were inserted");
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                throw new AssertionError("No rows were removed");
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                throw new AssertionError("No rows were moved");
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                changes[0] += count;
+            }
+        });
+        assertEquals(expectedChanges, changes[0]);
+        return elapsed;
+    }
+
+    private static List<JournalEntrySummary> createRows(Random random) {
+        List<JournalEntrySummary> rows = new ArrayList<>(ROW_COUNT);
+        long start = 1_700_000_000_000L;
+        StringBuilder preview = new StringBuilder();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            preview.setLength(0);
+            while (preview.length() < JournalEntrySummary.PREVIEW_LENGTH) {
+                preview.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+            }
+            JournalEntrySummary row = new JournalEntrySummary();
+            row.setId(ROW_COUNT - i);
+            row.setDate(start - i * 3_600_000L);
+            row.setTitle("Entry " + (ROW_COUNT - i));
+            row.setPreview(preview.substring(0, JournalEntrySummary.PREVIEW_LENGTH));
+            row.setTags("daily,batch" + (i % 10));
+            row.setUpdatedAt(row.getDate());
+            row.setContentHash(ContentHash.of(row.getTitle(), row.getPreview(), row.getTags()));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
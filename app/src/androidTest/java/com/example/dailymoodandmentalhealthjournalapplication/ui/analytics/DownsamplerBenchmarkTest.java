@@ -0,0 +1,54 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.analytics;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.Downsampler.Mode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark for downsampling 100,000 mood points, three years of about 90
+ * entries a day, to a 1080 px chart in each mode. Results are written to
+ * logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DownsamplerBenchmarkTest {
+    private static final String TAG = "DownsamplerBenchmark";
+    private static final int POINT_COUNT = 100_000;
+    private static final int WIDTH = 1080;
+    private static final int RUNS = 10;
+
+    @Test
+    public void testDownsampleHundredThousandPoints() {
+        Random random = new Random(3);
+        float[] x = new float[POINT_COUNT];
+        float[] y = new float[POINT_COUNT];
+        float time = 0;
+        for (int i = 0; i < POINT_COUNT; i++) {
+            time += random.nextFloat() / 45;
+            x[i] = time;
+            y[i] = 1 + random.nextInt(10);
+        }
+
+        for (Mode mode : Mode.values()) {
+            int[] out = new int[Downsampler.maxOutputSize(mode, WIDTH)];
+            int count = 0;
+            long bestNanos = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                count = Downsampler.downsample(mode, x, y, POINT_COUNT, WIDTH, out);
+                bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            }
+            assertTrue(count <= out.length);
+            Log.i(TAG, "Downsample " + mode + ": " + POINT_COUNT + " points to " + count
+                    + " for a " + WIDTH + " px chart in " + (bestNanos / 1000) + " us");
+        }
+    }
+}
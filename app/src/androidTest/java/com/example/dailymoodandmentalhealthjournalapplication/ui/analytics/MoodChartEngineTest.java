@@ -0,0 +1,105 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.analytics;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailymoodandmentalhealthjournalapplication.LiveDataTestUtil;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.DatabaseDispatcher;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.MoodRepository;
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.ChartBuckets.Granularity;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+
+import com.github.mikephil.charting.data.Entry;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.interfaces.datasets.ILineDataSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test that the mood chart engine builds weekly buckets from the daily rollup
+ * and rebuilds only the buckets a write touches.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MoodChartEngineTest {
+    private AppDatabase db;
+    private MoodRepository moodRepository;
+    private MoodChartEngine engine;
+    private String userId;
+
+    @Before
+    public void createDb() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        moodRepository = new MoodRepository(db, DatabaseDispatcher.getInstance());
+        // Run updates on the writing thread, so they are done when the write's callback runs
+        engine = new MoodChartEngine(context, moodRepository, Runnable::run);
+        userId = UUID.randomUUID().toString();
+        db.userDao().insert(new User(userId, "Test User", "test@example.com"));
+    }
+
+    @After
+    public void closeDb() {
+        db.close();
+    }
+
+    @Test
+    public void testWritesRebuildOnlyTouchedBuckets() throws InterruptedException {
+        long today = DateBuckets.epochDay(System.currentTimeMillis(), TimeZone.getDefault());
+        long fromDay = DateBuckets.startOfWeek(today) - 21;
+        awaitInsert(fromDay, 2);
+        awaitInsert(fromDay + 1, 4);
+        awaitInsert(fromDay + 14, 8);
+
+        ILineDataSet weeks = getWeeks(fromDay, today);
+        assertEquals(2, weeks.getEntryCount());
+        Entry firstWeek = weeks.getEntryForIndex(0);
+        Entry thirdWeek = weeks.getEntryForIndex(1);
+        assertEquals(0f, firstWeek.getX(), 0f);
+        assertEquals(3f, firstWeek.getY(), 0.001f);
+        assertEquals(2f, thirdWeek.getX(), 0f);
+        assertEquals(8f, thirdWeek.getY(), 0.001f);
+
+        awaitInsert(fromDay + 15, 6);
+        awaitInsert(today, 5);
+        weeks = getWeeks(fromDay, today);
+        assertEquals(3, weeks.getEntryCount());
+        assertSame("Untouched weeks should keep their entry", firstWeek, weeks.getEntryForIndex(0));
+        assertNotSame(thirdWeek, weeks.getEntryForIndex(1));
+        assertEquals(7f, weeks.getEntryForIndex(1).getY(), 0.001f);
+        assertEquals(3f, weeks.getEntryForIndex(2).getX(), 0f);
+        assertEquals(5f, weeks.getEntryForIndex(2).getY(), 0.001f);
+    }
+
+    private ILineDataSet getWeeks(long fromDay, long toDay) throws InterruptedException {
+        LineData data = LiveDataTestUtil.getValue(engine.getMoodChart(userId, Granularity.WEEK, fromDay, toDay));
+        return data.getDataSetByIndex(0);
+    }
+
+    private void awaitInsert(long epochDay, int intensity) throws InterruptedException {
+        long date = DateBuckets.startOfDay(epochDay, TimeZone.getDefault()) + DateBuckets.MILLIS_PER_DAY / 2;
+        CountDownLatch latch = new CountDownLatch(1);
+        moodRepository.insertMoodEntry(new MoodEntry(userId, date, MoodType.NEUTRAL, intensity),
+                id -> latch.countDown());
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Benchmarks for sentiment analysis with the lexicons bundled in the app's
+ * assets: whole entries of 1, 10 and 100 KB, and typing in a 100 KB entry
+ * with the incremental analyzer against analyzing the whole text after each
+ * keystroke. Results are written to logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SentimentBenchmarkTest {
+    private static final String TAG = "SentimentBenchmark";
+    private static final int RUNS = 20;
+    private static final int KEYSTROKES = 200;
+    private static final String[] PIECES = {
+            "happy", "sad", "not", "very", "calm", "but", "worried", "today", "the", "work",
+            "over the moon", "fed up", "a little", "grateful", "lonely", "don't", "I", "felt"
+    };
+
+    @Test
+    public void testAnalyzeEntriesBySize() {
+        Random random = new Random(7);
+        for (int kilobytes : new int[]{1, 10, 100}) {
+            String text = randomEntry(random, kilobytes);
+            long nanos = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                SentimentAnalyzer.analyze(text, Locale.ENGLISH);
+                nanos = Math.min(nanos, System.nanoTime() - start);
+            }
+            Log.i(TAG, "Sentiment of a " + kilobytes + " KB entry: " + (nanos / 1000) + " us ("
+                    + String.format(Locale.ROOT, "%.1f", kilobytes / 1024.0 / (Math.max(nanos, 1) / 1e9))
+                    + " MB/s)");
+        }
+    }
+
+    @Test
+    public void testTypingInALongEntry() {
+        StringBuilder text = new StringBuilder(randomEntry(new Random(5), 100));
+        IncrementalSentimentAnalyzer analyzer = new IncrementalSentimentAnalyzer(Locale.ENGLISH);
+        analyzer.update(text.toString());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < KEYSTROKES; i++) {
+            text.insert(text.length() / 2, 'a');
+            analyzer.update(text.toString());
+        }
+        long incrementalNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < KEYSTROKES; i++) {
+            text.insert(text.length() / 2, 'a');
+            SentimentAnalyzer.analyze(text.toString(), Locale.ENGLISH);
+        }
+        long wholeNanos = System.nanoTime() - start;
+        Log.i(TAG, "Sentiment per keystroke in a 100 KB entry: " + (incrementalNanos / KEYSTROKES / 1000)
+                + " us incremental, " + (wholeNanos / KEYSTROKES / 1000) + " us whole text");
+    }
+
+    private static String randomEntry(Random random, int kilobytes) {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < kilobytes * 1024) {
+            for (int i = 0; i < 20; i++) {
+                text.append(PIECES[random.nextInt(PIECES.length)]).append(' ');
+            }
+            text.append(".\n");
+        }
+        return text.substring(0, kilobytes * 1024);
+    }
+}
@@ -4,6 +4,9 @@ import android.app.Application;
 import android.util.Log;
 
 import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.AssetLexiconSource;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.SentimentAnalyzer;
+import com.example.dailymoodandmentalhealthjournalapplication.workers.BackgroundWorkScheduler;
 
 /**
  * Custom Application class for initializing app-wide components.
@@ -17,6 +20,12 @@ public class MoodJournalApplication extends Application {
         
         // Initialize the database
         initializeDatabase();
+
+        // Load sentiment lexicons from the assets, on first use
+        SentimentAnalyzer.setLexiconSource(new AssetLexiconSource(this));
+
+        // Schedule background maintenance work
+        BackgroundWorkScheduler.scheduleStartupWork(this);
     }
 
     /**
@@ -8,6 +8,7 @@ import androidx.security.crypto.EncryptedSharedPreferences;
 import androidx.security.crypto.MasterKey;
 
 import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.DatabaseDispatcher;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
 
 import java.io.IOException;
@@ -16,7 +17,6 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.UUID;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 /**
  * Manager class for local authentication operations.
@@ -37,7 +37,7 @@ public class LocalAuthManager {
     private LocalAuthManager(Context context) {
         this.context = context.getApplicationContext();
         this.database = AppDatabase.getInstance(context);
-        this.executor = Executors.newSingleThreadExecutor();
+        this.executor = DatabaseDispatcher.getInstance().writer();
         
         // Initialize encrypted shared preferences
         SharedPreferences prefs;
@@ -0,0 +1,36 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.EntryChange;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the entry change log. Rows are written by triggers,
+ * see Migrations.createChangeLogTriggers.
+ */
+@Dao
+public interface EntryChangeDao {
+    // Plain MIN/MAX so SQLite reads one end of the primary key; an empty log yields 0
+    @Query("SELECT MAX(seq) FROM entry_changes")
+    long getLatestSeqSync();
+
+    @Query("SELECT MIN(seq) FROM entry_changes")
+    long getOldestSeqSync();
+
+    @Query("SELECT * FROM entry_changes WHERE tableName = :tableName AND userId = :userId "
+            + "AND seq > :afterSeq AND seq <= :untilSeq ORDER BY seq")
+    List<EntryChange> getChangesSync(String tableName, String userId, long afterSeq, long untilSeq);
+
+    /**
+     * Delete log rows older than the cutoff. The newest row is always kept so
+     * the latest sequence number survives pruning.
+     *
+     * @return The number of deleted rows
+     */
+    @Query("DELETE FROM entry_changes WHERE changedAt < :cutoff "
+            + "AND seq < (SELECT MAX(seq) FROM entry_changes)")
+    int pruneSync(long cutoff);
+}
@@ -0,0 +1,33 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalArchive;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.ArchiveStats;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the compressed text of archived journal entries.
+ */
+@Dao
+public interface JournalArchiveDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(JournalArchive journalArchive);
+
+    @Query("SELECT * FROM journal_archive WHERE entryId = :entryId")
+    JournalArchive getArchiveSync(long entryId);
+
+    @Query("DELETE FROM journal_archive WHERE entryId IN (:entryIds)")
+    void deleteByEntryIds(List<Long> entryIds);
+
+    // Reads every archived row; meant for diagnostics, not for screens
+    @Query("SELECT COUNT(*) AS entryCount, SUM(journal_archive.originalBytes) AS originalBytes, "
+            + "SUM(length(journal_archive.compressedContent) + length(CAST(journal_archive.terms AS BLOB)) "
+            + "+ length(CAST(journal_entries.content AS BLOB))) AS storedBytes "
+            + "FROM journal_archive JOIN journal_entries ON journal_entries.id = journal_archive.entryId")
+    ArchiveStats getArchiveStatsSync();
+}
@@ -1,14 +1,21 @@
 package com.example.dailymoodandmentalhealthjournalapplication.data.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
-import androidx.room.Insert;
-import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntityVersion;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDay;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalEntrySummary;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalSearchResult;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.PeriodCount;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.PeriodSentiment;
 
 import java.util.List;
 
@@ -17,7 +24,37 @@ import java.util.List;
  */
 @Dao
 public interface JournalEntryDao {
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    /**
+     * Columns selected for list rows; see {@link JournalEntrySummary}.
+     */
+    String SUMMARY_COLUMNS = "journal_entries.id, journal_entries.date, journal_entries.title, "
+            + "substr(journal_entries.content, 1, " + JournalEntrySummary.PREVIEW_LENGTH + ") AS preview, "
+            + "journal_entries.tags, journal_entries.isFavorite, journal_entries.updatedAt, "
+            + "journal_entries.contentHash";
+
+    /**
+     * Full-text search over both indexes: journal_entries_fts for entries kept
+     * in full and journal_archive_fts for archived ones, whose own rows in
+     * journal_entries_fts only cover the title and preview.
+     */
+    String SEARCH_QUERY = "SELECT journal_entries.*, matchinfo(journal_entries_fts, 'pcnalx') AS matchInfo "
+            + "FROM journal_entries JOIN journal_entries_fts ON journal_entries.id = journal_entries_fts.docid "
+            + "WHERE journal_entries_fts MATCH :matchQuery AND journal_entries.userId = :userId "
+            + "AND journal_entries.archived = 0 "
+            + "UNION ALL "
+            + "SELECT journal_entries.*, matchinfo(journal_archive_fts, 'pcnalx') AS matchInfo "
+            + "FROM journal_entries JOIN journal_archive_fts ON journal_entries.id = journal_archive_fts.docid "
+            + "WHERE journal_archive_fts MATCH :matchQuery AND journal_entries.userId = :userId";
+
+    /**
+     * Insert an entry, or update it if its ID already exists. An existing row
+     * is updated in place rather than replaced: SQLite's REPLACE deletes the
+     * old row without firing the delete triggers that keep the search index,
+     * the change log and the rollups in sync.
+     *
+     * @return The ID of the inserted row, or -1 if an existing row was updated
+     */
+    @Upsert
     long insert(JournalEntry journalEntry);
 
     @Update
@@ -26,30 +63,213 @@ public interface JournalEntryDao {
     @Delete
     void delete(JournalEntry journalEntry);
 
+    /**
+     * Insert entries, updating those whose ID already exists in place; see
+     * {@link #insert}.
+     *
+     * @return The IDs of the inserted rows, -1 for each updated one
+     */
+    @Upsert
+    List<Long> insertAll(List<JournalEntry> journalEntries);
+
+    @Delete
+    void deleteAll(List<JournalEntry> journalEntries);
+
+    @Query("DELETE FROM journal_entries WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
     @Query("SELECT * FROM journal_entries WHERE id = :id")
     LiveData<JournalEntry> getJournalEntryById(long id);
 
+    @Query("SELECT * FROM journal_entries WHERE id = :id")
+    JournalEntry getJournalEntryByIdSync(long id);
+
+    @Query("SELECT * FROM journal_entries WHERE id IN (:ids)")
+    List<JournalEntry> getJournalEntriesByIdsSync(List<Long> ids);
+
+    @Query("SELECT id, updatedAt FROM journal_entries WHERE id IN (:ids)")
+    List<EntityVersion> getVersionsSync(List<Long> ids);
+
     @Query("SELECT * FROM journal_entries WHERE userId = :userId ORDER BY date DESC")
     LiveData<List<JournalEntry>> getAllJournalEntriesByUser(String userId);
 
+    @Query("SELECT * FROM journal_entries WHERE userId = :userId ORDER BY date DESC")
+    List<JournalEntry> getAllJournalEntriesByUserSync(String userId);
+
     @Query("SELECT * FROM journal_entries WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date DESC")
     LiveData<List<JournalEntry>> getJournalEntriesByDateRange(String userId, long startDate, long endDate);
 
-    @Query("SELECT * FROM journal_entries WHERE userId = :userId AND (title LIKE '%' || :query || '%' OR content LIKE '%' || :query || '%') ORDER BY date DESC")
-    LiveData<List<JournalEntry>> searchJournalEntries(String userId, String query);
+    @Query("SELECT * FROM journal_entries WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay "
+            + "ORDER BY date DESC")
+    LiveData<List<JournalEntry>> getJournalEntriesByDayRange(String userId, long fromDay, long toDay);
+
+    @Query("SELECT epochDay AS periodKey, COUNT(*) AS count FROM journal_entries "
+            + "WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay GROUP BY epochDay ORDER BY epochDay")
+    LiveData<List<PeriodCount>> getEntryCountsByDay(String userId, long fromDay, long toDay);
+
+    @Query("SELECT weekKey AS periodKey, COUNT(*) AS count FROM journal_entries "
+            + "WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay GROUP BY weekKey ORDER BY weekKey")
+    LiveData<List<PeriodCount>> getEntryCountsByWeek(String userId, long fromDay, long toDay);
+
+    @Query("SELECT monthKey AS periodKey, COUNT(*) AS count FROM journal_entries "
+            + "WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay GROUP BY monthKey ORDER BY monthKey")
+    LiveData<List<PeriodCount>> getEntryCountsByMonth(String userId, long fromDay, long toDay);
+
+    @Query("SELECT epochDay AS periodKey, COUNT(*) AS entryCount, AVG(sentimentScore) AS averageSentiment "
+            + "FROM journal_entries WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay "
+            + "AND sentimentVersion != 0 GROUP BY epochDay ORDER BY epochDay")
+    LiveData<List<PeriodSentiment>> getSentimentByDay(String userId, long fromDay, long toDay);
+
+    @Query("SELECT weekKey AS periodKey, COUNT(*) AS entryCount, AVG(sentimentScore) AS averageSentiment "
+            + "FROM journal_entries WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay "
+            + "AND sentimentVersion != 0 GROUP BY weekKey ORDER BY weekKey")
+    LiveData<List<PeriodSentiment>> getSentimentByWeek(String userId, long fromDay, long toDay);
+
+    @Query("SELECT monthKey AS periodKey, COUNT(*) AS entryCount, AVG(sentimentScore) AS averageSentiment "
+            + "FROM journal_entries WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay "
+            + "AND sentimentVersion != 0 GROUP BY monthKey ORDER BY monthKey")
+    LiveData<List<PeriodSentiment>> getSentimentByMonth(String userId, long fromDay, long toDay);
+
+    @Query("SELECT emotionVector FROM journal_entries WHERE userId = :userId AND emotionVector != 0")
+    LiveData<List<Long>> getEmotionVectors(String userId);
 
-    @Query("SELECT * FROM journal_entries WHERE userId = :userId AND tags LIKE '%' || :tag || '%' ORDER BY date DESC")
+    // matchinfo format must match Bm25Ranker.MATCHINFO_FORMAT
+    @Query(SEARCH_QUERY)
+    LiveData<List<JournalSearchResult>> searchJournalEntries(String userId, String matchQuery);
+
+    @Query(SEARCH_QUERY)
+    List<JournalSearchResult> searchJournalEntriesSync(String userId, String matchQuery);
+
+    @Query("SELECT journal_entries.* FROM journal_entries " +
+            "JOIN journal_entry_tags ON journal_entry_tags.entryId = journal_entries.id " +
+            "JOIN tags ON tags.tagId = journal_entry_tags.tagId " +
+            "WHERE tags.name = :tag AND journal_entries.userId = :userId ORDER BY journal_entries.date DESC")
     LiveData<List<JournalEntry>> getJournalEntriesByTag(String userId, String tag);
 
+    @Query("SELECT journal_entries.* FROM journal_entries " +
+            "JOIN journal_entry_tags ON journal_entry_tags.entryId = journal_entries.id " +
+            "JOIN tags ON tags.tagId = journal_entry_tags.tagId " +
+            "WHERE tags.name IN (:tags) AND journal_entries.userId = :userId " +
+            "GROUP BY journal_entries.id HAVING COUNT(*) = :tagCount ORDER BY journal_entries.date DESC")
+    LiveData<List<JournalEntry>> getJournalEntriesWithAllTags(String userId, List<String> tags, int tagCount);
+
+    @Query("SELECT * FROM journal_entries WHERE userId = :userId AND id IN (" +
+            "SELECT journal_entry_tags.entryId FROM journal_entry_tags " +
+            "JOIN tags ON tags.tagId = journal_entry_tags.tagId WHERE tags.name IN (:tags)) " +
+            "ORDER BY date DESC")
+    LiveData<List<JournalEntry>> getJournalEntriesWithAnyTag(String userId, List<String> tags);
+
     @Query("SELECT * FROM journal_entries WHERE userId = :userId AND isFavorite = 1 ORDER BY date DESC")
     LiveData<List<JournalEntry>> getFavoriteJournalEntries(String userId);
 
-    @Query("UPDATE journal_entries SET isFavorite = :isFavorite WHERE id = :id")
-    void updateFavoriteStatus(long id, boolean isFavorite);
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM journal_entries WHERE userId = :userId ORDER BY date DESC")
+    PagingSource<Integer, JournalEntrySummary> getJournalEntriesPagedByUser(String userId);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM journal_entries " +
+            "JOIN journal_entries_fts ON journal_entries.id = journal_entries_fts.docid " +
+            "WHERE journal_entries_fts MATCH :matchQuery AND journal_entries.userId = :userId " +
+            "AND journal_entries.archived = 0 " +
+            "UNION ALL " +
+            "SELECT " + SUMMARY_COLUMNS + " FROM journal_entries " +
+            "JOIN journal_archive_fts ON journal_entries.id = journal_archive_fts.docid " +
+            "WHERE journal_archive_fts MATCH :matchQuery AND journal_entries.userId = :userId " +
+            "ORDER BY date DESC")
+    PagingSource<Integer, JournalEntrySummary> searchJournalEntriesPaged(String userId, String matchQuery);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM journal_entries WHERE userId = :userId AND isFavorite = 1 " +
+            "ORDER BY date DESC")
+    PagingSource<Integer, JournalEntrySummary> getFavoriteJournalEntriesPaged(String userId);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM journal_entries " +
+            "JOIN journal_entry_tags ON journal_entry_tags.entryId = journal_entries.id " +
+            "JOIN tags ON tags.tagId = journal_entry_tags.tagId " +
+            "WHERE tags.name = :tag AND journal_entries.userId = :userId ORDER BY journal_entries.date DESC")
+    PagingSource<Integer, JournalEntrySummary> getJournalEntriesByTagPaged(String userId, String tag);
+
+    @Query("UPDATE journal_entries SET isFavorite = :isFavorite, updatedAt = :updatedAt WHERE id = :id")
+    void updateFavoriteStatus(long id, boolean isFavorite, long updatedAt);
+
+    /**
+     * Check whether a stored entry already has the given fingerprint, date and
+     * favorite status, in which case writing it again would change nothing.
+     */
+    @Query("SELECT COUNT(*) FROM journal_entries WHERE id = :id AND contentHash = :contentHash "
+            + "AND date = :date AND isFavorite = :isFavorite")
+    boolean isUnchangedSync(long id, long contentHash, long date, boolean isFavorite);
+
+    @Query("SELECT * FROM journal_entries WHERE id > :afterId AND contentHash = 0 ORDER BY id LIMIT :limit")
+    List<JournalEntry> getEntriesWithoutContentHashSync(long afterId, int limit);
+
+    // Only fills rows still unhashed, so a concurrent edit's fingerprint is kept
+    @Query("UPDATE journal_entries SET contentHash = :contentHash WHERE id = :id AND contentHash = 0")
+    void setContentHash(long id, long contentHash);
+
+    @Query("SELECT * FROM journal_entries WHERE id > :afterId "
+            + "AND (sentimentVersion != :version OR sentimentLanguage IS NOT :language) ORDER BY id LIMIT :limit")
+    List<JournalEntry> getEntriesWithoutSentimentSync(long afterId, int version, String language, int limit);
+
+    /**
+     * Store the sentiment of an entry analyzed in the background. An entry
+     * saved in the meantime was analyzed on save and already has the version
+     * and language, so it is left untouched.
+     *
+     * @return The number of rows changed, 0 if the entry was saved or removed
+     */
+    @Query("UPDATE journal_entries SET sentimentScore = :sentimentScore, emotionVector = :emotionVector, "
+            + "sentimentVersion = :version, sentimentLanguage = :language "
+            + "WHERE id = :id AND (sentimentVersion != :version OR sentimentLanguage IS NOT :language)")
+    int setSentiment(long id, float sentimentScore, long emotionVector, int version, String language);
+
+    @Query("SELECT id, date, epochDay FROM journal_entries WHERE id > :afterId ORDER BY id LIMIT :limit")
+    List<EntryDay> getEntryDaysAfterSync(long afterId, int limit);
+
+    /**
+     * Store the buckets recomputed for an entry's date. An entry whose date
+     * was edited in the meantime got the buckets of its new date on save, so
+     * it is left untouched.
+     *
+     * @return The number of rows changed, 0 if the entry was edited or removed
+     */
+    @Query("UPDATE journal_entries SET epochDay = :epochDay, weekKey = :weekKey, monthKey = :monthKey "
+            + "WHERE id = :id AND date = :date")
+    int setDateBuckets(long id, long date, long epochDay, int weekKey, int monthKey);
+
+    /**
+     * Get entries that may be archived: kept in full, fingerprinted, long
+     * enough to be worth compressing and neither dated nor edited since the
+     * cutoff.
+     */
+    @Query("SELECT * FROM journal_entries WHERE id > :afterId AND archived = 0 AND contentHash != 0 "
+            + "AND date < :cutoff AND updatedAt < :cutoff AND length(content) >= :minLength ORDER BY id LIMIT :limit")
+    List<JournalEntry> getArchiveCandidatesSync(long afterId, long cutoff, int minLength, int limit);
+
+    /**
+     * Cut an entry's content down to its preview once its full text has been
+     * archived. Matching the fingerprint leaves an entry edited in the meantime
+     * untouched.
+     *
+     * @return The number of rows changed, 0 if the entry was edited or removed
+     */
+    @Query("UPDATE journal_entries SET content = substr(content, 1, " + JournalEntrySummary.PREVIEW_LENGTH + "), "
+            + "archived = 1 WHERE id = :id AND contentHash = :contentHash AND archived = 0")
+    int markArchived(long id, long contentHash);
 
     @Query("DELETE FROM journal_entries WHERE id = :id")
     void deleteJournalEntryById(long id);
 
     @Query("DELETE FROM journal_entries WHERE userId = :userId")
     void deleteAllJournalEntriesByUser(String userId);
+
+    /**
+     * Replace all journal entries of a user in a single transaction, as a restore does.
+     *
+     * @param userId The user ID
+     * @param journalEntries The entries to restore
+     * @return The row IDs of the restored entries
+     */
+    @Transaction
+    default List<Long> replaceAllForUser(String userId, List<JournalEntry> journalEntries) {
+        deleteAllJournalEntriesByUser(userId);
+        return insertAll(journalEntries);
+    }
 }
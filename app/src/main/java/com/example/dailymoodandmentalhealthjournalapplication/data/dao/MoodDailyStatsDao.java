@@ -0,0 +1,82 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodDailyStats;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPeriodStats;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the per-day mood rollup.
+ */
+@Dao
+public interface MoodDailyStatsDao {
+    @Query("DELETE FROM mood_daily_stats WHERE userId = :userId AND epochDay = :epochDay")
+    void deleteDay(String userId, long epochDay);
+
+    @Query("DELETE FROM mood_daily_stats WHERE userId = :userId")
+    void deleteAllForUser(String userId);
+
+    /**
+     * Aggregate the raw mood entries of one local day into a rollup row. No
+     * row is written for a day without entries. The mood types are compared
+     * by their MoodType ordinals.
+     */
+    @Query("INSERT INTO mood_daily_stats (userId, epochDay, monthKey, entryCount, intensitySum, "
+            + "minIntensity, maxIntensity, happyCount, sadCount, angryCount, anxiousCount, neutralCount) "
+            + "SELECT :userId, :epochDay, :monthKey, COUNT(*), SUM(moodIntensity), "
+            + "MIN(moodIntensity), MAX(moodIntensity), "
+            + "SUM(moodType = 0), SUM(moodType = 1), SUM(moodType = 2), "
+            + "SUM(moodType = 3), SUM(moodType = 4) "
+            + "FROM mood_entries WHERE userId = :userId AND epochDay = :epochDay "
+            + "HAVING COUNT(*) > 0")
+    void insertDayFromEntries(String userId, long epochDay, int monthKey);
+
+    /**
+     * Recompute the rollup row of one local day from the raw mood entries
+     * stored under that day.
+     *
+     * @param userId The user ID
+     * @param epochDay The local epoch day
+     * @param monthKey The yyyyMM key of the day
+     */
+    @Transaction
+    default void refreshDay(String userId, long epochDay, int monthKey) {
+        deleteDay(userId, epochDay);
+        insertDayFromEntries(userId, epochDay, monthKey);
+    }
+
+    @Query("SELECT * FROM mood_daily_stats WHERE userId = :userId AND epochDay = :epochDay")
+    MoodDailyStats getDaySync(String userId, long epochDay);
+
+    @Query("SELECT * FROM mood_daily_stats WHERE userId = :userId ORDER BY epochDay")
+    List<MoodDailyStats> getAllForUserSync(String userId);
+
+    @Query("SELECT epochDay AS periodKey, entryCount, intensitySum, minIntensity, maxIntensity, "
+            + "happyCount, sadCount, angryCount, anxiousCount, neutralCount "
+            + "FROM mood_daily_stats WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay "
+            + "ORDER BY epochDay")
+    LiveData<List<MoodPeriodStats>> getDailySeries(String userId, long fromDay, long toDay);
+
+    @Query("SELECT epochDay AS periodKey, entryCount, intensitySum, minIntensity, maxIntensity, "
+            + "happyCount, sadCount, angryCount, anxiousCount, neutralCount "
+            + "FROM mood_daily_stats WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay "
+            + "ORDER BY epochDay")
+    List<MoodPeriodStats> getDailySeriesSync(String userId, long fromDay, long toDay);
+
+    @Query("SELECT monthKey AS periodKey, SUM(entryCount) AS entryCount, SUM(intensitySum) AS intensitySum, "
+            + "MIN(minIntensity) AS minIntensity, MAX(maxIntensity) AS maxIntensity, "
+            + "SUM(happyCount) AS happyCount, SUM(sadCount) AS sadCount, SUM(angryCount) AS angryCount, "
+            + "SUM(anxiousCount) AS anxiousCount, SUM(neutralCount) AS neutralCount "
+            + "FROM mood_daily_stats WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay "
+            + "GROUP BY monthKey ORDER BY monthKey")
+    LiveData<List<MoodPeriodStats>> getMonthlySeries(String userId, long fromDay, long toDay);
+
+    @Query("SELECT CAST(SUM(intensitySum) AS REAL) / SUM(entryCount) FROM mood_daily_stats "
+            + "WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay")
+    LiveData<Float> getAverageIntensity(String userId, long fromDay, long toDay);
+}
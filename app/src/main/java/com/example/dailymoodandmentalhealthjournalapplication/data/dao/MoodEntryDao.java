@@ -3,12 +3,18 @@ package com.example.dailymoodandmentalhealthjournalapplication.data.dao;
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
-import androidx.room.Insert;
-import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntityVersion;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDay;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPeriodStats;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPoint;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodTypeCount;
 
 import java.util.List;
 
@@ -17,7 +23,25 @@ import java.util.List;
  */
 @Dao
 public interface MoodEntryDao {
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    /**
+     * Aggregates of a group of mood entries; see {@link MoodPeriodStats}. The
+     * mood types are compared by their {@link MoodType} ordinals.
+     */
+    String PERIOD_STATS_COLUMNS = "COUNT(*) AS entryCount, SUM(moodIntensity) AS intensitySum, "
+            + "MIN(moodIntensity) AS minIntensity, MAX(moodIntensity) AS maxIntensity, "
+            + "SUM(moodType = 0) AS happyCount, SUM(moodType = 1) AS sadCount, "
+            + "SUM(moodType = 2) AS angryCount, SUM(moodType = 3) AS anxiousCount, "
+            + "SUM(moodType = 4) AS neutralCount";
+
+    /**
+     * Insert an entry, or update it if its ID already exists. An existing row
+     * is updated in place rather than replaced: SQLite's REPLACE deletes the
+     * old row without firing the delete triggers that keep the search index,
+     * the change log and the rollups in sync.
+     *
+     * @return The ID of the inserted row, or -1 if an existing row was updated
+     */
+    @Upsert
     long insert(MoodEntry moodEntry);
 
     @Update
@@ -26,27 +50,108 @@ public interface MoodEntryDao {
     @Delete
     void delete(MoodEntry moodEntry);
 
+    /**
+     * Insert entries, updating those whose ID already exists in place; see
+     * {@link #insert}.
+     *
+     * @return The IDs of the inserted rows, -1 for each updated one
+     */
+    @Upsert
+    List<Long> insertAll(List<MoodEntry> moodEntries);
+
+    @Delete
+    void deleteAll(List<MoodEntry> moodEntries);
+
+    @Query("DELETE FROM mood_entries WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
     @Query("SELECT * FROM mood_entries WHERE id = :id")
     LiveData<MoodEntry> getMoodEntryById(long id);
 
+    @Query("SELECT * FROM mood_entries WHERE id = :id")
+    MoodEntry getMoodEntryByIdSync(long id);
+
+    @Query("SELECT * FROM mood_entries WHERE id IN (:ids)")
+    List<MoodEntry> getMoodEntriesByIdsSync(List<Long> ids);
+
+    @Query("SELECT id, updatedAt FROM mood_entries WHERE id IN (:ids)")
+    List<EntityVersion> getVersionsSync(List<Long> ids);
+
     @Query("SELECT * FROM mood_entries WHERE userId = :userId ORDER BY date DESC")
     LiveData<List<MoodEntry>> getAllMoodEntriesByUser(String userId);
 
+    @Query("SELECT * FROM mood_entries WHERE userId = :userId ORDER BY date DESC")
+    List<MoodEntry> getAllMoodEntriesByUserSync(String userId);
+
+    @Query("SELECT DISTINCT epochDay FROM mood_entries WHERE userId = :userId")
+    List<Long> getMoodEntryDaysByUserSync(String userId);
+
+    @Query("SELECT DISTINCT userId FROM mood_entries")
+    List<String> getUserIdsWithMoodEntriesSync();
+
     @Query("SELECT * FROM mood_entries WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date DESC")
     LiveData<List<MoodEntry>> getMoodEntriesByDateRange(String userId, long startDate, long endDate);
 
+    @Query("SELECT date, moodIntensity FROM mood_entries WHERE userId = :userId "
+            + "AND date BETWEEN :startDate AND :endDate ORDER BY date")
+    List<MoodPoint> getMoodPointsSync(String userId, long startDate, long endDate);
+
+    @Query("SELECT * FROM mood_entries WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay "
+            + "ORDER BY date DESC")
+    LiveData<List<MoodEntry>> getMoodEntriesByDayRange(String userId, long fromDay, long toDay);
+
+    @Query("SELECT epochDay AS periodKey, " + PERIOD_STATS_COLUMNS + " FROM mood_entries "
+            + "WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay GROUP BY epochDay ORDER BY epochDay")
+    LiveData<List<MoodPeriodStats>> getMoodStatsByDay(String userId, long fromDay, long toDay);
+
+    @Query("SELECT weekKey AS periodKey, " + PERIOD_STATS_COLUMNS + " FROM mood_entries "
+            + "WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay GROUP BY weekKey ORDER BY weekKey")
+    LiveData<List<MoodPeriodStats>> getMoodStatsByWeek(String userId, long fromDay, long toDay);
+
+    @Query("SELECT monthKey AS periodKey, " + PERIOD_STATS_COLUMNS + " FROM mood_entries "
+            + "WHERE userId = :userId AND epochDay BETWEEN :fromDay AND :toDay GROUP BY monthKey ORDER BY monthKey")
+    LiveData<List<MoodPeriodStats>> getMoodStatsByMonth(String userId, long fromDay, long toDay);
+
     @Query("SELECT * FROM mood_entries WHERE userId = :userId AND moodType = :moodType ORDER BY date DESC")
-    LiveData<List<MoodEntry>> getMoodEntriesByType(String userId, String moodType);
+    LiveData<List<MoodEntry>> getMoodEntriesByType(String userId, MoodType moodType);
 
     @Query("SELECT COUNT(*) FROM mood_entries WHERE userId = :userId AND moodType = :moodType")
-    LiveData<Integer> countMoodEntriesByType(String userId, String moodType);
+    LiveData<Integer> countMoodEntriesByType(String userId, MoodType moodType);
+
+    @Query("SELECT moodType, COUNT(*) AS count FROM mood_entries WHERE userId = :userId GROUP BY moodType")
+    LiveData<List<MoodTypeCount>> getMoodTypeCounts(String userId);
+
+    @Query("SELECT moodType, COUNT(*) AS count FROM mood_entries " +
+            "WHERE userId = :userId AND date BETWEEN :startDate AND :endDate GROUP BY moodType")
+    LiveData<List<MoodTypeCount>> getMoodTypeCountsByDateRange(String userId, long startDate, long endDate);
 
     @Query("SELECT AVG(moodIntensity) FROM mood_entries WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
     LiveData<Float> getAverageMoodIntensity(String userId, long startDate, long endDate);
 
+    @Query("SELECT id, date, epochDay FROM mood_entries WHERE id > :afterId ORDER BY id LIMIT :limit")
+    List<EntryDay> getEntryDaysAfterSync(long afterId, int limit);
+
+    // Only updates rows still holding the date the buckets were computed for, so an edit's buckets are kept
+    @Query("UPDATE mood_entries SET epochDay = :epochDay, weekKey = :weekKey, monthKey = :monthKey "
+            + "WHERE id = :id AND date = :date")
+    int setDateBuckets(long id, long date, long epochDay, int weekKey, int monthKey);
+
     @Query("DELETE FROM mood_entries WHERE id = :id")
     void deleteMoodEntryById(long id);
 
     @Query("DELETE FROM mood_entries WHERE userId = :userId")
     void deleteAllMoodEntriesByUser(String userId);
+
+    /**
+     * Replace all mood entries of a user in a single transaction, as a restore does.
+     *
+     * @param userId The user ID
+     * @param moodEntries The entries to restore
+     * @return The row IDs of the restored entries
+     */
+    @Transaction
+    default List<Long> replaceAllForUser(String userId, List<MoodEntry> moodEntries) {
+        deleteAllMoodEntriesByUser(userId);
+        return insertAll(moodEntries);
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntryTag;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.Tag;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.TagCount;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.TaggedEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the tag dictionary and the journal entry tag index.
+ */
+@Dao
+public interface TagDao {
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertTag(Tag tag);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertEntryTags(List<JournalEntryTag> entryTags);
+
+    @Query("SELECT tagId FROM tags WHERE name = :name")
+    Long getTagIdByName(String name);
+
+    @Query("DELETE FROM journal_entry_tags WHERE entryId = :entryId")
+    void deleteTagsForEntry(long entryId);
+
+    @Query("SELECT tags.name AS name, COUNT(*) AS count FROM journal_entry_tags " +
+            "JOIN tags ON tags.tagId = journal_entry_tags.tagId " +
+            "JOIN journal_entries ON journal_entries.id = journal_entry_tags.entryId " +
+            "WHERE journal_entries.userId = :userId GROUP BY tags.tagId ORDER BY count DESC, tags.name")
+    LiveData<List<TagCount>> getTagCounts(String userId);
+
+    @Query("SELECT id, tags FROM journal_entries WHERE id > :afterId AND tags IS NOT NULL AND tags != '' " +
+            "ORDER BY id LIMIT :limit")
+    List<TaggedEntry> getTaggedEntriesAfter(long afterId, int limit);
+
+    /**
+     * Replace the indexed tags of a journal entry.
+     *
+     * @param entryId The ID of the journal entry
+     * @param tagNames The normalized tag names
+     */
+    @Transaction
+    default void setTagsForEntry(long entryId, List<String> tagNames) {
+        deleteTagsForEntry(entryId);
+        if (tagNames.isEmpty()) {
+            return;
+        }
+
+        List<JournalEntryTag> entryTags = new ArrayList<>(tagNames.size());
+        for (String name : tagNames) {
+            Long tagId = getTagIdByName(name);
+            if (tagId == null) {
+                tagId = insertTag(new Tag(name));
+            }
+            entryTags.add(new JournalEntryTag(entryId, tagId));
+        }
+        insertEntryTags(entryTags);
+    }
+}
@@ -2,21 +2,39 @@ package com.example.dailymoodandmentalhealthjournalapplication.data.database;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.EntryChangeDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.JournalArchiveDao;
 import com.example.dailymoodandmentalhealthjournalapplication.data.dao.JournalEntryDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.MoodDailyStatsDao;
 import com.example.dailymoodandmentalhealthjournalapplication.data.dao.MoodEntryDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.TagDao;
 import com.example.dailymoodandmentalhealthjournalapplication.data.dao.UserDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.EntryChange;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalArchive;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalArchiveFts;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntryFts;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntryTag;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodDailyStats;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.Tag;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
 
 /**
  * Main database class for the application.
  */
-@Database(entities = {User.class, MoodEntry.class, JournalEntry.class}, version = 1, exportSchema = false)
+@Database(entities = {User.class, MoodEntry.class, JournalEntry.class, JournalEntryFts.class,
+        Tag.class, JournalEntryTag.class, MoodDailyStats.class, EntryChange.class, JournalArchive.class,
+        JournalArchiveFts.class},
+        version = 12, exportSchema = false)
+@TypeConverters(Converters.class)
 public abstract class AppDatabase extends RoomDatabase {
     private static final String DATABASE_NAME = "mood_journal_db";
     private static volatile AppDatabase INSTANCE;
@@ -25,21 +43,57 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract UserDao userDao();
     public abstract MoodEntryDao moodEntryDao();
     public abstract JournalEntryDao journalEntryDao();
+    public abstract TagDao tagDao();
+    public abstract MoodDailyStatsDao moodDailyStatsDao();
+    public abstract EntryChangeDao entryChangeDao();
+    public abstract JournalArchiveDao journalArchiveDao();
+
+    /**
+     * Creates the schema objects Room cannot declare itself. Databases built
+     * outside {@link #build}, such as in tests, add it to get the change log.
+     */
+    public static final Callback SCHEMA_CALLBACK = new Callback() {
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            Migrations.createChangeLogTriggers(db);
+        }
+    };
 
     // Singleton pattern to get database instance
     public static AppDatabase getInstance(final Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
-                            context.getApplicationContext(),
-                            AppDatabase.class,
-                            DATABASE_NAME)
-                            .fallbackToDestructiveMigration()
-                            .build();
+                    INSTANCE = build(context, DATABASE_NAME);
                 }
             }
         }
         return INSTANCE;
     }
+
+    /**
+     * Build a file-backed database with the app's configuration: WAL journal,
+     * the shared dispatcher's reader lane and the tuned connection pragmas.
+     */
+    static AppDatabase build(Context context, String name) {
+        DatabaseDispatcher dispatcher = DatabaseDispatcher.getInstance();
+        return Room.databaseBuilder(
+                context.getApplicationContext(),
+                AppDatabase.class,
+                name)
+                .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                // Room's own transactions, such as the paging sources' initial loads, run
+                // serialized on the reader lane, never queued behind the repositories' writes
+                .setQueryExecutor(dispatcher.reader())
+                .addCallback(SCHEMA_CALLBACK)
+                .addCallback(new Callback() {
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                        DatabaseMaintenance.applyConnectionPragmas(db);
+                    }
+                })
+                .addMigrations(Migrations.ALL)
+                .fallbackToDestructiveMigration()
+                .build();
+    }
 }
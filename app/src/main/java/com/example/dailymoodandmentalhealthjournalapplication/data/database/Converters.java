@@ -0,0 +1,33 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import androidx.room.TypeConverter;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+
+/**
+ * Room type converters for the column types that are not SQLite types.
+ */
+public final class Converters {
+
+    private Converters() {
+    }
+
+    @TypeConverter
+    public static Integer fromMoodType(MoodType moodType) {
+        return moodType == null ? null : moodType.ordinal();
+    }
+
+    /**
+     * Read a stored mood type. Mood types are never null, so an unknown
+     * ordinal reads as NEUTRAL, as unknown names did when
+     * Migrations.MIGRATION_9_10 converted them.
+     */
+    @TypeConverter
+    public static MoodType toMoodType(Integer ordinal) {
+        if (ordinal == null) {
+            return null;
+        }
+        MoodType moodType = MoodType.fromOrdinal(ordinal);
+        return moodType != null ? moodType : MoodType.NEUTRAL;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import java.util.Locale;
+
+/**
+ * A snapshot of the size and cache configuration of the app database,
+ * produced by {@link DatabaseMaintenance#getDiagnostics}.
+ */
+public class DatabaseDiagnostics {
+    private long databaseFileBytes;
+    private long walFileBytes;
+    private boolean writeAheadLogging;
+    private long pageSize;
+    private long pageCount;
+    private long freelistPages;
+    private long cacheSize;
+    private long mmapSize;
+
+    public long getDatabaseFileBytes() {
+        return databaseFileBytes;
+    }
+
+    public void setDatabaseFileBytes(long databaseFileBytes) {
+        this.databaseFileBytes = databaseFileBytes;
+    }
+
+    public long getWalFileBytes() {
+        return walFileBytes;
+    }
+
+    public void setWalFileBytes(long walFileBytes) {
+        this.walFileBytes = walFileBytes;
+    }
+
+    public boolean isWriteAheadLogging() {
+        return writeAheadLogging;
+    }
+
+    public void setWriteAheadLogging(boolean writeAheadLogging) {
+        this.writeAheadLogging = writeAheadLogging;
+    }
+
+    public long getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(long pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(long pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    public long getFreelistPages() {
+        return freelistPages;
+    }
+
+    public void setFreelistPages(long freelistPages) {
+        this.freelistPages = freelistPages;
+    }
+
+    /**
+     * The raw cache_size pragma: pages if positive, KiB if negative.
+     */
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(long cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public void setMmapSize(long mmapSize) {
+        this.mmapSize = mmapSize;
+    }
+
+    /**
+     * Number of pages the page cache of one connection can hold.
+     */
+    public long getCacheCapacityPages() {
+        if (cacheSize >= 0 || pageSize == 0) {
+            return cacheSize;
+        }
+        return -cacheSize * 1024 / pageSize;
+    }
+
+    /**
+     * Fraction of the database pages that fit in the page cache at once. At
+     * 1.0 every page can stay cached after its first read, so steady-state
+     * reads hit the cache; below that, the best possible hit rate for a full
+     * scan drops to this value.
+     */
+    public double getCacheCoverage() {
+        if (pageCount == 0) {
+            return 1.0;
+        }
+        return Math.min(1.0, (double) getCacheCapacityPages() / pageCount);
+    }
+
+    @Override
+    public String toString() {
+        return "db=" + databaseFileBytes + "B, wal=" + walFileBytes + "B, walMode=" + writeAheadLogging
+                + ", pages=" + pageCount + "x" + pageSize + "B, freelist=" + freelistPages
+                + ", cachePages=" + getCacheCapacityPages() + ", cacheCoverage="
+                + String.format(Locale.US, "%.2f", getCacheCoverage()) + ", mmap=" + mmapSize + "B";
+    }
+}
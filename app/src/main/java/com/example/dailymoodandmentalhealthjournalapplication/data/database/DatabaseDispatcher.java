@@ -0,0 +1,221 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.os.Process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * App-wide executors for database work, shared by Room, the repositories and
+ * the auth manager so the number of database threads stays fixed.
+ *
+ * <ul>
+ *     <li>The writer lane runs on a single thread, so writes from every
+ *     repository are serialized instead of contending for the SQLite write
+ *     lock. Only the repositories' writes run on this lane.</li>
+ *     <li>The reader lane is a small pool for queries, including Room's
+ *     LiveData and paging queries. Room also runs its own transactions
+ *     here, one at a time, so a paging source's initial load never waits
+ *     behind a bulk write.</li>
+ *     <li>The maintenance lane is a single low-priority thread for background
+ *     upkeep that must never delay user-facing work.</li>
+ * </ul>
+ */
+public final class DatabaseDispatcher {
+    private static final int MAX_READERS = 4;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile DatabaseDispatcher INSTANCE;
+
+    private final ThreadPoolExecutor writer;
+    private final ThreadPoolExecutor reader;
+    private final ThreadPoolExecutor maintenance;
+    private final ThreadLocal<Boolean> onMaintenanceLane = new ThreadLocal<>();
+
+    private DatabaseDispatcher() {
+        int readers = Math.max(2, Math.min(MAX_READERS, Runtime.getRuntime().availableProcessors() - 1));
+        writer = newLane("db-writer", 1,
+                Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE);
+        reader = newLane("db-reader", readers,
+                Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE);
+        maintenance = newLane("db-maintenance", 1, Process.THREAD_PRIORITY_LOWEST);
+    }
+
+    /**
+     * Get the shared dispatcher.
+     *
+     * @return The DatabaseDispatcher instance
+     */
+    public static DatabaseDispatcher getInstance() {
+        if (INSTANCE == null) {
+            synchronized (DatabaseDispatcher.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new DatabaseDispatcher();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Executor for the repositories' inserts, updates, deletes and
+     * transactions. Tasks run one at a time in submission order.
+     */
+    public Executor writer() {
+        return writer;
+    }
+
+    /**
+     * Executor for read-only queries and work on query results. Tasks may run
+     * concurrently and complete out of order.
+     */
+    public Executor reader() {
+        return reader;
+    }
+
+    /**
+     * Executor for low-priority background upkeep, such as backfills and
+     * rollup rebuilds. Tasks run one at a time.
+     */
+    public Executor maintenance() {
+        return maintenance;
+    }
+
+    /**
+     * Run upkeep on the maintenance lane and wait for it, for callers such as
+     * workers that have a thread of their own. Bulk jobs then run one at a
+     * time at low priority, and never hold up the writer lane. Called from
+     * the maintenance lane itself, the task runs on the calling thread.
+     *
+     * @param task The upkeep
+     * @return The result of the task
+     * @throws Exception The exception thrown by the task, or InterruptedException
+     *                   if the caller was interrupted while waiting
+     */
+    public <T> T runOnMaintenanceLane(Callable<T> task) throws Exception {
+        if (Boolean.TRUE.equals(onMaintenanceLane.get())) {
+            return task.call();
+        }
+        Future<T> future = maintenance.submit(() -> {
+            onMaintenanceLane.set(Boolean.TRUE);
+            try {
+                return task.call();
+            } finally {
+                onMaintenanceLane.remove();
+            }
+        });
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Get a snapshot of the thread count and queue depth of every lane.
+     *
+     * @return The stats of the writer, reader and maintenance lanes
+     */
+    public List<LaneStats> getStats() {
+        List<LaneStats> stats = new ArrayList<>(3);
+        stats.add(new LaneStats("writer", writer));
+        stats.add(new LaneStats("reader", reader));
+        stats.add(new LaneStats("maintenance", maintenance));
+        return stats;
+    }
+
+    private static ThreadPoolExecutor newLane(String name, int threads, int priority) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new LaneThreadFactory(name, priority));
+        // Idle lanes give their threads back instead of holding them forever
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static class LaneThreadFactory implements ThreadFactory {
+        private final String name;
+        private final int priority;
+        private final AtomicInteger count = new AtomicInteger();
+
+        LaneThreadFactory(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(() -> {
+                Process.setThreadPriority(priority);
+                runnable.run();
+            }, name + "-" + count.incrementAndGet());
+        }
+    }
+
+    /**
+     * Point-in-time metrics for one lane of the dispatcher.
+     */
+    public static class LaneStats {
+        private final String name;
+        private final int threadCount;
+        private final int maxThreads;
+        private final int activeCount;
+        private final int queueDepth;
+        private final long completedTaskCount;
+
+        LaneStats(String name, ThreadPoolExecutor executor) {
+            this.name = name;
+            this.threadCount = executor.getPoolSize();
+            this.maxThreads = executor.getMaximumPoolSize();
+            this.activeCount = executor.getActiveCount();
+            this.queueDepth = executor.getQueue().size();
+            this.completedTaskCount = executor.getCompletedTaskCount();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getThreadCount() {
+            return threadCount;
+        }
+
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+
+        public int getActiveCount() {
+            return activeCount;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getCompletedTaskCount() {
+            return completedTaskCount;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": threads=" + threadCount + "/" + maxThreads + ", active=" + activeCount
+                    + ", queued=" + queueDepth + ", completed=" + completedTaskCount;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.io.File;
+
+/**
+ * Connection tuning, background upkeep and diagnostics for the app database.
+ */
+public final class DatabaseMaintenance {
+    private static final String TAG = "DatabaseMaintenance";
+
+    /** Page cache per connection, in KiB (negative cache_size means KiB). */
+    static final int CACHE_SIZE_KIB = 8 * 1024;
+    /** Bytes of the database file read through memory mapping. */
+    static final long MMAP_SIZE_BYTES = 32L * 1024 * 1024;
+
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+    /** How long change log rows are kept for change feeds that are not running. */
+    static final long CHANGE_LOG_RETENTION_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    private DatabaseMaintenance() {
+    }
+
+    /**
+     * Apply the tuned pragmas to a freshly opened connection. WAL lets the
+     * synchronous level drop to NORMAL without risking corruption; a commit
+     * then only waits for the WAL write, not for a sync of the database file.
+     *
+     * @param db The connection Room opened
+     */
+    static void applyConnectionPragmas(SupportSQLiteDatabase db) {
+        runPragma(db, "PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+        runPragma(db, "PRAGMA mmap_size = " + MMAP_SIZE_BYTES);
+        if (db.isWriteAheadLoggingEnabled()) {
+            runPragma(db, "PRAGMA synchronous = NORMAL");
+        }
+    }
+
+    /**
+     * Prune old change log rows, checkpoint the WAL back into the database
+     * file, refresh the query planner statistics and return free pages to the
+     * file system. The first run switches the database to incremental
+     * auto-vacuum, which needs a full VACUUM. Run this off the main thread,
+     * ideally when the device is idle.
+     *
+     * @param database The database to maintain
+     */
+    public static void runMaintenance(AppDatabase database) {
+        // Prune first so the vacuum below returns the freed pages
+        int pruned = database.entryChangeDao().pruneSync(System.currentTimeMillis() - CHANGE_LOG_RETENTION_MILLIS);
+        Log.d(TAG, "Pruned " + pruned + " change log rows");
+
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        if (queryLong(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            Log.d(TAG, "Switching to incremental auto-vacuum");
+            runPragma(db, "PRAGMA auto_vacuum = INCREMENTAL");
+            db.execSQL("VACUUM");
+        } else {
+            runPragma(db, "PRAGMA incremental_vacuum");
+        }
+        runPragma(db, "PRAGMA optimize");
+        runPragma(db, "PRAGMA wal_checkpoint(TRUNCATE)");
+    }
+
+    /**
+     * Collect the current size and cache figures of the database. Run this
+     * off the main thread.
+     *
+     * @param context The context
+     * @param database The database to inspect
+     * @return The diagnostics snapshot
+     */
+    public static DatabaseDiagnostics getDiagnostics(Context context, AppDatabase database) {
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        DatabaseDiagnostics diagnostics = new DatabaseDiagnostics();
+
+        String name = database.getOpenHelper().getDatabaseName();
+        if (name != null) {
+            File file = context.getDatabasePath(name);
+            diagnostics.setDatabaseFileBytes(file.length());
+            diagnostics.setWalFileBytes(new File(file.getPath() + "-wal").length());
+        }
+        diagnostics.setWriteAheadLogging(db.isWriteAheadLoggingEnabled());
+        diagnostics.setPageSize(queryLong(db, "PRAGMA page_size"));
+        diagnostics.setPageCount(queryLong(db, "PRAGMA page_count"));
+        diagnostics.setFreelistPages(queryLong(db, "PRAGMA freelist_count"));
+        diagnostics.setCacheSize(queryLong(db, "PRAGMA cache_size"));
+        diagnostics.setMmapSize(queryLong(db, "PRAGMA mmap_size"));
+        return diagnostics;
+    }
+
+    /**
+     * Run a pragma through a cursor and step it to completion. Pragmas that
+     * return a row cannot go through execSQL on Android.
+     */
+    private static void runPragma(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.getCount();
+        }
+    }
+
+    private static long queryLong(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+}
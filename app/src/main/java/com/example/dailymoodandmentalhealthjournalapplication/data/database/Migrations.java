@@ -0,0 +1,281 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.EntryChange;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+
+/**
+ * Schema migrations for {@link AppDatabase}.
+ * The SQL mirrors what Room generates for the current entities so that the
+ * schema validation on open succeeds after an upgrade.
+ */
+final class Migrations {
+
+    private Migrations() {
+    }
+
+    /**
+     * Adds the journal_entries_fts full-text index and fills it from the
+     * existing journal entries.
+     */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `journal_entries_fts` USING FTS4("
+                    + "`title` TEXT, `content` TEXT, tokenize=unicode61, content=`journal_entries`)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_entries_fts_BEFORE_UPDATE "
+                    + "BEFORE UPDATE ON `journal_entries` BEGIN "
+                    + "DELETE FROM `journal_entries_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_entries_fts_BEFORE_DELETE "
+                    + "BEFORE DELETE ON `journal_entries` BEGIN "
+                    + "DELETE FROM `journal_entries_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_entries_fts_AFTER_UPDATE "
+                    + "AFTER UPDATE ON `journal_entries` BEGIN "
+                    + "INSERT INTO `journal_entries_fts`(`docid`, `title`, `content`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`content`); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_entries_fts_AFTER_INSERT "
+                    + "AFTER INSERT ON `journal_entries` BEGIN "
+                    + "INSERT INTO `journal_entries_fts`(`docid`, `title`, `content`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`content`); END");
+            db.execSQL("INSERT INTO `journal_entries_fts`(`journal_entries_fts`) VALUES('rebuild')");
+        }
+    };
+
+    /**
+     * Adds the tag dictionary and the journal entry tag junction table. Existing
+     * tag strings are indexed afterwards by TagBackfillWorker.
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `tags` ("
+                    + "`tagId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `name` TEXT NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_tags_name` ON `tags` (`name`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `journal_entry_tags` ("
+                    + "`entryId` INTEGER NOT NULL, `tagId` INTEGER NOT NULL, PRIMARY KEY(`entryId`, `tagId`), "
+                    + "FOREIGN KEY(`entryId`) REFERENCES `journal_entries`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`tagId`) REFERENCES `tags`(`tagId`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_journal_entry_tags_tagId_entryId` "
+                    + "ON `journal_entry_tags` (`tagId`, `entryId`)");
+        }
+    };
+
+    /**
+     * Replaces the single-column userId and date indices with composite
+     * (userId, date) indices and indexes users by email.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS `index_mood_entries_userId`");
+            db.execSQL("DROP INDEX IF EXISTS `index_mood_entries_date`");
+            db.execSQL("DROP INDEX IF EXISTS `index_journal_entries_userId`");
+            db.execSQL("DROP INDEX IF EXISTS `index_journal_entries_date`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_mood_entries_userId_date` "
+                    + "ON `mood_entries` (`userId` ASC, `date` DESC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_mood_entries_userId_moodType_date` "
+                    + "ON `mood_entries` (`userId`, `moodType`, `date`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_journal_entries_userId_date` "
+                    + "ON `journal_entries` (`userId` ASC, `date` DESC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_users_email` ON `users` (`email`)");
+        }
+    };
+
+    /**
+     * Adds the per-day mood rollup. Existing entries are rolled up afterwards
+     * by MoodStatsRebuildWorker, since local days are computed in Java.
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `mood_daily_stats` ("
+                    + "`userId` TEXT NOT NULL, `epochDay` INTEGER NOT NULL, `monthKey` INTEGER NOT NULL, "
+                    + "`entryCount` INTEGER NOT NULL, `intensitySum` INTEGER NOT NULL, "
+                    + "`minIntensity` INTEGER NOT NULL, `maxIntensity` INTEGER NOT NULL, "
+                    + "`happyCount` INTEGER NOT NULL, `sadCount` INTEGER NOT NULL, `angryCount` INTEGER NOT NULL, "
+                    + "`anxiousCount` INTEGER NOT NULL, `neutralCount` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`userId`, `epochDay`), "
+                    + "FOREIGN KEY(`userId`) REFERENCES `users`(`userId`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+        }
+    };
+
+    /**
+     * Adds the entry_changes log and the triggers that fill it.
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `entry_changes` ("
+                    + "`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `tableName` TEXT NOT NULL, "
+                    + "`entryId` INTEGER NOT NULL, `userId` TEXT NOT NULL, `operation` INTEGER NOT NULL, "
+                    + "`changedAt` INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_entry_changes_tableName_userId_seq` "
+                    + "ON `entry_changes` (`tableName`, `userId`, `seq`)");
+            createChangeLogTriggers(db);
+        }
+    };
+
+    /**
+     * Adds the content fingerprint of journal entries. Existing rows keep 0
+     * until ContentHashBackfillWorker fingerprints them, since the hash is
+     * computed in Java.
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `journal_entries` ADD COLUMN `contentHash` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    /**
+     * Adds the local epoch day, ISO week and month bucket columns of mood and
+     * journal entries, indexed by user and day. Existing rows keep 0 until
+     * DateBucketWorker fills them, since local days are computed in Java.
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            for (String table : new String[]{"mood_entries", "journal_entries"}) {
+                db.execSQL("ALTER TABLE `" + table + "` ADD COLUMN `epochDay` INTEGER NOT NULL DEFAULT 0");
+                db.execSQL("ALTER TABLE `" + table + "` ADD COLUMN `weekKey` INTEGER NOT NULL DEFAULT 0");
+                db.execSQL("ALTER TABLE `" + table + "` ADD COLUMN `monthKey` INTEGER NOT NULL DEFAULT 0");
+                db.execSQL("CREATE INDEX IF NOT EXISTS `index_" + table + "_userId_epochDay` "
+                        + "ON `" + table + "` (`userId`, `epochDay`)");
+            }
+        }
+    };
+
+    /**
+     * Adds the journal archive: the archived flag of journal entries, the
+     * table holding their compressed text and the full-text index over its
+     * terms, with the triggers Room keeps that index in sync with.
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `journal_entries` ADD COLUMN `archived` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `journal_archive` ("
+                    + "`entryId` INTEGER NOT NULL, `compressedContent` BLOB NOT NULL, "
+                    + "`originalBytes` INTEGER NOT NULL, `terms` TEXT, `archivedAt` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`entryId`), FOREIGN KEY(`entryId`) REFERENCES `journal_entries`(`id`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `journal_archive_fts` USING FTS4("
+                    + "`terms` TEXT, tokenize=unicode61, content=`journal_archive`)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_archive_fts_BEFORE_UPDATE "
+                    + "BEFORE UPDATE ON `journal_archive` BEGIN "
+                    + "DELETE FROM `journal_archive_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_archive_fts_BEFORE_DELETE "
+                    + "BEFORE DELETE ON `journal_archive` BEGIN "
+                    + "DELETE FROM `journal_archive_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_archive_fts_AFTER_UPDATE "
+                    + "AFTER UPDATE ON `journal_archive` BEGIN "
+                    + "INSERT INTO `journal_archive_fts`(`docid`, `terms`) VALUES (NEW.`rowid`, NEW.`terms`); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_archive_fts_AFTER_INSERT "
+                    + "AFTER INSERT ON `journal_archive` BEGIN "
+                    + "INSERT INTO `journal_archive_fts`(`docid`, `terms`) VALUES (NEW.`rowid`, NEW.`terms`); END");
+        }
+    };
+
+    /**
+     * Stores the mood type of mood entries as the ordinal of MoodType instead
+     * of its name. SQLite cannot change a column's type, so the table is
+     * rebuilt: rows are copied with their names mapped to ordinals, unknown or
+     * missing names becoming NEUTRAL, and the indices and change log triggers
+     * are created again on the new table.
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `mood_entries_new` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userId` TEXT NOT NULL, "
+                    + "`date` INTEGER NOT NULL, `moodType` INTEGER NOT NULL, `moodIntensity` INTEGER NOT NULL, "
+                    + "`notes` TEXT, `createdAt` INTEGER NOT NULL, `updatedAt` INTEGER NOT NULL, "
+                    + "`epochDay` INTEGER NOT NULL DEFAULT 0, `weekKey` INTEGER NOT NULL DEFAULT 0, "
+                    + "`monthKey` INTEGER NOT NULL DEFAULT 0, "
+                    + "FOREIGN KEY(`userId`) REFERENCES `users`(`userId`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            StringBuilder moodType = new StringBuilder("CASE `moodType`");
+            for (MoodType type : MoodType.values()) {
+                moodType.append(" WHEN '").append(type.name()).append("' THEN ").append(type.ordinal());
+            }
+            moodType.append(" ELSE ").append(MoodType.NEUTRAL.ordinal()).append(" END");
+            db.execSQL("INSERT INTO `mood_entries_new` (`id`, `userId`, `date`, `moodType`, `moodIntensity`, "
+                    + "`notes`, `createdAt`, `updatedAt`, `epochDay`, `weekKey`, `monthKey`) "
+                    + "SELECT `id`, `userId`, `date`, " + moodType + ", `moodIntensity`, "
+                    + "`notes`, `createdAt`, `updatedAt`, `epochDay`, `weekKey`, `monthKey` FROM `mood_entries`");
+            db.execSQL("DROP TABLE `mood_entries`");
+            db.execSQL("ALTER TABLE `mood_entries_new` RENAME TO `mood_entries`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_mood_entries_userId_date` "
+                    + "ON `mood_entries` (`userId` ASC, `date` DESC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_mood_entries_userId_moodType_date` "
+                    + "ON `mood_entries` (`userId`, `moodType`, `date`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_mood_entries_userId_epochDay` "
+                    + "ON `mood_entries` (`userId`, `epochDay`)");
+            createChangeLogTriggers(db);
+        }
+    };
+
+    /**
+     * Adds the sentiment score, packed emotion counts and analyzer version of
+     * journal entries. Existing rows keep version 0 until
+     * SentimentBackfillWorker analyzes them, since the analysis runs in Java.
+     */
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `journal_entries` ADD COLUMN `sentimentScore` REAL NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `journal_entries` ADD COLUMN `emotionVector` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `journal_entries` ADD COLUMN `sentimentVersion` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    /**
+     * Adds the language of the lexicon journal entries' sentiment was
+     * computed with. Existing rows have none, so SentimentBackfillWorker
+     * analyzes them again with the current language's lexicon.
+     */
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `journal_entries` ADD COLUMN `sentimentLanguage` TEXT");
+        }
+    };
+
+    /**
+     * Create the triggers that log every insert, update and delete on the mood
+     * and journal tables to entry_changes. Room cannot declare triggers, so
+     * this runs both on upgrade and when the database is created.
+     */
+    static void createChangeLogTriggers(SupportSQLiteDatabase db) {
+        for (String table : new String[]{"mood_entries", "journal_entries"}) {
+            createChangeLogTrigger(db, table, "INSERT", "NEW", EntryChange.OPERATION_INSERT);
+            createChangeLogTrigger(db, table, "UPDATE", "NEW", EntryChange.OPERATION_UPDATE);
+            createChangeLogTrigger(db, table, "DELETE", "OLD", EntryChange.OPERATION_DELETE);
+        }
+    }
+
+    private static void createChangeLogTrigger(SupportSQLiteDatabase db, String table, String event, String row,
+                                               int operation) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS entry_changes_" + table + "_AFTER_" + event
+                + " AFTER " + event + " ON `" + table + "` BEGIN "
+                + "INSERT INTO `entry_changes`(`tableName`, `entryId`, `userId`, `operation`, `changedAt`) "
+                + "VALUES ('" + table + "', " + row + ".`id`, " + row + ".`userId`, " + operation + ", "
+                + "CAST(strftime('%s', 'now') AS INTEGER) * 1000); END");
+    }
+
+    static final Migration[] ALL = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8,
+            MIGRATION_8_9,
+            MIGRATION_9_10,
+            MIGRATION_10_11,
+            MIGRATION_11_12
+    };
+}
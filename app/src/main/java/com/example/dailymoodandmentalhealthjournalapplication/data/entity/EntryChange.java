@@ -0,0 +1,93 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * One row of the change log written by triggers on the mood and journal
+ * tables. Change feeds read the log past their last seen sequence number to
+ * learn which entries were inserted, updated or deleted since.
+ */
+@Entity(tableName = "entry_changes",
+        indices = {@Index(value = {"tableName", "userId", "seq"})}
+)
+public class EntryChange {
+    public static final int OPERATION_INSERT = 1;
+    public static final int OPERATION_UPDATE = 2;
+    public static final int OPERATION_DELETE = 3;
+
+    // AUTOINCREMENT, so sequence numbers are never reused after pruning
+    @PrimaryKey(autoGenerate = true)
+    private long seq;
+
+    @NonNull
+    private String tableName;
+
+    private long entryId;
+
+    @NonNull
+    private String userId;
+
+    private int operation;
+    private long changedAt;
+
+    public EntryChange(@NonNull String tableName, long entryId, @NonNull String userId, int operation) {
+        this.tableName = tableName;
+        this.entryId = entryId;
+        this.userId = userId;
+        this.operation = operation;
+        this.changedAt = System.currentTimeMillis();
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    @NonNull
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(@NonNull String tableName) {
+        this.tableName = tableName;
+    }
+
+    public long getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(long entryId) {
+        this.entryId = entryId;
+    }
+
+    @NonNull
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(@NonNull String userId) {
+        this.userId = userId;
+    }
+
+    public int getOperation() {
+        return operation;
+    }
+
+    public void setOperation(int operation) {
+        this.operation = operation;
+    }
+
+    public long getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(long changedAt) {
+        this.changedAt = changedAt;
+    }
+}
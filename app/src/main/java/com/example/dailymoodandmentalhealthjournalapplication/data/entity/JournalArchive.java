@@ -0,0 +1,85 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+/**
+ * The compressed full text of an archived journal entry. The entry itself
+ * stays in journal_entries with only a preview of its content, so lists, tags
+ * and statistics are unaffected; see TextCompressor for the format.
+ */
+@Entity(tableName = "journal_archive",
+        foreignKeys = @ForeignKey(
+                entity = JournalEntry.class,
+                parentColumns = "id",
+                childColumns = "entryId",
+                onDelete = ForeignKey.CASCADE
+        )
+)
+public class JournalArchive {
+    @PrimaryKey
+    private long entryId;
+
+    @NonNull
+    private byte[] compressedContent;
+
+    // Length of the content in UTF-8 bytes
+    private int originalBytes;
+
+    // Distinct words of the title and content, indexed by journal_archive_fts
+    private String terms;
+
+    private long archivedAt;
+
+    public JournalArchive(long entryId, @NonNull byte[] compressedContent, int originalBytes, String terms,
+                          long archivedAt) {
+        this.entryId = entryId;
+        this.compressedContent = compressedContent;
+        this.originalBytes = originalBytes;
+        this.terms = terms;
+        this.archivedAt = archivedAt;
+    }
+
+    public long getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(long entryId) {
+        this.entryId = entryId;
+    }
+
+    @NonNull
+    public byte[] getCompressedContent() {
+        return compressedContent;
+    }
+
+    public void setCompressedContent(@NonNull byte[] compressedContent) {
+        this.compressedContent = compressedContent;
+    }
+
+    public int getOriginalBytes() {
+        return originalBytes;
+    }
+
+    public void setOriginalBytes(int originalBytes) {
+        this.originalBytes = originalBytes;
+    }
+
+    public String getTerms() {
+        return terms;
+    }
+
+    public void setTerms(String terms) {
+        this.terms = terms;
+    }
+
+    public long getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(long archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
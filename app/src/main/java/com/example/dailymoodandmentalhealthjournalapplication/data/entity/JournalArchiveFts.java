@@ -0,0 +1,24 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the distinct words of archived journal entries.
+ * Uses journal_archive as its external content table, so Room keeps it in
+ * sync through triggers, including the deletes cascaded from journal_entries.
+ */
+@Fts4(contentEntity = JournalArchive.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "journal_archive_fts")
+public class JournalArchiveFts {
+    private String terms;
+
+    public String getTerms() {
+        return terms;
+    }
+
+    public void setTerms(String terms) {
+        this.terms = terms;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Index;
@@ -16,7 +17,10 @@ import androidx.room.PrimaryKey;
                 childColumns = "userId",
                 onDelete = ForeignKey.CASCADE
         ),
-        indices = {@Index("userId"), @Index("date")}
+        indices = {
+                @Index(value = {"userId", "date"}, orders = {Index.Order.ASC, Index.Order.DESC}),
+                @Index({"userId", "epochDay"})
+        }
 )
 public class JournalEntry {
     @PrimaryKey(autoGenerate = true)
@@ -32,6 +36,31 @@ public class JournalEntry {
     private long createdAt;
     private long updatedAt;
     private boolean isFavorite;
+    // Fingerprint of title, content and tags; set by JournalRepository on every write
+    @ColumnInfo(defaultValue = "0")
+    private long contentHash;
+    // Local calendar buckets of the date; see DateBuckets. Set by the repository on every write
+    @ColumnInfo(defaultValue = "0")
+    private long epochDay;
+    @ColumnInfo(defaultValue = "0")
+    private int weekKey;
+    @ColumnInfo(defaultValue = "0")
+    private int monthKey;
+    // Whether content holds only a preview of the text compressed into journal_archive.
+    // JournalRepository clears it on entries it reads back in full
+    @ColumnInfo(defaultValue = "0")
+    private boolean archived;
+    // Sentiment of the content and its packed emotion counts; see EmotionVector. Set by
+    // JournalRepository on every write. sentimentVersion is the SentimentAnalyzer version
+    // they were computed with, 0 for entries not analyzed yet, and sentimentLanguage the
+    // language of the lexicon used
+    @ColumnInfo(defaultValue = "0")
+    private float sentimentScore;
+    @ColumnInfo(defaultValue = "0")
+    private long emotionVector;
+    @ColumnInfo(defaultValue = "0")
+    private int sentimentVersion;
+    private String sentimentLanguage;
 
     public JournalEntry(@NonNull String userId, long date, String title, String content) {
         this.userId = userId;
@@ -115,4 +144,76 @@ public class JournalEntry {
     public void setFavorite(boolean favorite) {
         isFavorite = favorite;
     }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public void setEpochDay(long epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    public int getWeekKey() {
+        return weekKey;
+    }
+
+    public void setWeekKey(int weekKey) {
+        this.weekKey = weekKey;
+    }
+
+    public int getMonthKey() {
+        return monthKey;
+    }
+
+    public void setMonthKey(int monthKey) {
+        this.monthKey = monthKey;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
+    public float getSentimentScore() {
+        return sentimentScore;
+    }
+
+    public void setSentimentScore(float sentimentScore) {
+        this.sentimentScore = sentimentScore;
+    }
+
+    public long getEmotionVector() {
+        return emotionVector;
+    }
+
+    public void setEmotionVector(long emotionVector) {
+        this.emotionVector = emotionVector;
+    }
+
+    public int getSentimentVersion() {
+        return sentimentVersion;
+    }
+
+    public void setSentimentVersion(int sentimentVersion) {
+        this.sentimentVersion = sentimentVersion;
+    }
+
+    public String getSentimentLanguage() {
+        return sentimentLanguage;
+    }
+
+    public void setSentimentLanguage(String sentimentLanguage) {
+        this.sentimentLanguage = sentimentLanguage;
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the title and content of journal entries.
+ * The table uses journal_entries as its external content table, so Room keeps
+ * it in sync through triggers on insert, update and delete.
+ */
+@Fts4(contentEntity = JournalEntry.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "journal_entries_fts")
+public class JournalEntryFts {
+    private String title;
+    private String content;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
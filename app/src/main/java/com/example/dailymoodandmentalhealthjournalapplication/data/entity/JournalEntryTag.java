@@ -0,0 +1,52 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+/**
+ * Junction entity linking journal entries to their tags.
+ */
+@Entity(tableName = "journal_entry_tags",
+        primaryKeys = {"entryId", "tagId"},
+        foreignKeys = {
+                @ForeignKey(
+                        entity = JournalEntry.class,
+                        parentColumns = "id",
+                        childColumns = "entryId",
+                        onDelete = ForeignKey.CASCADE
+                ),
+                @ForeignKey(
+                        entity = Tag.class,
+                        parentColumns = "tagId",
+                        childColumns = "tagId",
+                        onDelete = ForeignKey.CASCADE
+                )
+        },
+        indices = {@Index({"tagId", "entryId"})}
+)
+public class JournalEntryTag {
+    private long entryId;
+    private long tagId;
+
+    public JournalEntryTag(long entryId, long tagId) {
+        this.entryId = entryId;
+        this.tagId = tagId;
+    }
+
+    public long getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(long entryId) {
+        this.entryId = entryId;
+    }
+
+    public long getTagId() {
+        return tagId;
+    }
+
+    public void setTagId(long tagId) {
+        this.tagId = tagId;
+    }
+}
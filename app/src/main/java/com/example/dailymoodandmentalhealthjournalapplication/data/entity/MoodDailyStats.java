@@ -0,0 +1,138 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+
+/**
+ * Per-day rollup of a user's mood entries, kept current by MoodRepository so
+ * that dashboard and analytics ranges read one row per day instead of every
+ * mood entry. Days are local epoch days, see DateBuckets.
+ */
+@Entity(tableName = "mood_daily_stats",
+        primaryKeys = {"userId", "epochDay"},
+        foreignKeys = @ForeignKey(
+                entity = User.class,
+                parentColumns = "userId",
+                childColumns = "userId",
+                onDelete = ForeignKey.CASCADE
+        )
+)
+public class MoodDailyStats {
+    @NonNull
+    private String userId;
+
+    private long epochDay;
+    private int monthKey;
+    private int entryCount;
+    private long intensitySum;
+    private int minIntensity;
+    private int maxIntensity;
+    private int happyCount;
+    private int sadCount;
+    private int angryCount;
+    private int anxiousCount;
+    private int neutralCount;
+
+    public MoodDailyStats(@NonNull String userId, long epochDay) {
+        this.userId = userId;
+        this.epochDay = epochDay;
+    }
+
+    @NonNull
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(@NonNull String userId) {
+        this.userId = userId;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public void setEpochDay(long epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    public int getMonthKey() {
+        return monthKey;
+    }
+
+    public void setMonthKey(int monthKey) {
+        this.monthKey = monthKey;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public long getIntensitySum() {
+        return intensitySum;
+    }
+
+    public void setIntensitySum(long intensitySum) {
+        this.intensitySum = intensitySum;
+    }
+
+    public int getMinIntensity() {
+        return minIntensity;
+    }
+
+    public void setMinIntensity(int minIntensity) {
+        this.minIntensity = minIntensity;
+    }
+
+    public int getMaxIntensity() {
+        return maxIntensity;
+    }
+
+    public void setMaxIntensity(int maxIntensity) {
+        this.maxIntensity = maxIntensity;
+    }
+
+    public int getHappyCount() {
+        return happyCount;
+    }
+
+    public void setHappyCount(int happyCount) {
+        this.happyCount = happyCount;
+    }
+
+    public int getSadCount() {
+        return sadCount;
+    }
+
+    public void setSadCount(int sadCount) {
+        this.sadCount = sadCount;
+    }
+
+    public int getAngryCount() {
+        return angryCount;
+    }
+
+    public void setAngryCount(int angryCount) {
+        this.angryCount = angryCount;
+    }
+
+    public int getAnxiousCount() {
+        return anxiousCount;
+    }
+
+    public void setAnxiousCount(int anxiousCount) {
+        this.anxiousCount = anxiousCount;
+    }
+
+    public int getNeutralCount() {
+        return neutralCount;
+    }
+
+    public void setNeutralCount(int neutralCount) {
+        this.neutralCount = neutralCount;
+    }
+}
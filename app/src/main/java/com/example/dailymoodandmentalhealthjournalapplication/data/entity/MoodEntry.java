@@ -1,6 +1,7 @@
 package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Index;
@@ -16,7 +17,11 @@ import androidx.room.PrimaryKey;
                 childColumns = "userId",
                 onDelete = ForeignKey.CASCADE
         ),
-        indices = {@Index("userId"), @Index("date")}
+        indices = {
+                @Index(value = {"userId", "date"}, orders = {Index.Order.ASC, Index.Order.DESC}),
+                @Index({"userId", "moodType", "date"}),
+                @Index({"userId", "epochDay"})
+        }
 )
 public class MoodEntry {
     @PrimaryKey(autoGenerate = true)
@@ -26,13 +31,22 @@ public class MoodEntry {
     private String userId;
     
     private long date;
-    private String moodType; // HAPPY, SAD, ANGRY, ANXIOUS, NEUTRAL
+    // Stored as the ordinal; see Converters
+    @NonNull
+    private MoodType moodType;
     private int moodIntensity; // 1-10 scale
     private String notes;
     private long createdAt;
     private long updatedAt;
-
-    public MoodEntry(@NonNull String userId, long date, String moodType, int moodIntensity) {
+    // Local calendar buckets of the date; see DateBuckets. Set by the repository on every write
+    @ColumnInfo(defaultValue = "0")
+    private long epochDay;
+    @ColumnInfo(defaultValue = "0")
+    private int weekKey;
+    @ColumnInfo(defaultValue = "0")
+    private int monthKey;
+
+    public MoodEntry(@NonNull String userId, long date, @NonNull MoodType moodType, int moodIntensity) {
         this.userId = userId;
         this.date = date;
         this.moodType = moodType;
@@ -66,11 +80,12 @@ public class MoodEntry {
         this.date = date;
     }
 
-    public String getMoodType() {
+    @NonNull
+    public MoodType getMoodType() {
         return moodType;
     }
 
-    public void setMoodType(String moodType) {
+    public void setMoodType(@NonNull MoodType moodType) {
         this.moodType = moodType;
     }
 
@@ -105,4 +120,28 @@ public class MoodEntry {
     public void setUpdatedAt(long updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public void setEpochDay(long epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    public int getWeekKey() {
+        return weekKey;
+    }
+
+    public void setWeekKey(int weekKey) {
+        this.weekKey = weekKey;
+    }
+
+    public int getMonthKey() {
+        return monthKey;
+    }
+
+    public void setMonthKey(int monthKey) {
+        this.monthKey = monthKey;
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
+
+/**
+ * The kinds of mood a user can log. Mood entries store the ordinal of the
+ * type as a small integer, and the SQL aggregates in the DAOs compare against
+ * those ordinals, so new types may only be appended and existing ones never
+ * reordered.
+ */
+public enum MoodType {
+    HAPPY,
+    SAD,
+    ANGRY,
+    ANXIOUS,
+    NEUTRAL;
+
+    private static final MoodType[] VALUES = values();
+
+    /**
+     * Get the number of mood types, the size of arrays indexed by ordinal.
+     *
+     * @return The number of mood types
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Get the mood type stored under an ordinal.
+     *
+     * @param ordinal The stored ordinal
+     * @return The mood type, or null if the ordinal is unknown
+     */
+    public static MoodType fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Entity class representing a normalized journal tag.
+ */
+@Entity(tableName = "tags",
+        indices = {@Index(value = "name", unique = true)}
+)
+public class Tag {
+    @PrimaryKey(autoGenerate = true)
+    private long tagId;
+
+    @NonNull
+    private String name;
+
+    public Tag(@NonNull String name) {
+        this.name = name;
+    }
+
+    public long getTagId() {
+        return tagId;
+    }
+
+    public void setTagId(long tagId) {
+        this.tagId = tagId;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public void setName(@NonNull String name) {
+        this.name = name;
+    }
+}
@@ -2,12 +2,15 @@ package com.example.dailymoodandmentalhealthjournalapplication.data.entity;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * Entity class representing a user in the application.
  */
-@Entity(tableName = "users")
+@Entity(tableName = "users",
+        indices = {@Index("email")}
+)
 public class User {
     @PrimaryKey
     @NonNull
@@ -0,0 +1,91 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+import androidx.room.Ignore;
+
+import java.util.Locale;
+
+/**
+ * Size of the journal archive and the time spent reading from it. The sizes
+ * are loaded from the database; the decompression figures are counted by
+ * JournalRepository since the process started.
+ */
+public class ArchiveStats {
+    private int entryCount;
+    // UTF-8 size of the archived content before compression
+    private long originalBytes;
+    // Compressed content, indexed terms and the preview kept in journal_entries
+    private long storedBytes;
+    @Ignore
+    private long decompressionCount;
+    @Ignore
+    private long decompressionNanos;
+    @Ignore
+    private long maxDecompressionNanos;
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public long getOriginalBytes() {
+        return originalBytes;
+    }
+
+    public void setOriginalBytes(long originalBytes) {
+        this.originalBytes = originalBytes;
+    }
+
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+    public void setStoredBytes(long storedBytes) {
+        this.storedBytes = storedBytes;
+    }
+
+    public long getDecompressionCount() {
+        return decompressionCount;
+    }
+
+    public void setDecompressionCount(long decompressionCount) {
+        this.decompressionCount = decompressionCount;
+    }
+
+    public long getDecompressionNanos() {
+        return decompressionNanos;
+    }
+
+    public void setDecompressionNanos(long decompressionNanos) {
+        this.decompressionNanos = decompressionNanos;
+    }
+
+    public long getMaxDecompressionNanos() {
+        return maxDecompressionNanos;
+    }
+
+    public void setMaxDecompressionNanos(long maxDecompressionNanos) {
+        this.maxDecompressionNanos = maxDecompressionNanos;
+    }
+
+    /**
+     * Bytes of entry text the archive saves, before page and index overhead.
+     */
+    public long getSavedBytes() {
+        return originalBytes - storedBytes;
+    }
+
+    public double getAverageDecompressionMicros() {
+        return decompressionCount == 0 ? 0.0 : decompressionNanos / 1000.0 / decompressionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "archived=" + entryCount + ", original=" + originalBytes + "B, stored=" + storedBytes
+                + "B, saved=" + getSavedBytes() + "B, decompressions=" + decompressionCount + ", avg="
+                + String.format(Locale.US, "%.1f", getAverageDecompressionMicros()) + "us, max="
+                + (maxDecompressionNanos / 1000) + "us";
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+/**
+ * The ID and last update time of a stored entity, used to tell whether a
+ * cached copy is still current.
+ */
+public class EntityVersion {
+    private long id;
+    private long updatedAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
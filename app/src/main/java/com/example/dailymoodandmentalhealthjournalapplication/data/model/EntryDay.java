@@ -0,0 +1,35 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+/**
+ * The date of an entry and the local day it is currently stored under, read
+ * when the day buckets are recomputed for a new time zone.
+ */
+public class EntryDay {
+    private long id;
+    private long date;
+    private long epochDay;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getDate() {
+        return date;
+    }
+
+    public void setDate(long date) {
+        this.date = date;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public void setEpochDay(long epochDay) {
+        this.epochDay = epochDay;
+    }
+}
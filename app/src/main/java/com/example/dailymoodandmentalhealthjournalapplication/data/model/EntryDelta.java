@@ -0,0 +1,93 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The entries inserted, updated or deleted since a change feed's previous
+ * emission. A reset delta replaces everything the consumer holds with its
+ * upserted entries, as on the first emission.
+ *
+ * @param <T> The entity type
+ */
+public final class EntryDelta<T> {
+    private final boolean reset;
+    private final Map<Long, T> upserted;
+    private final Set<Long> deletedIds;
+
+    private EntryDelta(boolean reset, Map<Long, T> upserted, Set<Long> deletedIds) {
+        this.reset = reset;
+        this.upserted = upserted;
+        this.deletedIds = deletedIds;
+    }
+
+    /**
+     * Create a delta that replaces all entries.
+     *
+     * @param entries Every current entry keyed by ID
+     * @return The reset delta
+     */
+    public static <T> EntryDelta<T> reset(Map<Long, T> entries) {
+        return new EntryDelta<>(true, new LinkedHashMap<>(entries), new LinkedHashSet<>());
+    }
+
+    /**
+     * Create a delta of individual changes.
+     *
+     * @param upserted Inserted and updated entries keyed by ID
+     * @param deletedIds IDs of deleted entries
+     * @return The delta
+     */
+    public static <T> EntryDelta<T> changes(Map<Long, T> upserted, Set<Long> deletedIds) {
+        return new EntryDelta<>(false, new LinkedHashMap<>(upserted), new LinkedHashSet<>(deletedIds));
+    }
+
+    /**
+     * Combine this delta with a later one, so a consumer that missed both can
+     * apply them in one step. The later change of an entry wins.
+     *
+     * @param next The later delta
+     * @return The combined delta
+     */
+    public EntryDelta<T> merge(EntryDelta<T> next) {
+        if (next.reset) {
+            return next;
+        }
+        Map<Long, T> mergedUpserted = new LinkedHashMap<>(upserted);
+        Set<Long> mergedDeleted = new LinkedHashSet<>(deletedIds);
+        for (Long id : next.deletedIds) {
+            mergedUpserted.remove(id);
+            // Entries a reset does not contain need no deletion
+            if (!reset) {
+                mergedDeleted.add(id);
+            }
+        }
+        for (Map.Entry<Long, T> entry : next.upserted.entrySet()) {
+            mergedDeleted.remove(entry.getKey());
+            mergedUpserted.put(entry.getKey(), entry.getValue());
+        }
+        return new EntryDelta<>(reset, mergedUpserted, mergedDeleted);
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public Map<Long, T> getUpserted() {
+        return Collections.unmodifiableMap(upserted);
+    }
+
+    public Set<Long> getDeletedIds() {
+        return Collections.unmodifiableSet(deletedIds);
+    }
+
+    /**
+     * @return Whether applying this delta changes nothing
+     */
+    public boolean isEmpty() {
+        return !reset && upserted.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+/**
+ * The columns of a journal entry needed to show it as a list row. The content
+ * is cut down to a short preview by the query so the full text never has to
+ * be read for lists; load the full JournalEntry by ID to show or edit it.
+ */
+public class JournalEntrySummary {
+    /**
+     * Number of content characters selected for the preview. One more than
+     * the row shows, so the list can tell whether the content was cut.
+     */
+    public static final int PREVIEW_LENGTH = 101;
+
+    private long id;
+    private long date;
+    private String title;
+    private String preview;
+    private String tags;
+    private boolean isFavorite;
+    private long updatedAt;
+    private long contentHash;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getDate() {
+        return date;
+    }
+
+    public void setDate(long date) {
+        this.date = date;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public void setPreview(String preview) {
+        this.preview = preview;
+    }
+
+    public String getTags() {
+        return tags;
+    }
+
+    public void setTags(String tags) {
+        this.tags = tags;
+    }
+
+    public boolean isFavorite() {
+        return isFavorite;
+    }
+
+    public void setFavorite(boolean favorite) {
+        isFavorite = favorite;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+import androidx.room.Embedded;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+
+/**
+ * A journal entry returned by a full-text search together with the raw
+ * matchinfo() blob used to rank it.
+ */
+public class JournalSearchResult {
+    @Embedded
+    private JournalEntry entry;
+
+    private byte[] matchInfo;
+
+    public JournalEntry getEntry() {
+        return entry;
+    }
+
+    public void setEntry(JournalEntry entry) {
+        this.entry = entry;
+    }
+
+    public byte[] getMatchInfo() {
+        return matchInfo;
+    }
+
+    public void setMatchInfo(byte[] matchInfo) {
+        this.matchInfo = matchInfo;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+
+import java.util.List;
+
+/**
+ * How a user's mood entries are spread over the mood types. Counts are kept
+ * in an array indexed by {@link MoodType} ordinal, so every mood type is
+ * present, with a count of zero if it was never logged.
+ */
+public final class MoodDistribution {
+    private final int[] counts;
+    private final int total;
+
+    private MoodDistribution(int[] counts, int total) {
+        this.counts = counts;
+        this.total = total;
+    }
+
+    /**
+     * Build a distribution from the rows of the grouped count query. Rows of
+     * mood types this version does not know are left out.
+     *
+     * @param rows One row per mood type that has entries
+     * @return The distribution
+     */
+    public static MoodDistribution from(List<MoodTypeCount> rows) {
+        int[] counts = new int[MoodType.count()];
+        int total = 0;
+        if (rows != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                MoodTypeCount row = rows.get(i);
+                if (row.getMoodType() == null) {
+                    continue;
+                }
+                counts[row.getMoodType().ordinal()] += row.getCount();
+                total += row.getCount();
+            }
+        }
+        return new MoodDistribution(counts, total);
+    }
+
+    /**
+     * Get the number of entries of a mood type.
+     *
+     * @param moodType The mood type
+     * @return The count, or 0 if none were logged
+     */
+    public int getCount(MoodType moodType) {
+        return counts[moodType.ordinal()];
+    }
+
+    /**
+     * Get the share of entries of a mood type.
+     *
+     * @param moodType The mood type
+     * @return A fraction between 0 and 1
+     */
+    public float getFraction(MoodType moodType) {
+        return total == 0 ? 0f : (float) counts[moodType.ordinal()] / total;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+}
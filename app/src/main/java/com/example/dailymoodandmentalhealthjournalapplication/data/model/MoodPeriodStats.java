@@ -0,0 +1,146 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+
+/**
+ * Mood totals for one period of a series, read from the daily rollup or
+ * grouped from the mood entries. The period key is an epoch day for daily
+ * series, a yyyyww ISO week key for weekly series and a yyyyMM month key for
+ * monthly series.
+ */
+public class MoodPeriodStats {
+    private long periodKey;
+    private int entryCount;
+    private long intensitySum;
+    private int minIntensity;
+    private int maxIntensity;
+    private int happyCount;
+    private int sadCount;
+    private int angryCount;
+    private int anxiousCount;
+    private int neutralCount;
+
+    public long getPeriodKey() {
+        return periodKey;
+    }
+
+    public void setPeriodKey(long periodKey) {
+        this.periodKey = periodKey;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public long getIntensitySum() {
+        return intensitySum;
+    }
+
+    public void setIntensitySum(long intensitySum) {
+        this.intensitySum = intensitySum;
+    }
+
+    public int getMinIntensity() {
+        return minIntensity;
+    }
+
+    public void setMinIntensity(int minIntensity) {
+        this.minIntensity = minIntensity;
+    }
+
+    public int getMaxIntensity() {
+        return maxIntensity;
+    }
+
+    public void setMaxIntensity(int maxIntensity) {
+        this.maxIntensity = maxIntensity;
+    }
+
+    public int getHappyCount() {
+        return happyCount;
+    }
+
+    public void setHappyCount(int happyCount) {
+        this.happyCount = happyCount;
+    }
+
+    public int getSadCount() {
+        return sadCount;
+    }
+
+    public void setSadCount(int sadCount) {
+        this.sadCount = sadCount;
+    }
+
+    public int getAngryCount() {
+        return angryCount;
+    }
+
+    public void setAngryCount(int angryCount) {
+        this.angryCount = angryCount;
+    }
+
+    public int getAnxiousCount() {
+        return anxiousCount;
+    }
+
+    public void setAnxiousCount(int anxiousCount) {
+        this.anxiousCount = anxiousCount;
+    }
+
+    public int getNeutralCount() {
+        return neutralCount;
+    }
+
+    public void setNeutralCount(int neutralCount) {
+        this.neutralCount = neutralCount;
+    }
+
+    /**
+     * Get the number of entries of a mood type in the period.
+     *
+     * @param moodType The mood type
+     * @return The count
+     */
+    public int getCount(MoodType moodType) {
+        switch (moodType) {
+            case HAPPY:
+                return happyCount;
+            case SAD:
+                return sadCount;
+            case ANGRY:
+                return angryCount;
+            case ANXIOUS:
+                return anxiousCount;
+            default:
+                return neutralCount;
+        }
+    }
+
+    /**
+     * Add the mood type counts of the period to running totals, so several
+     * periods can be summed without boxing.
+     *
+     * @param counts The totals, indexed by {@link MoodType} ordinal
+     */
+    public void addCountsTo(int[] counts) {
+        counts[MoodType.HAPPY.ordinal()] += happyCount;
+        counts[MoodType.SAD.ordinal()] += sadCount;
+        counts[MoodType.ANGRY.ordinal()] += angryCount;
+        counts[MoodType.ANXIOUS.ordinal()] += anxiousCount;
+        counts[MoodType.NEUTRAL.ordinal()] += neutralCount;
+    }
+
+    /**
+     * Get the average mood intensity over the period.
+     *
+     * @return The average intensity, or 0 if the period has no entries
+     */
+    public float getAverageIntensity() {
+        return entryCount == 0 ? 0f : (float) intensitySum / entryCount;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+/**
+ * The time and intensity of one mood entry, the only columns a mood
+ * timeline chart needs.
+ */
+public class MoodPoint {
+    private long date;
+    private int moodIntensity;
+
+    public long getDate() {
+        return date;
+    }
+
+    public void setDate(long date) {
+        this.date = date;
+    }
+
+    public int getMoodIntensity() {
+        return moodIntensity;
+    }
+
+    public void setMoodIntensity(int moodIntensity) {
+        this.moodIntensity = moodIntensity;
+    }
+}
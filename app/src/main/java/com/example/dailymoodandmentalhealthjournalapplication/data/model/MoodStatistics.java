@@ -0,0 +1,103 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+import com.example.dailymoodandmentalhealthjournalapplication.utils.RollingMoodStats;
+
+import java.util.Locale;
+
+/**
+ * Rolling statistics of a user's mood intensity: the mean and standard
+ * deviation of the last 7 and 30 days, the exponentially weighted trend and
+ * the mood volatility. A snapshot of the streaming statistics.
+ */
+public final class MoodStatistics {
+    private final long weekCount;
+    private final double weekMean;
+    private final double weekStdDev;
+    private final long monthCount;
+    private final double monthMean;
+    private final double monthStdDev;
+    private final double trend;
+    private final double volatility;
+
+    private MoodStatistics(RollingMoodStats stats) {
+        RollingMoodStats.Window week = stats.getShortWindow();
+        RollingMoodStats.Window month = stats.getLongWindow();
+        this.weekCount = week.getCount();
+        this.weekMean = week.getMean();
+        this.weekStdDev = week.getStdDev();
+        this.monthCount = month.getCount();
+        this.monthMean = month.getMean();
+        this.monthStdDev = month.getStdDev();
+        this.trend = stats.getTrend();
+        this.volatility = stats.getVolatility();
+    }
+
+    /**
+     * Take a snapshot of streaming statistics whose short window is a week
+     * and long window a month.
+     *
+     * @param stats The statistics
+     * @return The snapshot
+     */
+    public static MoodStatistics from(RollingMoodStats stats) {
+        return new MoodStatistics(stats);
+    }
+
+    public long getWeekCount() {
+        return weekCount;
+    }
+
+    public double getWeekMean() {
+        return weekMean;
+    }
+
+    public double getWeekStdDev() {
+        return weekStdDev;
+    }
+
+    public long getMonthCount() {
+        return monthCount;
+    }
+
+    public double getMonthMean() {
+        return monthMean;
+    }
+
+    public double getMonthStdDev() {
+        return monthStdDev;
+    }
+
+    /**
+     * Get the exponentially weighted average of the most recent intensities.
+     *
+     * @return The trend
+     */
+    public double getTrend() {
+        return trend;
+    }
+
+    /**
+     * Get how much the intensity changes from one entry to the next.
+     *
+     * @return The volatility
+     */
+    public double getVolatility() {
+        return volatility;
+    }
+
+    /**
+     * Check whether no entries were logged in the last 30 days.
+     *
+     * @return true without recent entries
+     */
+    public boolean isEmpty() {
+        return monthCount == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "7d %.2f sd %.2f (%d), 30d %.2f sd %.2f (%d), trend %.2f, volatility %.2f",
+                weekMean, weekStdDev, weekCount, monthMean, monthStdDev, monthCount, trend, volatility);
+    }
+}
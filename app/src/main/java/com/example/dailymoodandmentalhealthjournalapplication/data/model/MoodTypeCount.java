@@ -0,0 +1,28 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+
+/**
+ * The number of mood entries of one mood type, as returned by the grouped
+ * distribution query.
+ */
+public class MoodTypeCount {
+    private MoodType moodType;
+    private int count;
+
+    public MoodType getMoodType() {
+        return moodType;
+    }
+
+    public void setMoodType(MoodType moodType) {
+        this.moodType = moodType;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
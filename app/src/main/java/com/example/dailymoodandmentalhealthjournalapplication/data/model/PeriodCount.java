@@ -0,0 +1,27 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+/**
+ * The number of entries in one period of a series. The period key is an
+ * epoch day, a yyyyww ISO week key or a yyyyMM month key, depending on the
+ * query.
+ */
+public class PeriodCount {
+    private long periodKey;
+    private int count;
+
+    public long getPeriodKey() {
+        return periodKey;
+    }
+
+    public void setPeriodKey(long periodKey) {
+        this.periodKey = periodKey;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+/**
+ * The average sentiment of the analyzed journal entries in one period of a
+ * series. The period key is an epoch day, a yyyyww ISO week key or a yyyyMM
+ * month key, depending on the query.
+ */
+public class PeriodSentiment {
+    private long periodKey;
+    private int entryCount;
+    private float averageSentiment;
+
+    public long getPeriodKey() {
+        return periodKey;
+    }
+
+    public void setPeriodKey(long periodKey) {
+        this.periodKey = periodKey;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public float getAverageSentiment() {
+        return averageSentiment;
+    }
+
+    public void setAverageSentiment(float averageSentiment) {
+        this.averageSentiment = averageSentiment;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+/**
+ * Number of journal entries carrying a tag.
+ */
+public class TagCount {
+    private String name;
+    private int count;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
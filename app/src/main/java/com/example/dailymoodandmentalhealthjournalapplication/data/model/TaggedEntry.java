@@ -0,0 +1,26 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+/**
+ * The raw comma-separated tag string of a journal entry, used to backfill
+ * the normalized tag index.
+ */
+public class TaggedEntry {
+    private long id;
+    private String tags;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getTags() {
+        return tags;
+    }
+
+    public void setTags(String tags) {
+        this.tags = tags;
+    }
+}
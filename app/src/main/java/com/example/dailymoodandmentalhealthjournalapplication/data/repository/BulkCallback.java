@@ -0,0 +1,24 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
+
+/**
+ * Callback for bulk repository operations. Bulk operations run in chunks,
+ * each chunk in its own transaction, and report progress after every chunk.
+ */
+public interface BulkCallback {
+    /**
+     * Called on the background thread after each chunk has been committed.
+     *
+     * @param completed The number of rows written so far
+     * @param total The total number of rows in the operation
+     */
+    default void onProgress(int completed, int total) {
+    }
+
+    /**
+     * Called once on the background thread when the operation has finished.
+     *
+     * @param count The number of rows written, or -1 if the operation failed
+     *              (chunks committed before the failure are kept)
+     */
+    void onComplete(int count);
+}
@@ -0,0 +1,138 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * LiveData for a single entity that is served from an {@link EntityCache}
+ * when possible and reloaded from the database when its table changes.
+ * Unlike a Room LiveData query, opening an entity that is already cached
+ * does not touch SQLite.
+ *
+ * @param <K> The key type
+ * @param <V> The entity type
+ */
+final class CachedEntityLiveData<K, V> extends LiveData<V> {
+    /** The number of rows of a list that are cached for detail screens. */
+    static final int LIST_PREFILL_LIMIT = 50;
+
+    private final InvalidationTracker tracker;
+    private final Executor readExecutor;
+    private final EntityCache<K, V> cache;
+    private final EntityCacheWatcher<K, V> watcher;
+    private final K key;
+    private final Loader<V> loader;
+    private final InvalidationTracker.Observer observer;
+    private final AtomicBoolean invalid = new AtomicBoolean(true);
+    private boolean registered;
+    private volatile long tableVersionAtLoad;
+
+    CachedEntityLiveData(AppDatabase database, String table, Executor readExecutor, EntityCache<K, V> cache,
+                         EntityCacheWatcher<K, V> watcher, K key, Loader<V> loader) {
+        this.tracker = database.getInvalidationTracker();
+        this.readExecutor = readExecutor;
+        this.cache = cache;
+        this.watcher = watcher;
+        this.key = key;
+        this.loader = loader;
+        this.observer = new InvalidationTracker.Observer(table) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalid.set(true);
+                if (hasActiveObservers()) {
+                    readExecutor.execute(() -> refresh(false));
+                }
+            }
+        };
+    }
+
+    /**
+     * Cache the first rows of every list emitted by a query, so opening one of
+     * the rows shown on screen is served from memory.
+     */
+    static <K, V> LiveData<List<V>> prefill(LiveData<List<V>> source, EntityCache<K, V> cache) {
+        MediatorLiveData<List<V>> result = new MediatorLiveData<>();
+        result.addSource(source, values -> {
+            cache.putAll(values, LIST_PREFILL_LIMIT);
+            result.setValue(values);
+        });
+        return result;
+    }
+
+    @Override
+    protected void onActive() {
+        if (invalid.get()) {
+            V cached = cache.get(key);
+            if (cached != null) {
+                tableVersionAtLoad = watcher.getTableVersion();
+                invalid.set(false);
+                setValue(cached);
+            }
+        }
+        readExecutor.execute(() -> {
+            // A change between the cache read and the registration would go unnoticed
+            boolean changed = updateRegistration();
+            refresh(!changed);
+        });
+    }
+
+    @Override
+    protected void onInactive() {
+        // Changes are not tracked while inactive, so the value must be checked again
+        invalid.set(true);
+        readExecutor.execute(this::updateRegistration);
+    }
+
+    /**
+     * Register with the tracker while active and unregister while inactive.
+     *
+     * @return Whether the table changed since the current value was read
+     */
+    private synchronized boolean updateRegistration() {
+        boolean active = hasActiveObservers();
+        if (active && !registered) {
+            tracker.addObserver(observer);
+            registered = true;
+            if (watcher.getTableVersion() != tableVersionAtLoad) {
+                invalid.set(true);
+                return true;
+            }
+        } else if (!active && registered) {
+            tracker.removeObserver(observer);
+            registered = false;
+        }
+        return false;
+    }
+
+    private void refresh(boolean useCache) {
+        if (!invalid.compareAndSet(true, false)) {
+            return;
+        }
+        long tableVersion = watcher.getTableVersion();
+        V value = useCache ? cache.get(key) : null;
+        if (value == null) {
+            value = loader.load();
+            if (value != null) {
+                cache.put(value);
+            }
+        }
+        tableVersionAtLoad = tableVersion;
+        postValue(value);
+    }
+
+    /**
+     * Loads the entity from the database.
+     */
+    interface Loader<V> {
+        V load();
+    }
+}
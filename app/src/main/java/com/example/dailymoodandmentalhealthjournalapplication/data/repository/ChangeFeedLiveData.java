@@ -0,0 +1,194 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.dao.EntryChangeDao;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.EntryChange;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDelta;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A feed of the entries of one user's table that changed since its previous
+ * emission. It keeps a watermark into the entry_changes log and, on every
+ * change to the log, loads only the rows changed past it. The first emission
+ * is a reset carrying every entry.
+ *
+ * <p>Every delta matters, so deltas are not dropped the way postValue drops
+ * values: deltas produced while no one is observing are merged and delivered
+ * once an observer is active. The feed is meant for a single consumer that
+ * applies every delta, such as a {@code SortedEntryList}.
+ *
+ * @param <T> The entity type
+ */
+final class ChangeFeedLiveData<T> extends LiveData<EntryDelta<T>> {
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private final AppDatabase database;
+    private final String table;
+    private final String userId;
+    private final Executor readExecutor;
+    private final Source<T> source;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final InvalidationTracker.Observer observer;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final Object refreshLock = new Object();
+    private final Object pendingLock = new Object();
+    // Guarded by refreshLock; -1 until the first reset was loaded
+    private long watermark = -1;
+    // Guarded by pendingLock
+    private EntryDelta<T> pending;
+    // Guarded by this
+    private boolean registered;
+
+    ChangeFeedLiveData(AppDatabase database, String table, String userId, Executor readExecutor, Source<T> source) {
+        this.database = database;
+        this.table = table;
+        this.userId = userId;
+        this.readExecutor = readExecutor;
+        this.source = source;
+        this.observer = new InvalidationTracker.Observer("entry_changes") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                scheduleRefresh();
+            }
+        };
+    }
+
+    @Override
+    protected void onActive() {
+        // Catch up on changes made while inactive, then deliver anything held back
+        readExecutor.execute(() -> {
+            updateRegistration();
+            scheduleRefresh();
+        });
+        deliverPending();
+    }
+
+    @Override
+    protected void onInactive() {
+        readExecutor.execute(this::updateRegistration);
+    }
+
+    private synchronized void updateRegistration() {
+        boolean active = hasActiveObservers();
+        if (active && !registered) {
+            database.getInvalidationTracker().addObserver(observer);
+            registered = true;
+        } else if (!active && registered) {
+            database.getInvalidationTracker().removeObserver(observer);
+            registered = false;
+        }
+    }
+
+    private void scheduleRefresh() {
+        // Changes arriving while a refresh is queued are picked up by that refresh
+        if (refreshPending.compareAndSet(false, true)) {
+            readExecutor.execute(() -> {
+                refreshPending.set(false);
+                refresh();
+            });
+        }
+    }
+
+    private void refresh() {
+        synchronized (refreshLock) {
+            EntryChangeDao changeDao = database.entryChangeDao();
+            // Read the latest sequence first; rows loaded after it may already
+            // include later changes, which are applied again harmlessly
+            long latest = changeDao.getLatestSeqSync();
+            EntryDelta<T> delta;
+            if (watermark < 0 || changeDao.getOldestSeqSync() > watermark + 1) {
+                // First load, or the log was pruned past what this feed has seen
+                delta = EntryDelta.reset(byId(source.loadAll()));
+            } else if (latest > watermark) {
+                delta = loadChanges(changeDao.getChangesSync(table, userId, watermark, latest));
+            } else {
+                return;
+            }
+            watermark = latest;
+            if (!delta.isEmpty()) {
+                synchronized (pendingLock) {
+                    pending = pending == null ? delta : pending.merge(delta);
+                }
+                mainHandler.post(this::deliverPending);
+            }
+        }
+    }
+
+    private EntryDelta<T> loadChanges(List<EntryChange> changes) {
+        // Only the last change of each entry matters
+        Set<Long> changedIds = new HashSet<>();
+        Set<Long> deletedIds = new HashSet<>();
+        for (EntryChange change : changes) {
+            if (change.getOperation() == EntryChange.OPERATION_DELETE) {
+                changedIds.remove(change.getEntryId());
+                deletedIds.add(change.getEntryId());
+            } else {
+                deletedIds.remove(change.getEntryId());
+                changedIds.add(change.getEntryId());
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(changedIds);
+        Map<Long, T> upserted = new LinkedHashMap<>();
+        for (int start = 0; start < ids.size(); start += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + ID_CHUNK_SIZE, ids.size()));
+            upserted.putAll(byId(source.loadByIds(chunk)));
+        }
+        // Rows missing by the time they are loaded were deleted in the meantime
+        for (Long id : ids) {
+            if (!upserted.containsKey(id)) {
+                deletedIds.add(id);
+            }
+        }
+        return EntryDelta.changes(upserted, deletedIds);
+    }
+
+    private Map<Long, T> byId(List<T> entries) {
+        Map<Long, T> entriesById = new LinkedHashMap<>();
+        for (T entry : entries) {
+            entriesById.put(source.idOf(entry), entry);
+        }
+        return entriesById;
+    }
+
+    private void deliverPending() {
+        if (!hasActiveObservers()) {
+            // Held back, so an inactive observer cannot miss a delta
+            return;
+        }
+        EntryDelta<T> delta;
+        synchronized (pendingLock) {
+            delta = pending;
+            pending = null;
+        }
+        if (delta != null) {
+            setValue(delta);
+        }
+    }
+
+    /**
+     * Loads the entries of the watched table.
+     */
+    interface Source<T> {
+        List<T> loadAll();
+
+        List<T> loadByIds(List<Long> ids);
+
+        long idOf(T entry);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded in-memory cache of entities keyed by ID. Once the estimated size
+ * of the cached entities exceeds the limit, the least recently used ones are
+ * evicted. Thread-safe; hit, miss and eviction counts are kept for diagnostics.
+ *
+ * @param <K> The key type
+ * @param <V> The entity type
+ */
+public class EntityCache<K, V> {
+    private final String name;
+    private final EntityType<K, V> type;
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Node<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes;
+    private long sizeBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public EntityCache(String name, long maxBytes, EntityType<K, V> type) {
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.type = type;
+    }
+
+    /**
+     * Get a cached entity and mark it as recently used.
+     *
+     * @param key The entity key
+     * @return The cached entity, or null on a miss
+     */
+    public synchronized V get(K key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return node.value;
+    }
+
+    /**
+     * Cache an entity, evicting the least recently used entities if the cache
+     * grows past its limit. Entities larger than the whole cache, or not
+     * cacheable, are not kept.
+     *
+     * @param value The entity to cache
+     */
+    public synchronized void put(V value) {
+        if (!type.isCacheable(value)) {
+            return;
+        }
+        K key = type.keyOf(value);
+        long size = type.sizeOf(value);
+        Node<V> previous = entries.remove(key);
+        if (previous != null) {
+            sizeBytes -= previous.size;
+        }
+        if (size > maxBytes) {
+            return;
+        }
+        entries.put(key, new Node<>(value, size));
+        sizeBytes += size;
+        trimTo(maxBytes);
+    }
+
+    /**
+     * Cache the first entities of a list, such as the rows a list screen shows
+     * before the user opens one of them.
+     *
+     * @param values The entities
+     * @param limit The maximum number of entities to cache
+     */
+    public synchronized void putAll(List<V> values, int limit) {
+        if (values == null) {
+            return;
+        }
+        // Put in reverse so the first rows end up most recently used
+        for (int i = Math.min(limit, values.size()) - 1; i >= 0; i--) {
+            V value = values.get(i);
+            if (value != null) {
+                put(value);
+            }
+        }
+    }
+
+    public synchronized void remove(K key) {
+        Node<V> node = entries.remove(key);
+        if (node != null) {
+            sizeBytes -= node.size;
+        }
+    }
+
+    public synchronized void removeAll(Collection<K> keys) {
+        for (K key : keys) {
+            remove(key);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    /**
+     * Get the keys of all cached entities, least recently used first.
+     *
+     * @return A copy of the cached keys
+     */
+    public synchronized List<K> keys() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Evict the given entities whose stored version no longer matches the
+     * cached one. Entities missing from the versions were deleted and are
+     * evicted as well. Does not change the recently used order.
+     *
+     * @param keys The keys that were checked against the database
+     * @param versions The stored version of every key that still exists
+     * @return The number of evicted entities
+     */
+    public synchronized int removeStale(Collection<K> keys, Map<K, Long> versions) {
+        int removed = 0;
+        Iterator<Map.Entry<K, Node<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Node<V>> entry = iterator.next();
+            if (!keys.contains(entry.getKey())) {
+                continue;
+            }
+            Long version = versions.get(entry.getKey());
+            if (version == null || version != type.versionOf(entry.getValue().value)) {
+                iterator.remove();
+                sizeBytes -= entry.getValue().size;
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Change the size limit, evicting entities if the cache is now too large.
+     *
+     * @param maxBytes The new limit in estimated bytes
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        trimTo(maxBytes);
+    }
+
+    /**
+     * Estimate the memory held by a string field of an entity.
+     *
+     * @param value The string, may be null
+     * @return The estimated size in bytes
+     */
+    public static long sizeOf(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(name, entries.size(), sizeBytes, maxBytes, hitCount, missCount, evictionCount);
+    }
+
+    private void trimTo(long limit) {
+        Iterator<Node<V>> iterator = entries.values().iterator();
+        while (sizeBytes > limit && iterator.hasNext()) {
+            sizeBytes -= iterator.next().size;
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private static final class Node<V> {
+        final V value;
+        // Weighed once, so later changes to the entity cannot skew the total
+        final long size;
+
+        Node(V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+
+    /**
+     * How the cache reads the key, estimated size and version of an entity.
+     *
+     * @param <K> The key type
+     * @param <V> The entity type
+     */
+    public interface EntityType<K, V> {
+        K keyOf(V value);
+
+        /**
+         * Estimate the memory held by an entity, in bytes.
+         */
+        long sizeOf(V value);
+
+        /**
+         * Get a value that changes whenever the stored entity changes, such
+         * as its last update time.
+         */
+        long versionOf(V value);
+
+        /**
+         * Whether an entity may be cached. Entities loaded only in part, which
+         * a detail screen must not be served, return false.
+         */
+        default boolean isCacheable(V value) {
+            return true;
+        }
+    }
+
+    /**
+     * Point-in-time metrics of a cache.
+     */
+    public static class Stats {
+        private final String name;
+        private final int entryCount;
+        private final long sizeBytes;
+        private final long maxBytes;
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+
+        Stats(String name, int entryCount, long sizeBytes, long maxBytes, long hitCount, long missCount,
+              long evictionCount) {
+            this.name = name;
+            this.entryCount = entryCount;
+            this.sizeBytes = sizeBytes;
+            this.maxBytes = maxBytes;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public float getHitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0f : (float) hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": entries=" + entryCount + ", bytes=" + sizeBytes + "/" + maxBytes
+                    + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntityVersion;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an entity cache in step with writes that bypass the repository, such
+ * as workers using the DAOs directly. Room only reports which table changed,
+ * so on every change the cached entities are checked against their stored
+ * versions and only the stale ones are evicted.
+ *
+ * @param <K> The key type
+ * @param <V> The entity type
+ */
+final class EntityCacheWatcher<K, V> extends InvalidationTracker.Observer {
+    private static final int VERSION_CHUNK_SIZE = 500;
+
+    private final EntityCache<K, V> cache;
+    private final VersionLoader<K> versionLoader;
+    private final Executor readExecutor;
+    private final AtomicLong tableVersion = new AtomicLong();
+    private final AtomicBoolean revalidationPending = new AtomicBoolean();
+
+    /**
+     * @param table The table the cached entities are stored in
+     * @param cache The cache to keep in step
+     * @param versionLoader Loads stored versions, or null to clear the whole
+     *                      cache on every change
+     * @param readExecutor The executor the check runs on
+     */
+    EntityCacheWatcher(String table, EntityCache<K, V> cache, VersionLoader<K> versionLoader,
+                       Executor readExecutor) {
+        super(table);
+        this.cache = cache;
+        this.versionLoader = versionLoader;
+        this.readExecutor = readExecutor;
+    }
+
+    /**
+     * Start watching. Registration touches the database, so it runs on the
+     * given executor rather than the calling thread.
+     */
+    void start(AppDatabase database, Executor executor) {
+        executor.execute(() -> database.getInvalidationTracker().addObserver(this));
+    }
+
+    /**
+     * Get a counter that moves on every change to the table, so a reader can
+     * tell whether a change may have slipped in between two points in time.
+     */
+    long getTableVersion() {
+        return tableVersion.get();
+    }
+
+    @Override
+    public void onInvalidated(@NonNull Set<String> tables) {
+        tableVersion.incrementAndGet();
+        // Changes arriving while a check is queued are covered by that check
+        if (revalidationPending.compareAndSet(false, true)) {
+            readExecutor.execute(() -> {
+                revalidationPending.set(false);
+                revalidate();
+            });
+        }
+    }
+
+    private void revalidate() {
+        if (versionLoader == null) {
+            cache.clear();
+            return;
+        }
+        List<K> keys = cache.keys();
+        Map<K, Long> versions = new HashMap<>();
+        for (int start = 0; start < keys.size(); start += VERSION_CHUNK_SIZE) {
+            versions.putAll(versionLoader.loadVersions(
+                    keys.subList(start, Math.min(start + VERSION_CHUNK_SIZE, keys.size()))));
+        }
+        cache.removeStale(new HashSet<>(keys), versions);
+    }
+
+    /**
+     * Key the versions loaded by a DAO by entity ID.
+     */
+    static Map<Long, Long> toVersionMap(List<EntityVersion> rows) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (EntityVersion row : rows) {
+            versions.put(row.getId(), row.getUpdatedAt());
+        }
+        return versions;
+    }
+
+    /**
+     * Loads the stored version of entities.
+     */
+    interface VersionLoader<K> {
+        Map<K, Long> loadVersions(List<K> keys);
+    }
+}
@@ -1,16 +1,50 @@
 package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
 
 import android.app.Application;
+import android.os.Process;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.DatabaseDispatcher;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalArchive;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.ArchiveStats;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDay;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDelta;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalEntrySummary;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.PeriodCount;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.PeriodSentiment;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.TagCount;
+import com.example.dailymoodandmentalhealthjournalapplication.data.search.Bm25Ranker;
+import com.example.dailymoodandmentalhealthjournalapplication.data.search.FtsQuery;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.ContentHash;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.CorpusPipeline;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.EmotionVector;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.SentimentAnalyzer;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.TagParser;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.TextCompressor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Repository class that handles data operations for JournalEntry.
@@ -18,12 +52,85 @@ import java.util.concurrent.Executors;
  */
 public class JournalRepository {
     private static final String TAG = "JournalRepository";
+    private static final int PAGE_SIZE = 30;
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int BUCKET_BATCH_SIZE = 500;
+    private static final int ARCHIVE_BATCH_SIZE = 100;
+    private static final int SENTIMENT_BATCH_SIZE = 200;
+    private static final int SENTIMENT_BATCHES_IN_FLIGHT = 4;
+    /** Entries shorter than this, in characters, are not worth archiving. */
+    private static final int MIN_ARCHIVE_LENGTH = 1024;
+    private static final PagingConfig PAGING_CONFIG =
+            new PagingConfig(PAGE_SIZE, PAGE_SIZE, true, PAGE_SIZE * 2);
+    private static final String TABLE = "journal_entries";
+    private static final long ENTRY_CACHE_BYTES = 1024 * 1024;
+    private static final EntityCache.EntityType<Long, JournalEntry> ENTRY_TYPE =
+            new EntityCache.EntityType<Long, JournalEntry>() {
+                @Override
+                public Long keyOf(JournalEntry journalEntry) {
+                    return journalEntry.getId();
+                }
+
+                @Override
+                public long sizeOf(JournalEntry journalEntry) {
+                    return 96 + EntityCache.sizeOf(journalEntry.getUserId())
+                            + EntityCache.sizeOf(journalEntry.getTitle())
+                            + EntityCache.sizeOf(journalEntry.getContent())
+                            + EntityCache.sizeOf(journalEntry.getTags());
+                }
+
+                @Override
+                public long versionOf(JournalEntry journalEntry) {
+                    return journalEntry.getUpdatedAt();
+                }
+
+                @Override
+                public boolean isCacheable(JournalEntry journalEntry) {
+                    // An archived entry read by a list only holds a preview of its content
+                    return !journalEntry.isArchived();
+                }
+            };
+    private static volatile JournalRepository INSTANCE;
     private final AppDatabase database;
     private final Executor executor;
+    private final Executor readExecutor;
+    private final EntityCache<Long, JournalEntry> entryCache;
+    private final EntityCacheWatcher<Long, JournalEntry> cacheWatcher;
+    private final Object decompressionLock = new Object();
+    private long decompressionCount;
+    private long decompressionNanos;
+    private long maxDecompressionNanos;
 
     public JournalRepository(Application application) {
-        database = AppDatabase.getInstance(application);
-        executor = Executors.newSingleThreadExecutor();
+        this(AppDatabase.getInstance(application), DatabaseDispatcher.getInstance());
+    }
+
+    public JournalRepository(AppDatabase database, DatabaseDispatcher dispatcher) {
+        this.database = database;
+        this.executor = dispatcher.writer();
+        this.readExecutor = dispatcher.reader();
+        this.entryCache = new EntityCache<>(TABLE, ENTRY_CACHE_BYTES, ENTRY_TYPE);
+        this.cacheWatcher = new EntityCacheWatcher<>(TABLE, entryCache,
+                ids -> EntityCacheWatcher.toVersionMap(database.journalEntryDao().getVersionsSync(ids)),
+                readExecutor);
+        cacheWatcher.start(database, executor);
+    }
+
+    /**
+     * Get the shared repository, so ViewModels do not each create their own.
+     *
+     * @param application The application
+     * @return The JournalRepository instance
+     */
+    public static JournalRepository getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (JournalRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new JournalRepository(application);
+                }
+            }
+        }
+        return INSTANCE;
     }
 
     /**
@@ -36,8 +143,19 @@ public class JournalRepository {
         executor.execute(() -> {
             try {
                 Log.d(TAG, "Inserting journal entry");
-                long id = database.journalEntryDao().insert(journalEntry);
+                inflate(journalEntry);
+                stampWrite(journalEntry);
+                long id = database.runInTransaction(() -> {
+                    long insertedId = database.journalEntryDao().insert(journalEntry);
+                    // An entry whose ID already exists is updated instead
+                    long entryId = insertedId != -1 ? insertedId : journalEntry.getId();
+                    database.tagDao().setTagsForEntry(entryId, TagParser.parse(journalEntry.getTags()));
+                    database.journalArchiveDao().deleteByEntryIds(Collections.singletonList(entryId));
+                    return entryId;
+                });
                 Log.d(TAG, "Journal entry inserted with ID: " + id);
+                // The insert may have updated a cached entry
+                entryCache.remove(id);
                 callback.onInsertComplete(id);
             } catch (Exception e) {
                 Log.e(TAG, "Error inserting journal entry", e);
@@ -47,17 +165,33 @@ public class JournalRepository {
     }
 
     /**
-     * Update an existing journal entry.
+     * Update an existing journal entry. Saving an entry whose text, tags, date
+     * and favorite status match the stored row is skipped, so an unedited save
+     * does not rewrite the search index or notify observers. Saving changes to
+     * an archived entry brings its full text back into journal_entries.
      *
      * @param journalEntry The journal entry to update
      */
     public void updateJournalEntry(JournalEntry journalEntry) {
         executor.execute(() -> {
             try {
-                database.journalEntryDao().update(journalEntry);
+                inflate(journalEntry);
+                stampWrite(journalEntry);
+                if (database.journalEntryDao().isUnchangedSync(journalEntry.getId(), journalEntry.getContentHash(),
+                        journalEntry.getDate(), journalEntry.isFavorite())) {
+                    Log.d(TAG, "Journal entry unchanged, skipping update: " + journalEntry.getId());
+                    return;
+                }
+                database.runInTransaction(() -> {
+                    database.journalEntryDao().update(journalEntry);
+                    database.tagDao().setTagsForEntry(journalEntry.getId(), TagParser.parse(journalEntry.getTags()));
+                    database.journalArchiveDao().deleteByEntryIds(Collections.singletonList(journalEntry.getId()));
+                });
                 Log.d(TAG, "Journal entry updated: " + journalEntry.getId());
             } catch (Exception e) {
                 Log.e(TAG, "Error updating journal entry", e);
+            } finally {
+                entryCache.remove(journalEntry.getId());
             }
         });
     }
@@ -74,18 +208,274 @@ public class JournalRepository {
                 Log.d(TAG, "Journal entry deleted: " + journalEntry.getId());
             } catch (Exception e) {
                 Log.e(TAG, "Error deleting journal entry", e);
+            } finally {
+                entryCache.remove(journalEntry.getId());
+            }
+        });
+    }
+
+    /**
+     * Insert journal entries and index their tags in chunks, one transaction
+     * per chunk. The IDs of the inserted rows are set on the entries; entries
+     * whose ID already exists are updated in place and their tags re-indexed.
+     *
+     * @param journalEntries The journal entries to insert
+     * @param callback Callback notified of progress and completion
+     */
+    public void insertJournalEntries(List<JournalEntry> journalEntries, BulkCallback callback) {
+        runInChunks(journalEntries, chunk -> {
+            stampWrites(chunk);
+            List<Long> ids = database.journalEntryDao().insertAll(chunk);
+            indexTags(chunk, ids);
+            dropArchives(chunk);
+        }, "inserting", callback);
+    }
+
+    /**
+     * Delete journal entries in chunks, one transaction per chunk. Their tag
+     * links are removed by the foreign key cascade.
+     *
+     * @param journalEntries The journal entries to delete
+     * @param callback Callback notified of progress and completion
+     */
+    public void deleteJournalEntries(List<JournalEntry> journalEntries, BulkCallback callback) {
+        runInChunks(journalEntries, chunk -> database.journalEntryDao().deleteAll(chunk), "deleting", callback);
+    }
+
+    /**
+     * Replace all journal entries of a user with the given entries in a single
+     * transaction, so a failed restore leaves the existing entries in place.
+     * Entries that repeat the date and text of an earlier one, as merged or
+     * twice-imported backups contain, are restored once.
+     *
+     * @param userId The user ID
+     * @param journalEntries The journal entries to restore
+     * @param callback Callback notified of progress and completion, with the number of entries restored
+     */
+    public void restoreJournalEntries(String userId, List<JournalEntry> journalEntries, BulkCallback callback) {
+        executor.execute(() -> {
+            try {
+                List<JournalEntry> unique = dedupe(journalEntries);
+                database.runInTransaction(() -> {
+                    List<Long> ids = database.journalEntryDao().replaceAllForUser(userId, unique);
+                    indexTags(unique, ids);
+                });
+                Log.d(TAG, "Restored " + unique.size() + " journal entries for user: " + userId + ", skipped "
+                        + (journalEntries.size() - unique.size()) + " duplicates");
+                callback.onProgress(unique.size(), unique.size());
+                callback.onComplete(unique.size());
+            } catch (Exception e) {
+                Log.e(TAG, "Error restoring journal entries", e);
+                callback.onComplete(-1);
+            } finally {
+                entryCache.clear();
             }
         });
     }
 
     /**
-     * Get a journal entry by ID.
+     * Keep the first of the entries that share a date and content fingerprint,
+     * stamping every entry on the way.
+     */
+    private static List<JournalEntry> dedupe(List<JournalEntry> journalEntries) {
+        List<JournalEntry> unique = new ArrayList<>(journalEntries.size());
+        Set<String> seen = new HashSet<>();
+        for (JournalEntry journalEntry : journalEntries) {
+            stampWrite(journalEntry);
+            if (seen.add(journalEntry.getDate() + ":" + journalEntry.getContentHash())) {
+                unique.add(journalEntry);
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Set the fields derived on every write: the content fingerprint, the
+     * local day, ISO week and month buckets of the date in the current time
+     * zone, and the sentiment and emotions of the content with the current
+     * language's lexicon.
+     */
+    private static void stampWrite(JournalEntry journalEntry) {
+        journalEntry.setContentHash(ContentHash.of(journalEntry.getTitle(), journalEntry.getContent(),
+                journalEntry.getTags()));
+        long epochDay = DateBuckets.epochDay(journalEntry.getDate(), TimeZone.getDefault());
+        journalEntry.setEpochDay(epochDay);
+        journalEntry.setWeekKey(DateBuckets.weekKey(epochDay));
+        journalEntry.setMonthKey(DateBuckets.monthKey(epochDay));
+        analyze(journalEntry, Locale.getDefault());
+    }
+
+    private static void analyze(JournalEntry journalEntry, Locale locale) {
+        SentimentAnalyzer.Result result = SentimentAnalyzer.analyze(journalEntry.getContent(), locale);
+        journalEntry.setSentimentScore(result.getScore());
+        journalEntry.setEmotionVector(result.getEmotionVector());
+        journalEntry.setSentimentVersion(SentimentAnalyzer.VERSION);
+        journalEntry.setSentimentLanguage(SentimentAnalyzer.getLexiconLanguage(locale));
+    }
+
+    /**
+     * Stamp entries about to be written in bulk, first reading back the full
+     * text of any archived entry among them.
+     */
+    private void stampWrites(List<JournalEntry> journalEntries) {
+        for (JournalEntry journalEntry : journalEntries) {
+            inflate(journalEntry);
+            stampWrite(journalEntry);
+        }
+    }
+
+    /**
+     * Read the full text of an archived entry back into it and clear its
+     * archived flag. Entries kept in full are left as they are.
+     *
+     * @return The entry, for use in loaders
+     */
+    private JournalEntry inflate(JournalEntry journalEntry) {
+        if (journalEntry == null || !journalEntry.isArchived()) {
+            return journalEntry;
+        }
+        JournalArchive archive = database.journalArchiveDao().getArchiveSync(journalEntry.getId());
+        if (archive == null) {
+            // Brought back by an edit since the entry was read, so the row holds the full text again
+            JournalEntry current = database.journalEntryDao().getJournalEntryByIdSync(journalEntry.getId());
+            if (current != null && !current.isArchived()) {
+                journalEntry.setContent(current.getContent());
+                journalEntry.setArchived(false);
+            }
+            return journalEntry;
+        }
+
+        long start = System.nanoTime();
+        journalEntry.setContent(TextCompressor.decompress(archive.getCompressedContent()));
+        long elapsed = System.nanoTime() - start;
+        journalEntry.setArchived(false);
+        synchronized (decompressionLock) {
+            decompressionCount++;
+            decompressionNanos += elapsed;
+            maxDecompressionNanos = Math.max(maxDecompressionNanos, elapsed);
+        }
+        return journalEntry;
+    }
+
+    /**
+     * Drop the archived text of entries that were just written in full.
+     */
+    private void dropArchives(List<JournalEntry> journalEntries) {
+        List<Long> ids = new ArrayList<>(journalEntries.size());
+        for (JournalEntry journalEntry : journalEntries) {
+            ids.add(journalEntry.getId());
+        }
+        database.journalArchiveDao().deleteByEntryIds(ids);
+    }
+
+    /**
+     * Index the tags of freshly written entries. A row ID of -1 means the
+     * upsert updated an existing row, which keeps the entry's own ID.
+     */
+    private void indexTags(List<JournalEntry> journalEntries, List<Long> ids) {
+        for (int i = 0; i < journalEntries.size(); i++) {
+            JournalEntry journalEntry = journalEntries.get(i);
+            long id = ids.get(i);
+            if (id != -1) {
+                journalEntry.setId(id);
+            }
+            database.tagDao().setTagsForEntry(journalEntry.getId(), TagParser.parse(journalEntry.getTags()));
+        }
+    }
+
+    private void runInChunks(List<JournalEntry> journalEntries, ChunkOperation operation, String action,
+                             BulkCallback callback) {
+        List<JournalEntry> entries = new ArrayList<>(journalEntries);
+        executor.execute(() -> {
+            int completed = 0;
+            try {
+                while (completed < entries.size()) {
+                    List<JournalEntry> chunk = entries.subList(completed,
+                            Math.min(completed + BULK_CHUNK_SIZE, entries.size()));
+                    try {
+                        database.runInTransaction(() -> operation.apply(chunk));
+                    } finally {
+                        evict(chunk);
+                    }
+                    completed += chunk.size();
+                    callback.onProgress(completed, entries.size());
+                }
+                Log.d(TAG, "Finished " + action + " " + completed + " journal entries");
+                callback.onComplete(completed);
+            } catch (Exception e) {
+                Log.e(TAG, "Error " + action + " journal entries after " + completed + " rows", e);
+                callback.onComplete(-1);
+            }
+        });
+    }
+
+    private void evict(List<JournalEntry> journalEntries) {
+        List<Long> ids = new ArrayList<>(journalEntries.size());
+        for (JournalEntry journalEntry : journalEntries) {
+            ids.add(journalEntry.getId());
+        }
+        entryCache.removeAll(ids);
+    }
+
+    /**
+     * Get a journal entry by ID. Entries recently loaded by a list or detail
+     * screen are served from memory. The text of an archived entry is
+     * decompressed, so the entry always carries its full content.
      *
      * @param id The ID of the journal entry
      * @return LiveData containing the journal entry
      */
     public LiveData<JournalEntry> getJournalEntryById(long id) {
-        return database.journalEntryDao().getJournalEntryById(id);
+        return new CachedEntityLiveData<>(database, TABLE, readExecutor, entryCache, cacheWatcher, id,
+                () -> inflate(database.journalEntryDao().getJournalEntryByIdSync(id)));
+    }
+
+    /**
+     * Get a feed of the journal entries of a user that changed since the feed's
+     * previous emission. The first emission carries every entry; after that a
+     * write costs a query for the changed rows only, rather than a reload of
+     * the whole list. Meant to be applied by a single consumer, such as a
+     * SortedEntryList.
+     *
+     * @param userId The user ID
+     * @return LiveData emitting the changed entries
+     */
+    public LiveData<EntryDelta<JournalEntry>> getJournalEntryChanges(String userId) {
+        ChangeFeedLiveData.Source<JournalEntry> source = new ChangeFeedLiveData.Source<JournalEntry>() {
+            @Override
+            public List<JournalEntry> loadAll() {
+                return database.journalEntryDao().getAllJournalEntriesByUserSync(userId);
+            }
+
+            @Override
+            public List<JournalEntry> loadByIds(List<Long> ids) {
+                return database.journalEntryDao().getJournalEntriesByIdsSync(ids);
+            }
+
+            @Override
+            public long idOf(JournalEntry journalEntry) {
+                return journalEntry.getId();
+            }
+        };
+        return new ChangeFeedLiveData<>(database, TABLE, userId, readExecutor, source);
+    }
+
+    /**
+     * Get the hit, miss and eviction counts of the journal entry cache.
+     *
+     * @return A snapshot of the cache stats
+     */
+    public EntityCache.Stats getCacheStats() {
+        return entryCache.getStats();
+    }
+
+    /**
+     * Change how much memory the journal entry cache may hold.
+     *
+     * @param maxBytes The limit in estimated bytes; 0 disables the cache
+     */
+    public void setCacheLimit(long maxBytes) {
+        entryCache.setMaxBytes(maxBytes);
     }
 
     /**
@@ -95,7 +485,8 @@ public class JournalRepository {
      * @return LiveData containing a list of journal entries
      */
     public LiveData<List<JournalEntry>> getAllJournalEntriesByUser(String userId) {
-        return database.journalEntryDao().getAllJournalEntriesByUser(userId);
+        return CachedEntityLiveData.prefill(
+                database.journalEntryDao().getAllJournalEntriesByUser(userId), entryCache);
     }
 
     /**
@@ -107,29 +498,399 @@ public class JournalRepository {
      * @return LiveData containing a list of journal entries
      */
     public LiveData<List<JournalEntry>> getJournalEntriesByDateRange(String userId, long startDate, long endDate) {
-        return database.journalEntryDao().getJournalEntriesByDateRange(userId, startDate, endDate);
+        return CachedEntityLiveData.prefill(
+                database.journalEntryDao().getJournalEntriesByDateRange(userId, startDate, endDate), entryCache);
+    }
+
+    /**
+     * Get journal entries for a user within a range of local days, selected
+     * by the stored day of each entry.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing a list of journal entries, newest first
+     */
+    public LiveData<List<JournalEntry>> getJournalEntriesByDayRange(String userId, long fromDay, long toDay) {
+        return CachedEntityLiveData.prefill(
+                database.journalEntryDao().getJournalEntriesByDayRange(userId, fromDay, toDay), entryCache);
+    }
+
+    /**
+     * Get the number of journal entries of each local day within a range.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the counts keyed by epoch day
+     */
+    public LiveData<List<PeriodCount>> getEntryCountsByDay(String userId, long fromDay, long toDay) {
+        return database.journalEntryDao().getEntryCountsByDay(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get the number of journal entries of each ISO week within a range of
+     * local days.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the counts keyed by yyyyww week key
+     */
+    public LiveData<List<PeriodCount>> getEntryCountsByWeek(String userId, long fromDay, long toDay) {
+        return database.journalEntryDao().getEntryCountsByWeek(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get the number of journal entries of each month within a range of local
+     * days.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the counts keyed by yyyyMM month key
+     */
+    public LiveData<List<PeriodCount>> getEntryCountsByMonth(String userId, long fromDay, long toDay) {
+        return database.journalEntryDao().getEntryCountsByMonth(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get the average sentiment of the analyzed journal entries of each local
+     * day within a range.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the averages keyed by epoch day
+     */
+    public LiveData<List<PeriodSentiment>> getSentimentByDay(String userId, long fromDay, long toDay) {
+        return database.journalEntryDao().getSentimentByDay(userId, fromDay, toDay);
     }
 
     /**
-     * Search journal entries for a user.
+     * Get the average sentiment of the analyzed journal entries of each ISO
+     * week within a range of local days.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the averages keyed by yyyyww week key
+     */
+    public LiveData<List<PeriodSentiment>> getSentimentByWeek(String userId, long fromDay, long toDay) {
+        return database.journalEntryDao().getSentimentByWeek(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get the average sentiment of the analyzed journal entries of each month
+     * within a range of local days.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the averages keyed by yyyyMM month key
+     */
+    public LiveData<List<PeriodSentiment>> getSentimentByMonth(String userId, long fromDay, long toDay) {
+        return database.journalEntryDao().getSentimentByMonth(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get the most frequent emotions over all journal entries of a user,
+     * summed from the emotion counts stored with each entry.
+     *
+     * @param userId The user ID
+     * @param limit The maximum number of emotions to return
+     * @return LiveData containing the emotions and their counts, most frequent first
+     */
+    public LiveData<Map<String, Integer>> getCommonEmotions(String userId, int limit) {
+        MediatorLiveData<Map<String, Integer>> emotions = new MediatorLiveData<>();
+        emotions.addSource(database.journalEntryDao().getEmotionVectors(userId), vectors -> {
+            int[] totals = new int[EmotionVector.EMOTIONS.length];
+            if (vectors != null) {
+                for (int i = 0; i < vectors.size(); i++) {
+                    EmotionVector.addTo(vectors.get(i), totals);
+                }
+            }
+            emotions.setValue(EmotionVector.top(totals, limit));
+        });
+        return emotions;
+    }
+
+    /**
+     * Recompute the day, week and month buckets of every journal entry for the
+     * current time zone, in batches of one transaction each. Only entries whose
+     * local day changed are written, since every write also rewrites the
+     * entry's search index row. Must run on a background thread.
+     *
+     * @return The number of entries whose buckets changed
+     */
+    public int recomputeDateBucketsSync() {
+        TimeZone timeZone = TimeZone.getDefault();
+        int changed = 0;
+        long lastId = 0;
+        try {
+            while (true) {
+                List<EntryDay> batch = database.journalEntryDao().getEntryDaysAfterSync(lastId, BUCKET_BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    return changed;
+                }
+                changed += database.runInTransaction(() -> {
+                    int updated = 0;
+                    for (EntryDay entry : batch) {
+                        long epochDay = DateBuckets.epochDay(entry.getDate(), timeZone);
+                        if (epochDay != entry.getEpochDay()) {
+                            updated += database.journalEntryDao().setDateBuckets(entry.getId(), entry.getDate(),
+                                    epochDay, DateBuckets.weekKey(epochDay), DateBuckets.monthKey(epochDay));
+                        }
+                    }
+                    return updated;
+                });
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } finally {
+            // Cached entries still carry the old buckets
+            entryCache.clear();
+        }
+    }
+
+    /**
+     * Analyze the journal entries whose stored sentiment is missing or was
+     * computed by another version of SentimentAnalyzer or with another
+     * language's lexicon than the default locale's. Must run on a background
+     * thread.
+     *
+     * @return The number of entries analyzed
+     * @see #backfillSentimentSync(Locale, CorpusPipeline.ProgressListener, CorpusPipeline.Cancellation)
+     */
+    public int backfillSentimentSync() {
+        return backfillSentimentSync(Locale.getDefault(), null, null);
+    }
+
+    /**
+     * Analyze the journal entries whose stored sentiment is missing or was
+     * computed by another version of SentimentAnalyzer or with another
+     * language's lexicon than the given locale's. Entries are read in
+     * chunks, analyzed on a pool with a thread per core, archived ones from
+     * their full text, and written back one transaction per chunk, with a
+     * bounded number of chunks in memory. Must run on a background thread.
+     *
+     * @param locale The locale whose language's lexicon to analyze with
+     * @param listener Receives the number of entries analyzed so far, or null
+     * @param cancellation Checked between chunks to stop early, or null
+     * @return The number of entries analyzed
+     */
+    public int backfillSentimentSync(Locale locale, CorpusPipeline.ProgressListener listener,
+                                     CorpusPipeline.Cancellation cancellation) {
+        String language = SentimentAnalyzer.getLexiconLanguage(locale);
+        ForkJoinPool pool = newAnalysisPool(Runtime.getRuntime().availableProcessors());
+        try {
+            CorpusPipeline<JournalEntry> pipeline =
+                    new CorpusPipeline<>(pool, SENTIMENT_BATCH_SIZE, SENTIMENT_BATCHES_IN_FLIGHT);
+            return pipeline.run(new CorpusPipeline.Source<JournalEntry>() {
+                private long lastId;
+
+                @Override
+                public List<JournalEntry> read(int limit) {
+                    List<JournalEntry> batch = database.journalEntryDao().getEntriesWithoutSentimentSync(lastId,
+                            SentimentAnalyzer.VERSION, language, limit);
+                    if (!batch.isEmpty()) {
+                        lastId = batch.get(batch.size() - 1).getId();
+                    }
+                    return batch;
+                }
+            }, journalEntry -> {
+                inflate(journalEntry);
+                analyze(journalEntry, locale);
+            }, batch -> database.runInTransaction(() -> {
+                for (JournalEntry journalEntry : batch) {
+                    database.journalEntryDao().setSentiment(journalEntry.getId(),
+                            journalEntry.getSentimentScore(), journalEntry.getEmotionVector(),
+                            SentimentAnalyzer.VERSION, language);
+                }
+            }), listener, cancellation);
+        } finally {
+            pool.shutdownNow();
+            // Cached entries still carry the old sentiment
+            entryCache.clear();
+        }
+    }
+
+    /**
+     * Create a fork-join pool whose threads run at background priority, so
+     * bulk analysis does not compete with the UI thread.
+     */
+    private static ForkJoinPool newAnalysisPool(int parallelism) {
+        AtomicInteger count = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {
+                @Override
+                protected void onStart() {
+                    super.onStart();
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                }
+            };
+            thread.setName("sentiment-" + count.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Move the full text of journal entries neither dated nor edited since the
+     * cutoff into the archive, Deflate-compressed. The entries keep a preview
+     * of their content, so lists are unaffected, and stay searchable through
+     * the archive's index of their distinct words. Entries too short to save
+     * space are skipped. Must run on a background thread.
+     *
+     * @param cutoff The time in milliseconds before which entries are archived
+     * @return The number of entries archived
+     */
+    public int archiveEntriesSync(long cutoff) {
+        int archived = 0;
+        long lastId = 0;
+        while (true) {
+            List<JournalEntry> batch = database.journalEntryDao().getArchiveCandidatesSync(lastId, cutoff,
+                    MIN_ARCHIVE_LENGTH, ARCHIVE_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return archived;
+            }
+
+            // Compress outside the transaction so the writer is not held up
+            long now = System.currentTimeMillis();
+            List<JournalEntry> entries = new ArrayList<>(batch.size());
+            List<JournalArchive> archives = new ArrayList<>(batch.size());
+            for (JournalEntry journalEntry : batch) {
+                byte[] compressed = TextCompressor.compress(journalEntry.getContent());
+                String terms = FtsQuery.distinctTerms(journalEntry.getTitle(), journalEntry.getContent());
+                int originalBytes = TextCompressor.originalLength(compressed);
+                // Text that barely compresses does not pay for its terms and preview
+                if (compressed.length + terms.length() + JournalEntrySummary.PREVIEW_LENGTH < originalBytes) {
+                    entries.add(journalEntry);
+                    archives.add(new JournalArchive(journalEntry.getId(), compressed, originalBytes, terms, now));
+                }
+            }
+            archived += database.runInTransaction(() -> {
+                int count = 0;
+                for (int i = 0; i < entries.size(); i++) {
+                    JournalEntry journalEntry = entries.get(i);
+                    // Entries edited since the batch was read keep their text
+                    if (database.journalEntryDao().markArchived(journalEntry.getId(),
+                            journalEntry.getContentHash()) > 0) {
+                        database.journalArchiveDao().insert(archives.get(i));
+                        count++;
+                    }
+                }
+                return count;
+            });
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Get the size of the journal archive and the time spent decompressing
+     * archived entries since the process started. Must run on a background
+     * thread.
+     *
+     * @return A snapshot of the archive stats
+     */
+    public ArchiveStats getArchiveStatsSync() {
+        ArchiveStats stats = database.journalArchiveDao().getArchiveStatsSync();
+        synchronized (decompressionLock) {
+            stats.setDecompressionCount(decompressionCount);
+            stats.setDecompressionNanos(decompressionNanos);
+            stats.setMaxDecompressionNanos(maxDecompressionNanos);
+        }
+        return stats;
+    }
+
+    /**
+     * Search journal entries for a user using the full-text index.
+     * Every word of the query is matched as a prefix and results are ordered
+     * by BM25 relevance, ranked on the database reader lane. Archived entries
+     * are matched through the archive's index and returned with a preview of
+     * their content.
      *
      * @param userId The user ID
      * @param query The search query
-     * @return LiveData containing a list of journal entries
+     * @return LiveData containing a list of journal entries, most relevant first
      */
     public LiveData<List<JournalEntry>> searchJournalEntries(String userId, String query) {
-        return database.journalEntryDao().searchJournalEntries(userId, query);
+        String matchQuery = FtsQuery.toPrefixMatch(query);
+        if (matchQuery == null) {
+            return new MutableLiveData<>(new ArrayList<>());
+        }
+
+        MediatorLiveData<List<JournalEntry>> rankedResults = new MediatorLiveData<>();
+        // Ranking runs on the pooled reader lane, so drop results overtaken by a newer emission
+        AtomicInteger generation = new AtomicInteger();
+        rankedResults.addSource(database.journalEntryDao().searchJournalEntries(userId, matchQuery), results -> {
+            int current = generation.incrementAndGet();
+            readExecutor.execute(() -> {
+                List<JournalEntry> ranked = Bm25Ranker.rank(results);
+                entryCache.putAll(ranked, CachedEntityLiveData.LIST_PREFILL_LIMIT);
+                if (generation.get() == current) {
+                    rankedResults.postValue(ranked);
+                }
+            });
+        });
+        return rankedResults;
     }
 
     /**
-     * Get journal entries for a user by tag.
+     * Get journal entries for a user by tag. Tags are matched exactly (ignoring
+     * case) through the tag index.
      *
      * @param userId The user ID
      * @param tag The tag to search for
      * @return LiveData containing a list of journal entries
      */
     public LiveData<List<JournalEntry>> getJournalEntriesByTag(String userId, String tag) {
-        return database.journalEntryDao().getJournalEntriesByTag(userId, tag);
+        String name = TagParser.normalize(tag);
+        if (name == null) {
+            return new MutableLiveData<>(new ArrayList<>());
+        }
+        return CachedEntityLiveData.prefill(
+                database.journalEntryDao().getJournalEntriesByTag(userId, name), entryCache);
+    }
+
+    /**
+     * Get journal entries for a user that carry every one of the given tags.
+     *
+     * @param userId The user ID
+     * @param tags The tags that must all be present
+     * @return LiveData containing a list of journal entries
+     */
+    public LiveData<List<JournalEntry>> getJournalEntriesWithAllTags(String userId, List<String> tags) {
+        List<String> names = TagParser.normalizeAll(tags);
+        if (names.isEmpty()) {
+            return new MutableLiveData<>(new ArrayList<>());
+        }
+        return CachedEntityLiveData.prefill(
+                database.journalEntryDao().getJournalEntriesWithAllTags(userId, names, names.size()), entryCache);
+    }
+
+    /**
+     * Get journal entries for a user that carry at least one of the given tags.
+     *
+     * @param userId The user ID
+     * @param tags The tags to match
+     * @return LiveData containing a list of journal entries
+     */
+    public LiveData<List<JournalEntry>> getJournalEntriesWithAnyTag(String userId, List<String> tags) {
+        List<String> names = TagParser.normalizeAll(tags);
+        if (names.isEmpty()) {
+            return new MutableLiveData<>(new ArrayList<>());
+        }
+        return CachedEntityLiveData.prefill(
+                database.journalEntryDao().getJournalEntriesWithAnyTag(userId, names), entryCache);
+    }
+
+    /**
+     * Get the number of journal entries per tag for a user.
+     *
+     * @param userId The user ID
+     * @return LiveData containing the tag counts, most used first
+     */
+    public LiveData<List<TagCount>> getTagCounts(String userId) {
+        return database.tagDao().getTagCounts(userId);
     }
 
     /**
@@ -139,7 +900,63 @@ public class JournalRepository {
      * @return LiveData containing a list of journal entries
      */
     public LiveData<List<JournalEntry>> getFavoriteJournalEntries(String userId) {
-        return database.journalEntryDao().getFavoriteJournalEntries(userId);
+        return CachedEntityLiveData.prefill(
+                database.journalEntryDao().getFavoriteJournalEntries(userId), entryCache);
+    }
+
+    /**
+     * Get all journal entries for a user, loaded page by page.
+     *
+     * @param userId The user ID
+     * @return LiveData containing the paged journal entries, newest first
+     */
+    public LiveData<PagingData<JournalEntrySummary>> getJournalEntriesPaged(String userId) {
+        return PagingLiveData.getLiveData(new Pager<>(PAGING_CONFIG,
+                () -> database.journalEntryDao().getJournalEntriesPagedByUser(userId)));
+    }
+
+    /**
+     * Search journal entries for a user, loaded page by page. Matching uses the
+     * full-text index; paged results are ordered by date rather than relevance.
+     *
+     * @param userId The user ID
+     * @param query The search query
+     * @return LiveData containing the paged journal entries, newest first
+     */
+    public LiveData<PagingData<JournalEntrySummary>> searchJournalEntriesPaged(String userId, String query) {
+        String matchQuery = FtsQuery.toPrefixMatch(query);
+        if (matchQuery == null) {
+            return new MutableLiveData<>(PagingData.empty());
+        }
+        return PagingLiveData.getLiveData(new Pager<>(PAGING_CONFIG,
+                () -> database.journalEntryDao().searchJournalEntriesPaged(userId, matchQuery)));
+    }
+
+    /**
+     * Get favorite journal entries for a user, loaded page by page.
+     *
+     * @param userId The user ID
+     * @return LiveData containing the paged journal entries, newest first
+     */
+    public LiveData<PagingData<JournalEntrySummary>> getFavoriteJournalEntriesPaged(String userId) {
+        return PagingLiveData.getLiveData(new Pager<>(PAGING_CONFIG,
+                () -> database.journalEntryDao().getFavoriteJournalEntriesPaged(userId)));
+    }
+
+    /**
+     * Get journal entries for a user by tag, loaded page by page.
+     *
+     * @param userId The user ID
+     * @param tag The tag to search for
+     * @return LiveData containing the paged journal entries, newest first
+     */
+    public LiveData<PagingData<JournalEntrySummary>> getJournalEntriesByTagPaged(String userId, String tag) {
+        String name = TagParser.normalize(tag);
+        if (name == null) {
+            return new MutableLiveData<>(PagingData.empty());
+        }
+        return PagingLiveData.getLiveData(new Pager<>(PAGING_CONFIG,
+                () -> database.journalEntryDao().getJournalEntriesByTagPaged(userId, name)));
     }
 
     /**
@@ -151,10 +968,13 @@ public class JournalRepository {
     public void updateFavoriteStatus(long id, boolean isFavorite) {
         executor.execute(() -> {
             try {
-                database.journalEntryDao().updateFavoriteStatus(id, isFavorite);
+                // Bumping updatedAt lets caches and change feeds see the toggle
+                database.journalEntryDao().updateFavoriteStatus(id, isFavorite, System.currentTimeMillis());
                 Log.d(TAG, "Journal entry favorite status updated: " + id + ", isFavorite: " + isFavorite);
             } catch (Exception e) {
                 Log.e(TAG, "Error updating journal entry favorite status", e);
+            } finally {
+                entryCache.remove(id);
             }
         });
     }
@@ -171,10 +991,19 @@ public class JournalRepository {
                 Log.d(TAG, "All journal entries deleted for user: " + userId);
             } catch (Exception e) {
                 Log.e(TAG, "Error deleting all journal entries for user", e);
+            } finally {
+                entryCache.clear();
             }
         });
     }
 
+    /**
+     * A write applied to one chunk of a bulk operation.
+     */
+    private interface ChunkOperation {
+        void apply(List<JournalEntry> chunk);
+    }
+
     /**
      * Callback interface for insert operations.
      */
@@ -4,13 +4,32 @@ import android.app.Application;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 
 import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.DatabaseDispatcher;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDay;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDelta;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodDistribution;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPeriodStats;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPoint;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodStatistics;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodTypeCount;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 /**
  * Repository class that handles data operations for MoodEntry.
@@ -18,12 +37,69 @@ import java.util.concurrent.Executors;
  */
 public class MoodRepository {
     private static final String TAG = "MoodRepository";
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int BUCKET_BATCH_SIZE = 500;
+    private static final String TABLE = "mood_entries";
+    private static final long ENTRY_CACHE_BYTES = 256 * 1024;
+    private static final EntityCache.EntityType<Long, MoodEntry> ENTRY_TYPE =
+            new EntityCache.EntityType<Long, MoodEntry>() {
+                @Override
+                public Long keyOf(MoodEntry moodEntry) {
+                    return moodEntry.getId();
+                }
+
+                @Override
+                public long sizeOf(MoodEntry moodEntry) {
+                    // The mood type is an interned constant, so it is not counted
+                    return 72 + EntityCache.sizeOf(moodEntry.getUserId()) + EntityCache.sizeOf(moodEntry.getNotes());
+                }
+
+                @Override
+                public long versionOf(MoodEntry moodEntry) {
+                    return moodEntry.getUpdatedAt();
+                }
+            };
+    private static volatile MoodRepository INSTANCE;
     private final AppDatabase database;
     private final Executor executor;
+    private final Executor readExecutor;
+    private final Executor maintenanceExecutor;
+    private final EntityCache<Long, MoodEntry> entryCache;
+    private final EntityCacheWatcher<Long, MoodEntry> cacheWatcher;
+    private final List<DailyStatsListener> dailyStatsListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, MoodStatsStream> statsStreams = new ConcurrentHashMap<>();
 
     public MoodRepository(Application application) {
-        database = AppDatabase.getInstance(application);
-        executor = Executors.newSingleThreadExecutor();
+        this(AppDatabase.getInstance(application), DatabaseDispatcher.getInstance());
+    }
+
+    public MoodRepository(AppDatabase database, DatabaseDispatcher dispatcher) {
+        this.database = database;
+        this.executor = dispatcher.writer();
+        this.readExecutor = dispatcher.reader();
+        this.maintenanceExecutor = dispatcher.maintenance();
+        this.entryCache = new EntityCache<>(TABLE, ENTRY_CACHE_BYTES, ENTRY_TYPE);
+        this.cacheWatcher = new EntityCacheWatcher<>(TABLE, entryCache,
+                ids -> EntityCacheWatcher.toVersionMap(database.moodEntryDao().getVersionsSync(ids)),
+                readExecutor);
+        cacheWatcher.start(database, executor);
+    }
+
+    /**
+     * Get the shared repository, so ViewModels do not each create their own.
+     *
+     * @param application The application
+     * @return The MoodRepository instance
+     */
+    public static MoodRepository getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (MoodRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MoodRepository(application);
+                }
+            }
+        }
+        return INSTANCE;
     }
 
     /**
@@ -36,8 +112,21 @@ public class MoodRepository {
         executor.execute(() -> {
             try {
                 Log.d(TAG, "Inserting mood entry");
-                long id = database.moodEntryDao().insert(moodEntry);
+                stampDateBuckets(moodEntry);
+                // An entry whose ID already exists is updated instead, so the day it was stored under changes too
+                Set<DayKey> days = new HashSet<>();
+                long id = database.runInTransaction(() -> {
+                    days.addAll(getStoredDays(Collections.singletonList(moodEntry)));
+                    days.add(new DayKey(moodEntry.getUserId(), moodEntry.getEpochDay()));
+                    long insertedId = database.moodEntryDao().insert(moodEntry);
+                    refreshDays(days);
+                    return insertedId != -1 ? insertedId : moodEntry.getId();
+                });
                 Log.d(TAG, "Mood entry inserted with ID: " + id);
+                // The insert may have updated a cached entry
+                entryCache.remove(id);
+                notifyDaysChanged(days);
+                feedStatistics(moodEntry);
                 callback.onInsertComplete(id);
             } catch (Exception e) {
                 Log.e(TAG, "Error inserting mood entry", e);
@@ -54,10 +143,21 @@ public class MoodRepository {
     public void updateMoodEntry(MoodEntry moodEntry) {
         executor.execute(() -> {
             try {
-                database.moodEntryDao().update(moodEntry);
+                stampDateBuckets(moodEntry);
+                Set<DayKey> days = database.runInTransaction(() -> {
+                    Set<DayKey> changed = getStoredDays(Collections.singletonList(moodEntry));
+                    changed.add(new DayKey(moodEntry.getUserId(), moodEntry.getEpochDay()));
+                    database.moodEntryDao().update(moodEntry);
+                    refreshDays(changed);
+                    return changed;
+                });
+                notifyDaysChanged(days);
+                reloadStatistics(moodEntry.getUserId());
                 Log.d(TAG, "Mood entry updated: " + moodEntry.getId());
             } catch (Exception e) {
                 Log.e(TAG, "Error updating mood entry", e);
+            } finally {
+                entryCache.remove(moodEntry.getId());
             }
         });
     }
@@ -70,22 +170,188 @@ public class MoodRepository {
     public void deleteMoodEntry(MoodEntry moodEntry) {
         executor.execute(() -> {
             try {
-                database.moodEntryDao().delete(moodEntry);
+                Set<DayKey> days = database.runInTransaction(() -> {
+                    Set<DayKey> changed = getStoredDays(Collections.singletonList(moodEntry));
+                    database.moodEntryDao().delete(moodEntry);
+                    refreshDays(changed);
+                    return changed;
+                });
+                notifyDaysChanged(days);
+                reloadStatistics(moodEntry.getUserId());
                 Log.d(TAG, "Mood entry deleted: " + moodEntry.getId());
             } catch (Exception e) {
                 Log.e(TAG, "Error deleting mood entry", e);
+            } finally {
+                entryCache.remove(moodEntry.getId());
             }
         });
     }
 
     /**
-     * Get a mood entry by ID.
+     * Insert mood entries in chunks, one transaction per chunk. Entries whose
+     * ID already exists are updated in place.
+     *
+     * @param moodEntries The mood entries to insert
+     * @param callback Callback notified of progress and completion
+     */
+    public void insertMoodEntries(List<MoodEntry> moodEntries, BulkCallback callback) {
+        runInChunks(moodEntries, chunk -> database.moodEntryDao().insertAll(chunk), "inserting", callback);
+    }
+
+    /**
+     * Delete mood entries in chunks, one transaction per chunk.
+     *
+     * @param moodEntries The mood entries to delete
+     * @param callback Callback notified of progress and completion
+     */
+    public void deleteMoodEntries(List<MoodEntry> moodEntries, BulkCallback callback) {
+        runInChunks(moodEntries, chunk -> database.moodEntryDao().deleteAll(chunk), "deleting", callback);
+    }
+
+    /**
+     * Replace all mood entries of a user with the given entries in a single
+     * transaction, so a failed restore leaves the existing entries in place.
+     *
+     * @param userId The user ID
+     * @param moodEntries The mood entries to restore
+     * @param callback Callback notified of progress and completion
+     */
+    public void restoreMoodEntries(String userId, List<MoodEntry> moodEntries, BulkCallback callback) {
+        executor.execute(() -> {
+            try {
+                for (MoodEntry moodEntry : moodEntries) {
+                    stampDateBuckets(moodEntry);
+                }
+                database.runInTransaction(() -> {
+                    database.moodEntryDao().replaceAllForUser(userId, moodEntries);
+                    rebuildDailyStats(userId);
+                });
+                notifyDaysChanged(userId, null);
+                reloadStatistics(userId);
+                Log.d(TAG, "Restored " + moodEntries.size() + " mood entries for user: " + userId);
+                callback.onProgress(moodEntries.size(), moodEntries.size());
+                callback.onComplete(moodEntries.size());
+            } catch (Exception e) {
+                Log.e(TAG, "Error restoring mood entries", e);
+                callback.onComplete(-1);
+            } finally {
+                entryCache.clear();
+            }
+        });
+    }
+
+    private void runInChunks(List<MoodEntry> moodEntries, ChunkOperation operation, String action,
+                             BulkCallback callback) {
+        List<MoodEntry> entries = new ArrayList<>(moodEntries);
+        executor.execute(() -> {
+            int completed = 0;
+            try {
+                while (completed < entries.size()) {
+                    List<MoodEntry> chunk = entries.subList(completed,
+                            Math.min(completed + BULK_CHUNK_SIZE, entries.size()));
+                    try {
+                        Set<DayKey> days = database.runInTransaction(() -> {
+                            // Days the rows were stored under before the write also need refreshing
+                            Set<DayKey> changed = getStoredDays(chunk);
+                            for (MoodEntry moodEntry : chunk) {
+                                stampDateBuckets(moodEntry);
+                                changed.add(new DayKey(moodEntry.getUserId(), moodEntry.getEpochDay()));
+                            }
+                            operation.apply(chunk);
+                            refreshDays(changed);
+                            return changed;
+                        });
+                        notifyDaysChanged(days);
+                    } finally {
+                        evict(chunk);
+                    }
+                    completed += chunk.size();
+                    callback.onProgress(completed, entries.size());
+                }
+                Log.d(TAG, "Finished " + action + " " + completed + " mood entries");
+                callback.onComplete(completed);
+            } catch (Exception e) {
+                Log.e(TAG, "Error " + action + " mood entries after " + completed + " rows", e);
+                callback.onComplete(-1);
+            } finally {
+                // Bulk writes may add entries out of order, so the statistics are recomputed
+                Set<String> userIds = new HashSet<>();
+                for (MoodEntry moodEntry : entries) {
+                    userIds.add(moodEntry.getUserId());
+                }
+                for (String userId : userIds) {
+                    reloadStatistics(userId);
+                }
+            }
+        });
+    }
+
+    private void evict(List<MoodEntry> moodEntries) {
+        List<Long> ids = new ArrayList<>(moodEntries.size());
+        for (MoodEntry moodEntry : moodEntries) {
+            ids.add(moodEntry.getId());
+        }
+        entryCache.removeAll(ids);
+    }
+
+    /**
+     * Get a mood entry by ID. Entries recently loaded by a list or detail
+     * screen are served from memory.
      *
      * @param id The ID of the mood entry
      * @return LiveData containing the mood entry
      */
     public LiveData<MoodEntry> getMoodEntryById(long id) {
-        return database.moodEntryDao().getMoodEntryById(id);
+        return new CachedEntityLiveData<>(database, TABLE, readExecutor, entryCache, cacheWatcher, id,
+                () -> database.moodEntryDao().getMoodEntryByIdSync(id));
+    }
+
+    /**
+     * Get a feed of the mood entries of a user that changed since the feed's
+     * previous emission. The first emission carries every entry; after that a
+     * write costs a query for the changed rows only, rather than a reload of
+     * the whole list. Meant to be applied by a single consumer, such as a
+     * SortedEntryList.
+     *
+     * @param userId The user ID
+     * @return LiveData emitting the changed entries
+     */
+    public LiveData<EntryDelta<MoodEntry>> getMoodEntryChanges(String userId) {
+        ChangeFeedLiveData.Source<MoodEntry> source = new ChangeFeedLiveData.Source<MoodEntry>() {
+            @Override
+            public List<MoodEntry> loadAll() {
+                return database.moodEntryDao().getAllMoodEntriesByUserSync(userId);
+            }
+
+            @Override
+            public List<MoodEntry> loadByIds(List<Long> ids) {
+                return database.moodEntryDao().getMoodEntriesByIdsSync(ids);
+            }
+
+            @Override
+            public long idOf(MoodEntry moodEntry) {
+                return moodEntry.getId();
+            }
+        };
+        return new ChangeFeedLiveData<>(database, TABLE, userId, readExecutor, source);
+    }
+
+    /**
+     * Get the hit, miss and eviction counts of the mood entry cache.
+     *
+     * @return A snapshot of the cache stats
+     */
+    public EntityCache.Stats getCacheStats() {
+        return entryCache.getStats();
+    }
+
+    /**
+     * Change how much memory the mood entry cache may hold.
+     *
+     * @param maxBytes The limit in estimated bytes; 0 disables the cache
+     */
+    public void setCacheLimit(long maxBytes) {
+        entryCache.setMaxBytes(maxBytes);
     }
 
     /**
@@ -95,7 +361,8 @@ public class MoodRepository {
      * @return LiveData containing a list of mood entries
      */
     public LiveData<List<MoodEntry>> getAllMoodEntriesByUser(String userId) {
-        return database.moodEntryDao().getAllMoodEntriesByUser(userId);
+        return CachedEntityLiveData.prefill(
+                database.moodEntryDao().getAllMoodEntriesByUser(userId), entryCache);
     }
 
     /**
@@ -107,7 +374,72 @@ public class MoodRepository {
      * @return LiveData containing a list of mood entries
      */
     public LiveData<List<MoodEntry>> getMoodEntriesByDateRange(String userId, long startDate, long endDate) {
-        return database.moodEntryDao().getMoodEntriesByDateRange(userId, startDate, endDate);
+        return CachedEntityLiveData.prefill(
+                database.moodEntryDao().getMoodEntriesByDateRange(userId, startDate, endDate), entryCache);
+    }
+
+    /**
+     * Get the time and intensity of every mood entry of a user within a date
+     * range, oldest first. Must be called off the main thread.
+     *
+     * @param userId The user ID
+     * @param startDate The start date (in milliseconds)
+     * @param endDate The end date (in milliseconds)
+     * @return The mood points
+     */
+    public List<MoodPoint> getMoodPointsSync(String userId, long startDate, long endDate) {
+        return database.moodEntryDao().getMoodPointsSync(userId, startDate, endDate);
+    }
+
+    /**
+     * Get mood entries for a user within a range of local days, selected by
+     * the stored day of each entry.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing a list of mood entries, newest first
+     */
+    public LiveData<List<MoodEntry>> getMoodEntriesByDayRange(String userId, long fromDay, long toDay) {
+        return CachedEntityLiveData.prefill(
+                database.moodEntryDao().getMoodEntriesByDayRange(userId, fromDay, toDay), entryCache);
+    }
+
+    /**
+     * Get the mood totals of each local day within a range, grouped from the
+     * mood entries by their stored day.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the totals keyed by epoch day
+     */
+    public LiveData<List<MoodPeriodStats>> getMoodStatsByDay(String userId, long fromDay, long toDay) {
+        return database.moodEntryDao().getMoodStatsByDay(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get the mood totals of each ISO week within a range of local days.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the totals keyed by yyyyww week key
+     */
+    public LiveData<List<MoodPeriodStats>> getMoodStatsByWeek(String userId, long fromDay, long toDay) {
+        return database.moodEntryDao().getMoodStatsByWeek(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get the mood totals of each month within a range of local days.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the totals keyed by yyyyMM month key
+     */
+    public LiveData<List<MoodPeriodStats>> getMoodStatsByMonth(String userId, long fromDay, long toDay) {
+        return database.moodEntryDao().getMoodStatsByMonth(userId, fromDay, toDay);
     }
 
     /**
@@ -117,8 +449,9 @@ public class MoodRepository {
      * @param moodType The mood type
      * @return LiveData containing a list of mood entries
      */
-    public LiveData<List<MoodEntry>> getMoodEntriesByType(String userId, String moodType) {
-        return database.moodEntryDao().getMoodEntriesByType(userId, moodType);
+    public LiveData<List<MoodEntry>> getMoodEntriesByType(String userId, MoodType moodType) {
+        return CachedEntityLiveData.prefill(
+                database.moodEntryDao().getMoodEntriesByType(userId, moodType), entryCache);
     }
 
     /**
@@ -128,10 +461,40 @@ public class MoodRepository {
      * @param moodType The mood type
      * @return LiveData containing the count
      */
-    public LiveData<Integer> countMoodEntriesByType(String userId, String moodType) {
+    public LiveData<Integer> countMoodEntriesByType(String userId, MoodType moodType) {
         return database.moodEntryDao().countMoodEntriesByType(userId, moodType);
     }
 
+    /**
+     * Get how all mood entries of a user are spread over the mood types,
+     * counted in one grouped query.
+     *
+     * @param userId The user ID
+     * @return LiveData containing the mood distribution
+     */
+    public LiveData<MoodDistribution> getMoodDistribution(String userId) {
+        return toDistribution(database.moodEntryDao().getMoodTypeCounts(userId));
+    }
+
+    /**
+     * Get how the mood entries of a user within a date range are spread over
+     * the mood types, counted in one grouped query.
+     *
+     * @param userId The user ID
+     * @param startDate The start date (in milliseconds)
+     * @param endDate The end date (in milliseconds)
+     * @return LiveData containing the mood distribution
+     */
+    public LiveData<MoodDistribution> getMoodDistribution(String userId, long startDate, long endDate) {
+        return toDistribution(database.moodEntryDao().getMoodTypeCountsByDateRange(userId, startDate, endDate));
+    }
+
+    private static LiveData<MoodDistribution> toDistribution(LiveData<List<MoodTypeCount>> counts) {
+        MediatorLiveData<MoodDistribution> distribution = new MediatorLiveData<>();
+        distribution.addSource(counts, rows -> distribution.setValue(MoodDistribution.from(rows)));
+        return distribution;
+    }
+
     /**
      * Get the average mood intensity for a user within a date range.
      *
@@ -144,6 +507,307 @@ public class MoodRepository {
         return database.moodEntryDao().getAverageMoodIntensity(userId, startDate, endDate);
     }
 
+    /**
+     * Get the average mood intensity for a user over a range of local days,
+     * read from the daily rollup.
+     *
+     * @param userId The user ID
+     * @param startDate The start date (in milliseconds)
+     * @param endDate The end date (in milliseconds)
+     * @return LiveData containing the average mood intensity, or null without entries
+     */
+    public LiveData<Float> getAverageMoodIntensityFromRollup(String userId, long startDate, long endDate) {
+        TimeZone timeZone = TimeZone.getDefault();
+        return database.moodDailyStatsDao().getAverageIntensity(userId,
+                DateBuckets.epochDay(startDate, timeZone), DateBuckets.epochDay(endDate, timeZone));
+    }
+
+    /**
+     * Get the average mood intensity for a user over a range of local days,
+     * read from the daily rollup.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the average mood intensity, or null without entries
+     */
+    public LiveData<Float> getAverageMoodIntensityForDays(String userId, long fromDay, long toDay) {
+        return database.moodDailyStatsDao().getAverageIntensity(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get one data point per local day for a range, as used by the week and
+     * month views. Days without entries have no data point.
+     *
+     * @param userId The user ID
+     * @param startDate The start date (in milliseconds)
+     * @param endDate The end date (in milliseconds)
+     * @return LiveData containing the daily totals keyed by epoch day
+     */
+    public LiveData<List<MoodPeriodStats>> getDailyMoodSeries(String userId, long startDate, long endDate) {
+        TimeZone timeZone = TimeZone.getDefault();
+        return database.moodDailyStatsDao().getDailySeries(userId,
+                DateBuckets.epochDay(startDate, timeZone), DateBuckets.epochDay(endDate, timeZone));
+    }
+
+    /**
+     * Get the daily rollup rows of a range of local days. Must be called off
+     * the main thread.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return The daily totals keyed by epoch day
+     */
+    public List<MoodPeriodStats> getDailyMoodSeriesSync(String userId, long fromDay, long toDay) {
+        return database.moodDailyStatsDao().getDailySeriesSync(userId, fromDay, toDay);
+    }
+
+    /**
+     * Get one data point per month for a range, as used by the year view.
+     *
+     * @param userId The user ID
+     * @param startDate The start date (in milliseconds)
+     * @param endDate The end date (in milliseconds)
+     * @return LiveData containing the monthly totals keyed by yyyyMM
+     */
+    public LiveData<List<MoodPeriodStats>> getMonthlyMoodSeries(String userId, long startDate, long endDate) {
+        TimeZone timeZone = TimeZone.getDefault();
+        return database.moodDailyStatsDao().getMonthlySeries(userId,
+                DateBuckets.epochDay(startDate, timeZone), DateBuckets.epochDay(endDate, timeZone));
+    }
+
+    /**
+     * Rebuild the daily rollup of a user from the raw mood entries. Must run
+     * on a background thread; runs in a single transaction.
+     *
+     * @param userId The user ID
+     */
+    public void rebuildDailyStatsSync(String userId) {
+        database.runInTransaction(() -> rebuildDailyStats(userId));
+        notifyDaysChanged(userId, null);
+        reloadStatistics(userId);
+    }
+
+    private void rebuildDailyStats(String userId) {
+        database.moodDailyStatsDao().deleteAllForUser(userId);
+        Set<DayKey> days = new HashSet<>();
+        for (long epochDay : database.moodEntryDao().getMoodEntryDaysByUserSync(userId)) {
+            days.add(new DayKey(userId, epochDay));
+        }
+        refreshDays(days);
+    }
+
+    /**
+     * Recompute the day, week and month buckets of every mood entry for the
+     * current time zone, in batches of one transaction each. Only entries whose
+     * local day changed are written. Must run on a background thread; the daily
+     * rollup must be rebuilt afterwards.
+     *
+     * @return The number of entries whose buckets changed
+     */
+    public int recomputeDateBucketsSync() {
+        TimeZone timeZone = TimeZone.getDefault();
+        int changed = 0;
+        long lastId = 0;
+        try {
+            while (true) {
+                List<EntryDay> batch = database.moodEntryDao().getEntryDaysAfterSync(lastId, BUCKET_BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    return changed;
+                }
+                changed += database.runInTransaction(() -> {
+                    int updated = 0;
+                    for (EntryDay entry : batch) {
+                        long epochDay = DateBuckets.epochDay(entry.getDate(), timeZone);
+                        if (epochDay != entry.getEpochDay()) {
+                            updated += database.moodEntryDao().setDateBuckets(entry.getId(), entry.getDate(),
+                                    epochDay, DateBuckets.weekKey(epochDay), DateBuckets.monthKey(epochDay));
+                        }
+                    }
+                    return updated;
+                });
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } finally {
+            // Cached entries still carry the old buckets
+            entryCache.clear();
+        }
+    }
+
+    /**
+     * Rebuild the daily rollup of every user that has mood entries, for
+     * example after a migration or a time zone change. Runs on the
+     * maintenance lane, one user per transaction, so saves are not held up.
+     *
+     * @param callback Callback notified once the rebuild has finished
+     */
+    public void rebuildAllDailyStats(BulkCallback callback) {
+        maintenanceExecutor.execute(() -> {
+            try {
+                List<String> userIds = database.moodEntryDao().getUserIdsWithMoodEntriesSync();
+                for (int i = 0; i < userIds.size(); i++) {
+                    rebuildDailyStatsSync(userIds.get(i));
+                    callback.onProgress(i + 1, userIds.size());
+                }
+                Log.d(TAG, "Rebuilt mood rollup for " + userIds.size() + " users");
+                callback.onComplete(userIds.size());
+            } catch (Exception e) {
+                Log.e(TAG, "Error rebuilding mood rollup", e);
+                callback.onComplete(-1);
+            }
+        });
+    }
+
+    private Set<DayKey> getStoredDays(List<MoodEntry> moodEntries) {
+        List<Long> ids = new ArrayList<>();
+        for (MoodEntry moodEntry : moodEntries) {
+            if (moodEntry.getId() != 0) {
+                ids.add(moodEntry.getId());
+            }
+        }
+        Set<DayKey> days = new HashSet<>();
+        if (!ids.isEmpty()) {
+            for (MoodEntry stored : database.moodEntryDao().getMoodEntriesByIdsSync(ids)) {
+                days.add(new DayKey(stored.getUserId(), stored.getEpochDay()));
+            }
+        }
+        return days;
+    }
+
+    private void refreshDays(Set<DayKey> days) {
+        for (DayKey day : days) {
+            database.moodDailyStatsDao().refreshDay(day.userId, day.epochDay, DateBuckets.monthKey(day.epochDay));
+        }
+    }
+
+    /**
+     * Get the rolling statistics of a user's mood intensity: 7 and 30 day
+     * mean and standard deviation, trend and volatility. They are loaded once
+     * and then updated with each inserted entry rather than queried again.
+     *
+     * @param userId The user ID
+     * @return LiveData containing the statistics
+     */
+    public LiveData<MoodStatistics> getMoodStatistics(String userId) {
+        MoodStatsStream stream = statsStreams.get(userId);
+        if (stream == null) {
+            stream = new MoodStatsStream();
+            MoodStatsStream existing = statsStreams.putIfAbsent(userId, stream);
+            if (existing != null) {
+                stream = existing;
+            }
+        }
+        MoodStatsStream userStream = stream;
+        // On the writer lane, in order with the inserts feeding the stream
+        executor.execute(() -> {
+            try {
+                if (!userStream.isLoaded()) {
+                    loadStatistics(userId, userStream);
+                }
+                // Also moves the windows past days that ended since the last entry
+                userStream.publish(today());
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading mood statistics", e);
+            }
+        });
+        return userStream.getStatistics();
+    }
+
+    // Runs on the writer lane after the insert committed
+    private void feedStatistics(MoodEntry moodEntry) {
+        MoodStatsStream stream = statsStreams.get(moodEntry.getUserId());
+        if (stream == null || !stream.isLoaded()) {
+            return;
+        }
+        try {
+            if (!stream.add(moodEntry.getDate(), moodEntry.getEpochDay(), moodEntry.getMoodIntensity())) {
+                loadStatistics(moodEntry.getUserId(), stream);
+            }
+            stream.publish(today());
+        } catch (Exception e) {
+            Log.e(TAG, "Error updating mood statistics", e);
+        }
+    }
+
+    private void reloadStatistics(String userId) {
+        if (!statsStreams.containsKey(userId)) {
+            return;
+        }
+        executor.execute(() -> {
+            MoodStatsStream stream = statsStreams.get(userId);
+            if (stream == null) {
+                return;
+            }
+            try {
+                loadStatistics(userId, stream);
+                stream.publish(today());
+            } catch (Exception e) {
+                Log.e(TAG, "Error reloading mood statistics", e);
+            }
+        });
+    }
+
+    private void loadStatistics(String userId, MoodStatsStream stream) {
+        TimeZone timeZone = TimeZone.getDefault();
+        long fromDay = today() - MoodStatsStream.HISTORY_DAYS + 1;
+        stream.load(database.moodEntryDao().getMoodPointsSync(userId, DateBuckets.startOfDay(fromDay, timeZone),
+                Long.MAX_VALUE), timeZone);
+    }
+
+    private static long today() {
+        return DateBuckets.epochDay(System.currentTimeMillis(), TimeZone.getDefault());
+    }
+
+    /**
+     * Register a listener for changes to the daily rollup. Listeners are
+     * called on the thread that wrote the rollup, after the write committed.
+     *
+     * @param listener The listener
+     */
+    public void addDailyStatsListener(DailyStatsListener listener) {
+        dailyStatsListeners.add(listener);
+    }
+
+    public void removeDailyStatsListener(DailyStatsListener listener) {
+        dailyStatsListeners.remove(listener);
+    }
+
+    private void notifyDaysChanged(Set<DayKey> days) {
+        if (dailyStatsListeners.isEmpty()) {
+            return;
+        }
+        Map<String, Set<Long>> daysByUser = new HashMap<>();
+        for (DayKey day : days) {
+            Set<Long> userDays = daysByUser.get(day.userId);
+            if (userDays == null) {
+                userDays = new HashSet<>();
+                daysByUser.put(day.userId, userDays);
+            }
+            userDays.add(day.epochDay);
+        }
+        for (Map.Entry<String, Set<Long>> entry : daysByUser.entrySet()) {
+            notifyDaysChanged(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void notifyDaysChanged(String userId, Set<Long> epochDays) {
+        for (DailyStatsListener listener : dailyStatsListeners) {
+            listener.onDailyStatsChanged(userId, epochDays);
+        }
+    }
+
+    /**
+     * Set the local day, ISO week and month buckets of an entry from its date
+     * in the current time zone.
+     */
+    private static void stampDateBuckets(MoodEntry moodEntry) {
+        long epochDay = DateBuckets.epochDay(moodEntry.getDate(), TimeZone.getDefault());
+        moodEntry.setEpochDay(epochDay);
+        moodEntry.setWeekKey(DateBuckets.weekKey(epochDay));
+        moodEntry.setMonthKey(DateBuckets.monthKey(epochDay));
+    }
+
     /**
      * Delete all mood entries for a user.
      *
@@ -152,14 +816,72 @@ public class MoodRepository {
     public void deleteAllMoodEntriesByUser(String userId) {
         executor.execute(() -> {
             try {
-                database.moodEntryDao().deleteAllMoodEntriesByUser(userId);
+                database.runInTransaction(() -> {
+                    database.moodEntryDao().deleteAllMoodEntriesByUser(userId);
+                    database.moodDailyStatsDao().deleteAllForUser(userId);
+                });
+                notifyDaysChanged(userId, null);
+                reloadStatistics(userId);
                 Log.d(TAG, "All mood entries deleted for user: " + userId);
             } catch (Exception e) {
                 Log.e(TAG, "Error deleting all mood entries for user", e);
+            } finally {
+                entryCache.clear();
             }
         });
     }
 
+    /**
+     * A user's local day whose rollup row needs refreshing.
+     */
+    private static final class DayKey {
+        private final String userId;
+        private final long epochDay;
+
+        DayKey(String userId, long epochDay) {
+            this.userId = userId;
+            this.epochDay = epochDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DayKey)) {
+                return false;
+            }
+            DayKey other = (DayKey) o;
+            return epochDay == other.epochDay && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * userId.hashCode() + Long.hashCode(epochDay);
+        }
+    }
+
+    /**
+     * A write applied to one chunk of a bulk operation.
+     */
+    private interface ChunkOperation {
+        void apply(List<MoodEntry> chunk);
+    }
+
+    /**
+     * Listener for changes to the daily mood rollup, for views that keep
+     * series derived from it.
+     */
+    public interface DailyStatsListener {
+        /**
+         * Called after the rollup rows of some local days of a user changed.
+         *
+         * @param userId The user ID
+         * @param epochDays The days that changed, or null if any day may have
+         */
+        void onDailyStatsChanged(String userId, Set<Long> epochDays);
+    }
+
     /**
      * Callback interface for insert operations.
      */
@@ -0,0 +1,81 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPoint;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodStatistics;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.RollingMoodStats;
+
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * The streaming mood statistics of one user, fed with each mood entry as it
+ * is inserted. Only used from the writer lane, so each write is counted
+ * exactly once and no locking is needed.
+ */
+final class MoodStatsStream {
+    static final int WEEK_DAYS = 7;
+    static final int MONTH_DAYS = 30;
+    /** How many days of entries a load reads; older entries barely move the trend. */
+    static final int HISTORY_DAYS = 90;
+    private static final double TREND_ALPHA = 0.25;
+
+    private final RollingMoodStats stats = new RollingMoodStats(WEEK_DAYS, MONTH_DAYS, TREND_ALPHA);
+    private final MutableLiveData<MoodStatistics> statistics = new MutableLiveData<>();
+    private boolean loaded;
+    private long lastDate = Long.MIN_VALUE;
+
+    LiveData<MoodStatistics> getStatistics() {
+        return statistics;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replace the statistics with ones computed from stored entries.
+     *
+     * @param points The mood points of the last {@link #HISTORY_DAYS} days, oldest first
+     * @param timeZone The time zone of the local days
+     */
+    void load(List<MoodPoint> points, TimeZone timeZone) {
+        stats.reset();
+        lastDate = Long.MIN_VALUE;
+        for (MoodPoint point : points) {
+            add(point.getDate(), DateBuckets.epochDay(point.getDate(), timeZone), point.getMoodIntensity());
+        }
+        loaded = true;
+    }
+
+    /**
+     * Add a newly logged entry.
+     *
+     * @param date The time of the entry (in milliseconds)
+     * @param epochDay The local day of the entry
+     * @param intensity The mood intensity
+     * @return false if the entry is older than the last one added, in which
+     *         case the trend would be wrong and the stream must be loaded again
+     */
+    boolean add(long date, long epochDay, int intensity) {
+        if (date < lastDate) {
+            return false;
+        }
+        stats.add(epochDay, intensity);
+        lastDate = date;
+        return true;
+    }
+
+    /**
+     * Post a snapshot of the statistics as of a day.
+     *
+     * @param today The local day the windows end on
+     */
+    void publish(long today) {
+        stats.advanceTo(today);
+        statistics.postValue(MoodStatistics.from(stats));
+    }
+}
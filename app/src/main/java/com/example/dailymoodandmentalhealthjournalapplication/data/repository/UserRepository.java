@@ -6,10 +6,10 @@ import android.util.Log;
 import androidx.lifecycle.LiveData;
 
 import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.DatabaseDispatcher;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.User;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 /**
  * Repository class that handles data operations for User.
@@ -17,12 +17,62 @@ import java.util.concurrent.Executors;
  */
 public class UserRepository {
     private static final String TAG = "UserRepository";
+    private static final String TABLE = "users";
+    private static final long USER_CACHE_BYTES = 16 * 1024;
+    private static final EntityCache.EntityType<String, User> USER_TYPE = new EntityCache.EntityType<String, User>() {
+        @Override
+        public String keyOf(User user) {
+            return user.getUserId();
+        }
+
+        @Override
+        public long sizeOf(User user) {
+            return 80 + EntityCache.sizeOf(user.getUserId()) + EntityCache.sizeOf(user.getName())
+                    + EntityCache.sizeOf(user.getEmail()) + EntityCache.sizeOf(user.getGender())
+                    + EntityCache.sizeOf(user.getProfilePictureUrl());
+        }
+
+        @Override
+        public long versionOf(User user) {
+            return user.getUpdatedAt();
+        }
+    };
+    private static volatile UserRepository INSTANCE;
     private final AppDatabase database;
     private final Executor executor;
+    private final Executor readExecutor;
+    private final EntityCache<String, User> userCache;
+    private final EntityCacheWatcher<String, User> cacheWatcher;
 
     public UserRepository(Application application) {
-        database = AppDatabase.getInstance(application);
-        executor = Executors.newSingleThreadExecutor();
+        this(AppDatabase.getInstance(application), DatabaseDispatcher.getInstance());
+    }
+
+    public UserRepository(AppDatabase database, DatabaseDispatcher dispatcher) {
+        this.database = database;
+        this.executor = dispatcher.writer();
+        this.readExecutor = dispatcher.reader();
+        this.userCache = new EntityCache<>(TABLE, USER_CACHE_BYTES, USER_TYPE);
+        // Only a few users are cached and login writes skip updatedAt, so any change clears the cache
+        this.cacheWatcher = new EntityCacheWatcher<>(TABLE, userCache, null, readExecutor);
+        cacheWatcher.start(database, executor);
+    }
+
+    /**
+     * Get the shared repository, so ViewModels do not each create their own.
+     *
+     * @param application The application
+     * @return The UserRepository instance
+     */
+    public static UserRepository getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (UserRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new UserRepository(application);
+                }
+            }
+        }
+        return INSTANCE;
     }
 
     /**
@@ -38,6 +88,8 @@ public class UserRepository {
                 Log.d(TAG, "User inserted: " + user.getUserId());
             } catch (Exception e) {
                 Log.e(TAG, "Error inserting user", e);
+            } finally {
+                userCache.remove(user.getUserId());
             }
         });
     }
@@ -54,6 +106,8 @@ public class UserRepository {
                 Log.d(TAG, "User updated: " + user.getUserId());
             } catch (Exception e) {
                 Log.e(TAG, "Error updating user", e);
+            } finally {
+                userCache.remove(user.getUserId());
             }
         });
     }
@@ -70,28 +124,56 @@ public class UserRepository {
                 Log.d(TAG, "User deleted: " + user.getUserId());
             } catch (Exception e) {
                 Log.e(TAG, "Error deleting user", e);
+            } finally {
+                userCache.remove(user.getUserId());
             }
         });
     }
 
     /**
-     * Get a user by ID.
+     * Get a user by ID. A recently loaded user is served from memory.
      *
      * @param userId The user ID
      * @return LiveData containing the user
      */
     public LiveData<User> getUserById(String userId) {
-        return database.userDao().getUserById(userId);
+        return new CachedEntityLiveData<>(database, TABLE, readExecutor, userCache, cacheWatcher, userId,
+                () -> database.userDao().getUserByIdSync(userId));
     }
 
     /**
-     * Get a user by ID synchronously.
+     * Get a user by ID synchronously. A recently loaded user is served from memory.
      *
      * @param userId The user ID
      * @return The user
      */
     public User getUserByIdSync(String userId) {
-        return database.userDao().getUserByIdSync(userId);
+        User user = userCache.get(userId);
+        if (user == null) {
+            user = database.userDao().getUserByIdSync(userId);
+            if (user != null) {
+                userCache.put(user);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Get the hit, miss and eviction counts of the user cache.
+     *
+     * @return A snapshot of the cache stats
+     */
+    public EntityCache.Stats getCacheStats() {
+        return userCache.getStats();
+    }
+
+    /**
+     * Change how much memory the user cache may hold.
+     *
+     * @param maxBytes The limit in estimated bytes; 0 disables the cache
+     */
+    public void setCacheLimit(long maxBytes) {
+        userCache.setMaxBytes(maxBytes);
     }
 
     /**
@@ -126,6 +208,8 @@ public class UserRepository {
                 Log.d(TAG, "User deleted by ID: " + userId);
             } catch (Exception e) {
                 Log.e(TAG, "Error deleting user by ID", e);
+            } finally {
+                userCache.remove(userId);
             }
         });
     }
@@ -0,0 +1,108 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.search;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalSearchResult;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Okapi BM25 ranking computed from the FTS4 matchinfo(fts, 'pcnalx') blob.
+ * SQLite's FTS4 has no built-in rank function, so the per-row statistics are
+ * returned with each result and scored here.
+ */
+public final class Bm25Ranker {
+    /** The matchinfo format string the DAO must request. */
+    public static final String MATCHINFO_FORMAT = "pcnalx";
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double MIN_IDF = 1e-6;
+
+    /** Column weights in journal_entries_fts column order: title, content. */
+    private static final double[] JOURNAL_COLUMN_WEIGHTS = {2.0, 1.0};
+
+    private Bm25Ranker() {
+    }
+
+    /**
+     * Score a single row.
+     *
+     * @param matchInfo The matchinfo blob in {@link #MATCHINFO_FORMAT}
+     * @param columnWeights Per-column weights, missing columns default to 1.0
+     * @return The BM25 score, higher is more relevant
+     */
+    public static double score(byte[] matchInfo, double[] columnWeights) {
+        if (matchInfo == null || matchInfo.length < 12) {
+            return 0.0;
+        }
+        // matchinfo() writes unsigned 32-bit integers in the host byte order
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phraseCount = buffer.getInt(0);
+        int columnCount = buffer.getInt(4);
+        long rowCount = buffer.getInt(8) & 0xffffffffL;
+
+        int avgOffset = 3;
+        int lengthOffset = avgOffset + columnCount;
+        int hitsOffset = lengthOffset + columnCount;
+        if (matchInfo.length < (hitsOffset + 3 * phraseCount * columnCount) * 4) {
+            return 0.0;
+        }
+
+        double score = 0.0;
+        for (int column = 0; column < columnCount; column++) {
+            double weight = column < columnWeights.length ? columnWeights[column] : 1.0;
+            if (weight == 0.0) {
+                continue;
+            }
+            double averageLength = Math.max(1, buffer.getInt(4 * (avgOffset + column)));
+            double documentLength = buffer.getInt(4 * (lengthOffset + column));
+            double norm = K1 * (1 - B + B * documentLength / averageLength);
+
+            for (int phrase = 0; phrase < phraseCount; phrase++) {
+                int base = hitsOffset + 3 * (phrase * columnCount + column);
+                int termFrequency = buffer.getInt(4 * base);
+                if (termFrequency == 0) {
+                    continue;
+                }
+                int documentsWithHits = buffer.getInt(4 * (base + 2));
+                double idf = Math.log((rowCount - documentsWithHits + 0.5) / (documentsWithHits + 0.5));
+                score += weight * Math.max(idf, MIN_IDF) * termFrequency * (K1 + 1) / (termFrequency + norm);
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Order journal search results by relevance, most relevant first. Results
+     * with equal scores keep the newest entry first.
+     *
+     * @param results The search results
+     * @return The ranked journal entries
+     */
+    public static List<JournalEntry> rank(List<JournalSearchResult> results) {
+        if (results == null || results.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int size = results.size();
+        double[] scores = new double[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            scores[i] = score(results.get(i).getMatchInfo(), JOURNAL_COLUMN_WEIGHTS);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -scores[i])
+                .thenComparingLong(i -> -results.get(i).getEntry().getDate()));
+
+        List<JournalEntry> ranked = new ArrayList<>(size);
+        for (Integer index : order) {
+            ranked.add(results.get(index).getEntry());
+        }
+        return ranked;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds FTS4 MATCH expressions from free-text user input.
+ */
+public final class FtsQuery {
+
+    private FtsQuery() {
+    }
+
+    /**
+     * Convert user input into a prefix MATCH expression. Every word becomes a
+     * prefix term ("walk" matches "walking") and all terms must match. Anything
+     * that is not a letter or digit is treated as a separator, so user input
+     * can never inject FTS operators.
+     *
+     * @param query The raw search text
+     * @return The MATCH expression, or null if the input contains no terms
+     */
+    public static String toPrefixMatch(String query) {
+        if (query == null) {
+            return null;
+        }
+
+        StringBuilder match = new StringBuilder();
+        int length = query.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(query.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(query.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(query.substring(start, i).toLowerCase(Locale.ROOT)).append('*');
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * Reduce text to its distinct words, lowercased and separated by spaces.
+     * Words are split the same way as in {@link #toPrefixMatch}, so every
+     * query that matches the text in an index also matches its terms. Used to
+     * index archived entries without storing their full text uncompressed.
+     *
+     * @param texts The texts to reduce; null values are skipped
+     * @return The distinct words in order of first appearance
+     */
+    public static String distinctTerms(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            int length = text.length();
+            int i = 0;
+            while (i < length) {
+                while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                    i++;
+                }
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                    i++;
+                }
+                if (i > start) {
+                    terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        StringBuilder joined = new StringBuilder();
+        for (String term : terms) {
+            if (joined.length() > 0) {
+                joined.append(' ');
+            }
+            joined.append(term);
+        }
+        return joined.toString();
+    }
+}
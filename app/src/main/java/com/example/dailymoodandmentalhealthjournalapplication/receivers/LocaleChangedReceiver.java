@@ -0,0 +1,21 @@
+package com.example.dailymoodandmentalhealthjournalapplication.receivers;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.example.dailymoodandmentalhealthjournalapplication.workers.BackgroundWorkScheduler;
+
+/**
+ * Broadcast receiver that analyzes the sentiment of journal entries again
+ * when the device language changes, since each language has its own lexicon.
+ */
+public class LocaleChangedReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (Intent.ACTION_LOCALE_CHANGED.equals(intent.getAction())) {
+            BackgroundWorkScheduler.scheduleSentimentBackfill(context);
+        }
+    }
+}
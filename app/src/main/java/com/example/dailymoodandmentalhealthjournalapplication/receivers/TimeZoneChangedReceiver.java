@@ -0,0 +1,21 @@
+package com.example.dailymoodandmentalhealthjournalapplication.receivers;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.example.dailymoodandmentalhealthjournalapplication.workers.BackgroundWorkScheduler;
+
+/**
+ * Broadcast receiver that recomputes the stored local days of entries when
+ * the device time zone changes.
+ */
+public class TimeZoneChangedReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
+            BackgroundWorkScheduler.scheduleDateBucketRecompute(context);
+        }
+    }
+}
@@ -7,31 +7,32 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.dailymoodandmentalhealthjournalapplication.R;
-import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalEntrySummary;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 
 /**
- * Adapter for displaying journal entries in a RecyclerView.
+ * Paged adapter for displaying journal entry summaries in a RecyclerView.
+ * Rows that have not been loaded yet are shown as empty placeholders.
  */
-public class JournalEntryAdapter extends ListAdapter<JournalEntry, JournalEntryAdapter.JournalEntryViewHolder> {
+public class JournalEntryAdapter extends PagingDataAdapter<JournalEntrySummary, JournalEntryAdapter.JournalEntryViewHolder> {
     private final OnJournalEntryClickListener clickListener;
     private final OnFavoriteToggleListener favoriteListener;
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("MMM dd, yyyy HH:mm", Locale.getDefault());
 
     public interface OnJournalEntryClickListener {
-        void onJournalEntryClick(JournalEntry journalEntry);
+        void onJournalEntryClick(JournalEntrySummary journalEntry);
     }
 
     public interface OnFavoriteToggleListener {
-        void onFavoriteToggle(JournalEntry journalEntry, boolean isFavorite);
+        void onFavoriteToggle(JournalEntrySummary journalEntry, boolean isFavorite);
     }
 
     public JournalEntryAdapter(OnJournalEntryClickListener clickListener, OnFavoriteToggleListener favoriteListener) {
@@ -40,16 +41,20 @@ public class JournalEntryAdapter extends ListAdapter<JournalEntry, JournalEntryA
         this.favoriteListener = favoriteListener;
     }
 
-    private static final DiffUtil.ItemCallback<JournalEntry> DIFF_CALLBACK = new DiffUtil.ItemCallback<JournalEntry>() {
+    /**
+     * Compares rows by content fingerprint, which covers title, content and
+     * tags, so a diff costs a few long comparisons per row however long the
+     * entries are.
+     */
+    static final DiffUtil.ItemCallback<JournalEntrySummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<JournalEntrySummary>() {
         @Override
-        public boolean areItemsTheSame(@NonNull JournalEntry oldItem, @NonNull JournalEntry newItem) {
+        public boolean areItemsTheSame(@NonNull JournalEntrySummary oldItem, @NonNull JournalEntrySummary newItem) {
             return oldItem.getId() == newItem.getId();
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull JournalEntry oldItem, @NonNull JournalEntry newItem) {
-            return oldItem.getTitle().equals(newItem.getTitle()) &&
-                   oldItem.getContent().equals(newItem.getContent()) &&
+        public boolean areContentsTheSame(@NonNull JournalEntrySummary oldItem, @NonNull JournalEntrySummary newItem) {
+            return oldItem.getContentHash() == newItem.getContentHash() &&
                    oldItem.getDate() == newItem.getDate() &&
                    oldItem.isFavorite() == newItem.isFavorite();
         }
@@ -65,8 +70,12 @@ public class JournalEntryAdapter extends ListAdapter<JournalEntry, JournalEntryA
 
     @Override
     public void onBindViewHolder(@NonNull JournalEntryViewHolder holder, int position) {
-        JournalEntry journalEntry = getItem(position);
-        holder.bind(journalEntry, clickListener, favoriteListener);
+        JournalEntrySummary journalEntry = getItem(position);
+        if (journalEntry != null) {
+            holder.bind(journalEntry, clickListener, favoriteListener);
+        } else {
+            holder.bindPlaceholder();
+        }
     }
 
     static class JournalEntryViewHolder extends RecyclerView.ViewHolder {
@@ -85,12 +94,22 @@ public class JournalEntryAdapter extends ListAdapter<JournalEntry, JournalEntryA
             buttonFavorite = itemView.findViewById(R.id.buttonFavorite);
         }
 
-        public void bind(JournalEntry journalEntry, OnJournalEntryClickListener clickListener, OnFavoriteToggleListener favoriteListener) {
+        public void bindPlaceholder() {
+            textViewTitle.setText(null);
+            textViewDate.setText(null);
+            textViewContent.setText(null);
+            textViewTags.setVisibility(View.GONE);
+            buttonFavorite.setImageResource(R.drawable.ic_favorite_border);
+            itemView.setOnClickListener(null);
+            buttonFavorite.setOnClickListener(null);
+        }
+
+        public void bind(JournalEntrySummary journalEntry, OnJournalEntryClickListener clickListener, OnFavoriteToggleListener favoriteListener) {
             textViewTitle.setText(journalEntry.getTitle());
             textViewDate.setText(DATE_FORMAT.format(new Date(journalEntry.getDate())));
             
-            // Truncate content if it's too long
-            String content = journalEntry.getContent();
+            // Truncate the preview if the content is longer than it shows
+            String content = journalEntry.getPreview();
             if (content.length() > 100) {
                 content = content.substring(0, 97) + "...";
             }
@@ -4,30 +4,66 @@ import android.net.Uri;
 import android.os.Bundle;
 import android.view.MenuItem;
 import android.view.View;
+import android.widget.FrameLayout;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.dailymoodandmentalhealthjournalapplication.R;
 import com.example.dailymoodandmentalhealthjournalapplication.auth.LocalAuthManager;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodDistribution;
 import com.example.dailymoodandmentalhealthjournalapplication.databinding.ActivityAnalyticsBinding;
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.ChartBuckets.Granularity;
 import com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels.JournalViewModel;
 import com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels.MoodViewModel;
 import com.example.dailymoodandmentalhealthjournalapplication.utils.DataExportManager;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+
+import com.github.mikephil.charting.charts.LineChart;
+import com.github.mikephil.charting.charts.PieChart;
+import com.github.mikephil.charting.components.XAxis;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.data.PieData;
+import com.github.mikephil.charting.data.PieDataSet;
+import com.github.mikephil.charting.data.PieEntry;
+import com.github.mikephil.charting.formatter.PercentFormatter;
+import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.github.mikephil.charting.utils.ColorTemplate;
 
 import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
 /**
  * Activity for displaying mood analytics and insights.
  */
 public class AnalyticsActivity extends AppCompatActivity {
+    private static final int WEEKS_SHOWN = 52;
+    private static final int MONTHS_SHOWN = 36;
+    private static final int TIMELINE_DAYS = 3 * 365;
+    private static final int COMMON_EMOTIONS_LIMIT = 5;
+
     private ActivityAnalyticsBinding binding;
     private MoodViewModel moodViewModel;
     private JournalViewModel journalViewModel;
     private LocalAuthManager authManager;
     private DataExportManager dataExportManager;
+    private PieChart distributionChart;
+    private LiveData<MoodDistribution> moodDistribution;
+    private LiveData<Map<String, Integer>> commonEmotions;
+    private LineChart moodChart;
+    private LiveData<LineData> moodChartData;
+    private Granularity moodChartGranularity;
+    private long moodChartFromDay;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -70,6 +106,11 @@ public class AnalyticsActivity extends AppCompatActivity {
             loadMonthlyMoodData();
         });
         
+        binding.buttonTimeline.setOnClickListener(v -> {
+            setActiveTab(binding.buttonTimeline);
+            loadMoodTimeline();
+        });
+        
         binding.buttonDistribution.setOnClickListener(v -> {
             setActiveTab(binding.buttonDistribution);
             loadMoodDistribution();
@@ -85,6 +126,7 @@ public class AnalyticsActivity extends AppCompatActivity {
         // Reset all tabs
         binding.buttonWeekly.setBackgroundTintList(getColorStateList(R.color.light_gray));
         binding.buttonMonthly.setBackgroundTintList(getColorStateList(R.color.light_gray));
+        binding.buttonTimeline.setBackgroundTintList(getColorStateList(R.color.light_gray));
         binding.buttonDistribution.setBackgroundTintList(getColorStateList(R.color.light_gray));
         binding.buttonEmotions.setBackgroundTintList(getColorStateList(R.color.light_gray));
         
@@ -102,56 +144,259 @@ public class AnalyticsActivity extends AppCompatActivity {
 
     private void loadWeeklyMoodData() {
         binding.textViewChartTitle.setText(R.string.weekly_mood);
-        binding.progressBar.setVisibility(View.VISIBLE);
-        
-        // In a real implementation, this would load data into a chart
-        // For now, we'll just show a placeholder message
-        binding.textViewNoData.setText(R.string.weekly_mood_placeholder);
-        binding.textViewNoData.setVisibility(View.VISIBLE);
-        binding.progressBar.setVisibility(View.GONE);
-        
-        // This would be implemented with MPAndroidChart
-        // Example:
-        // LineChart chart = binding.chartWeekly;
-        // List<Entry> entries = new ArrayList<>();
-        // ... add data points ...
-        // LineDataSet dataSet = new LineDataSet(entries, "Weekly Mood");
-        // LineData lineData = new LineData(dataSet);
-        // chart.setData(lineData);
-        // chart.invalidate();
+        hideDistributionChart();
+        long today = today();
+        long fromDay = DateBuckets.startOfWeek(today) - 7L * (WEEKS_SHOWN - 1);
+        loadMoodChart(moodViewModel.getMoodChart(Granularity.WEEK, fromDay, today), Granularity.WEEK, fromDay);
     }
 
     private void loadMonthlyMoodData() {
         binding.textViewChartTitle.setText(R.string.monthly_mood);
+        hideDistributionChart();
+        long today = today();
+        long fromDay = ChartBuckets.startDay(Granularity.MONTH, today, 1 - MONTHS_SHOWN);
+        loadMoodChart(moodViewModel.getMoodChart(Granularity.MONTH, fromDay, today), Granularity.MONTH, fromDay);
+    }
+
+    private void loadMoodTimeline() {
+        binding.textViewChartTitle.setText(R.string.mood_timeline);
+        hideDistributionChart();
+        long today = today();
+        long fromDay = today - TIMELINE_DAYS + 1;
+        // One point per pixel column is all the chart can show
+        int width = binding.frameLayoutChart.getWidth();
+        if (width == 0) {
+            width = getResources().getDisplayMetrics().widthPixels;
+        }
+        loadMoodChart(moodViewModel.getMoodTimeline(fromDay, today, width, Downsampler.Mode.LTTB),
+                Granularity.DAY, fromDay);
+    }
+
+    /**
+     * Show a mood line chart. The chart's x values are buckets of the given
+     * granularity counted from the given day.
+     */
+    private void loadMoodChart(LiveData<LineData> chartData, Granularity granularity, long fromDay) {
+        hideMoodChart();
+        binding.textViewNoData.setVisibility(View.GONE);
         binding.progressBar.setVisibility(View.VISIBLE);
-        
-        // In a real implementation, this would load data into a chart
-        // For now, we'll just show a placeholder message
-        binding.textViewNoData.setText(R.string.monthly_mood_placeholder);
-        binding.textViewNoData.setVisibility(View.VISIBLE);
-        binding.progressBar.setVisibility(View.GONE);
+
+        // Computed in the background; weekly and monthly charts are cached, so switching back is instant
+        moodChartData = chartData;
+        if (moodChartData == null) {
+            showNoData(R.string.no_data);
+            return;
+        }
+        moodChartGranularity = granularity;
+        moodChartFromDay = fromDay;
+        moodChartData.observe(this, data -> {
+            binding.progressBar.setVisibility(View.GONE);
+            if (data == null || data.getEntryCount() == 0) {
+                showNoData(R.string.no_data);
+            } else {
+                showMoodChart(data);
+            }
+        });
+    }
+
+    private void showMoodChart(LineData data) {
+        if (moodChart == null) {
+            moodChart = new LineChart(this);
+            moodChart.getDescription().setEnabled(false);
+            moodChart.getAxisRight().setEnabled(false);
+            moodChart.getAxisLeft().setAxisMinimum(0f);
+            moodChart.getAxisLeft().setAxisMaximum(10f);
+            XAxis xAxis = moodChart.getXAxis();
+            xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
+            xAxis.setGranularity(1f);
+            xAxis.setValueFormatter(new ValueFormatter() {
+                @Override
+                public String getFormattedValue(float value) {
+                    return formatBucket((int) Math.floor(value));
+                }
+            });
+            binding.frameLayoutChart.addView(moodChart, 0, new FrameLayout.LayoutParams(
+                    FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+        }
+
+        binding.textViewNoData.setVisibility(View.GONE);
+        moodChart.setData(data);
+        moodChart.setVisibility(View.VISIBLE);
+        moodChart.invalidate();
+    }
+
+    private String formatBucket(int bucket) {
+        String pattern = moodChartGranularity == Granularity.MONTH ? "MMM yyyy" : "MMM d";
+        SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.getDefault());
+        // Epoch days are formatted as UTC midnight so the label is the day itself
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        long day = ChartBuckets.startDay(moodChartGranularity, moodChartFromDay, bucket);
+        return format.format(day * DateBuckets.MILLIS_PER_DAY);
+    }
+
+    private void hideMoodChart() {
+        if (moodChartData != null) {
+            moodChartData.removeObservers(this);
+            moodChartData = null;
+        }
+        if (moodChart != null) {
+            moodChart.setVisibility(View.GONE);
+        }
+    }
+
+    private static long today() {
+        return DateBuckets.epochDay(System.currentTimeMillis(), TimeZone.getDefault());
     }
 
     private void loadMoodDistribution() {
         binding.textViewChartTitle.setText(R.string.mood_distribution);
+        hideMoodChart();
+        binding.textViewNoData.setVisibility(View.GONE);
         binding.progressBar.setVisibility(View.VISIBLE);
-        
-        // In a real implementation, this would load data into a chart
-        // For now, we'll just show a placeholder message
-        binding.textViewNoData.setText(R.string.mood_distribution_placeholder);
-        binding.textViewNoData.setVisibility(View.VISIBLE);
+
+        if (moodDistribution != null) {
+            moodDistribution.removeObservers(this);
+        }
+        stopCommonEmotions();
+        // One grouped query gives the count of every mood type
+        moodDistribution = moodViewModel.getMoodDistribution();
+        if (moodDistribution == null) {
+            showNoData(R.string.no_data);
+            return;
+        }
+        moodDistribution.observe(this, distribution -> {
+            binding.progressBar.setVisibility(View.GONE);
+            if (distribution == null || distribution.isEmpty()) {
+                showNoData(R.string.no_data);
+            } else {
+                showDistributionChart(distribution);
+            }
+        });
+    }
+
+    private void showDistributionChart(MoodDistribution distribution) {
+        List<PieEntry> entries = new ArrayList<>();
+        List<Integer> colors = new ArrayList<>();
+        for (MoodType moodType : MoodType.values()) {
+            int count = distribution.getCount(moodType);
+            if (count > 0) {
+                entries.add(new PieEntry(count, getString(getMoodLabel(moodType))));
+                colors.add(ContextCompat.getColor(this, getMoodColor(moodType)));
+            }
+        }
+        showPieChart(entries, colors);
+    }
+
+    private void showPieChart(List<PieEntry> entries, List<Integer> colors) {
+        if (distributionChart == null) {
+            distributionChart = new PieChart(this);
+            distributionChart.setUsePercentValues(true);
+            distributionChart.getDescription().setEnabled(false);
+            distributionChart.setDrawEntryLabels(false);
+            binding.frameLayoutChart.addView(distributionChart, 0, new FrameLayout.LayoutParams(
+                    FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+        }
+
+        PieDataSet dataSet = new PieDataSet(entries, null);
+        dataSet.setColors(colors);
+        PieData data = new PieData(dataSet);
+        data.setValueFormatter(new PercentFormatter(distributionChart));
+
+        binding.textViewNoData.setVisibility(View.GONE);
+        distributionChart.setData(data);
+        distributionChart.setVisibility(View.VISIBLE);
+        distributionChart.invalidate();
+    }
+
+    private void hideDistributionChart() {
+        if (moodDistribution != null) {
+            moodDistribution.removeObservers(this);
+            moodDistribution = null;
+        }
+        stopCommonEmotions();
+        if (distributionChart != null) {
+            distributionChart.setVisibility(View.GONE);
+        }
+    }
+
+    private void stopCommonEmotions() {
+        if (commonEmotions != null) {
+            commonEmotions.removeObservers(this);
+            commonEmotions = null;
+        }
+    }
+
+    private void showNoData(int messageRes) {
         binding.progressBar.setVisibility(View.GONE);
+        if (distributionChart != null) {
+            distributionChart.setVisibility(View.GONE);
+        }
+        if (moodChart != null) {
+            moodChart.setVisibility(View.GONE);
+        }
+        binding.textViewNoData.setText(messageRes);
+        binding.textViewNoData.setVisibility(View.VISIBLE);
+    }
+
+    private static int getMoodLabel(MoodType moodType) {
+        switch (moodType) {
+            case HAPPY:
+                return R.string.mood_happy;
+            case SAD:
+                return R.string.mood_sad;
+            case ANGRY:
+                return R.string.mood_angry;
+            case ANXIOUS:
+                return R.string.mood_anxious;
+            default:
+                return R.string.mood_neutral;
+        }
+    }
+
+    private static int getMoodColor(MoodType moodType) {
+        switch (moodType) {
+            case HAPPY:
+                return R.color.mood_happy;
+            case SAD:
+                return R.color.mood_sad;
+            case ANGRY:
+                return R.color.mood_angry;
+            case ANXIOUS:
+                return R.color.mood_anxious;
+            default:
+                return R.color.mood_neutral;
+        }
     }
 
     private void loadCommonEmotions() {
         binding.textViewChartTitle.setText(R.string.common_emotions);
+        hideDistributionChart();
+        hideMoodChart();
+        binding.textViewNoData.setVisibility(View.GONE);
         binding.progressBar.setVisibility(View.VISIBLE);
-        
-        // In a real implementation, this would load data into a chart
-        // For now, we'll just show a placeholder message
-        binding.textViewNoData.setText(R.string.common_emotions_placeholder);
-        binding.textViewNoData.setVisibility(View.VISIBLE);
-        binding.progressBar.setVisibility(View.GONE);
+
+        // Summed from the emotion counts stored with each entry, so no text is analyzed again
+        commonEmotions = journalViewModel.getCommonEmotions(COMMON_EMOTIONS_LIMIT);
+        if (commonEmotions == null) {
+            showNoData(R.string.no_data);
+            return;
+        }
+        commonEmotions.observe(this, emotions -> {
+            binding.progressBar.setVisibility(View.GONE);
+            if (emotions == null || emotions.isEmpty()) {
+                showNoData(R.string.no_data);
+                return;
+            }
+            List<PieEntry> entries = new ArrayList<>();
+            for (Map.Entry<String, Integer> emotion : emotions.entrySet()) {
+                entries.add(new PieEntry(emotion.getValue(), emotion.getKey()));
+            }
+            List<Integer> colors = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                colors.add(ColorTemplate.JOYFUL_COLORS[i % ColorTemplate.JOYFUL_COLORS.length]);
+            }
+            showPieChart(entries, colors);
+        });
     }
 
     private void exportDataToCsv() {
@@ -0,0 +1,91 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.analytics;
+
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+
+/**
+ * Maps local days to the buckets of a mood chart: the days, ISO weeks or
+ * months of a range of days, numbered from 0 at the bucket holding the first day of the
+ * range. Bucket numbers are the chart's x values.
+ */
+public final class ChartBuckets {
+
+    /**
+     * The period each point of a chart covers.
+     */
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH
+    }
+
+    private ChartBuckets() {
+    }
+
+    /**
+     * Get the bucket of a day.
+     *
+     * @param granularity The bucket size
+     * @param fromDay The first epoch day of the chart's range
+     * @param epochDay The epoch day
+     * @return The bucket number; negative for days before the range
+     */
+    public static int bucketOf(Granularity granularity, long fromDay, long epochDay) {
+        if (granularity == Granularity.DAY) {
+            return (int) (epochDay - fromDay);
+        }
+        if (granularity == Granularity.WEEK) {
+            return (int) Math.floorDiv(DateBuckets.startOfWeek(epochDay) - DateBuckets.startOfWeek(fromDay), 7L);
+        }
+        return monthIndex(epochDay) - monthIndex(fromDay);
+    }
+
+    /**
+     * Get the number of buckets a range of days spans.
+     *
+     * @param granularity The bucket size
+     * @param fromDay The first epoch day of the range
+     * @param toDay The last epoch day of the range
+     * @return The number of buckets
+     */
+    public static int bucketCount(Granularity granularity, long fromDay, long toDay) {
+        return bucketOf(granularity, fromDay, toDay) + 1;
+    }
+
+    /**
+     * Get the first day of a bucket: the day itself, a Monday or the 1st of
+     * a month. The first bucket may start before the range does.
+     *
+     * @param granularity The bucket size
+     * @param fromDay The first epoch day of the chart's range
+     * @param bucket The bucket number
+     * @return The epoch day the bucket starts on
+     */
+    public static long startDay(Granularity granularity, long fromDay, int bucket) {
+        if (granularity == Granularity.DAY) {
+            return fromDay + bucket;
+        }
+        if (granularity == Granularity.WEEK) {
+            return DateBuckets.startOfWeek(fromDay) + 7L * bucket;
+        }
+        int month = monthIndex(fromDay) + bucket;
+        return DateBuckets.epochDay(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1, 1);
+    }
+
+    /**
+     * Get the last day of a bucket.
+     *
+     * @param granularity The bucket size
+     * @param fromDay The first epoch day of the chart's range
+     * @param bucket The bucket number
+     * @return The epoch day the bucket ends on
+     */
+    public static long endDay(Granularity granularity, long fromDay, int bucket) {
+        return startDay(granularity, fromDay, bucket + 1) - 1;
+    }
+
+    // Months since year 0, so consecutive months differ by one across years
+    private static int monthIndex(long epochDay) {
+        int monthKey = DateBuckets.monthKey(epochDay);
+        return monthKey / 100 * 12 + monthKey % 100 - 1;
+    }
+}
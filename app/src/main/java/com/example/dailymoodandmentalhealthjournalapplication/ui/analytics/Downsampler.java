@@ -0,0 +1,185 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.analytics;
+
+/**
+ * Reduces a long series of points to about one point per pixel column of a
+ * chart before it is handed to MPAndroidChart. Works on parallel arrays of x
+ * and y values sorted by x, and writes the indices of the points to keep into
+ * a caller-supplied array, so no objects are created per point.
+ */
+public final class Downsampler {
+
+    /**
+     * How points are chosen.
+     */
+    public enum Mode {
+        /**
+         * Largest-Triangle-Three-Buckets: one point per column, picked to keep
+         * the visual shape of the line.
+         */
+        LTTB,
+        /**
+         * The lowest and highest point of every column, so no extreme value
+         * is dropped.
+         */
+        MIN_MAX
+    }
+
+    private Downsampler() {
+    }
+
+    /**
+     * Get the largest number of indices {@link #downsample} writes.
+     *
+     * @param mode The downsampling mode
+     * @param width The chart width in pixels
+     * @return The size the output array needs
+     */
+    public static int maxOutputSize(Mode mode, int width) {
+        return mode == Mode.LTTB ? Math.max(width, 2) : 2 * Math.max(width, 1);
+    }
+
+    /**
+     * Downsample a series to a chart width. Series no longer than the width
+     * are kept whole.
+     *
+     * @param mode The downsampling mode
+     * @param x The x values, in ascending order
+     * @param y The y values
+     * @param length The number of points in the arrays to use
+     * @param width The chart width in pixels
+     * @param out Receives the indices of the kept points in ascending order;
+     *            must hold {@link #maxOutputSize} indices
+     * @return The number of indices written
+     */
+    public static int downsample(Mode mode, float[] x, float[] y, int length, int width, int[] out) {
+        if (mode == Mode.LTTB) {
+            return lttb(x, y, length, Math.max(width, 2), out);
+        }
+        return minMax(x, y, length, Math.max(width, 1), out);
+    }
+
+    /**
+     * Pick points with Largest-Triangle-Three-Buckets. The first and last
+     * points are always kept; the points between are split into equal-sized
+     * buckets, and from each bucket the point forming the largest triangle
+     * with the previously kept point and the average of the next bucket is
+     * kept.
+     *
+     * @param x The x values, in ascending order
+     * @param y The y values
+     * @param length The number of points in the arrays to use
+     * @param threshold The number of points to keep, at least 2
+     * @param out Receives the indices of the kept points in ascending order
+     * @return The number of indices written
+     */
+    public static int lttb(float[] x, float[] y, int length, int threshold, int[] out) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException("Threshold must be at least 2: " + threshold);
+        }
+        if (length <= threshold) {
+            return keepAll(length, out);
+        }
+
+        int count = 0;
+        out[count++] = 0;
+        double every = (double) (length - 2) / (threshold - 2);
+        int a = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket, or of the last point for the final bucket
+            int averageFrom = (int) ((bucket + 1) * every) + 1;
+            int averageTo = Math.min((int) ((bucket + 2) * every) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = averageFrom; i < averageTo; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= averageTo - averageFrom;
+            averageY /= averageTo - averageFrom;
+
+            int from = (int) (bucket * every) + 1;
+            int to = (int) ((bucket + 1) * every) + 1;
+            double pointAX = x[a];
+            double pointAY = y[a];
+            double maxArea = -1;
+            int next = from;
+            for (int i = from; i < to; i++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((pointAX - averageX) * (y[i] - pointAY)
+                        - (pointAX - x[i]) * (averageY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+            out[count++] = next;
+            a = next;
+        }
+        out[count++] = length - 1;
+        return count;
+    }
+
+    /**
+     * Keep the lowest and highest point of each of a number of equal-width x
+     * ranges, in their original order. The first and last points fall in the
+     * first and last range, so the ends of the line are kept too when they
+     * are extremes of their range.
+     *
+     * @param x The x values, in ascending order
+     * @param y The y values
+     * @param length The number of points in the arrays to use
+     * @param columns The number of x ranges, at least 1
+     * @param out Receives the indices of the kept points in ascending order;
+     *            must hold twice the number of columns
+     * @return The number of indices written
+     */
+    public static int minMax(float[] x, float[] y, int length, int columns, int[] out) {
+        if (columns < 1) {
+            throw new IllegalArgumentException("Columns must be at least 1: " + columns);
+        }
+        if (length <= 2 * columns) {
+            return keepAll(length, out);
+        }
+
+        double firstX = x[0];
+        double span = x[length - 1] - firstX;
+        int count = 0;
+        int column = 0;
+        int min = 0;
+        int max = 0;
+        for (int i = 1; i < length; i++) {
+            int pointColumn = span > 0 ? (int) ((x[i] - firstX) / span * columns) : 0;
+            if (pointColumn >= columns) {
+                pointColumn = columns - 1;
+            }
+            if (pointColumn != column) {
+                count = emit(min, max, out, count);
+                column = pointColumn;
+                min = i;
+                max = i;
+            } else if (y[i] < y[min]) {
+                min = i;
+            } else if (y[i] > y[max]) {
+                max = i;
+            }
+        }
+        return emit(min, max, out, count);
+    }
+
+    private static int emit(int min, int max, int[] out, int count) {
+        if (min == max) {
+            out[count++] = min;
+        } else {
+            out[count++] = Math.min(min, max);
+            out[count++] = Math.max(min, max);
+        }
+        return count;
+    }
+
+    private static int keepAll(int length, int[] out) {
+        for (int i = 0; i < length; i++) {
+            out[i] = i;
+        }
+        return length;
+    }
+}
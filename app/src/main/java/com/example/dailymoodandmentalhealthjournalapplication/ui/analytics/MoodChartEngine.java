@@ -0,0 +1,326 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.analytics;
+
+import android.app.Application;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.dailymoodandmentalhealthjournalapplication.R;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.DatabaseDispatcher;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPeriodStats;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPoint;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.MoodRepository;
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.ChartBuckets.Granularity;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+
+import com.github.mikephil.charting.data.Entry;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.data.LineDataSet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+
+/**
+ * Builds the weekly and monthly mood line charts from the daily rollup, and
+ * the downsampled timeline of all mood entries, off the main thread. Prepared
+ * weekly and monthly data is kept per user, range and granularity, so
+ * showing a chart again is immediate. When the rollup changes, only the
+ * buckets holding the changed days are read again and only their chart
+ * entries are rebuilt.
+ */
+public final class MoodChartEngine implements MoodRepository.DailyStatsListener {
+    private static final String TAG = "MoodChartEngine";
+    private static final int MAX_SERIES = 8;
+    private static volatile MoodChartEngine INSTANCE;
+
+    private final Context context;
+    private final MoodRepository moodRepository;
+    private final Executor executor;
+    // Guards the cache and the dirty state of every series
+    private final Object lock = new Object();
+    private final Map<SeriesKey, Series> cache = new LinkedHashMap<SeriesKey, Series>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SeriesKey, Series> eldest) {
+            return size() > MAX_SERIES;
+        }
+    };
+
+    public MoodChartEngine(Context context, MoodRepository moodRepository, Executor executor) {
+        this.context = context.getApplicationContext();
+        this.moodRepository = moodRepository;
+        this.executor = executor;
+        moodRepository.addDailyStatsListener(this);
+    }
+
+    /**
+     * Get the shared engine, so the prepared charts outlive the screens
+     * showing them.
+     *
+     * @param application The application
+     * @return The MoodChartEngine instance
+     */
+    public static MoodChartEngine getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (MoodChartEngine.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MoodChartEngine(application, MoodRepository.getInstance(application),
+                            DatabaseDispatcher.getInstance().reader());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Get the average mood intensity of each week or month of a range of
+     * local days. The x value of an entry is its bucket number, see
+     * {@link ChartBuckets}; buckets without mood entries have no entry.
+     *
+     * @param userId The user ID
+     * @param granularity The period each entry covers
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the chart data, updated as entries change
+     */
+    public LiveData<LineData> getMoodChart(String userId, Granularity granularity, long fromDay, long toDay) {
+        SeriesKey key = new SeriesKey(userId, granularity, fromDay, toDay);
+        synchronized (lock) {
+            Series series = cache.get(key);
+            if (series == null) {
+                series = new Series(key, ChartBuckets.bucketCount(granularity, fromDay, toDay));
+                series.dirty.set(0, series.entries.length);
+                cache.put(key, series);
+                schedule(series);
+            }
+            return series.chart;
+        }
+    }
+
+    /**
+     * Get the intensity of every mood entry in a range of local days,
+     * downsampled to about one point per pixel of the chart width so long
+     * histories stay cheap to draw. The x value of an entry is its time in
+     * days since the start of the first day, so {@link Granularity#DAY}
+     * buckets label it.
+     *
+     * @param userId The user ID
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @param width The chart width in pixels
+     * @param mode How points are chosen
+     * @return LiveData containing the chart data
+     */
+    public LiveData<LineData> getMoodTimeline(String userId, long fromDay, long toDay, int width,
+                                              Downsampler.Mode mode) {
+        MutableLiveData<LineData> timeline = new MutableLiveData<>();
+        executor.execute(() -> {
+            TimeZone timeZone = TimeZone.getDefault();
+            long startDate = DateBuckets.startOfDay(fromDay, timeZone);
+            List<MoodPoint> points = moodRepository.getMoodPointsSync(userId, startDate,
+                    DateBuckets.endOfDay(toDay, timeZone));
+
+            long start = System.nanoTime();
+            int length = points.size();
+            float[] x = new float[length];
+            float[] y = new float[length];
+            for (int i = 0; i < length; i++) {
+                MoodPoint point = points.get(i);
+                x[i] = (float) (point.getDate() - startDate) / DateBuckets.MILLIS_PER_DAY;
+                y[i] = point.getMoodIntensity();
+            }
+            int[] kept = new int[Downsampler.maxOutputSize(mode, width)];
+            int count = Downsampler.downsample(mode, x, y, length, width, kept);
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(x[kept[i]], y[kept[i]]));
+            }
+            Log.d(TAG, "Mood timeline: " + length + " points to " + count + " in "
+                    + (System.nanoTime() - start) / 1000 + " us");
+
+            LineDataSet dataSet = createDataSet(entries, Granularity.DAY);
+            dataSet.setDrawCircles(false);
+            dataSet.setLineWidth(1f);
+            timeline.postValue(new LineData(dataSet));
+        });
+        return timeline;
+    }
+
+    @Override
+    public void onDailyStatsChanged(String userId, Set<Long> epochDays) {
+        synchronized (lock) {
+            for (Series series : cache.values()) {
+                SeriesKey key = series.key;
+                if (!key.userId.equals(userId)) {
+                    continue;
+                }
+                if (epochDays == null) {
+                    series.dirty.set(0, series.entries.length);
+                } else {
+                    for (long epochDay : epochDays) {
+                        if (epochDay >= key.fromDay && epochDay <= key.toDay) {
+                            series.dirty.set(ChartBuckets.bucketOf(key.granularity, key.fromDay, epochDay));
+                        }
+                    }
+                }
+                if (!series.dirty.isEmpty()) {
+                    schedule(series);
+                }
+            }
+        }
+    }
+
+    // Must hold lock. At most one task per series runs, so only it touches the series' buckets.
+    private void schedule(Series series) {
+        if (!series.running) {
+            series.running = true;
+            executor.execute(() -> update(series));
+        }
+    }
+
+    private void update(Series series) {
+        while (true) {
+            BitSet dirty;
+            synchronized (lock) {
+                if (series.dirty.isEmpty()) {
+                    series.running = false;
+                    return;
+                }
+                dirty = (BitSet) series.dirty.clone();
+                series.dirty.clear();
+            }
+            try {
+                // One range query per run of consecutive dirty buckets
+                int start = dirty.nextSetBit(0);
+                while (start >= 0) {
+                    int end = dirty.nextClearBit(start);
+                    loadBuckets(series, start, end);
+                    start = dirty.nextSetBit(end);
+                }
+            } catch (RuntimeException e) {
+                // Retried with the next change
+                Log.e(TAG, "Error loading mood chart", e);
+                synchronized (lock) {
+                    series.dirty.or(dirty);
+                    series.running = false;
+                }
+                return;
+            }
+            series.chart.postValue(createChartData(series));
+        }
+    }
+
+    private void loadBuckets(Series series, int fromBucket, int toBucket) {
+        SeriesKey key = series.key;
+        for (int bucket = fromBucket; bucket < toBucket; bucket++) {
+            series.intensitySums[bucket] = 0;
+            series.entryCounts[bucket] = 0;
+        }
+        long fromDay = Math.max(key.fromDay, ChartBuckets.startDay(key.granularity, key.fromDay, fromBucket));
+        long toDay = Math.min(key.toDay, ChartBuckets.endDay(key.granularity, key.fromDay, toBucket - 1));
+        for (MoodPeriodStats day : moodRepository.getDailyMoodSeriesSync(key.userId, fromDay, toDay)) {
+            int bucket = ChartBuckets.bucketOf(key.granularity, key.fromDay, day.getPeriodKey());
+            series.intensitySums[bucket] += day.getIntensitySum();
+            series.entryCounts[bucket] += day.getEntryCount();
+        }
+        for (int bucket = fromBucket; bucket < toBucket; bucket++) {
+            int count = series.entryCounts[bucket];
+            series.entries[bucket] = count > 0
+                    ? new Entry(bucket, (float) series.intensitySums[bucket] / count)
+                    : null;
+        }
+    }
+
+    private LineData createChartData(Series series) {
+        List<Entry> entries = new ArrayList<>();
+        for (Entry entry : series.entries) {
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return new LineData(createDataSet(entries, series.key.granularity));
+    }
+
+    private LineDataSet createDataSet(List<Entry> entries, Granularity granularity) {
+        int label;
+        switch (granularity) {
+            case WEEK:
+                label = R.string.weekly_mood;
+                break;
+            case MONTH:
+                label = R.string.monthly_mood;
+                break;
+            default:
+                label = R.string.mood_timeline;
+                break;
+        }
+        int color = ContextCompat.getColor(context, R.color.primary);
+        LineDataSet dataSet = new LineDataSet(entries, context.getString(label));
+        dataSet.setColor(color);
+        dataSet.setCircleColor(color);
+        dataSet.setLineWidth(2f);
+        dataSet.setDrawValues(false);
+        return dataSet;
+    }
+
+    private static final class Series {
+        final SeriesKey key;
+        final long[] intensitySums;
+        final int[] entryCounts;
+        final Entry[] entries;
+        final BitSet dirty;
+        final MutableLiveData<LineData> chart = new MutableLiveData<>();
+        boolean running;
+
+        Series(SeriesKey key, int bucketCount) {
+            this.key = key;
+            this.intensitySums = new long[bucketCount];
+            this.entryCounts = new int[bucketCount];
+            this.entries = new Entry[bucketCount];
+            this.dirty = new BitSet(bucketCount);
+        }
+    }
+
+    private static final class SeriesKey {
+        final String userId;
+        final Granularity granularity;
+        final long fromDay;
+        final long toDay;
+
+        SeriesKey(String userId, Granularity granularity, long fromDay, long toDay) {
+            this.userId = userId;
+            this.granularity = granularity;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SeriesKey)) {
+                return false;
+            }
+            SeriesKey other = (SeriesKey) o;
+            return fromDay == other.fromDay && toDay == other.toDay
+                    && granularity == other.granularity && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = userId.hashCode();
+            result = 31 * result + granularity.hashCode();
+            result = 31 * result + Long.hashCode(fromDay);
+            return 31 * result + Long.hashCode(toDay);
+        }
+    }
+}
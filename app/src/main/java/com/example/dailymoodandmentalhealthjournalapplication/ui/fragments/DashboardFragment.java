@@ -9,9 +9,11 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.dailymoodandmentalhealthjournalapplication.R;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodStatistics;
 import com.example.dailymoodandmentalhealthjournalapplication.databinding.FragmentDashboardBinding;
 import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.AnalyticsActivity;
 import com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels.MoodViewModel;
@@ -80,11 +82,26 @@ public class DashboardFragment extends Fragment {
         });
 
         // Observe average mood intensity for the current week
-        moodViewModel.getAverageMoodIntensity(getStartOfWeek(), getEndOfWeek()).observe(getViewLifecycleOwner(), averageIntensity -> {
+        moodViewModel.getAverageMoodIntensityForCurrentWeek().observe(getViewLifecycleOwner(), averageIntensity -> {
             if (averageIntensity != null) {
                 binding.textViewAverageMood.setText(getString(R.string.average_mood_intensity, averageIntensity));
             }
         });
+
+        // Rolling statistics, updated as entries are added rather than queried again
+        LiveData<MoodStatistics> statistics = moodViewModel.getMoodStatistics();
+        if (statistics != null) {
+            statistics.observe(getViewLifecycleOwner(), stats -> {
+                if (stats == null || stats.isEmpty()) {
+                    binding.textViewMoodStatistics.setVisibility(View.GONE);
+                    return;
+                }
+                binding.textViewMoodStatistics.setText(getString(R.string.mood_statistics,
+                        stats.getWeekMean(), stats.getWeekStdDev(), stats.getMonthMean(), stats.getMonthStdDev(),
+                        stats.getTrend(), stats.getVolatility()));
+                binding.textViewMoodStatistics.setVisibility(View.VISIBLE);
+            });
+        }
     }
 
     private String getTodayDateFormatted() {
@@ -92,28 +109,6 @@ public class DashboardFragment extends Fragment {
         return dateFormat.format(new Date());
     }
 
-    private long getStartOfWeek() {
-        // Get start of current week in milliseconds
-        java.util.Calendar calendar = java.util.Calendar.getInstance();
-        calendar.set(java.util.Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
-        calendar.set(java.util.Calendar.HOUR_OF_DAY, 0);
-        calendar.set(java.util.Calendar.MINUTE, 0);
-        calendar.set(java.util.Calendar.SECOND, 0);
-        calendar.set(java.util.Calendar.MILLISECOND, 0);
-        return calendar.getTimeInMillis();
-    }
-
-    private long getEndOfWeek() {
-        // Get end of current week in milliseconds
-        java.util.Calendar calendar = java.util.Calendar.getInstance();
-        calendar.set(java.util.Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek() + 6);
-        calendar.set(java.util.Calendar.HOUR_OF_DAY, 23);
-        calendar.set(java.util.Calendar.MINUTE, 59);
-        calendar.set(java.util.Calendar.SECOND, 59);
-        calendar.set(java.util.Calendar.MILLISECOND, 999);
-        return calendar.getTimeInMillis();
-    }
-
     @Override
     public void onDestroyView() {
         super.onDestroyView();
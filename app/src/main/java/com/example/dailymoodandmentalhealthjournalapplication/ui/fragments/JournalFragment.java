@@ -9,8 +9,10 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.dailymoodandmentalhealthjournalapplication.R;
@@ -19,6 +21,8 @@ import com.example.dailymoodandmentalhealthjournalapplication.ui.adapters.Journa
 import com.example.dailymoodandmentalhealthjournalapplication.ui.journal.JournalEntryActivity;
 import com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels.JournalViewModel;
 
+import kotlin.Unit;
+
 /**
  * Fragment for displaying and managing journal entries.
  */
@@ -26,6 +30,8 @@ public class JournalFragment extends Fragment {
     private FragmentJournalBinding binding;
     private JournalViewModel journalViewModel;
     private JournalEntryAdapter adapter;
+    @StringRes
+    private int emptyMessage = R.string.no_journal_entries;
 
     @Nullable
     @Override
@@ -59,6 +65,9 @@ public class JournalFragment extends Fragment {
         setupFilterButtons();
 
         // Load journal entries
+        binding.progressBar.setVisibility(View.VISIBLE);
+        journalViewModel.getPagedJournalEntries().observe(getViewLifecycleOwner(), pagingData ->
+                adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData));
         loadJournalEntries();
     }
 
@@ -77,6 +86,22 @@ public class JournalFragment extends Fragment {
                     Toast.LENGTH_SHORT).show();
         });
 
+        // Show progress and the empty message from the paging load state
+        adapter.addLoadStateListener(loadStates -> {
+            if (binding == null) {
+                return Unit.INSTANCE;
+            }
+            boolean loading = loadStates.getRefresh() instanceof LoadState.Loading;
+            binding.progressBar.setVisibility(loading ? View.VISIBLE : View.GONE);
+            if (!loading && adapter.getItemCount() == 0) {
+                binding.textViewNoEntries.setText(emptyMessage);
+                binding.textViewNoEntries.setVisibility(View.VISIBLE);
+            } else {
+                binding.textViewNoEntries.setVisibility(View.GONE);
+            }
+            return Unit.INSTANCE;
+        });
+
         binding.recyclerViewJournalEntries.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerViewJournalEntries.setAdapter(adapter);
     }
@@ -125,46 +150,24 @@ public class JournalFragment extends Fragment {
     }
 
     private void loadJournalEntries() {
-        binding.progressBar.setVisibility(View.VISIBLE);
-        journalViewModel.getAllJournalEntries().observe(getViewLifecycleOwner(), journalEntries -> {
-            binding.progressBar.setVisibility(View.GONE);
-            if (journalEntries != null && !journalEntries.isEmpty()) {
-                adapter.submitList(journalEntries);
-                binding.textViewNoEntries.setVisibility(View.GONE);
-            } else {
-                binding.textViewNoEntries.setVisibility(View.VISIBLE);
-            }
-        });
+        showEntries(JournalViewModel.JournalListFilter.all(), R.string.no_journal_entries);
     }
 
     private void searchJournalEntries(String query) {
-        binding.progressBar.setVisibility(View.VISIBLE);
-        journalViewModel.searchJournalEntries(query).observe(getViewLifecycleOwner(), journalEntries -> {
-            binding.progressBar.setVisibility(View.GONE);
-            if (journalEntries != null && !journalEntries.isEmpty()) {
-                adapter.submitList(journalEntries);
-                binding.textViewNoEntries.setVisibility(View.GONE);
-            } else {
-                adapter.submitList(null);
-                binding.textViewNoEntries.setText(R.string.no_search_results);
-                binding.textViewNoEntries.setVisibility(View.VISIBLE);
-            }
-        });
+        showEntries(JournalViewModel.JournalListFilter.search(query), R.string.no_search_results);
     }
 
     private void loadFavoriteEntries() {
-        binding.progressBar.setVisibility(View.VISIBLE);
-        journalViewModel.getFavoriteJournalEntries().observe(getViewLifecycleOwner(), journalEntries -> {
-            binding.progressBar.setVisibility(View.GONE);
-            if (journalEntries != null && !journalEntries.isEmpty()) {
-                adapter.submitList(journalEntries);
-                binding.textViewNoEntries.setVisibility(View.GONE);
-            } else {
-                adapter.submitList(null);
-                binding.textViewNoEntries.setText(R.string.no_favorite_entries);
-                binding.textViewNoEntries.setVisibility(View.VISIBLE);
-            }
-        });
+        showEntries(JournalViewModel.JournalListFilter.favorites(), R.string.no_favorite_entries);
+    }
+
+    /**
+     * Switch the list to another filter. The list keeps observing the same
+     * paged LiveData, which reloads only if the filter changed.
+     */
+    private void showEntries(JournalViewModel.JournalListFilter filter, @StringRes int emptyMessageRes) {
+        emptyMessage = emptyMessageRes;
+        journalViewModel.setJournalListFilter(filter);
     }
 
     @Override
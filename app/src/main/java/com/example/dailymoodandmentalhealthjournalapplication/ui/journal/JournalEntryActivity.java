@@ -1,6 +1,8 @@
 package com.example.dailymoodandmentalhealthjournalapplication.ui.journal;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
@@ -15,7 +17,7 @@ import com.example.dailymoodandmentalhealthjournalapplication.R;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
 import com.example.dailymoodandmentalhealthjournalapplication.databinding.ActivityJournalEntryBinding;
 import com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels.JournalViewModel;
-import com.example.dailymoodandmentalhealthjournalapplication.utils.SentimentAnalyzer;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.EmotionVector;
 
 import java.util.Map;
 
@@ -60,6 +62,24 @@ public class JournalEntryActivity extends AppCompatActivity {
 
         // Set up save button
         binding.buttonSaveEntry.setOnClickListener(v -> saveJournalEntry());
+
+        // Show the sentiment of the content as it is written
+        binding.editTextContent.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                journalViewModel.onContentEdited(s.toString());
+            }
+        });
+        journalViewModel.getLiveSentiment().observe(this, result ->
+                showSentiment(result.getScore(), EmotionVector.top(result.getEmotionVector(), 3)));
     }
 
     private void setupUI() {
@@ -91,8 +111,8 @@ public class JournalEntryActivity extends AppCompatActivity {
                 binding.editTextContent.setText(journalEntry.getContent());
                 binding.editTextTags.setText(journalEntry.getTags());
 
-                // Analyze sentiment
-                analyzeSentiment(journalEntry.getContent());
+                // Show the sentiment stored on save, until the live one is ready
+                showSentiment(journalEntry);
             } else {
                 Toast.makeText(this, R.string.error_loading_entry, Toast.LENGTH_SHORT).show();
                 finish();
@@ -100,19 +120,20 @@ public class JournalEntryActivity extends AppCompatActivity {
         });
     }
 
-    private void analyzeSentiment(String content) {
+    private void showSentiment(JournalEntry journalEntry) {
+        String content = journalEntry.getContent();
         if (content == null || content.isEmpty()) {
             binding.cardViewSentiment.setVisibility(View.GONE);
             return;
         }
 
-        // Get sentiment score
-        float sentimentScore = journalViewModel.analyzeSentiment(content);
-
-        // Get emotions
-        Map<String, Integer> emotions = journalViewModel.getEmotions(content, 3);
+        // Get sentiment score and emotions
+        showSentiment(journalViewModel.getSentimentScore(journalEntry), journalViewModel.getEmotions(journalEntry, 3));
+    }
 
-        if (sentimentScore != 0 || !emotions.isEmpty()) {
+    private void showSentiment(float sentimentScore, Map<String, Integer> emotions) {
+        // Not analyzed yet: the live sentiment shows once the content is analyzed
+        if (!Float.isNaN(sentimentScore) && (sentimentScore != 0 || !emotions.isEmpty())) {
             binding.cardViewSentiment.setVisibility(View.VISIBLE);
 
             // Set sentiment score
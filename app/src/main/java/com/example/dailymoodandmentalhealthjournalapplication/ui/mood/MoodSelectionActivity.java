@@ -9,6 +9,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.dailymoodandmentalhealthjournalapplication.R;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
 import com.example.dailymoodandmentalhealthjournalapplication.databinding.ActivityMoodSelectionBinding;
 import com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels.MoodViewModel;
 
@@ -18,7 +19,7 @@ import com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels.Mood
 public class MoodSelectionActivity extends AppCompatActivity {
     private ActivityMoodSelectionBinding binding;
     private MoodViewModel moodViewModel;
-    private String selectedMoodType = null;
+    private MoodType selectedMoodType = null;
     private int moodIntensity = 5; // Default intensity
 
     @Override
@@ -50,36 +51,36 @@ public class MoodSelectionActivity extends AppCompatActivity {
     private void setupMoodButtons() {
         // Happy mood
         binding.cardViewHappy.setOnClickListener(v -> {
-            selectMood("HAPPY");
+            selectMood(MoodType.HAPPY);
             highlightSelectedMood(binding.cardViewHappy);
         });
         
         // Sad mood
         binding.cardViewSad.setOnClickListener(v -> {
-            selectMood("SAD");
+            selectMood(MoodType.SAD);
             highlightSelectedMood(binding.cardViewSad);
         });
         
         // Angry mood
         binding.cardViewAngry.setOnClickListener(v -> {
-            selectMood("ANGRY");
+            selectMood(MoodType.ANGRY);
             highlightSelectedMood(binding.cardViewAngry);
         });
         
         // Anxious mood
         binding.cardViewAnxious.setOnClickListener(v -> {
-            selectMood("ANXIOUS");
+            selectMood(MoodType.ANXIOUS);
             highlightSelectedMood(binding.cardViewAnxious);
         });
         
         // Neutral mood
         binding.cardViewNeutral.setOnClickListener(v -> {
-            selectMood("NEUTRAL");
+            selectMood(MoodType.NEUTRAL);
             highlightSelectedMood(binding.cardViewNeutral);
         });
     }
 
-    private void selectMood(String moodType) {
+    private void selectMood(MoodType moodType) {
         selectedMoodType = moodType;
         binding.textViewIntensityLabel.setVisibility(View.VISIBLE);
         binding.seekBarIntensity.setVisibility(View.VISIBLE);
@@ -0,0 +1,30 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDelta;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.SortedEntryList;
+
+import java.util.List;
+
+/**
+ * A list held by a ViewModel and kept current by applying the deltas of a
+ * repository change feed, so a write updates the list in place instead of
+ * reloading every entry.
+ *
+ * @param <T> The entity type
+ */
+class DeltaListLiveData<T> extends MediatorLiveData<List<T>> {
+    private final SortedEntryList<T> entries;
+
+    DeltaListLiveData(LiveData<EntryDelta<T>> changes, SortedEntryList<T> entries) {
+        this.entries = entries;
+        addSource(changes, delta -> {
+            if (delta != null) {
+                this.entries.apply(delta);
+                setValue(this.entries.snapshot());
+            }
+        });
+    }
+}
@@ -3,33 +3,75 @@ package com.example.dailymoodandmentalhealthjournalapplication.ui.viewmodels;
 import android.app.Application;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.Process;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.example.dailymoodandmentalhealthjournalapplication.auth.LocalAuthManager;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalEntrySummary;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.PeriodCount;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.PeriodSentiment;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.TagCount;
 import com.example.dailymoodandmentalhealthjournalapplication.data.repository.JournalRepository;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.EmotionVector;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.IncrementalSentimentAnalyzer;
 import com.example.dailymoodandmentalhealthjournalapplication.utils.SentimentAnalyzer;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.SortedEntryList;
 
-import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * ViewModel for journal-related operations.
  */
 public class JournalViewModel extends AndroidViewModel {
+    private static final Comparator<JournalEntry> NEWEST_FIRST = (a, b) -> a.getDate() != b.getDate()
+            ? Long.compare(b.getDate(), a.getDate())
+            : Long.compare(b.getId(), a.getId());
+    // How long typing must pause before the edited text is analyzed again
+    private static final long LIVE_SENTIMENT_DELAY_MS = 300;
     private final JournalRepository journalRepository;
     private final LocalAuthManager authManager;
+    private DeltaListLiveData<JournalEntry> allEntries;
+    private String allEntriesUserId;
+
+    private final MutableLiveData<JournalListFilter> listFilter = new MutableLiveData<>();
+    private final LiveData<PagingData<JournalEntrySummary>> pagedEntries;
+    private String listFilterUserId;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final IncrementalSentimentAnalyzer liveAnalyzer = new IncrementalSentimentAnalyzer(Locale.getDefault());
+    private final MutableLiveData<SentimentAnalyzer.Result> liveSentiment = new MutableLiveData<>();
+    // The latest text not yet analyzed; older ones are skipped if analysis falls behind
+    private final AtomicReference<String> pendingText = new AtomicReference<>();
+    private ExecutorService liveSentimentExecutor;
+    private String editedText;
+    private final Runnable liveSentimentUpdate = this::analyzeEditedText;
 
     public JournalViewModel(@NonNull Application application) {
         super(application);
-        journalRepository = new JournalRepository(application);
+        journalRepository = JournalRepository.getInstance(application);
         authManager = LocalAuthManager.getInstance(application);
+        // Cached once over every filter's pager, rather than once per pager
+        pagedEntries = PagingLiveData.cachedIn(Transformations.switchMap(listFilter, this::loadPagedEntries), this);
     }
 
     /**
@@ -131,16 +173,71 @@ public class JournalViewModel extends AndroidViewModel {
     }
 
     /**
-     * Get all journal entries for the current user.
+     * Get all journal entries for the current user, newest first. The list is
+     * updated in place from the repository's change feed.
      *
      * @return LiveData containing a list of all journal entries
      */
     public LiveData<List<JournalEntry>> getAllJournalEntries() {
         String userId = authManager.getCurrentUserId();
-        if (userId != null) {
-            return journalRepository.getAllJournalEntriesByUser(userId);
+        if (userId == null) {
+            return null;
+        }
+        // Kept for the ViewModel's lifetime, so returning to the screen does not reload every entry
+        if (allEntries == null || !userId.equals(allEntriesUserId)) {
+            allEntries = new DeltaListLiveData<>(journalRepository.getJournalEntryChanges(userId),
+                    new SortedEntryList<>(NEWEST_FIRST, JournalEntry::getId));
+            allEntriesUserId = userId;
+        }
+        return allEntries;
+    }
+
+    /**
+     * Get the journal entries of the current user that match the list filter,
+     * loaded page by page. The same LiveData serves every filter, with one
+     * cached copy of the loaded pages, so switching filters does not leave
+     * earlier pagers running.
+     *
+     * @return LiveData containing the paged journal entries, newest first
+     * @see #setJournalListFilter(JournalListFilter)
+     */
+    public LiveData<PagingData<JournalEntrySummary>> getPagedJournalEntries() {
+        if (listFilter.getValue() == null) {
+            setJournalListFilter(JournalListFilter.all());
+        }
+        return pagedEntries;
+    }
+
+    /**
+     * Set which journal entries {@link #getPagedJournalEntries()} loads.
+     * Setting the filter already in use keeps the loaded pages.
+     *
+     * @param filter The filter
+     */
+    public void setJournalListFilter(JournalListFilter filter) {
+        String userId = authManager.getCurrentUserId();
+        if (filter.equals(listFilter.getValue()) && Objects.equals(userId, listFilterUserId)) {
+            return;
+        }
+        listFilterUserId = userId;
+        listFilter.setValue(filter);
+    }
+
+    private LiveData<PagingData<JournalEntrySummary>> loadPagedEntries(JournalListFilter filter) {
+        String userId = listFilterUserId;
+        if (userId == null) {
+            return new MutableLiveData<>(PagingData.empty());
+        }
+        switch (filter.type) {
+            case JournalListFilter.SEARCH:
+                return journalRepository.searchJournalEntriesPaged(userId, filter.argument);
+            case JournalListFilter.FAVORITES:
+                return journalRepository.getFavoriteJournalEntriesPaged(userId);
+            case JournalListFilter.TAG:
+                return journalRepository.getJournalEntriesByTagPaged(userId, filter.argument);
+            default:
+                return journalRepository.getJournalEntriesPaged(userId);
         }
-        return null;
     }
 
     /**
@@ -159,52 +256,60 @@ public class JournalViewModel extends AndroidViewModel {
     }
 
     /**
-     * Get journal entries for the current week.
+     * Get journal entries for the current ISO week, Monday to Sunday, selected
+     * by their stored local day.
      *
      * @return LiveData containing a list of journal entries for the current week
      */
     public LiveData<List<JournalEntry>> getJournalEntriesForCurrentWeek() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        long startOfWeek = calendar.getTimeInMillis();
-
-        calendar.add(Calendar.DAY_OF_WEEK, 6);
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        calendar.set(Calendar.MILLISECOND, 999);
-        long endOfWeek = calendar.getTimeInMillis();
-
-        return getJournalEntriesByDateRange(startOfWeek, endOfWeek);
+        long weekStart = DateBuckets.startOfWeek(today());
+        return getJournalEntriesByDayRange(weekStart, weekStart + 6);
     }
 
     /**
-     * Get journal entries for the current month.
+     * Get journal entries for the current month, selected by their stored
+     * local day.
      *
      * @return LiveData containing a list of journal entries for the current month
      */
     public LiveData<List<JournalEntry>> getJournalEntriesForCurrentMonth() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        long startOfMonth = calendar.getTimeInMillis();
+        long today = today();
+        return getJournalEntriesByDayRange(DateBuckets.startOfMonth(today), DateBuckets.endOfMonth(today));
+    }
 
-        calendar.add(Calendar.MONTH, 1);
-        calendar.add(Calendar.DAY_OF_MONTH, -1);
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        calendar.set(Calendar.MILLISECOND, 999);
-        long endOfMonth = calendar.getTimeInMillis();
+    /**
+     * Get journal entries for a range of local days.
+     *
+     * @param fromDay The first epoch day
+     * @param toDay   The last epoch day
+     * @return LiveData containing a list of journal entries in the range
+     */
+    public LiveData<List<JournalEntry>> getJournalEntriesByDayRange(long fromDay, long toDay) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return journalRepository.getJournalEntriesByDayRange(userId, fromDay, toDay);
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of journal entries of each local day within a range, as
+     * a calendar view shows them.
+     *
+     * @param fromDay The first epoch day
+     * @param toDay   The last epoch day
+     * @return LiveData containing the counts keyed by epoch day
+     */
+    public LiveData<List<PeriodCount>> getEntryCountsByDay(long fromDay, long toDay) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return journalRepository.getEntryCountsByDay(userId, fromDay, toDay);
+        }
+        return null;
+    }
 
-        return getJournalEntriesByDateRange(startOfMonth, endOfMonth);
+    private static long today() {
+        return DateBuckets.epochDay(System.currentTimeMillis(), TimeZone.getDefault());
     }
 
     /**
@@ -235,6 +340,47 @@ public class JournalViewModel extends AndroidViewModel {
         return null;
     }
 
+    /**
+     * Get journal entries that carry all of the given tags.
+     *
+     * @param tags The tags that must all be present
+     * @return LiveData containing a list of matching journal entries
+     */
+    public LiveData<List<JournalEntry>> getJournalEntriesWithAllTags(List<String> tags) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return journalRepository.getJournalEntriesWithAllTags(userId, tags);
+        }
+        return null;
+    }
+
+    /**
+     * Get journal entries that carry any of the given tags.
+     *
+     * @param tags The tags to match
+     * @return LiveData containing a list of matching journal entries
+     */
+    public LiveData<List<JournalEntry>> getJournalEntriesWithAnyTag(List<String> tags) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return journalRepository.getJournalEntriesWithAnyTag(userId, tags);
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of journal entries per tag.
+     *
+     * @return LiveData containing the tag counts, most used first
+     */
+    public LiveData<List<TagCount>> getTagCounts() {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return journalRepository.getTagCounts(userId);
+        }
+        return null;
+    }
+
     /**
      * Get favorite journal entries.
      *
@@ -259,23 +405,171 @@ public class JournalViewModel extends AndroidViewModel {
     }
 
     /**
-     * Analyze the sentiment of a journal entry.
+     * Get the sentiment of a journal entry, as stored on save. Entries not yet
+     * analyzed by the current SentimentAnalyzer are not analyzed here, on the
+     * main thread; SentimentBackfillWorker or the live sentiment fills them in.
      *
-     * @param content The content of the journal entry
-     * @return The sentiment score (-1.0 to 1.0)
+     * @param journalEntry The journal entry
+     * @return The sentiment score (-1.0 to 1.0), or NaN if the entry is not
+     *         analyzed yet
      */
-    public float analyzeSentiment(String content) {
-        return SentimentAnalyzer.analyzeSentiment(content);
+    public float getSentimentScore(JournalEntry journalEntry) {
+        if (journalEntry.getSentimentVersion() == SentimentAnalyzer.VERSION) {
+            return journalEntry.getSentimentScore();
+        }
+        return Float.NaN;
     }
 
     /**
-     * Get the emotions in a journal entry.
+     * Get the most frequent emotions of a journal entry, as stored on save.
+     *
+     * @param journalEntry The journal entry
+     * @param limit The maximum number of emotions to return
+     * @return The emotions and their frequencies, most frequent first, or an
+     *         empty map if the entry is not analyzed yet
+     */
+    public Map<String, Integer> getEmotions(JournalEntry journalEntry, int limit) {
+        if (journalEntry.getSentimentVersion() == SentimentAnalyzer.VERSION) {
+            return EmotionVector.top(journalEntry.getEmotionVector(), limit);
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Report an edit of the content being written, to update the live
+     * sentiment once typing pauses. Must be called on the main thread.
+     *
+     * @param text The whole content as it is now
+     */
+    public void onContentEdited(String text) {
+        editedText = text;
+        mainHandler.removeCallbacks(liveSentimentUpdate);
+        mainHandler.postDelayed(liveSentimentUpdate, LIVE_SENTIMENT_DELAY_MS);
+    }
+
+    /**
+     * Get the sentiment of the content being written, updated shortly after
+     * each edit. Only the paragraphs an edit touches are analyzed again, off
+     * the main thread.
+     *
+     * @return LiveData containing the sentiment of the whole content
+     */
+    public LiveData<SentimentAnalyzer.Result> getLiveSentiment() {
+        return liveSentiment;
+    }
+
+    private void analyzeEditedText() {
+        if (editedText == null) {
+            return;
+        }
+        pendingText.set(editedText);
+        editedText = null;
+        if (liveSentimentExecutor == null) {
+            liveSentimentExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "live-sentiment"));
+        }
+        liveSentimentExecutor.execute(() -> {
+            String text = pendingText.getAndSet(null);
+            if (text != null) {
+                liveSentiment.postValue(liveAnalyzer.update(text));
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        mainHandler.removeCallbacks(liveSentimentUpdate);
+        editedText = null;
+        if (liveSentimentExecutor != null) {
+            liveSentimentExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the average sentiment of the journal entries of each ISO week
+     * within a range of local days.
+     *
+     * @param fromDay The first epoch day
+     * @param toDay   The last epoch day
+     * @return LiveData containing the averages keyed by yyyyww week key
+     */
+    public LiveData<List<PeriodSentiment>> getSentimentByWeek(long fromDay, long toDay) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return journalRepository.getSentimentByWeek(userId, fromDay, toDay);
+        }
+        return null;
+    }
+
+    /**
+     * Get the most frequent emotions over all journal entries of the current
+     * user, without analyzing their text again.
      *
-     * @param content The content of the journal entry
      * @param limit The maximum number of emotions to return
-     * @return A map of emotions and their frequencies
+     * @return LiveData containing the emotions and their counts, most frequent first
+     */
+    public LiveData<Map<String, Integer>> getCommonEmotions(int limit) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return journalRepository.getCommonEmotions(userId, limit);
+        }
+        return null;
+    }
+
+    /**
+     * Which journal entries the paged list shows.
      */
-    public Map<String, Integer> getEmotions(String content, int limit) {
-        return SentimentAnalyzer.getEmotions(content, limit);
+    public static final class JournalListFilter {
+        private static final int ALL = 0;
+        private static final int SEARCH = 1;
+        private static final int FAVORITES = 2;
+        private static final int TAG = 3;
+
+        private final int type;
+        private final String argument;
+
+        private JournalListFilter(int type, String argument) {
+            this.type = type;
+            this.argument = argument;
+        }
+
+        /** All journal entries. */
+        public static JournalListFilter all() {
+            return new JournalListFilter(ALL, null);
+        }
+
+        /** Journal entries matching a full-text search query. */
+        public static JournalListFilter search(String query) {
+            return new JournalListFilter(SEARCH, query);
+        }
+
+        /** Favorite journal entries. */
+        public static JournalListFilter favorites() {
+            return new JournalListFilter(FAVORITES, null);
+        }
+
+        /** Journal entries with a tag. */
+        public static JournalListFilter tag(String tag) {
+            return new JournalListFilter(TAG, tag);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof JournalListFilter)) {
+                return false;
+            }
+            JournalListFilter other = (JournalListFilter) o;
+            return type == other.type && Objects.equals(argument, other.argument);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type + Objects.hashCode(argument);
+        }
     }
 }
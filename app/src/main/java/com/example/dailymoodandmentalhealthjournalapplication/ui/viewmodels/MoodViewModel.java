@@ -10,22 +10,40 @@ import androidx.lifecycle.LiveData;
 
 import com.example.dailymoodandmentalhealthjournalapplication.auth.LocalAuthManager;
 import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodDistribution;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodPeriodStats;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.MoodStatistics;
 import com.example.dailymoodandmentalhealthjournalapplication.data.repository.MoodRepository;
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.ChartBuckets;
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.Downsampler;
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.MoodChartEngine;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.SortedEntryList;
+import com.github.mikephil.charting.data.LineData;
 
-import java.util.Calendar;
+import java.util.Comparator;
 import java.util.List;
+import java.util.TimeZone;
 
 /**
  * ViewModel for mood-related operations.
  */
 public class MoodViewModel extends AndroidViewModel {
+    private static final Comparator<MoodEntry> NEWEST_FIRST = (a, b) -> a.getDate() != b.getDate()
+            ? Long.compare(b.getDate(), a.getDate())
+            : Long.compare(b.getId(), a.getId());
     private final MoodRepository moodRepository;
     private final LocalAuthManager authManager;
+    private final MoodChartEngine chartEngine;
+    private DeltaListLiveData<MoodEntry> allEntries;
+    private String allEntriesUserId;
 
     public MoodViewModel(@NonNull Application application) {
         super(application);
-        moodRepository = new MoodRepository(application);
+        moodRepository = MoodRepository.getInstance(application);
         authManager = LocalAuthManager.getInstance(application);
+        chartEngine = MoodChartEngine.getInstance(application);
     }
 
 /**
@@ -36,7 +54,7 @@ public class MoodViewModel extends AndroidViewModel {
  * @param notes         Additional notes
  * @param listener      Callback to notify when the operation completes
  */
-public void addMoodEntry(String moodType, int moodIntensity, String notes, OnMoodAddedListener listener) {
+public void addMoodEntry(MoodType moodType, int moodIntensity, String notes, OnMoodAddedListener listener) {
     String userId = authManager.getCurrentUserId();
     android.util.Log.d("MoodViewModel", "Adding mood entry for user: " + userId);
 
@@ -96,16 +114,23 @@ public interface OnMoodAddedListener {
     }
 
     /**
-     * Get all mood entries for the current user.
+     * Get all mood entries for the current user, newest first. The list is
+     * updated in place from the repository's change feed.
      *
      * @return LiveData containing a list of all mood entries
      */
     public LiveData<List<MoodEntry>> getAllMoodEntries() {
         String userId = authManager.getCurrentUserId();
-        if (userId != null) {
-            return moodRepository.getAllMoodEntriesByUser(userId);
+        if (userId == null) {
+            return null;
         }
-        return null;
+        // Kept for the ViewModel's lifetime, so returning to the screen does not reload every entry
+        if (allEntries == null || !userId.equals(allEntriesUserId)) {
+            allEntries = new DeltaListLiveData<>(moodRepository.getMoodEntryChanges(userId),
+                    new SortedEntryList<>(NEWEST_FIRST, MoodEntry::getId));
+            allEntriesUserId = userId;
+        }
+        return allEntries;
     }
 
     /**
@@ -124,52 +149,123 @@ public interface OnMoodAddedListener {
     }
 
     /**
-     * Get mood entries for the current week.
+     * Get mood entries for the current ISO week, Monday to Sunday, selected by
+     * their stored local day.
      *
      * @return LiveData containing a list of mood entries for the current week
      */
     public LiveData<List<MoodEntry>> getMoodEntriesForCurrentWeek() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        long startOfWeek = calendar.getTimeInMillis();
-
-        calendar.add(Calendar.DAY_OF_WEEK, 6);
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        calendar.set(Calendar.MILLISECOND, 999);
-        long endOfWeek = calendar.getTimeInMillis();
-
-        return getMoodEntriesByDateRange(startOfWeek, endOfWeek);
+        long weekStart = DateBuckets.startOfWeek(today());
+        return getMoodEntriesByDayRange(weekStart, weekStart + 6);
     }
 
     /**
-     * Get mood entries for the current month.
+     * Get mood entries for the current month, selected by their stored local day.
      *
      * @return LiveData containing a list of mood entries for the current month
      */
     public LiveData<List<MoodEntry>> getMoodEntriesForCurrentMonth() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        long startOfMonth = calendar.getTimeInMillis();
+        long today = today();
+        return getMoodEntriesByDayRange(DateBuckets.startOfMonth(today), DateBuckets.endOfMonth(today));
+    }
 
-        calendar.add(Calendar.MONTH, 1);
-        calendar.add(Calendar.DAY_OF_MONTH, -1);
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        calendar.set(Calendar.MILLISECOND, 999);
-        long endOfMonth = calendar.getTimeInMillis();
+    /**
+     * Get mood entries for a range of local days.
+     *
+     * @param fromDay The first epoch day
+     * @param toDay   The last epoch day
+     * @return LiveData containing a list of mood entries in the range
+     */
+    public LiveData<List<MoodEntry>> getMoodEntriesByDayRange(long fromDay, long toDay) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return moodRepository.getMoodEntriesByDayRange(userId, fromDay, toDay);
+        }
+        return null;
+    }
 
-        return getMoodEntriesByDateRange(startOfMonth, endOfMonth);
+    /**
+     * Get the average mood intensity of the current ISO week from the daily rollup.
+     *
+     * @return LiveData containing the average mood intensity, or null without entries
+     */
+    public LiveData<Float> getAverageMoodIntensityForCurrentWeek() {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            long weekStart = DateBuckets.startOfWeek(today());
+            return moodRepository.getAverageMoodIntensityForDays(userId, weekStart, weekStart + 6);
+        }
+        return null;
+    }
+
+    /**
+     * Get the rolling mood statistics of the current user for the dashboard:
+     * 7 and 30 day mean and standard deviation, trend and volatility. They
+     * are updated in place as mood entries are added.
+     *
+     * @return LiveData containing the statistics
+     */
+    public LiveData<MoodStatistics> getMoodStatistics() {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return moodRepository.getMoodStatistics(userId);
+        }
+        return null;
+    }
+
+    /**
+     * Get the mood totals of each ISO week within a range of local days.
+     *
+     * @param fromDay The first epoch day
+     * @param toDay   The last epoch day
+     * @return LiveData containing the weekly mood totals keyed by yyyyww
+     */
+    public LiveData<List<MoodPeriodStats>> getWeeklyMoodStats(long fromDay, long toDay) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return moodRepository.getMoodStatsByWeek(userId, fromDay, toDay);
+        }
+        return null;
+    }
+
+    /**
+     * Get a line chart of the average mood intensity per week or month over
+     * a range of local days. Prepared charts are cached, and kept up to date
+     * by recomputing only the weeks or months that new writes touch.
+     *
+     * @param granularity The period each point covers
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @return LiveData containing the chart data
+     */
+    public LiveData<LineData> getMoodChart(ChartBuckets.Granularity granularity, long fromDay, long toDay) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return chartEngine.getMoodChart(userId, granularity, fromDay, toDay);
+        }
+        return null;
+    }
+
+    /**
+     * Get a line chart of every mood entry over a range of local days,
+     * downsampled to the chart's width.
+     *
+     * @param fromDay The first epoch day
+     * @param toDay The last epoch day
+     * @param width The chart width in pixels
+     * @param mode How points are chosen
+     * @return LiveData containing the chart data
+     */
+    public LiveData<LineData> getMoodTimeline(long fromDay, long toDay, int width, Downsampler.Mode mode) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return chartEngine.getMoodTimeline(userId, fromDay, toDay, width, mode);
+        }
+        return null;
+    }
+
+    private static long today() {
+        return DateBuckets.epochDay(System.currentTimeMillis(), TimeZone.getDefault());
     }
 
     /**
@@ -178,7 +274,7 @@ public interface OnMoodAddedListener {
      * @param moodType The type of mood
      * @return LiveData containing a list of mood entries of the specified type
      */
-    public LiveData<List<MoodEntry>> getMoodEntriesByType(String moodType) {
+    public LiveData<List<MoodEntry>> getMoodEntriesByType(MoodType moodType) {
         String userId = authManager.getCurrentUserId();
         if (userId != null) {
             return moodRepository.getMoodEntriesByType(userId, moodType);
@@ -192,7 +288,7 @@ public interface OnMoodAddedListener {
      * @param moodType The type of mood
      * @return LiveData containing the count of mood entries of the specified type
      */
-    public LiveData<Integer> countMoodEntriesByType(String moodType) {
+    public LiveData<Integer> countMoodEntriesByType(MoodType moodType) {
         String userId = authManager.getCurrentUserId();
         if (userId != null) {
             return moodRepository.countMoodEntriesByType(userId, moodType);
@@ -201,7 +297,37 @@ public interface OnMoodAddedListener {
     }
 
     /**
-     * Get the average mood intensity for a date range.
+     * Get how all mood entries are spread over the mood types. One grouped
+     * query replaces a count query per mood type.
+     *
+     * @return LiveData containing the mood distribution
+     */
+    public LiveData<MoodDistribution> getMoodDistribution() {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return moodRepository.getMoodDistribution(userId);
+        }
+        return null;
+    }
+
+    /**
+     * Get how the mood entries of a date range are spread over the mood types.
+     *
+     * @param startDate The start date (in milliseconds)
+     * @param endDate   The end date (in milliseconds)
+     * @return LiveData containing the mood distribution
+     */
+    public LiveData<MoodDistribution> getMoodDistribution(long startDate, long endDate) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return moodRepository.getMoodDistribution(userId, startDate, endDate);
+        }
+        return null;
+    }
+
+    /**
+     * Get the average mood intensity for a date range, read from the daily
+     * rollup. The range is widened to whole local days.
      *
      * @param startDate The start date (in milliseconds)
      * @param endDate   The end date (in milliseconds)
@@ -210,7 +336,37 @@ public interface OnMoodAddedListener {
     public LiveData<Float> getAverageMoodIntensity(long startDate, long endDate) {
         String userId = authManager.getCurrentUserId();
         if (userId != null) {
-            return moodRepository.getAverageMoodIntensity(userId, startDate, endDate);
+            return moodRepository.getAverageMoodIntensityFromRollup(userId, startDate, endDate);
+        }
+        return null;
+    }
+
+    /**
+     * Get one data point per day for a date range, for week and month views.
+     *
+     * @param startDate The start date (in milliseconds)
+     * @param endDate   The end date (in milliseconds)
+     * @return LiveData containing the daily mood totals
+     */
+    public LiveData<List<MoodPeriodStats>> getDailyMoodSeries(long startDate, long endDate) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return moodRepository.getDailyMoodSeries(userId, startDate, endDate);
+        }
+        return null;
+    }
+
+    /**
+     * Get one data point per month for a date range, for the year view.
+     *
+     * @param startDate The start date (in milliseconds)
+     * @param endDate   The end date (in milliseconds)
+     * @return LiveData containing the monthly mood totals
+     */
+    public LiveData<List<MoodPeriodStats>> getMonthlyMoodSeries(long startDate, long endDate) {
+        String userId = authManager.getCurrentUserId();
+        if (userId != null) {
+            return moodRepository.getMonthlyMoodSeries(userId, startDate, endDate);
         }
         return null;
     }
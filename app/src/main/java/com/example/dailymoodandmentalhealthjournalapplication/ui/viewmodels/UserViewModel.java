@@ -23,9 +23,9 @@ public class UserViewModel extends AndroidViewModel {
 
     public UserViewModel(@NonNull Application application) {
         super(application);
-        userRepository = new UserRepository(application);
-        moodRepository = new MoodRepository(application);
-        journalRepository = new JournalRepository(application);
+        userRepository = UserRepository.getInstance(application);
+        moodRepository = MoodRepository.getInstance(application);
+        journalRepository = JournalRepository.getInstance(application);
         authManager = LocalAuthManager.getInstance(application);
     }
 
@@ -0,0 +1,63 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Opens the sentiment lexicons that the convertSentimentLexicons build task
+ * packs into the assets, as lexicon/sentiment_&lt;language&gt;.lex. The
+ * lexicons are stored uncompressed, so they are memory-mapped instead of
+ * read onto the heap.
+ */
+public class AssetLexiconSource implements SentimentAnalyzer.LexiconSource {
+    private static final String DIRECTORY = "lexicon";
+
+    private final AssetManager assets;
+
+    public AssetLexiconSource(Context context) {
+        this.assets = context.getApplicationContext().getAssets();
+    }
+
+    @Override
+    public ByteBuffer open(String language) throws IOException {
+        String fileName = "sentiment_" + language + ".lex";
+        String[] fileNames = assets.list(DIRECTORY);
+        if (fileNames == null || !Arrays.asList(fileNames).contains(fileName)) {
+            return null;
+        }
+
+        String path = DIRECTORY + "/" + fileName;
+        try (AssetFileDescriptor descriptor = assets.openFd(path);
+             FileInputStream input = descriptor.createInputStream()) {
+            return input.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                    descriptor.getStartOffset(), descriptor.getDeclaredLength());
+        } catch (FileNotFoundException e) {
+            // The asset was compressed after all, so it can only be read
+            return read(path);
+        }
+    }
+
+    private ByteBuffer read(String path) throws IOException {
+        try (InputStream input = assets.open(path)) {
+            byte[] bytes = new byte[8192];
+            int length = 0;
+            int read;
+            while ((read = input.read(bytes, length, bytes.length - length)) != -1) {
+                length += read;
+                if (length == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+            }
+            return ByteBuffer.wrap(bytes, 0, length);
+        }
+    }
+}
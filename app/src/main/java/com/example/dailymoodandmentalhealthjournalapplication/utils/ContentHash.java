@@ -0,0 +1,49 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+/**
+ * Utility for fingerprinting the user-written fields of a journal entry with
+ * a 64-bit FNV-1a hash. Two entries with equal fingerprints can be treated as
+ * having the same text without comparing the strings themselves.
+ */
+public final class ContentHash {
+    /** Stored for rows whose fingerprint has not been computed yet. */
+    public static final long NONE = 0;
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private ContentHash() {
+    }
+
+    /**
+     * Fingerprint the title, content and tags of a journal entry.
+     *
+     * @param title The title, may be null
+     * @param content The content, may be null
+     * @param tags The tag string, may be null
+     * @return The fingerprint; never {@link #NONE}
+     */
+    public static long of(String title, String content, String tags) {
+        long hash = OFFSET_BASIS;
+        hash = add(hash, title);
+        hash = add(hash, content);
+        hash = add(hash, tags);
+        return hash == NONE ? 1 : hash;
+    }
+
+    private static long add(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                hash = (hash ^ (c & 0xff)) * PRIME;
+                hash = (hash ^ (c >>> 8)) * PRIME;
+            }
+        }
+        // Ending each field with its length keeps ("ab", "c") apart from ("a", "bc")
+        int length = value == null ? -1 : value.length();
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((length >>> shift) & 0xff)) * PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Streams items from a source in chunks, processes each chunk on a
+ * fork-join pool and hands the processed chunks to a sink in the order they
+ * were read, for work such as re-analyzing a whole journal history.
+ *
+ * <p>The calling thread reads and writes, while the pool works on up to a
+ * fixed number of chunks ahead of the writes. Reading stops while that many
+ * chunks are in flight, so at most chunkSize * maxChunksInFlight items are
+ * held in memory however large the corpus is. Within a chunk, items are
+ * split among the pool's threads by work stealing, so items of very
+ * different cost still keep every thread busy.</p>
+ *
+ * @param <T> The type of the items
+ */
+public final class CorpusPipeline<T> {
+    // Ranges of at most this many items are processed on one thread
+    private static final int SPLIT_THRESHOLD = 8;
+
+    /**
+     * Reads the next chunk of the corpus.
+     */
+    public interface Source<T> {
+        /**
+         * Read the next items.
+         *
+         * @param limit The maximum number of items to read
+         * @return The items, fewer than the limit only at the end of the corpus
+         */
+        List<T> read(int limit);
+    }
+
+    /**
+     * Processes one item. Called from the pool's threads, so it must be
+     * safe to call concurrently for different items.
+     */
+    public interface Processor<T> {
+        void process(T item);
+    }
+
+    /**
+     * Writes a processed chunk, typically in one transaction. Called from the
+     * thread running the pipeline, one chunk at a time in reading order.
+     */
+    public interface Sink<T> {
+        void write(List<T> chunk);
+    }
+
+    /**
+     * Receives the number of items written so far after every chunk.
+     */
+    public interface ProgressListener {
+        void onProgress(int processed);
+    }
+
+    /**
+     * Tells the pipeline to stop, checked before every read and write.
+     */
+    public interface Cancellation {
+        boolean isCancelled();
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    /**
+     * Create a pipeline.
+     *
+     * @param pool The pool to process chunks on
+     * @param chunkSize The number of items to read at a time
+     * @param maxChunksInFlight The maximum number of chunks read but not yet written
+     */
+    public CorpusPipeline(ForkJoinPool pool, int chunkSize, int maxChunksInFlight) {
+        if (chunkSize < 1 || maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("Chunk size and chunks in flight must be positive");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    /**
+     * Run the pipeline until the source is exhausted or it is cancelled. An
+     * exception from the processor or sink stops it and is rethrown; chunks
+     * not written by then are dropped.
+     *
+     * @param source The source of the items
+     * @param processor Processes each item
+     * @param sink Writes the processed chunks
+     * @param listener Receives progress, or null
+     * @param cancellation Checked for cancellation, or null
+     * @return The number of items written
+     */
+    public int run(Source<T> source, Processor<T> processor, Sink<T> sink,
+                   ProgressListener listener, Cancellation cancellation) {
+        ArrayDeque<Chunk<T>> inFlight = new ArrayDeque<>();
+        int processed = 0;
+        boolean exhausted = false;
+        try {
+            while (cancellation == null || !cancellation.isCancelled()) {
+                // Read ahead while the window has room
+                while (!exhausted && inFlight.size() < maxChunksInFlight) {
+                    List<T> items = source.read(chunkSize);
+                    exhausted = items.size() < chunkSize;
+                    if (!items.isEmpty()) {
+                        inFlight.add(new Chunk<>(items,
+                                pool.submit(new ProcessTask<>(items, 0, items.size(), processor))));
+                    }
+                }
+                Chunk<T> chunk = inFlight.poll();
+                if (chunk == null) {
+                    break;
+                }
+
+                // Rethrows the processor's exception, if any
+                chunk.task.join();
+                sink.write(chunk.items);
+                processed += chunk.items.size();
+                if (listener != null) {
+                    listener.onProgress(processed);
+                }
+            }
+            return processed;
+        } finally {
+            for (Chunk<T> chunk : inFlight) {
+                chunk.task.cancel(false);
+            }
+        }
+    }
+
+    private static final class Chunk<T> {
+        final List<T> items;
+        final ForkJoinTask<?> task;
+
+        Chunk(List<T> items, ForkJoinTask<?> task) {
+            this.items = items;
+            this.task = task;
+        }
+    }
+
+    private static final class ProcessTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> items;
+        private final int start;
+        private final int end;
+        private final Processor<T> processor;
+
+        ProcessTask(List<T> items, int start, int end, Processor<T> processor) {
+            this.items = items;
+            this.start = start;
+            this.end = end;
+            this.processor = processor;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= SPLIT_THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    processor.process(items.get(i));
+                }
+            } else {
+                int mid = (start + end) >>> 1;
+                invokeAll(new ProcessTask<>(items, start, mid, processor),
+                        new ProcessTask<>(items, mid, end, processor));
+            }
+        }
+    }
+}
@@ -43,7 +43,7 @@ public class DataExportManager {
 
         for (MoodEntry entry : moodEntries) {
             String date = DATE_FORMAT.format(new Date(entry.getDate()));
-            String moodType = entry.getMoodType();
+            String moodType = entry.getMoodType().name();
             int intensity = entry.getMoodIntensity();
             String notes = entry.getNotes() != null ? entry.getNotes().replace(",", ";") : "";
 
@@ -0,0 +1,140 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.util.TimeZone;
+
+/**
+ * Converts timestamps into the local calendar buckets used by the mood
+ * rollups and the bucket columns of entries. A day is identified by its epoch
+ * day (days since 1970-01-01 in local time), an ISO 8601 week by a yyyyww key
+ * such as 202442 and a month by a yyyyMM key such as 202410.
+ */
+public final class DateBuckets {
+    public static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private DateBuckets() {
+    }
+
+    /**
+     * Get the local epoch day of a timestamp.
+     *
+     * @param timeMillis The timestamp in milliseconds
+     * @param timeZone The time zone that defines local days
+     * @return The number of days since 1970-01-01 in that time zone
+     */
+    public static long epochDay(long timeMillis, TimeZone timeZone) {
+        return Math.floorDiv(timeMillis + timeZone.getOffset(timeMillis), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Get the timestamp of local midnight at the start of an epoch day.
+     *
+     * @param epochDay The epoch day
+     * @param timeZone The time zone that defines local days
+     * @return The first millisecond of that day
+     */
+    public static long startOfDay(long epochDay, TimeZone timeZone) {
+        long localMidnight = epochDay * MILLIS_PER_DAY;
+        long guess = localMidnight - timeZone.getOffset(localMidnight);
+        // Correct for an offset change between UTC midnight and local midnight
+        return localMidnight - timeZone.getOffset(guess);
+    }
+
+    /**
+     * Get the last timestamp of an epoch day.
+     *
+     * @param epochDay The epoch day
+     * @param timeZone The time zone that defines local days
+     * @return The last millisecond of that day
+     */
+    public static long endOfDay(long epochDay, TimeZone timeZone) {
+        return startOfDay(epochDay + 1, timeZone) - 1;
+    }
+
+    /**
+     * Get the yyyyMM month key of an epoch day.
+     *
+     * @param epochDay The epoch day
+     * @return The month key, for example 202410 for October 2024
+     */
+    public static int monthKey(long epochDay) {
+        // Civil-from-days conversion on a calendar whose years start in March
+        long days = epochDay + 719468;
+        long era = Math.floorDiv(days, 146097);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 100 + month);
+    }
+
+    /**
+     * Get the yyyyww key of the ISO 8601 week containing an epoch day. Weeks
+     * start on Monday, and the first week of a year is the one containing its
+     * first Thursday, so the year of the key may differ from the calendar year.
+     *
+     * @param epochDay The epoch day
+     * @return The week key, for example 202442 for the 42nd week of 2024
+     */
+    public static int weekKey(long epochDay) {
+        // The Thursday of a week decides which year the week belongs to
+        long thursday = startOfWeek(epochDay) + 3;
+        int year = monthKey(thursday) / 100;
+        long week = (thursday - epochDay(year, 1, 1)) / 7 + 1;
+        return (int) (year * 100 + week);
+    }
+
+    /**
+     * Get the Monday starting the ISO 8601 week that contains an epoch day.
+     *
+     * @param epochDay The epoch day
+     * @return The epoch day of that Monday
+     */
+    public static long startOfWeek(long epochDay) {
+        // 1970-01-01 was a Thursday, three days after a Monday
+        return epochDay - Math.floorMod(epochDay + 3, 7L);
+    }
+
+    /**
+     * Get the first day of the month that contains an epoch day.
+     *
+     * @param epochDay The epoch day
+     * @return The epoch day of the 1st of that month
+     */
+    public static long startOfMonth(long epochDay) {
+        int monthKey = monthKey(epochDay);
+        return epochDay(monthKey / 100, monthKey % 100, 1);
+    }
+
+    /**
+     * Get the last day of the month that contains an epoch day.
+     *
+     * @param epochDay The epoch day
+     * @return The epoch day of the last day of that month
+     */
+    public static long endOfMonth(long epochDay) {
+        int monthKey = monthKey(epochDay);
+        int year = monthKey / 100;
+        int month = monthKey % 100;
+        return month == 12 ? epochDay(year + 1, 1, 1) - 1 : epochDay(year, month + 1, 1) - 1;
+    }
+
+    /**
+     * Get the epoch day of a calendar date.
+     *
+     * @param year The year
+     * @param month The month, 1 to 12
+     * @param day The day of the month
+     * @return The number of days since 1970-01-01
+     */
+    public static long epochDay(int year, int month, int day) {
+        // Days-from-civil conversion, the inverse of the one in monthKey
+        long shiftedYear = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Packs how often each emotion occurs in a text into a single long, so it can
+ * be stored in one column of a journal entry. Each of the sixteen emotions
+ * has a 4-bit counter at the bit offset of four times its index; counters
+ * saturate at 15, which is plenty to rank the emotions of one entry.
+ */
+public final class EmotionVector {
+    /** The emotions in the order of their counters. Only append to this. */
+    public static final String[] EMOTIONS = {
+            "happiness", "excitement", "sadness", "depression", "anger", "anxiety", "fear", "loneliness",
+            "gratitude", "love", "hope", "pride", "confidence", "peace", "calmness", "relaxation"
+    };
+    /** The largest value of one counter. */
+    public static final int MAX_COUNT = 15;
+    private static final int BITS = 4;
+
+    private EmotionVector() {
+    }
+
+    /**
+     * Get the index of an emotion.
+     *
+     * @param emotion The name of the emotion
+     * @return The index in {@link #EMOTIONS}, or -1 if there is no such emotion
+     */
+    public static int indexOf(String emotion) {
+        for (int i = 0; i < EMOTIONS.length; i++) {
+            if (EMOTIONS[i].equals(emotion)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the count of an emotion.
+     *
+     * @param vector The packed counts
+     * @param emotion The index of the emotion in {@link #EMOTIONS}
+     * @return The count, between 0 and {@link #MAX_COUNT}
+     */
+    public static int get(long vector, int emotion) {
+        return (int) (vector >>> (emotion * BITS)) & MAX_COUNT;
+    }
+
+    /**
+     * Count one more occurrence of an emotion, unless its counter is full.
+     *
+     * @param vector The packed counts
+     * @param emotion The index of the emotion in {@link #EMOTIONS}
+     * @return The updated counts
+     */
+    public static long increment(long vector, int emotion) {
+        return get(vector, emotion) == MAX_COUNT ? vector : vector + (1L << (emotion * BITS));
+    }
+
+    /**
+     * Add the counts of a vector to running totals, which do not saturate.
+     *
+     * @param vector The packed counts
+     * @param totals The totals, indexed like {@link #EMOTIONS}
+     */
+    public static void addTo(long vector, int[] totals) {
+        for (int emotion = 0; vector != 0; emotion++, vector >>>= BITS) {
+            totals[emotion] += (int) vector & MAX_COUNT;
+        }
+    }
+
+    /**
+     * Pack running totals into a vector, saturating the counters.
+     *
+     * @param totals The totals, indexed like {@link #EMOTIONS}
+     * @return The packed counts
+     */
+    public static long pack(int[] totals) {
+        long vector = 0L;
+        for (int emotion = 0; emotion < totals.length; emotion++) {
+            vector |= (long) Math.min(Math.max(totals[emotion], 0), MAX_COUNT) << (emotion * BITS);
+        }
+        return vector;
+    }
+
+    /**
+     * Get the most frequent emotions of a vector.
+     *
+     * @param vector The packed counts
+     * @param limit The maximum number of emotions to return
+     * @return The emotions and their counts, most frequent first
+     */
+    public static Map<String, Integer> top(long vector, int limit) {
+        int[] counts = new int[EMOTIONS.length];
+        addTo(vector, counts);
+        return top(counts, limit);
+    }
+
+    /**
+     * Get the most frequent emotions of a set of totals. Emotions with equal
+     * counts keep the order of {@link #EMOTIONS}.
+     *
+     * @param totals The totals, indexed like {@link #EMOTIONS}
+     * @param limit The maximum number of emotions to return
+     * @return The emotions with a count above 0 and their counts, most frequent first
+     */
+    public static Map<String, Integer> top(int[] totals, int limit) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        boolean[] taken = new boolean[totals.length];
+        while (result.size() < limit) {
+            int best = -1;
+            for (int emotion = 0; emotion < totals.length; emotion++) {
+                if (!taken[emotion] && totals[emotion] > 0 && (best < 0 || totals[emotion] > totals[best])) {
+                    best = emotion;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            taken[best] = true;
+            result.put(EMOTIONS[best], totals[best]);
+        }
+        return result;
+    }
+}
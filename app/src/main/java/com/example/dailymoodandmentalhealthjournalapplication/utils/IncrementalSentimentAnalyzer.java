@@ -0,0 +1,143 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keeps the sentiment of a text up to date as it is edited, for a live
+ * indicator while writing, without analyzing the whole text again.
+ *
+ * <p>A line break ends every sentence, negation and phrase, so the result of
+ * a text is the sum of the results of its paragraphs. The analyzer keeps the
+ * result of each paragraph and running tallies of the sentence scores,
+ * sentences and emotions over all of them. On an update, the edited range
+ * is found by comparing the new text with the previous one from both ends,
+ * and only the paragraphs it touches are tokenized and scored again; the
+ * tallies are adjusted by the difference.</p>
+ *
+ * <p>Instances are not thread-safe; updates are expected to come one at a
+ * time from a background thread.</p>
+ */
+public final class IncrementalSentimentAnalyzer {
+    private final Locale locale;
+    // Paragraphs in order, never empty; each one but the last ends at a line break
+    private final List<Paragraph> paragraphs = new ArrayList<>();
+    private String text = "";
+
+    private double scoreSum;
+    private int sentenceCount;
+    private final int[] emotionTotals = new int[EmotionVector.EMOTIONS.length];
+
+    /**
+     * Create an analyzer for an empty text.
+     *
+     * @param locale The locale whose language's lexicon to use
+     */
+    public IncrementalSentimentAnalyzer(Locale locale) {
+        this.locale = locale;
+        paragraphs.add(new Paragraph(0, SentimentAnalyzer.analyze("", locale)));
+    }
+
+    /**
+     * Analyze a new version of the text, scoring again only the paragraphs
+     * that changed since the previous version.
+     *
+     * @param newText The whole text as it is now
+     * @return The sentiment of the whole text, as {@link SentimentAnalyzer#analyze(String, Locale)}
+     *         would compute it, except that emotion counts saturate per paragraph
+     */
+    public SentimentAnalyzer.Result update(String newText) {
+        String oldText = text;
+        int common = Math.min(oldText.length(), newText.length());
+        int prefix = 0;
+        while (prefix < common && oldText.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < common - prefix
+                && oldText.charAt(oldText.length() - 1 - suffix) == newText.charAt(newText.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (prefix == oldText.length() && prefix == newText.length()) {
+            return getResult();
+        }
+
+        // The paragraphs holding the first and last changed characters, a
+        // paragraph's line break counting as its own
+        int changedEnd = oldText.length() - suffix;
+        int first = 0;
+        int firstStart = 0;
+        while (firstStart + paragraphs.get(first).length < prefix) {
+            firstStart += paragraphs.get(first).length + 1;
+            first++;
+        }
+        int last = first;
+        int lastEnd = firstStart + paragraphs.get(first).length;
+        while (lastEnd < changedEnd) {
+            last++;
+            lastEnd += paragraphs.get(last).length + 1;
+        }
+
+        // Remove them, and split the new text between their bounds into paragraphs again
+        for (int i = last; i >= first; i--) {
+            subtract(paragraphs.remove(i).result);
+        }
+        int end = lastEnd + newText.length() - oldText.length();
+        int start = firstStart;
+        int index = first;
+        while (true) {
+            int lineBreak = newText.indexOf('\n', start);
+            int paragraphEnd = lineBreak < 0 || lineBreak > end ? end : lineBreak;
+            Paragraph paragraph = new Paragraph(paragraphEnd - start,
+                    SentimentAnalyzer.analyze(newText, start, paragraphEnd, locale));
+            add(paragraph.result);
+            paragraphs.add(index++, paragraph);
+            if (paragraphEnd == end) {
+                break;
+            }
+            start = paragraphEnd + 1;
+        }
+        text = newText;
+        return getResult();
+    }
+
+    /**
+     * Get the sentiment of the text as of the last update.
+     *
+     * @return The result
+     */
+    public SentimentAnalyzer.Result getResult() {
+        return new SentimentAnalyzer.Result((float) scoreSum, sentenceCount, EmotionVector.pack(emotionTotals));
+    }
+
+    private void add(SentimentAnalyzer.Result result) {
+        scoreSum += result.getScoreSum();
+        sentenceCount += result.getSentenceCount();
+        EmotionVector.addTo(result.getEmotionVector(), emotionTotals);
+    }
+
+    private void subtract(SentimentAnalyzer.Result result) {
+        scoreSum -= result.getScoreSum();
+        sentenceCount -= result.getSentenceCount();
+        long vector = result.getEmotionVector();
+        for (int emotion = 0; emotion < emotionTotals.length; emotion++) {
+            emotionTotals[emotion] -= EmotionVector.get(vector, emotion);
+        }
+        if (sentenceCount == 0) {
+            // Drop the rounding errors left by adding and subtracting
+            scoreSum = 0;
+        }
+    }
+
+    private static final class Paragraph {
+        // In characters, without the line break
+        final int length;
+        final SentimentAnalyzer.Result result;
+
+        Paragraph(int length, SentimentAnalyzer.Result result) {
+            this.length = length;
+            this.result = result;
+        }
+    }
+}
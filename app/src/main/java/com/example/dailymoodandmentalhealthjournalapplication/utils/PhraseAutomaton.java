@@ -0,0 +1,181 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An Aho-Corasick automaton over word ids, finding the multi-word phrases of
+ * the sentiment lexicon in a stream of words. Each state is the longest
+ * phrase prefix the last words end with; on a mismatch the automaton follows
+ * failure links to shorter prefixes, so a text is matched in one pass at an
+ * amortized constant cost per word. The children of each state are kept in
+ * one sorted array, so lexicons with many phrases stay compact.
+ */
+final class PhraseAutomaton {
+    /** The state before any word has matched. */
+    static final int ROOT = 0;
+
+    private final int[] childStart;
+    private final int[] childWords;
+    private final int[] childStates;
+    private final int[] fail;
+    private final int[] depth;
+    private final int[] match;
+    private final int[] phraseLengths;
+    private final int maxDepth;
+
+    /**
+     * Build the automaton.
+     *
+     * @param phrases The word ids of each phrase, each at least one word long
+     */
+    PhraseAutomaton(int[][] phrases) {
+        // Build the trie of the phrases
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<Integer> own = new ArrayList<>();
+        children.add(new HashMap<>());
+        depths.add(0);
+        own.add(-1);
+        phraseLengths = new int[phrases.length];
+        int longest = 0;
+        for (int phrase = 0; phrase < phrases.length; phrase++) {
+            int state = ROOT;
+            for (int word : phrases[phrase]) {
+                Integer child = children.get(state).get(word);
+                if (child == null) {
+                    child = children.size();
+                    children.add(new HashMap<>());
+                    depths.add(depths.get(state) + 1);
+                    own.add(-1);
+                    children.get(state).put(word, child);
+                }
+                state = child;
+            }
+            if (own.get(state) < 0) {
+                own.set(state, phrase);
+            }
+            phraseLengths[phrase] = phrases[phrase].length;
+            longest = Math.max(longest, phrases[phrase].length);
+        }
+        maxDepth = longest;
+
+        // Store the children of every state as a sorted run of one array
+        int states = children.size();
+        childStart = new int[states + 1];
+        childWords = new int[states - 1];
+        childStates = new int[states - 1];
+        depth = new int[states];
+        int next = 0;
+        for (int state = 0; state < states; state++) {
+            childStart[state] = next;
+            depth[state] = depths.get(state);
+            Integer[] words = children.get(state).keySet().toArray(new Integer[0]);
+            Arrays.sort(words);
+            for (Integer word : words) {
+                childWords[next] = word;
+                childStates[next] = children.get(state).get(word);
+                next++;
+            }
+        }
+        childStart[states] = next;
+
+        // Link every state to its longest proper suffix in the trie, breadth first
+        fail = new int[states];
+        match = new int[states];
+        match[ROOT] = -1;
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = ROOT;
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = childStart[state]; i < childStart[state + 1]; i++) {
+                int child = childStates[i];
+                fail[child] = state == ROOT ? ROOT : next(fail[state], childWords[i]);
+                match[child] = own.get(child) >= 0 ? own.get(child) : match[fail[child]];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * Move to the state after a word.
+     *
+     * @param state The current state
+     * @param word The id of the word, or -1 for a word in no phrase
+     * @return The next state
+     */
+    int next(int state, int word) {
+        while (true) {
+            int child = child(state, word);
+            if (child >= 0) {
+                return child;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * Get the number of words of a state's phrase prefix; the words before
+     * them cannot be part of a phrase any more.
+     *
+     * @param state The state
+     * @return The number of words
+     */
+    int depth(int state) {
+        return depth[state];
+    }
+
+    /**
+     * Get the longest phrase the words of a state end with.
+     *
+     * @param state The state
+     * @return The index of the phrase, or -1 if they end no phrase
+     */
+    int match(int state) {
+        return match[state];
+    }
+
+    /**
+     * Get the number of words of a phrase.
+     *
+     * @param phrase The index of the phrase
+     * @return The number of words
+     */
+    int getLength(int phrase) {
+        return phraseLengths[phrase];
+    }
+
+    /**
+     * Get the number of words of the longest phrase.
+     *
+     * @return The number of words, 0 without phrases
+     */
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    private int child(int state, int word) {
+        int low = childStart[state];
+        int high = childStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midWord = childWords[mid];
+            if (midWord < word) {
+                low = mid + 1;
+            } else if (midWord > word) {
+                high = mid - 1;
+            } else {
+                return childStates[mid];
+            }
+        }
+        return -1;
+    }
+}
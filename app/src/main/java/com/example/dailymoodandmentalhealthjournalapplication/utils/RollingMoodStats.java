@@ -0,0 +1,254 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+/**
+ * Single-pass statistics over a stream of mood intensities: the mean and
+ * standard deviation of a short and a long window of local days, an
+ * exponentially weighted trend and the mood volatility. Values are added as
+ * they are logged, and nothing is allocated after construction.
+ *
+ * <p>Each window keeps a ring buffer with the count, mean and sum of squared
+ * deviations of every day in it. A value updates its day and the window
+ * totals with Welford's method; when a day leaves the window its group is
+ * split off the totals with the inverse of Chan et al.'s merge, so moving the
+ * window costs one step per day.</p>
+ *
+ * <p>The trend is an exponentially weighted moving average of the values,
+ * and the volatility the square root of the exponentially weighted mean of
+ * the squared differences between successive values, so a steady mood has a
+ * low volatility even if it is low or high.</p>
+ */
+public final class RollingMoodStats {
+    private final Window shortWindow;
+    private final Window longWindow;
+    private final double alpha;
+    private long count;
+    private double trend;
+    private double squaredChange;
+    private double lastValue;
+
+    /**
+     * Create the statistics.
+     *
+     * @param shortDays The length of the short window in days
+     * @param longDays The length of the long window in days
+     * @param alpha The weight of the newest value in the trend and volatility, between 0 and 1
+     */
+    public RollingMoodStats(int shortDays, int longDays, double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Alpha must be in (0, 1]: " + alpha);
+        }
+        this.shortWindow = new Window(shortDays);
+        this.longWindow = new Window(longDays);
+        this.alpha = alpha;
+    }
+
+    /**
+     * Add a value. Values should be added in the order they were logged;
+     * values older than a window are left out of that window.
+     *
+     * @param epochDay The local day of the value
+     * @param value The value
+     */
+    public void add(long epochDay, double value) {
+        shortWindow.add(epochDay, value);
+        longWindow.add(epochDay, value);
+        if (count == 0) {
+            trend = value;
+        } else {
+            double change = value - lastValue;
+            trend += alpha * (value - trend);
+            squaredChange += alpha * (change * change - squaredChange);
+        }
+        lastValue = value;
+        count++;
+    }
+
+    /**
+     * Move both windows so they end on a day, dropping the days that fall out.
+     *
+     * @param epochDay The local day the windows end on
+     */
+    public void advanceTo(long epochDay) {
+        shortWindow.advanceTo(epochDay);
+        longWindow.advanceTo(epochDay);
+    }
+
+    /**
+     * Forget every value.
+     */
+    public void reset() {
+        shortWindow.reset();
+        longWindow.reset();
+        count = 0;
+        trend = 0;
+        squaredChange = 0;
+        lastValue = 0;
+    }
+
+    public Window getShortWindow() {
+        return shortWindow;
+    }
+
+    public Window getLongWindow() {
+        return longWindow;
+    }
+
+    /**
+     * Get the number of values added since the last reset.
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the exponentially weighted moving average of the values.
+     *
+     * @return The trend, or 0 without values
+     */
+    public double getTrend() {
+        return trend;
+    }
+
+    /**
+     * Get the exponentially weighted root mean square of the changes between
+     * successive values.
+     *
+     * @return The volatility, or 0 with fewer than two values
+     */
+    public double getVolatility() {
+        return Math.sqrt(squaredChange);
+    }
+
+    /**
+     * The values of the last days of the stream.
+     */
+    public static final class Window {
+        private final int days;
+        private final long[] slotCounts;
+        private final double[] slotMeans;
+        private final double[] slotM2s;
+        // Last day of the window; Long.MIN_VALUE until the first value
+        private long endDay = Long.MIN_VALUE;
+        private long count;
+        private double mean;
+        private double m2;
+
+        Window(int days) {
+            if (days < 1) {
+                throw new IllegalArgumentException("Window must be at least one day: " + days);
+            }
+            this.days = days;
+            this.slotCounts = new long[days];
+            this.slotMeans = new double[days];
+            this.slotM2s = new double[days];
+        }
+
+        void add(long epochDay, double value) {
+            if (epochDay > endDay) {
+                advanceTo(epochDay);
+            } else if (epochDay <= endDay - days) {
+                return;
+            }
+            int slot = slot(epochDay);
+            // Welford update of the day, then of the window
+            long dayCount = ++slotCounts[slot];
+            double delta = value - slotMeans[slot];
+            slotMeans[slot] += delta / dayCount;
+            slotM2s[slot] += delta * (value - slotMeans[slot]);
+
+            count++;
+            delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        void advanceTo(long epochDay) {
+            if (epochDay <= endDay) {
+                return;
+            }
+            if (endDay == Long.MIN_VALUE || epochDay - endDay >= days) {
+                reset();
+            } else {
+                for (long day = endDay - days + 1; day <= epochDay - days; day++) {
+                    drop(slot(day));
+                }
+            }
+            endDay = epochDay;
+        }
+
+        void reset() {
+            for (int slot = 0; slot < days; slot++) {
+                clear(slot);
+            }
+            endDay = Long.MIN_VALUE;
+            count = 0;
+            mean = 0;
+            m2 = 0;
+        }
+
+        private void drop(int slot) {
+            long dayCount = slotCounts[slot];
+            if (dayCount == 0) {
+                return;
+            }
+            long remaining = count - dayCount;
+            if (remaining == 0) {
+                count = 0;
+                mean = 0;
+                m2 = 0;
+            } else {
+                // Chan et al.'s pairwise merge, solved for the remaining group
+                double dayMean = slotMeans[slot];
+                double remainingMean = (count * mean - dayCount * dayMean) / remaining;
+                double delta = dayMean - remainingMean;
+                m2 = Math.max(0, m2 - slotM2s[slot] - delta * delta * remaining * dayCount / count);
+                mean = remainingMean;
+                count = remaining;
+            }
+            clear(slot);
+        }
+
+        private void clear(int slot) {
+            slotCounts[slot] = 0;
+            slotMeans[slot] = 0;
+            slotM2s[slot] = 0;
+        }
+
+        private int slot(long epochDay) {
+            return (int) Math.floorMod(epochDay, (long) days);
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        /**
+         * Get the number of values in the window.
+         *
+         * @return The number of values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the mean of the values in the window.
+         *
+         * @return The mean, or 0 without values
+         */
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * Get the sample standard deviation of the values in the window.
+         *
+         * @return The standard deviation, or 0 with fewer than two values
+         */
+        public double getStdDev() {
+            return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+        }
+    }
+}
@@ -1,32 +1,78 @@
 package com.example.dailymoodandmentalhealthjournalapplication.utils;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Simple sentiment analysis utility for analyzing journal entries.
+ *
+ * <p>A text is read in one pass, character by character. Letters are
+ * lower-cased into a small token buffer and apostrophes are dropped, so
+ * "don't" reads as "dont"; any other character ends a word. Each word is
+ * looked up in the {@link SentimentModel} of the text's language straight
+ * from the buffer, and fed to its phrase automaton, so multi-word phrases
+ * such as "fed up" are scored as one term. Nothing is allocated per word.</p>
+ *
+ * <p>The terms of each language come from a binary lexicon, built from
+ * app/src/main/lexicon at compile time and read through a
+ * {@link LexiconSource}, which must be set before the first analysis.</p>
+ *
+ * <p>Terms are scored in order. A negation such as "not" flips and damps the
+ * sentiment terms in the next few words of its clause and drops their
+ * emotions, an intensifier such as "very" or a diminisher such as "slightly"
+ * scales the next one, and a contrast such as "but" halves what came before
+ * it in the sentence and raises what follows. Each sentence that holds
+ * sentiment terms gets a score between -1 and 1 from the sum of their
+ * valences, and the score of the text is the mean of its sentence scores.</p>
  */
 public class SentimentAnalyzer {
-    // Positive words dictionary
-    private static final List<String> POSITIVE_WORDS = Arrays.asList(
-            "happy", "joy", "excited", "amazing", "wonderful", "great", "good", "excellent",
-            "fantastic", "delighted", "pleased", "glad", "cheerful", "content", "satisfied",
-            "grateful", "thankful", "blessed", "love", "loving", "hope", "hopeful", "positive",
-            "optimistic", "motivated", "inspired", "proud", "confident", "peaceful", "calm",
-            "relaxed", "energetic", "enthusiastic", "thrilled", "accomplished", "successful"
-    );
-
-    // Negative words dictionary
-    private static final List<String> NEGATIVE_WORDS = Arrays.asList(
-            "sad", "unhappy", "depressed", "miserable", "gloomy", "disappointed", "upset",
-            "frustrated", "angry", "mad", "annoyed", "irritated", "furious", "enraged",
-            "anxious", "worried", "nervous", "stressed", "tense", "afraid", "scared", "fearful",
-            "terrified", "lonely", "alone", "isolated", "abandoned", "rejected", "hurt",
-            "pain", "suffering", "grief", "regret", "guilty", "ashamed", "embarrassed",
-            "hopeless", "helpless", "worthless", "tired", "exhausted", "sick", "ill"
-    );
+    /**
+     * The version of the lexicons and scoring. Journal entries store the
+     * version their sentiment was computed with, and the language of the
+     * lexicon, so raising it or changing the device language makes
+     * SentimentBackfillWorker analyze the entries again.
+     */
+    public static final int VERSION = 3;
+
+    /** The language whose lexicon is used for languages without one. */
+    public static final String DEFAULT_LANGUAGE = "en";
+
+    private static final Result NO_RESULT = new Result(0.0f, 0, 0L);
+    private static final Map<String, SentimentModel> MODELS = new ConcurrentHashMap<>();
+    // The language whose lexicon each loaded language uses
+    private static final Map<String, String> LEXICON_LANGUAGES = new ConcurrentHashMap<>();
+    private static volatile LexiconSource lexiconSource;
+
+    /**
+     * Opens the binary lexicon of a language; see {@link SentimentLexiconFile}.
+     */
+    public interface LexiconSource {
+        /**
+         * Open the lexicon of a language.
+         *
+         * @param language The ISO 639 code of the language, as returned by {@link Locale#getLanguage()}
+         * @return The contents of the lexicon, or null if there is none for the language
+         * @throws IOException If the lexicon cannot be read
+         */
+        ByteBuffer open(String language) throws IOException;
+    }
+
+    /**
+     * Set where lexicons are loaded from. Each language's lexicon is loaded
+     * on its first analysis, and kept from then on.
+     *
+     * @param source The source of the lexicons
+     */
+    public static void setLexiconSource(LexiconSource source) {
+        synchronized (MODELS) {
+            lexiconSource = source;
+            MODELS.clear();
+            LEXICON_LANGUAGES.clear();
+        }
+    }
 
     /**
      * Analyze the sentiment of a text.
@@ -35,31 +81,7 @@ public class SentimentAnalyzer {
      * @return A sentiment score between -1.0 (very negative) and 1.0 (very positive)
      */
     public static float analyzeSentiment(String text) {
-        if (text == null || text.isEmpty()) {
-            return 0.0f;
-        }
-
-        // Convert to lowercase and split into words
-        String[] words = text.toLowerCase().replaceAll("[^a-zA-Z\\s]", "").split("\\s+");
-        
-        int positiveCount = 0;
-        int negativeCount = 0;
-        
-        for (String word : words) {
-            if (POSITIVE_WORDS.contains(word)) {
-                positiveCount++;
-            } else if (NEGATIVE_WORDS.contains(word)) {
-                negativeCount++;
-            }
-        }
-        
-        // Calculate sentiment score
-        int totalSentimentWords = positiveCount + negativeCount;
-        if (totalSentimentWords == 0) {
-            return 0.0f;
-        }
-        
-        return (float) (positiveCount - negativeCount) / totalSentimentWords;
+        return analyze(text).getScore();
     }
 
     /**
@@ -67,74 +89,355 @@ public class SentimentAnalyzer {
      *
      * @param text The text to analyze
      * @param limit The maximum number of emotions to return
-     * @return A map of emotions and their frequencies
+     * @return The emotions and their frequencies, most frequent first
      */
     public static Map<String, Integer> getEmotions(String text, int limit) {
-        if (text == null || text.isEmpty()) {
-            return new HashMap<>();
-        }
-
-        // Emotion words dictionary
-        Map<String, String> emotionWords = new HashMap<>();
-        emotionWords.put("happy", "happiness");
-        emotionWords.put("joy", "happiness");
-        emotionWords.put("excited", "excitement");
-        emotionWords.put("sad", "sadness");
-        emotionWords.put("unhappy", "sadness");
-        emotionWords.put("depressed", "depression");
-        emotionWords.put("angry", "anger");
-        emotionWords.put("mad", "anger");
-        emotionWords.put("furious", "anger");
-        emotionWords.put("anxious", "anxiety");
-        emotionWords.put("worried", "anxiety");
-        emotionWords.put("nervous", "anxiety");
-        emotionWords.put("afraid", "fear");
-        emotionWords.put("scared", "fear");
-        emotionWords.put("terrified", "fear");
-        emotionWords.put("lonely", "loneliness");
-        emotionWords.put("alone", "loneliness");
-        emotionWords.put("isolated", "loneliness");
-        emotionWords.put("grateful", "gratitude");
-        emotionWords.put("thankful", "gratitude");
-        emotionWords.put("love", "love");
-        emotionWords.put("loving", "love");
-        emotionWords.put("hope", "hope");
-        emotionWords.put("hopeful", "hope");
-        emotionWords.put("proud", "pride");
-        emotionWords.put("confident", "confidence");
-        emotionWords.put("peaceful", "peace");
-        emotionWords.put("calm", "calmness");
-        emotionWords.put("relaxed", "relaxation");
-
-        // Convert to lowercase and split into words
-        String[] words = text.toLowerCase().replaceAll("[^a-zA-Z\\s]", "").split("\\s+");
-        
-        // Count emotions
-        Map<String, Integer> emotionCounts = new HashMap<>();
-        for (String word : words) {
-            if (emotionWords.containsKey(word)) {
-                String emotion = emotionWords.get(word);
-                emotionCounts.put(emotion, emotionCounts.getOrDefault(emotion, 0) + 1);
+        return EmotionVector.top(getEmotionVector(text), limit);
+    }
+
+    /**
+     * Count the emotion terms in a text into a packed vector; see
+     * {@link EmotionVector}. Negated terms are not counted.
+     *
+     * @param text The text to analyze
+     * @return The packed emotion counts, 0 if the text has no emotion terms
+     */
+    public static long getEmotionVector(String text) {
+        return analyze(text).getEmotionVector();
+    }
+
+    /**
+     * Get the language of the lexicon used for a locale: its own language,
+     * or {@link #DEFAULT_LANGUAGE} if it has no lexicon. Loads the lexicon on
+     * first use.
+     *
+     * @param locale The locale
+     * @return The ISO 639 code of the lexicon's language
+     */
+    public static String getLexiconLanguage(Locale locale) {
+        String language = locale.getLanguage();
+        getModel(language);
+        return LEXICON_LANGUAGES.get(language);
+    }
+
+    /**
+     * Compute the sentiment score and the emotion counts of a text in a
+     * single pass, with the lexicon of the default locale's language.
+     *
+     * @param text The text to analyze
+     * @return The result
+     */
+    public static Result analyze(String text) {
+        return analyze(text, Locale.getDefault());
+    }
+
+    /**
+     * Compute the sentiment score and the emotion counts of a text in a
+     * single pass.
+     *
+     * @param text The text to analyze
+     * @param locale The locale whose language's lexicon to use, or that of
+     *               {@link #DEFAULT_LANGUAGE} if it has none
+     * @return The result
+     */
+    public static Result analyze(String text, Locale locale) {
+        return text == null ? NO_RESULT : analyze(text, 0, text.length(), locale);
+    }
+
+    /**
+     * Compute the sentiment score and the emotion counts of part of a text,
+     * as if it were a text of its own.
+     *
+     * @param text The text
+     * @param start The index of the first character to analyze
+     * @param end The index after the last character to analyze
+     * @param locale The locale whose language's lexicon to use
+     * @return The result
+     */
+    static Result analyze(String text, int start, int end, Locale locale) {
+        if (start >= end) {
+            return NO_RESULT;
+        }
+
+        SentimentModel model = getModel(locale.getLanguage());
+        Scorer scorer = new Scorer(model);
+        char[] token = new char[model.getMaxWordLength()];
+        int length = 0;
+        boolean overflow = false;
+
+        for (int i = start; i <= end; i++) {
+            // A line break past the end flushes the last word and sentence
+            char c = i < end ? text.charAt(i) : '\n';
+            char letter = toLetter(c);
+            if (letter != 0) {
+                if (length < token.length) {
+                    token[length++] = letter;
+                } else {
+                    // Longer than any word of the model, so it cannot match
+                    overflow = true;
+                }
+            } else if (c != '\'' && c != '\u2019') {
+                if (length > 0) {
+                    scorer.word(overflow ? -1 : model.getWord(token, length));
+                    length = 0;
+                    overflow = false;
+                }
+                if (isSentenceEnd(c)) {
+                    scorer.endSentence();
+                } else if (isClauseEnd(c)) {
+                    scorer.endClause();
+                }
             }
         }
-        
-        // Sort emotions by frequency and limit the result
-        return sortByValueAndLimit(emotionCounts, limit);
+        return scorer.getResult();
     }
 
     /**
-     * Sort a map by value in descending order and limit the result.
-     *
-     * @param map The map to sort
-     * @param limit The maximum number of entries to return
-     * @return A sorted and limited map
+     * Get the lower-case letter a character reads as, or 0 if it is not a
+     * letter. Letters are lower-cased without regard to the default locale,
+     * as lexicon terms are.
      */
-    private static <K, V extends Comparable<? super V>> Map<K, V> sortByValueAndLimit(Map<K, V> map, int limit) {
-        Map<K, V> result = new HashMap<>();
-        map.entrySet().stream()
-                .sorted(Map.Entry.<K, V>comparingByValue().reversed())
-                .limit(limit)
-                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
-        return result;
+    private static char toLetter(char c) {
+        if (c < 0x80) {
+            char lower = (char) (c | 0x20);
+            return lower >= 'a' && lower <= 'z' ? lower : 0;
+        }
+        return Character.isLetter(c) ? Character.toLowerCase(c) : 0;
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?' || c == '\n' || c == '\r';
+    }
+
+    private static boolean isClauseEnd(char c) {
+        return c == ',' || c == ';' || c == ':';
+    }
+
+    private static SentimentModel getModel(String language) {
+        SentimentModel model = MODELS.get(language);
+        if (model != null) {
+            return model;
+        }
+        synchronized (MODELS) {
+            model = MODELS.get(language);
+            if (model == null) {
+                model = loadModel(language);
+                String lexiconLanguage = language;
+                if (model == null) {
+                    if (DEFAULT_LANGUAGE.equals(language)) {
+                        throw new IllegalStateException("No sentiment lexicon for " + DEFAULT_LANGUAGE);
+                    }
+                    model = getModel(DEFAULT_LANGUAGE);
+                    lexiconLanguage = DEFAULT_LANGUAGE;
+                }
+                LEXICON_LANGUAGES.put(language, lexiconLanguage);
+                MODELS.put(language, model);
+            }
+            return model;
+        }
+    }
+
+    private static SentimentModel loadModel(String language) {
+        LexiconSource source = lexiconSource;
+        if (source == null) {
+            throw new IllegalStateException("No sentiment lexicon source has been set");
+        }
+        try {
+            ByteBuffer buffer = source.open(language);
+            return buffer != null ? new SentimentModel(SentimentLexiconFile.open(buffer)) : null;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load the sentiment lexicon for " + language, e);
+        }
+    }
+
+    /**
+     * The scoring state of one text. Words wait in a small ring buffer while
+     * they may still start or continue a phrase; once the phrase automaton
+     * rules that out they are scored as single words, and when it completes
+     * a phrase its words are scored as one term. The first phrase to end
+     * wins, so phrases do not overlap.
+     */
+    private static final class Scorer {
+        // How many words after it a negation reaches
+        private static final int NEGATION_WINDOW = 3;
+        // How many words after it a modifier reaches
+        private static final int MODIFIER_WINDOW = 2;
+        // Factor of a negated valence, flipped and damped since "not happy" is milder than "sad"
+        private static final float NEGATION_FACTOR = -0.75f;
+        // Factors of the valences before and after a contrast in a sentence
+        private static final float BEFORE_CONTRAST = 0.5f;
+        private static final float AFTER_CONTRAST = 1.5f;
+        // Normalizes a sentence's valence sum x to x / sqrt(x * x + ALPHA)
+        private static final float ALPHA = 1.0f;
+
+        private final SentimentModel model;
+        private final PhraseAutomaton phrases;
+        private final int[] pending;
+        private int pendingStart;
+        private int pendingCount;
+        private int state = PhraseAutomaton.ROOT;
+
+        private int negationLeft;
+        private int modifierLeft;
+        private float modifierFactor = 1.0f;
+        private float contrastFactor = 1.0f;
+        private float sentenceSum;
+        private boolean sentenceScored;
+
+        private float scoreSum;
+        private int sentences;
+        private long emotions;
+
+        Scorer(SentimentModel model) {
+            this.model = model;
+            this.phrases = model.getPhrases();
+            this.pending = new int[phrases.getMaxDepth() + 1];
+        }
+
+        /**
+         * Score the next word.
+         *
+         * @param word The id of the word, or -1 for an unknown word
+         */
+        void word(int word) {
+            state = phrases.next(state, word);
+            pending[(pendingStart + pendingCount) % pending.length] = word;
+            pendingCount++;
+            int phrase = phrases.match(state);
+            if (phrase >= 0) {
+                flush(pendingCount - phrases.getLength(phrase));
+                pendingCount = 0;
+                state = PhraseAutomaton.ROOT;
+                term(model.getPhraseTerm(phrase));
+            } else {
+                flush(pendingCount - phrases.depth(state));
+            }
+        }
+
+        /**
+         * End a clause, which ends any negation or modifier too.
+         */
+        void endClause() {
+            flush(pendingCount);
+            state = PhraseAutomaton.ROOT;
+            negationLeft = 0;
+            modifierLeft = 0;
+        }
+
+        /**
+         * End a sentence, adding its score if it holds sentiment terms.
+         */
+        void endSentence() {
+            endClause();
+            if (sentenceScored) {
+                scoreSum += sentenceSum / (float) Math.sqrt(sentenceSum * sentenceSum + ALPHA);
+                sentences++;
+            }
+            sentenceSum = 0;
+            sentenceScored = false;
+            contrastFactor = 1.0f;
+        }
+
+        Result getResult() {
+            if (sentences == 0 && emotions == 0L) {
+                return NO_RESULT;
+            }
+            return new Result(scoreSum, sentences, emotions);
+        }
+
+        private void flush(int count) {
+            for (int i = 0; i < count; i++) {
+                // A word id is also its term id
+                term(pending[pendingStart]);
+                pendingStart = (pendingStart + 1) % pending.length;
+                pendingCount--;
+            }
+        }
+
+        private void term(int term) {
+            switch (model.getKind(term)) {
+                case SentimentModel.NEGATION:
+                    negationLeft = NEGATION_WINDOW;
+                    return;
+                case SentimentModel.CONTRAST:
+                    sentenceSum *= BEFORE_CONTRAST;
+                    contrastFactor = AFTER_CONTRAST;
+                    negationLeft = 0;
+                    modifierLeft = 0;
+                    return;
+                case SentimentModel.MODIFIER:
+                    // Modifiers in a row stack, as in "really very"
+                    float factor = model.getWeight(term);
+                    modifierFactor = modifierLeft > 0 ? modifierFactor * factor : factor;
+                    modifierLeft = MODIFIER_WINDOW + 1;
+                    break;
+                case SentimentModel.SENTIMENT:
+                    float valence = model.getWeight(term) * contrastFactor;
+                    if (modifierLeft > 0) {
+                        valence *= modifierFactor;
+                        modifierLeft = 0;
+                    }
+                    int emotion = model.getEmotion(term);
+                    if (negationLeft > 0) {
+                        valence *= NEGATION_FACTOR;
+                    } else if (emotion >= 0) {
+                        emotions = EmotionVector.increment(emotions, emotion);
+                    }
+                    sentenceSum += valence;
+                    sentenceScored |= valence != 0;
+                    break;
+                default:
+                    break;
+            }
+            if (negationLeft > 0) {
+                negationLeft--;
+            }
+            if (modifierLeft > 0) {
+                modifierLeft--;
+            }
+        }
+    }
+
+    /**
+     * The sentiment score and emotion counts of a text. The score is kept as
+     * the sum of the sentence scores and their number, so the results of
+     * separate paragraphs can be added up.
+     */
+    public static final class Result {
+        private final float scoreSum;
+        private final int sentenceCount;
+        private final long emotionVector;
+
+        Result(float scoreSum, int sentenceCount, long emotionVector) {
+            this.scoreSum = scoreSum;
+            this.sentenceCount = sentenceCount;
+            this.emotionVector = emotionVector;
+        }
+
+        /**
+         * Get the sentiment score.
+         *
+         * @return A score between -1.0 (very negative) and 1.0 (very positive)
+         */
+        public float getScore() {
+            return sentenceCount == 0 ? 0.0f : scoreSum / sentenceCount;
+        }
+
+        float getScoreSum() {
+            return scoreSum;
+        }
+
+        int getSentenceCount() {
+            return sentenceCount;
+        }
+
+        /**
+         * Get the packed emotion counts; see {@link EmotionVector}.
+         *
+         * @return The packed counts
+         */
+        public long getEmotionVector() {
+            return emotionVector;
+        }
     }
 }
@@ -0,0 +1,198 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A sentiment lexicon in its binary file format, read in place from a
+ * ByteBuffer, typically a memory-mapped asset, so even a large lexicon takes
+ * almost no heap. The convertSentimentLexicons task in app/build.gradle.kts
+ * writes it from a TSV source.
+ *
+ * <p>The format is big-endian:</p>
+ * <pre>
+ * header    int magic "SLEX", int format version, int term count,
+ *           int emotion count, int phrase count, int longest word length
+ * terms     per term, sorted by term: int first char, short length,
+ *           byte kind, byte emotion or -1, float weight
+ * emotions  per emotion: int first char, int length
+ * phrases   per phrase: int term index
+ * chars     the UTF-16 chars of all terms and emotion names
+ * </pre>
+ *
+ * <p>Kinds are those of {@link SentimentModel}, and emotions index the
+ * emotion table of the file, whose names are mapped to
+ * {@link EmotionVector#EMOTIONS} when the file is opened. Phrases are terms
+ * of words separated by single spaces, and each of their words is a term of
+ * its own, of kind {@link SentimentModel#NONE} if it means nothing alone.
+ * Only absolute reads are used, so the buffer can be shared between
+ * threads.</p>
+ */
+final class SentimentLexiconFile {
+    private static final int MAGIC = 0x534C4558;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int TERM_SIZE = 12;
+    private static final int EMOTION_SIZE = 8;
+
+    private final ByteBuffer buffer;
+    private final int termCount;
+    private final int phraseCount;
+    private final int maxWordLength;
+    private final int phrasesStart;
+    private final int charsStart;
+    private final byte[] emotions;
+
+    private SentimentLexiconFile(ByteBuffer buffer, int termCount, int emotionCount, int phraseCount,
+                                 int maxWordLength) throws IOException {
+        this.buffer = buffer;
+        this.termCount = termCount;
+        this.phraseCount = phraseCount;
+        this.maxWordLength = maxWordLength;
+        int emotionsStart = HEADER_SIZE + termCount * TERM_SIZE;
+        this.phrasesStart = emotionsStart + emotionCount * EMOTION_SIZE;
+        this.charsStart = phrasesStart + phraseCount * 4;
+
+        // Map the file's emotions to the indices of EmotionVector
+        emotions = new byte[emotionCount];
+        for (int i = 0; i < emotionCount; i++) {
+            int position = emotionsStart + i * EMOTION_SIZE;
+            String name = getString(buffer.getInt(position), buffer.getInt(position + 4));
+            int emotion = EmotionVector.indexOf(name);
+            if (emotion < 0) {
+                throw new IOException("Unknown emotion in lexicon: " + name);
+            }
+            emotions[i] = (byte) emotion;
+        }
+    }
+
+    /**
+     * Open a lexicon file.
+     *
+     * @param buffer The contents of the file, from its position to its limit
+     * @return The lexicon
+     * @throws IOException If the buffer does not hold a lexicon of this format
+     */
+    static SentimentLexiconFile open(ByteBuffer buffer) throws IOException {
+        ByteBuffer file = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        if (file.capacity() < HEADER_SIZE || file.getInt(0) != MAGIC) {
+            throw new IOException("Not a sentiment lexicon");
+        }
+        if (file.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported sentiment lexicon version: " + file.getInt(4));
+        }
+        int termCount = file.getInt(8);
+        int emotionCount = file.getInt(12);
+        int phraseCount = file.getInt(16);
+        int maxWordLength = file.getInt(20);
+        long tablesSize = HEADER_SIZE + (long) termCount * TERM_SIZE + (long) emotionCount * EMOTION_SIZE
+                + phraseCount * 4L;
+        if (termCount < 0 || emotionCount < 0 || phraseCount < 0 || maxWordLength < 0
+                || tablesSize > file.capacity()) {
+            throw new IOException("Truncated sentiment lexicon");
+        }
+        return new SentimentLexiconFile(file, termCount, emotionCount, phraseCount, maxWordLength);
+    }
+
+    /**
+     * Look up a word by binary search.
+     *
+     * @param chars Holds the word, in lower case
+     * @param length The length of the word, starting at index 0
+     * @return The index of the term, or -1 if it is not in the lexicon
+     */
+    int find(char[] chars, int length) {
+        if (length == 0 || length > maxWordLength) {
+            return -1;
+        }
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compare(mid, chars, length);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    int getTermCount() {
+        return termCount;
+    }
+
+    /**
+     * Get the length of the longest term without spaces; longer tokens
+     * cannot match.
+     *
+     * @return The length in characters
+     */
+    int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    String getTerm(int term) {
+        int position = HEADER_SIZE + term * TERM_SIZE;
+        return getString(buffer.getInt(position), buffer.getShort(position + 4) & 0xFFFF);
+    }
+
+    int getKind(int term) {
+        return buffer.get(HEADER_SIZE + term * TERM_SIZE + 6);
+    }
+
+    /**
+     * Get the emotion of a term.
+     *
+     * @param term The index of the term
+     * @return The index in {@link EmotionVector#EMOTIONS}, or -1 for none
+     */
+    int getEmotion(int term) {
+        int emotion = buffer.get(HEADER_SIZE + term * TERM_SIZE + 7);
+        return emotion >= 0 ? emotions[emotion] : -1;
+    }
+
+    float getWeight(int term) {
+        return buffer.getFloat(HEADER_SIZE + term * TERM_SIZE + 8);
+    }
+
+    int getPhraseCount() {
+        return phraseCount;
+    }
+
+    /**
+     * Get the term of a phrase.
+     *
+     * @param phrase The index of the phrase
+     * @return The index of its term
+     */
+    int getPhraseTerm(int phrase) {
+        return buffer.getInt(phrasesStart + phrase * 4);
+    }
+
+    private int compare(int term, char[] chars, int length) {
+        int position = HEADER_SIZE + term * TERM_SIZE;
+        int start = charsStart + buffer.getInt(position) * 2;
+        int termLength = buffer.getShort(position + 4) & 0xFFFF;
+        int common = Math.min(termLength, length);
+        for (int i = 0; i < common; i++) {
+            char c = buffer.getChar(start + i * 2);
+            if (c != chars[i]) {
+                return c < chars[i] ? -1 : 1;
+            }
+        }
+        return termLength - length;
+    }
+
+    private String getString(int firstChar, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(charsStart + (firstChar + i) * 2);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.io.IOException;
+
+/**
+ * The terms SentimentAnalyzer scores for one language: single words, looked
+ * up in a {@link SentimentLexiconFile}, and multi-word phrases of it, found
+ * by a {@link PhraseAutomaton} over the words' term indices. Every term has a
+ * kind, and a weight and emotion that depend on it.
+ */
+final class SentimentModel {
+    /** A word with no meaning of its own, such as one that only occurs in phrases. */
+    static final int NONE = 0;
+    /** A term with a valence as its weight, and possibly an emotion. */
+    static final int SENTIMENT = 1;
+    /** A term that flips the sentiment terms shortly after it. */
+    static final int NEGATION = 2;
+    /** An intensifier or diminisher, with the factor it scales the next sentiment term by as its weight. */
+    static final int MODIFIER = 3;
+    /** A term such as "but" that shifts the weight of a sentence to what follows it. */
+    static final int CONTRAST = 4;
+
+    private final SentimentLexiconFile lexicon;
+    private final PhraseAutomaton phrases;
+
+    /**
+     * Create the model of a lexicon, building the automaton of its phrases.
+     *
+     * @param lexicon The lexicon
+     * @throws IOException If a word of a phrase is not a term of the lexicon
+     */
+    SentimentModel(SentimentLexiconFile lexicon) throws IOException {
+        this.lexicon = lexicon;
+        int[][] phraseWords = new int[lexicon.getPhraseCount()][];
+        for (int phrase = 0; phrase < phraseWords.length; phrase++) {
+            String[] words = lexicon.getTerm(lexicon.getPhraseTerm(phrase)).split(" ");
+            phraseWords[phrase] = new int[words.length];
+            for (int i = 0; i < words.length; i++) {
+                int word = lexicon.find(words[i].toCharArray(), words[i].length());
+                if (word < 0) {
+                    throw new IOException("Phrase word missing from lexicon: " + words[i]);
+                }
+                phraseWords[phrase][i] = word;
+            }
+        }
+        this.phrases = new PhraseAutomaton(phraseWords);
+    }
+
+    /**
+     * Look up a word.
+     *
+     * @param chars Holds the word, in lower case
+     * @param length The length of the word, starting at index 0
+     * @return The term of the word, or -1 if it is not in the model
+     */
+    int getWord(char[] chars, int length) {
+        return lexicon.find(chars, length);
+    }
+
+    /**
+     * Get the length of the longest word; longer tokens cannot match.
+     *
+     * @return The length in characters
+     */
+    int getMaxWordLength() {
+        return lexicon.getMaxWordLength();
+    }
+
+    PhraseAutomaton getPhrases() {
+        return phrases;
+    }
+
+    /**
+     * Get the term of a phrase.
+     *
+     * @param phrase The index of the phrase in {@link #getPhrases()}
+     * @return The term
+     */
+    int getPhraseTerm(int phrase) {
+        return lexicon.getPhraseTerm(phrase);
+    }
+
+    /**
+     * Get the kind of a term.
+     *
+     * @param term The term, or -1 for an unknown word
+     * @return The kind, {@link #NONE} for an unknown word
+     */
+    int getKind(int term) {
+        return term >= 0 ? lexicon.getKind(term) : NONE;
+    }
+
+    float getWeight(int term) {
+        return lexicon.getWeight(term);
+    }
+
+    /**
+     * Get the emotion of a term.
+     *
+     * @param term The term
+     * @return The index in {@link EmotionVector#EMOTIONS}, or -1 for none
+     */
+    int getEmotion(int term) {
+        return lexicon.getEmotion(term);
+    }
+}
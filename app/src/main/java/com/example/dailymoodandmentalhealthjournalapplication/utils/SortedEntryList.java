@@ -0,0 +1,96 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDelta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory list of entries kept in display order and updated by
+ * {@link EntryDelta}s. Each changed entry is located by binary search, so
+ * applying a delta costs O(changes * log n) comparisons instead of rebuilding
+ * the whole list.
+ *
+ * @param <T> The entity type
+ */
+public class SortedEntryList<T> {
+    private final Comparator<T> order;
+    private final IdOf<T> idOf;
+    private final List<T> entries = new ArrayList<>();
+    private final Map<Long, T> entriesById = new HashMap<>();
+
+    /**
+     * @param order The display order; must not consider two different entries equal
+     * @param idOf Reads the ID of an entry
+     */
+    public SortedEntryList(Comparator<T> order, IdOf<T> idOf) {
+        this.order = order;
+        this.idOf = idOf;
+    }
+
+    /**
+     * Apply a delta from a change feed.
+     *
+     * @param delta The delta to apply
+     */
+    public void apply(EntryDelta<T> delta) {
+        if (delta.isReset()) {
+            entries.clear();
+            entriesById.clear();
+            entries.addAll(delta.getUpserted().values());
+            Collections.sort(entries, order);
+            for (T entry : entries) {
+                entriesById.put(idOf.idOf(entry), entry);
+            }
+            return;
+        }
+        for (Long id : delta.getDeletedIds()) {
+            T previous = entriesById.remove(id);
+            if (previous != null) {
+                removeEntry(previous);
+            }
+        }
+        for (Map.Entry<Long, T> change : delta.getUpserted().entrySet()) {
+            T previous = entriesById.put(change.getKey(), change.getValue());
+            if (previous != null) {
+                removeEntry(previous);
+            }
+            int index = Collections.binarySearch(entries, change.getValue(), order);
+            entries.add(index < 0 ? -index - 1 : index, change.getValue());
+        }
+    }
+
+    /**
+     * Get a copy of the entries in display order, safe to hand to an adapter.
+     *
+     * @return The entries
+     */
+    public List<T> snapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void removeEntry(T entry) {
+        int index = Collections.binarySearch(entries, entry, order);
+        if (index >= 0 && entries.get(index) == entry) {
+            entries.remove(index);
+        } else {
+            // Not where expected, e.g. the entry was modified in place
+            entries.remove(entry);
+        }
+    }
+
+    /**
+     * Reads the ID of an entry.
+     */
+    public interface IdOf<T> {
+        long idOf(T entry);
+    }
+}
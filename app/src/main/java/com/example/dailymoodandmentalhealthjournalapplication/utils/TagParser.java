@@ -0,0 +1,71 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Utility for turning the free-text, comma-separated tag field of a journal
+ * entry into normalized tag names.
+ */
+public final class TagParser {
+
+    private TagParser() {
+    }
+
+    /**
+     * Parse a comma-separated tag string.
+     *
+     * @param tags The tag string as entered by the user
+     * @return The distinct normalized tag names, in input order
+     */
+    public static List<String> parse(String tags) {
+        if (tags == null || tags.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        for (String tag : tags.split(",")) {
+            String name = normalize(tag);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Normalize a single tag name.
+     *
+     * @param tag The tag name
+     * @return The trimmed, lower-case name, or null if it is blank
+     */
+    public static String normalize(String tag) {
+        if (tag == null) {
+            return null;
+        }
+        String name = tag.trim().toLowerCase(Locale.ROOT);
+        return name.isEmpty() ? null : name;
+    }
+
+    /**
+     * Normalize a list of tag names for use as query arguments.
+     *
+     * @param tags The tag names
+     * @return The distinct normalized names
+     */
+    public static List<String> normalizeAll(List<String> tags) {
+        Set<String> names = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                String name = normalize(tag);
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression of text for the journal archive. A compressed value is
+ * the 4-byte big-endian length of the UTF-8 text followed by a raw Deflate
+ * stream, so it can be inflated into an exactly sized buffer.
+ */
+public final class TextCompressor {
+    private static final int HEADER_BYTES = 4;
+
+    private TextCompressor() {
+    }
+
+    /**
+     * Compress text.
+     *
+     * @param text The text to compress
+     * @return The compressed value
+     */
+    public static byte[] compress(String text) {
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            // Incompressible input grows by a few bytes per 16 KiB block
+            byte[] output = new byte[HEADER_BYTES + input.length + input.length / 1000 + 64];
+            writeLength(output, input.length);
+            int length = HEADER_BYTES;
+            while (!deflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            return Arrays.copyOf(output, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompress a value produced by {@link #compress}.
+     *
+     * @param compressed The compressed value
+     * @return The original text
+     * @throws IllegalArgumentException If the value is truncated or corrupt
+     */
+    public static String decompress(byte[] compressed) {
+        byte[] output = new byte[originalLength(compressed)];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed, HEADER_BYTES, compressed.length - HEADER_BYTES);
+            int length = 0;
+            while (length < output.length) {
+                int inflated = inflater.inflate(output, length, output.length - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalArgumentException("Compressed text is truncated");
+                }
+                length += inflated;
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Compressed text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Get the length in UTF-8 bytes of the text a compressed value holds.
+     *
+     * @param compressed The compressed value
+     * @return The original length in bytes
+     */
+    public static int originalLength(byte[] compressed) {
+        if (compressed.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("Compressed text is truncated");
+        }
+        return (compressed[0] & 0xff) << 24 | (compressed[1] & 0xff) << 16
+                | (compressed[2] & 0xff) << 8 | (compressed[3] & 0xff);
+    }
+
+    private static void writeLength(byte[] output, int length) {
+        output[0] = (byte) (length >>> 24);
+        output[1] = (byte) (length >>> 16);
+        output[2] = (byte) (length >>> 8);
+        output[3] = (byte) length;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import com.example.dailymoodandmentalhealthjournalapplication.utils.SentimentAnalyzer;
+
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the background maintenance work the app needs after start-up.
+ */
+public final class BackgroundWorkScheduler {
+    private static final String PREF_NAME = "background_work_prefs";
+    private static final String WORK_TAG_BACKFILL = "tag_backfill";
+    private static final String WORK_DATABASE_MAINTENANCE = "database_maintenance";
+    private static final String WORK_MOOD_STATS_REBUILD = "mood_stats_rebuild";
+    private static final String WORK_CONTENT_HASH_BACKFILL = "content_hash_backfill";
+    private static final String WORK_DATE_BUCKETS = "date_buckets";
+    private static final String WORK_JOURNAL_ARCHIVE = "journal_archive";
+    private static final String WORK_SENTIMENT_BACKFILL = "sentiment_backfill";
+
+    private BackgroundWorkScheduler() {
+    }
+
+    /**
+     * Enqueue any one-time work that has not completed yet and make sure the
+     * periodic database maintenance and journal archiving are scheduled.
+     *
+     * @param context The context
+     */
+    public static void scheduleStartupWork(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context);
+        SharedPreferences prefs = getPrefs(context);
+
+        if (!prefs.getBoolean(TagBackfillWorker.KEY_DONE, false)) {
+            workManager.enqueueUniqueWork(WORK_TAG_BACKFILL, ExistingWorkPolicy.KEEP,
+                    new OneTimeWorkRequest.Builder(TagBackfillWorker.class).build());
+        }
+
+        if (!prefs.getBoolean(MoodStatsRebuildWorker.KEY_DONE, false)) {
+            workManager.enqueueUniqueWork(WORK_MOOD_STATS_REBUILD, ExistingWorkPolicy.KEEP,
+                    new OneTimeWorkRequest.Builder(MoodStatsRebuildWorker.class).build());
+        }
+
+        if (!prefs.getBoolean(ContentHashBackfillWorker.KEY_DONE, false)) {
+            workManager.enqueueUniqueWork(WORK_CONTENT_HASH_BACKFILL, ExistingWorkPolicy.KEEP,
+                    new OneTimeWorkRequest.Builder(ContentHashBackfillWorker.class).build());
+        }
+
+        // Also covers a change of the device language, whose lexicon entries are scored with
+        if (prefs.getInt(SentimentBackfillWorker.KEY_VERSION, 0) != SentimentAnalyzer.VERSION
+                || !Locale.getDefault().getLanguage().equals(
+                        prefs.getString(SentimentBackfillWorker.KEY_LANGUAGE, null))) {
+            workManager.enqueueUniqueWork(WORK_SENTIMENT_BACKFILL, ExistingWorkPolicy.KEEP,
+                    new OneTimeWorkRequest.Builder(SentimentBackfillWorker.class).build());
+        }
+
+        // Also covers a time zone change while the app was not running
+        String timeZoneId = TimeZone.getDefault().getID();
+        if (!timeZoneId.equals(prefs.getString(DateBucketWorker.KEY_TIME_ZONE, null))) {
+            workManager.enqueueUniqueWork(WORK_DATE_BUCKETS, ExistingWorkPolicy.KEEP,
+                    new OneTimeWorkRequest.Builder(DateBucketWorker.class).build());
+        }
+
+        Constraints idleConstraints = new Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_DATABASE_MAINTENANCE, ExistingPeriodicWorkPolicy.KEEP,
+                new PeriodicWorkRequest.Builder(DatabaseMaintenanceWorker.class, 1, TimeUnit.DAYS)
+                        .setConstraints(idleConstraints)
+                        .build());
+        workManager.enqueueUniquePeriodicWork(WORK_JOURNAL_ARCHIVE, ExistingPeriodicWorkPolicy.KEEP,
+                new PeriodicWorkRequest.Builder(JournalArchiveWorker.class, 1, TimeUnit.DAYS)
+                        .setConstraints(idleConstraints)
+                        .build());
+    }
+
+    /**
+     * Recompute the stored local days of all entries for the current time
+     * zone, replacing a recomputation still running for a previous one.
+     *
+     * @param context The context
+     */
+    public static void scheduleDateBucketRecompute(Context context) {
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_DATE_BUCKETS, ExistingWorkPolicy.REPLACE,
+                new OneTimeWorkRequest.Builder(DateBucketWorker.class).build());
+    }
+
+    /**
+     * Analyze again the journal entries scored with another language's
+     * lexicon than the device's, replacing a backfill still running for a
+     * previous language.
+     *
+     * @param context The context
+     */
+    public static void scheduleSentimentBackfill(Context context) {
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_SENTIMENT_BACKFILL, ExistingWorkPolicy.REPLACE,
+                new OneTimeWorkRequest.Builder(SentimentBackfillWorker.class).build());
+    }
+
+    /**
+     * Set how old journal entries must be before their text is archived. The
+     * next daily archive run applies it.
+     *
+     * @param context The context
+     * @param days The age in days; 0 turns archiving off
+     */
+    public static void setJournalArchiveAge(Context context, int days) {
+        getPrefs(context).edit().putInt(JournalArchiveWorker.KEY_ARCHIVE_AGE_DAYS, days).apply();
+    }
+
+    static SharedPreferences getPrefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkerParameters;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.ContentHash;
+
+import java.util.List;
+
+/**
+ * One-time worker that fingerprints the journal entries written before the
+ * contentHash column existed. Runs in batches so that each transaction stays
+ * short, and resumes from the last processed ID if stopped.
+ */
+public class ContentHashBackfillWorker extends MaintenanceWorker {
+    private static final String TAG = "ContentHashBackfill";
+    static final String KEY_LAST_ENTRY_ID = "content_hash_backfill_last_entry_id";
+    static final String KEY_DONE = "content_hash_backfill_done";
+    private static final int BATCH_SIZE = 200;
+
+    public ContentHashBackfillWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    protected Result doMaintenanceWork() {
+        AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+        SharedPreferences prefs = BackgroundWorkScheduler.getPrefs(getApplicationContext());
+        long lastId = prefs.getLong(KEY_LAST_ENTRY_ID, 0);
+        int hashed = 0;
+
+        try {
+            while (!isStopped()) {
+                List<JournalEntry> batch =
+                        database.journalEntryDao().getEntriesWithoutContentHashSync(lastId, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    prefs.edit().putBoolean(KEY_DONE, true).apply();
+                    Log.d(TAG, "Content hash backfill complete, hashed " + hashed + " entries");
+                    return Result.success();
+                }
+
+                database.runInTransaction(() -> {
+                    for (JournalEntry entry : batch) {
+                        database.journalEntryDao().setContentHash(entry.getId(),
+                                ContentHash.of(entry.getTitle(), entry.getContent(), entry.getTags()));
+                    }
+                });
+                lastId = batch.get(batch.size() - 1).getId();
+                hashed += batch.size();
+                prefs.edit().putLong(KEY_LAST_ENTRY_ID, lastId).apply();
+            }
+            return Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "Error backfilling content hashes", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkerParameters;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.DatabaseMaintenance;
+
+/**
+ * Periodic worker that checkpoints the WAL, runs PRAGMA optimize and returns
+ * free pages to the file system. Scheduled to run while the device is idle
+ * and charging so it never competes with the user's own writes.
+ */
+public class DatabaseMaintenanceWorker extends MaintenanceWorker {
+    private static final String TAG = "DatabaseMaintenance";
+
+    public DatabaseMaintenanceWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    protected Result doMaintenanceWork() {
+        Context context = getApplicationContext();
+        AppDatabase database = AppDatabase.getInstance(context);
+        try {
+            Log.d(TAG, "Before maintenance: " + DatabaseMaintenance.getDiagnostics(context, database));
+            DatabaseMaintenance.runMaintenance(database);
+            Log.d(TAG, "After maintenance: " + DatabaseMaintenance.getDiagnostics(context, database));
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error running database maintenance", e);
+            return Result.retry();
+        }
+    }
+}
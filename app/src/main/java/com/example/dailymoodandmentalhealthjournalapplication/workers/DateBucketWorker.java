@@ -0,0 +1,62 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.app.Application;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkerParameters;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.JournalRepository;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.MoodRepository;
+
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Worker that recomputes the stored local day, week and month of every mood
+ * and journal entry for the current time zone and then rebuilds the daily
+ * mood rollup. Runs after the upgrade that added the bucket columns and
+ * whenever the device time zone changes.
+ */
+public class DateBucketWorker extends MaintenanceWorker {
+    private static final String TAG = "DateBucketWorker";
+    /** The ID of the time zone the stored buckets were last computed in. */
+    static final String KEY_TIME_ZONE = "date_buckets_time_zone";
+
+    public DateBucketWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    protected Result doMaintenanceWork() {
+        Application application = (Application) getApplicationContext();
+        AppDatabase database = AppDatabase.getInstance(application);
+        MoodRepository moodRepository = MoodRepository.getInstance(application);
+        String timeZoneId = TimeZone.getDefault().getID();
+
+        try {
+            int moodEntries = moodRepository.recomputeDateBucketsSync();
+            int journalEntries = JournalRepository.getInstance(application).recomputeDateBucketsSync();
+            if (isStopped()) {
+                return Result.retry();
+            }
+            // The rollup is keyed by the stored days, so it follows them
+            if (moodEntries > 0) {
+                List<String> userIds = database.moodEntryDao().getUserIdsWithMoodEntriesSync();
+                for (String userId : userIds) {
+                    moodRepository.rebuildDailyStatsSync(userId);
+                }
+            }
+            BackgroundWorkScheduler.getPrefs(application).edit().putString(KEY_TIME_ZONE, timeZoneId).apply();
+            Log.d(TAG, "Date buckets recomputed for " + timeZoneId + ": " + moodEntries + " mood entries, "
+                    + journalEntries + " journal entries moved to another day");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error recomputing date buckets", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.app.Application;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkerParameters;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.JournalRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic worker that moves the text of journal entries older than the
+ * configured age into the compressed archive. Scheduled alongside the
+ * database maintenance, which returns the freed pages to the file system.
+ */
+public class JournalArchiveWorker extends MaintenanceWorker {
+    private static final String TAG = "JournalArchiveWorker";
+    /** Age in days after which entries are archived; 0 or less turns archiving off. */
+    static final String KEY_ARCHIVE_AGE_DAYS = "journal_archive_age_days";
+    static final int DEFAULT_ARCHIVE_AGE_DAYS = 365;
+
+    public JournalArchiveWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    protected Result doMaintenanceWork() {
+        Application application = (Application) getApplicationContext();
+        int ageDays = BackgroundWorkScheduler.getPrefs(application)
+                .getInt(KEY_ARCHIVE_AGE_DAYS, DEFAULT_ARCHIVE_AGE_DAYS);
+        if (ageDays <= 0) {
+            return Result.success();
+        }
+
+        try {
+            JournalRepository repository = JournalRepository.getInstance(application);
+            long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(ageDays);
+            int archived = repository.archiveEntriesSync(cutoff);
+            Log.d(TAG, "Archived " + archived + " journal entries older than " + ageDays + " days; "
+                    + repository.getArchiveStatsSync());
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error archiving journal entries", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.DatabaseDispatcher;
+
+/**
+ * Base class of the workers that backfill, rebuild or tidy the database.
+ * Their work runs on the dispatcher's maintenance lane rather than on the
+ * WorkManager thread, so bulk jobs run one at a time at low priority and
+ * leave the writer lane to the user's own writes.
+ */
+abstract class MaintenanceWorker extends Worker {
+    private static final String TAG = "MaintenanceWorker";
+
+    MaintenanceWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    public final Result doWork() {
+        try {
+            return DatabaseDispatcher.getInstance().runOnMaintenanceLane(this::doMaintenanceWork);
+        } catch (Exception e) {
+            Log.e(TAG, "Error running " + getClass().getSimpleName(), e);
+            return Result.retry();
+        }
+    }
+
+    /**
+     * Do the work, on the maintenance lane.
+     *
+     * @return The result of the work
+     */
+    @NonNull
+    protected abstract Result doMaintenanceWork();
+}
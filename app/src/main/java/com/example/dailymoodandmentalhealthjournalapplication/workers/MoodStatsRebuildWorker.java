@@ -0,0 +1,49 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.app.Application;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkerParameters;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.MoodRepository;
+
+import java.util.List;
+
+/**
+ * One-time worker that rebuilds the per-day mood rollup of every user from
+ * the raw mood entries, one user per transaction.
+ */
+public class MoodStatsRebuildWorker extends MaintenanceWorker {
+    private static final String TAG = "MoodStatsRebuildWorker";
+    static final String KEY_DONE = "mood_stats_rebuild_done";
+
+    public MoodStatsRebuildWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    protected Result doMaintenanceWork() {
+        AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+        MoodRepository moodRepository = MoodRepository.getInstance((Application) getApplicationContext());
+
+        try {
+            List<String> userIds = database.moodEntryDao().getUserIdsWithMoodEntriesSync();
+            for (String userId : userIds) {
+                if (isStopped()) {
+                    return Result.retry();
+                }
+                moodRepository.rebuildDailyStatsSync(userId);
+            }
+            BackgroundWorkScheduler.getPrefs(getApplicationContext()).edit().putBoolean(KEY_DONE, true).apply();
+            Log.d(TAG, "Mood rollup rebuilt for " + userIds.size() + " users");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error rebuilding mood rollup", e);
+            return Result.retry();
+        }
+    }
+}
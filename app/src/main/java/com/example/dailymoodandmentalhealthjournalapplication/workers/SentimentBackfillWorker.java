@@ -0,0 +1,59 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.app.Application;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.WorkerParameters;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.repository.JournalRepository;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.SentimentAnalyzer;
+
+import java.util.Locale;
+
+/**
+ * Worker that analyzes the sentiment and emotions of the journal entries
+ * written before they were stored, or analyzed by an older version of
+ * SentimentAnalyzer or in another language than the device's. Entries are
+ * picked by their stored version and language, so a stopped run resumes
+ * where it left off. Reports the number of entries analyzed so
+ * far as progress, under {@link #KEY_ANALYZED}.
+ */
+public class SentimentBackfillWorker extends MaintenanceWorker {
+    private static final String TAG = "SentimentBackfill";
+    /** The SentimentAnalyzer version all entries were last analyzed with. */
+    static final String KEY_VERSION = "sentiment_backfill_version";
+    /** The device language all entries were last analyzed for. */
+    static final String KEY_LANGUAGE = "sentiment_backfill_language";
+    /** The number of entries analyzed so far, in the progress data. */
+    public static final String KEY_ANALYZED = "analyzed";
+
+    public SentimentBackfillWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    protected Result doMaintenanceWork() {
+        Application application = (Application) getApplicationContext();
+        Locale locale = Locale.getDefault();
+        try {
+            int analyzed = JournalRepository.getInstance(application).backfillSentimentSync(locale,
+                    count -> setProgressAsync(new Data.Builder().putInt(KEY_ANALYZED, count).build()),
+                    this::isStopped);
+            if (isStopped()) {
+                return Result.retry();
+            }
+            BackgroundWorkScheduler.getPrefs(application).edit()
+                    .putInt(KEY_VERSION, SentimentAnalyzer.VERSION)
+                    .putString(KEY_LANGUAGE, locale.getLanguage()).apply();
+            Log.d(TAG, "Sentiment backfill complete, analyzed " + analyzed + " entries");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error backfilling sentiment", e);
+            return Result.retry();
+        }
+    }
+}
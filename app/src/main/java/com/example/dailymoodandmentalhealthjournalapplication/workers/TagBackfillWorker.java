@@ -0,0 +1,63 @@
+package com.example.dailymoodandmentalhealthjournalapplication.workers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkerParameters;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.database.AppDatabase;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.TaggedEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.TagParser;
+
+import java.util.List;
+
+/**
+ * One-time worker that parses the comma-separated tag strings of existing
+ * journal entries into the normalized tag index. Runs in batches so that each
+ * transaction stays short, and resumes from the last processed ID if stopped.
+ */
+public class TagBackfillWorker extends MaintenanceWorker {
+    private static final String TAG = "TagBackfillWorker";
+    static final String KEY_LAST_ENTRY_ID = "tag_backfill_last_entry_id";
+    static final String KEY_DONE = "tag_backfill_done";
+    private static final int BATCH_SIZE = 200;
+
+    public TagBackfillWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    protected Result doMaintenanceWork() {
+        AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+        SharedPreferences prefs = BackgroundWorkScheduler.getPrefs(getApplicationContext());
+        long lastId = prefs.getLong(KEY_LAST_ENTRY_ID, 0);
+        int indexed = 0;
+
+        try {
+            while (!isStopped()) {
+                List<TaggedEntry> batch = database.tagDao().getTaggedEntriesAfter(lastId, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    prefs.edit().putBoolean(KEY_DONE, true).apply();
+                    Log.d(TAG, "Tag backfill complete, indexed " + indexed + " entries");
+                    return Result.success();
+                }
+
+                database.runInTransaction(() -> {
+                    for (TaggedEntry entry : batch) {
+                        database.tagDao().setTagsForEntry(entry.getId(), TagParser.parse(entry.getTags()));
+                    }
+                });
+                lastId = batch.get(batch.size() - 1).getId();
+                indexed += batch.size();
+                prefs.edit().putLong(KEY_LAST_ENTRY_ID, lastId).apply();
+            }
+            return Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "Error backfilling tag index", e);
+            return Result.retry();
+        }
+    }
+}
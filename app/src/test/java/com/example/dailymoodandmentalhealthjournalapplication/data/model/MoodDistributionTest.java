@@ -0,0 +1,65 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.model;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.MoodType;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test building a mood distribution from the grouped count rows.
+ */
+public class MoodDistributionTest {
+
+    @Test
+    public void missingTypesCountAsZero() {
+        MoodDistribution distribution = MoodDistribution.from(Arrays.asList(
+                row(MoodType.SAD, 3), row(MoodType.HAPPY, 1)));
+
+        assertEquals(4, distribution.getTotal());
+        assertEquals(1, distribution.getCount(MoodType.HAPPY));
+        assertEquals(3, distribution.getCount(MoodType.SAD));
+        assertEquals(0, distribution.getCount(MoodType.ANGRY));
+        assertEquals(0.75f, distribution.getFraction(MoodType.SAD), 1e-6f);
+    }
+
+    @Test
+    public void unknownTypesAreLeftOut() {
+        // A type stored by a newer version reads back as null
+        assertNull(MoodType.fromOrdinal(MoodType.count()));
+        MoodDistribution distribution = MoodDistribution.from(Arrays.asList(
+                row(null, 2), row(MoodType.NEUTRAL, 2)));
+
+        assertEquals(2, distribution.getTotal());
+        assertEquals(1f, distribution.getFraction(MoodType.NEUTRAL), 1e-6f);
+    }
+
+    @Test
+    public void noRowsIsEmpty() {
+        MoodDistribution distribution = MoodDistribution.from(null);
+
+        assertTrue(distribution.isEmpty());
+        assertEquals(0f, distribution.getFraction(MoodType.HAPPY), 0f);
+    }
+
+    @Test
+    public void storedOrdinalsAreStable() {
+        // The DAO aggregates and the 9 to 10 migration depend on these values
+        MoodType[] stored = {MoodType.HAPPY, MoodType.SAD, MoodType.ANGRY, MoodType.ANXIOUS, MoodType.NEUTRAL};
+        for (int ordinal = 0; ordinal < stored.length; ordinal++) {
+            assertEquals(ordinal, stored[ordinal].ordinal());
+            assertEquals(stored[ordinal], MoodType.fromOrdinal(ordinal));
+        }
+    }
+
+    private static MoodTypeCount row(MoodType moodType, int count) {
+        MoodTypeCount row = new MoodTypeCount();
+        row.setMoodType(moodType);
+        row.setCount(count);
+        return row;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.repository;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test the size-bounded LRU entity cache.
+ */
+public class EntityCacheTest {
+    // Every test item weighs 100 bytes
+    private static final EntityCache.EntityType<Long, Item> ITEM_TYPE = new EntityCache.EntityType<Long, Item>() {
+        @Override
+        public Long keyOf(Item item) {
+            return item.id;
+        }
+
+        @Override
+        public long sizeOf(Item item) {
+            return 100;
+        }
+
+        @Override
+        public long versionOf(Item item) {
+            return item.version;
+        }
+    };
+
+    @Test
+    public void evictsLeastRecentlyUsedOverLimit() {
+        EntityCache<Long, Item> cache = new EntityCache<>("items", 300, ITEM_TYPE);
+        Item first = new Item(1, 0);
+        cache.put(first);
+        cache.put(new Item(2, 0));
+        cache.put(new Item(3, 0));
+        // Reading the first item makes the second the least recently used
+        assertSame(first, cache.get(1L));
+        cache.put(new Item(4, 0));
+
+        assertNull(cache.get(2L));
+        assertSame(first, cache.get(1L));
+        EntityCache.Stats stats = cache.getStats();
+        assertEquals(3, stats.getEntryCount());
+        assertEquals(300, stats.getSizeBytes());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    public void prefillKeepsFirstRowsMostRecent() {
+        EntityCache<Long, Item> cache = new EntityCache<>("items", 200, ITEM_TYPE);
+        cache.putAll(Arrays.asList(new Item(1, 0), new Item(2, 0), new Item(3, 0)), 3);
+
+        assertEquals(Arrays.asList(2L, 1L), cache.keys());
+    }
+
+    @Test
+    public void removeStaleEvictsChangedAndDeletedEntries() {
+        EntityCache<Long, Item> cache = new EntityCache<>("items", 1000, ITEM_TYPE);
+        cache.put(new Item(1, 10));
+        cache.put(new Item(2, 20));
+        cache.put(new Item(3, 30));
+        cache.put(new Item(4, 40));
+        Map<Long, Long> versions = new HashMap<>();
+        versions.put(1L, 10L);
+        versions.put(2L, 21L);
+
+        // Item 4 was not checked, item 3 no longer exists
+        int removed = cache.removeStale(new HashSet<>(Arrays.asList(1L, 2L, 3L)), versions);
+
+        assertEquals(2, removed);
+        assertEquals(Arrays.asList(1L, 4L), cache.keys());
+        assertEquals(200, cache.getStats().getSizeBytes());
+    }
+
+    @Test
+    public void shrinkingLimitTrimsCache() {
+        EntityCache<Long, Item> cache = new EntityCache<>("items", 300, ITEM_TYPE);
+        cache.put(new Item(1, 0));
+        cache.put(new Item(2, 0));
+        cache.put(new Item(3, 0));
+
+        cache.setMaxBytes(100);
+        assertEquals(Collections.singletonList(3L), cache.keys());
+
+        cache.setMaxBytes(0);
+        cache.put(new Item(5, 0));
+        assertEquals(0, cache.getStats().getEntryCount());
+    }
+
+    @Test
+    public void uncacheableEntriesKeepCachedValue() {
+        // Odd versions stand for entities loaded only in part
+        EntityCache<Long, Item> cache = new EntityCache<>("items", 300, new EntityCache.EntityType<Long, Item>() {
+            @Override
+            public Long keyOf(Item item) {
+                return ITEM_TYPE.keyOf(item);
+            }
+
+            @Override
+            public long sizeOf(Item item) {
+                return ITEM_TYPE.sizeOf(item);
+            }
+
+            @Override
+            public long versionOf(Item item) {
+                return ITEM_TYPE.versionOf(item);
+            }
+
+            @Override
+            public boolean isCacheable(Item item) {
+                return item.version % 2 == 0;
+            }
+        });
+        Item full = new Item(1, 0);
+        cache.put(full);
+        cache.putAll(Arrays.asList(new Item(1, 1), new Item(2, 1)), 2);
+
+        assertSame(full, cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    private static final class Item {
+        final long id;
+        final long version;
+
+        Item(long id, long version) {
+            this.id = id;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.dailymoodandmentalhealthjournalapplication.data.search;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.entity.JournalEntry;
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.JournalSearchResult;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the BM25 ranking and MATCH expression building.
+ */
+public class Bm25RankerTest {
+    private static final double[] WEIGHTS = {2.0, 1.0};
+
+    @Test
+    public void moreHitsScoreHigher() {
+        byte[] oneHit = matchInfo(1000, new int[]{5, 100}, new int[]{5, 100}, new int[][]{{0, 0, 0}, {1, 1, 50}});
+        byte[] threeHits = matchInfo(1000, new int[]{5, 100}, new int[]{5, 100}, new int[][]{{0, 0, 0}, {3, 3, 50}});
+        assertTrue(Bm25Ranker.score(threeHits, WEIGHTS) > Bm25Ranker.score(oneHit, WEIGHTS));
+    }
+
+    @Test
+    public void shorterDocumentsScoreHigher() {
+        byte[] longDocument = matchInfo(1000, new int[]{5, 100}, new int[]{5, 400}, new int[][]{{0, 0, 0}, {2, 2, 50}});
+        byte[] shortDocument = matchInfo(1000, new int[]{5, 100}, new int[]{5, 40}, new int[][]{{0, 0, 0}, {2, 2, 50}});
+        assertTrue(Bm25Ranker.score(shortDocument, WEIGHTS) > Bm25Ranker.score(longDocument, WEIGHTS));
+    }
+
+    @Test
+    public void titleHitsOutweighContentHits() {
+        byte[] titleHit = matchInfo(1000, new int[]{5, 100}, new int[]{5, 100}, new int[][]{{1, 1, 50}, {0, 0, 50}});
+        byte[] contentHit = matchInfo(1000, new int[]{5, 100}, new int[]{5, 100}, new int[][]{{0, 0, 50}, {1, 1, 50}});
+        assertTrue(Bm25Ranker.score(titleHit, WEIGHTS) > Bm25Ranker.score(contentHit, WEIGHTS));
+    }
+
+    @Test
+    public void malformedBlobScoresZero() {
+        assertEquals(0.0, Bm25Ranker.score(null, WEIGHTS), 0.0);
+        assertEquals(0.0, Bm25Ranker.score(new byte[8], WEIGHTS), 0.0);
+    }
+
+    @Test
+    public void rankOrdersByScoreThenDate() {
+        List<JournalSearchResult> results = new ArrayList<>();
+        results.add(result(1, 100, matchInfo(10, new int[]{5, 100}, new int[]{5, 100}, new int[][]{{0, 0, 2}, {1, 1, 2}})));
+        results.add(result(2, 200, matchInfo(10, new int[]{5, 100}, new int[]{5, 100}, new int[][]{{1, 1, 2}, {1, 1, 2}})));
+        results.add(result(3, 300, matchInfo(10, new int[]{5, 100}, new int[]{5, 100}, new int[][]{{0, 0, 2}, {1, 1, 2}})));
+
+        List<JournalEntry> ranked = Bm25Ranker.rank(results);
+        assertEquals(2, ranked.get(0).getId());
+        assertEquals(3, ranked.get(1).getId());
+        assertEquals(1, ranked.get(2).getId());
+    }
+
+    @Test
+    public void prefixMatchStripsOperators() {
+        assertEquals("walk* park*", FtsQuery.toPrefixMatch("Walk  \"park\""));
+        assertEquals("not* happy*", FtsQuery.toPrefixMatch("NOT -happy"));
+        assertNull(FtsQuery.toPrefixMatch("  *?! "));
+        assertNull(FtsQuery.toPrefixMatch(null));
+    }
+
+    /**
+     * Build a single-phrase matchinfo(fts, 'pcnalx') blob.
+     */
+    private static byte[] matchInfo(int rows, int[] averageLengths, int[] lengths, int[][] hitsPerColumn) {
+        int columns = averageLengths.length;
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (3 + 2 * columns + 3 * columns)).order(ByteOrder.nativeOrder());
+        buffer.putInt(1).putInt(columns).putInt(rows);
+        for (int value : averageLengths) {
+            buffer.putInt(value);
+        }
+        for (int value : lengths) {
+            buffer.putInt(value);
+        }
+        for (int[] hits : hitsPerColumn) {
+            buffer.putInt(hits[0]).putInt(hits[1]).putInt(hits[2]);
+        }
+        return buffer.array();
+    }
+
+    private static JournalSearchResult result(long id, long date, byte[] matchInfo) {
+        JournalEntry entry = new JournalEntry("user", date, "Title", "Content");
+        entry.setId(id);
+        JournalSearchResult result = new JournalSearchResult();
+        result.setEntry(entry);
+        result.setMatchInfo(matchInfo);
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.analytics;
+
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.ChartBuckets.Granularity;
+import com.example.dailymoodandmentalhealthjournalapplication.utils.DateBuckets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for mapping days to chart buckets.
+ */
+public class ChartBucketsTest {
+
+    @Test
+    public void daysCountFromRangeStart() {
+        long fromDay = DateBuckets.epochDay(2024, 2, 27);
+        assertEquals(3, ChartBuckets.bucketOf(Granularity.DAY, fromDay, DateBuckets.epochDay(2024, 3, 1)));
+        assertEquals(DateBuckets.epochDay(2024, 3, 1), ChartBuckets.startDay(Granularity.DAY, fromDay, 3));
+        assertEquals(DateBuckets.epochDay(2024, 3, 1), ChartBuckets.endDay(Granularity.DAY, fromDay, 3));
+        assertEquals(366, ChartBuckets.bucketCount(Granularity.DAY, fromDay, DateBuckets.epochDay(2025, 2, 26)));
+    }
+
+    @Test
+    public void weeksStartOnMondayFromRangeStart() {
+        // Wednesday 2024-01-03; its week starts on Monday 2024-01-01
+        long fromDay = DateBuckets.epochDay(2024, 1, 3);
+        assertEquals(0, ChartBuckets.bucketOf(Granularity.WEEK, fromDay, DateBuckets.epochDay(2024, 1, 1)));
+        assertEquals(0, ChartBuckets.bucketOf(Granularity.WEEK, fromDay, DateBuckets.epochDay(2024, 1, 7)));
+        assertEquals(1, ChartBuckets.bucketOf(Granularity.WEEK, fromDay, DateBuckets.epochDay(2024, 1, 8)));
+        assertEquals(-1, ChartBuckets.bucketOf(Granularity.WEEK, fromDay, DateBuckets.epochDay(2023, 12, 31)));
+        assertEquals(DateBuckets.epochDay(2024, 1, 8), ChartBuckets.startDay(Granularity.WEEK, fromDay, 1));
+        assertEquals(DateBuckets.epochDay(2024, 1, 14), ChartBuckets.endDay(Granularity.WEEK, fromDay, 1));
+        assertEquals(53, ChartBuckets.bucketCount(Granularity.WEEK, fromDay, DateBuckets.epochDay(2024, 12, 31)));
+    }
+
+    @Test
+    public void monthsRunAcrossYears() {
+        long fromDay = DateBuckets.epochDay(2023, 11, 20);
+        assertEquals(0, ChartBuckets.bucketOf(Granularity.MONTH, fromDay, DateBuckets.epochDay(2023, 11, 1)));
+        assertEquals(2, ChartBuckets.bucketOf(Granularity.MONTH, fromDay, DateBuckets.epochDay(2024, 1, 31)));
+        assertEquals(DateBuckets.epochDay(2024, 2, 1), ChartBuckets.startDay(Granularity.MONTH, fromDay, 3));
+        assertEquals(DateBuckets.epochDay(2024, 2, 29), ChartBuckets.endDay(Granularity.MONTH, fromDay, 3));
+        assertEquals(DateBuckets.epochDay(2023, 12, 31), ChartBuckets.endDay(Granularity.MONTH, fromDay, 1));
+        assertEquals(14, ChartBuckets.bucketCount(Granularity.MONTH, fromDay, DateBuckets.epochDay(2024, 12, 1)));
+    }
+}
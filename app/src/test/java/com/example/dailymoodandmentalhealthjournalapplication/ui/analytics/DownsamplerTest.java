@@ -0,0 +1,137 @@
+package com.example.dailymoodandmentalhealthjournalapplication.ui.analytics;
+
+import com.example.dailymoodandmentalhealthjournalapplication.ui.analytics.Downsampler.Mode;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for chart downsampling.
+ */
+public class DownsamplerTest {
+    private static final int WIDTH = 1080;
+
+    @Test
+    public void lttbKeepsEndsAndSpikes() {
+        int length = 10_000;
+        float[] x = new float[length];
+        float[] y = new float[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+            y[i] = 5;
+        }
+        y[4_321] = 10;
+        y[7_000] = 1;
+
+        int[] out = new int[Downsampler.maxOutputSize(Mode.LTTB, 100)];
+        int count = Downsampler.downsample(Mode.LTTB, x, y, length, 100, out);
+        assertEquals(100, count);
+        assertEquals(0, out[0]);
+        assertEquals(length - 1, out[count - 1]);
+        assertAscending(out, count);
+        assertTrue(contains(out, count, 4_321));
+        assertTrue(contains(out, count, 7_000));
+    }
+
+    @Test
+    public void minMaxKeepsExtremesOfEveryColumn() {
+        Random random = new Random(17);
+        int length = 5_000;
+        float[] x = new float[length];
+        float[] y = new float[length];
+        float time = 0;
+        for (int i = 0; i < length; i++) {
+            time += random.nextFloat();
+            x[i] = time;
+            y[i] = 1 + random.nextInt(10);
+        }
+
+        int columns = 40;
+        int[] out = new int[Downsampler.maxOutputSize(Mode.MIN_MAX, columns)];
+        int count = Downsampler.downsample(Mode.MIN_MAX, x, y, length, columns, out);
+        assertTrue(count <= 2 * columns);
+        assertAscending(out, count);
+        assertEquals(0, out[0]);
+
+        // The lowest and highest value of each column must be among the kept points
+        double span = (double) x[length - 1] - x[0];
+        for (int column = 0; column < columns; column++) {
+            float low = Float.MAX_VALUE;
+            float high = -Float.MAX_VALUE;
+            float keptLow = Float.MAX_VALUE;
+            float keptHigh = -Float.MAX_VALUE;
+            for (int i = 0; i < length; i++) {
+                if (column(x[i], x[0], span, columns) == column) {
+                    low = Math.min(low, y[i]);
+                    high = Math.max(high, y[i]);
+                }
+            }
+            for (int k = 0; k < count; k++) {
+                int i = out[k];
+                if (column(x[i], x[0], span, columns) == column) {
+                    keptLow = Math.min(keptLow, y[i]);
+                    keptHigh = Math.max(keptHigh, y[i]);
+                }
+            }
+            assertEquals(low, keptLow, 0f);
+            assertEquals(high, keptHigh, 0f);
+        }
+    }
+
+    @Test
+    public void shortSeriesAreKeptWhole() {
+        float[] x = {0, 1, 2, 3};
+        float[] y = {4, 2, 8, 6};
+        int[] out = new int[Downsampler.maxOutputSize(Mode.MIN_MAX, WIDTH)];
+        for (Mode mode : Mode.values()) {
+            assertEquals(4, Downsampler.downsample(mode, x, y, 4, WIDTH, out));
+            assertAscending(out, 4);
+        }
+    }
+
+    @Test
+    public void hundredThousandPointsFitTheWidth() {
+        Random random = new Random(3);
+        int length = 100_000;
+        float[] x = new float[length];
+        float[] y = new float[length];
+        float time = 0;
+        for (int i = 0; i < length; i++) {
+            // About 90 entries a day over three years
+            time += random.nextFloat() / 45;
+            x[i] = time;
+            y[i] = 1 + random.nextInt(10);
+        }
+
+        for (Mode mode : Mode.values()) {
+            int[] out = new int[Downsampler.maxOutputSize(mode, WIDTH)];
+            int count = Downsampler.downsample(mode, x, y, length, WIDTH, out);
+            assertTrue(count <= out.length);
+            assertTrue(count > WIDTH / 2);
+            assertAscending(out, count);
+        }
+    }
+
+    private static int column(double x, double firstX, double span, int columns) {
+        return Math.min((int) ((x - firstX) / span * columns), columns - 1);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertAscending(int[] values, int count) {
+        for (int i = 1; i < count; i++) {
+            assertTrue(values[i - 1] < values[i]);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Unit tests for the journal entry content fingerprint.
+ */
+public class ContentHashTest {
+
+    @Test
+    public void equalFieldsHashEqually() {
+        assertEquals(ContentHash.of("Monday", "A long walk", "walk,calm"),
+                ContentHash.of("Mon" + "day", new StringBuilder("A long walk").toString(), "walk,calm"));
+    }
+
+    @Test
+    public void everyFieldAndBoundaryCounts() {
+        long base = ContentHash.of("Monday", "A long walk", "walk,calm");
+        assertNotEquals(base, ContentHash.of("Tuesday", "A long walk", "walk,calm"));
+        assertNotEquals(base, ContentHash.of("Monday", "A long walk.", "walk,calm"));
+        assertNotEquals(base, ContentHash.of("Monday", "A long walk", "walk"));
+        assertNotEquals(ContentHash.of("ab", "c", null), ContentHash.of("a", "bc", null));
+        assertNotEquals(ContentHash.of("a", null, null), ContentHash.of("a", "", null));
+        // Characters differing only in their high byte
+        assertNotEquals(ContentHash.of("A", "", ""), ContentHash.of("\u0141", "", ""));
+    }
+
+    @Test
+    public void distinctEntriesDoNotCollideOrHashToNone() {
+        Set<Long> hashes = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            long hash = ContentHash.of("Entry " + i, "Content of entry " + (i * 31), "tag" + (i % 7));
+            assertNotEquals(ContentHash.NONE, hash);
+            hashes.add(hash);
+        }
+        assertEquals(100_000, hashes.size());
+    }
+}
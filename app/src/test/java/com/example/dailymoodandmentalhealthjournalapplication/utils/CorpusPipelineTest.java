@@ -0,0 +1,182 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the chunked, parallel corpus pipeline, and for sentiment
+ * analysis through it on any number of threads.
+ */
+public class CorpusPipelineTest {
+    private ForkJoinPool pool;
+
+    @Before
+    public void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void shutDownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void writesEveryChunkInReadingOrder() {
+        for (int size : new int[]{0, 1, 9, 10, 11, 95}) {
+            List<Integer> written = new ArrayList<>();
+            List<Integer> progress = new ArrayList<>();
+            int processed = new CorpusPipeline<int[]>(pool, 10, 3).run(new RangeSource(size),
+                    item -> item[1] = item[0] * 2,
+                    chunk -> {
+                        assertTrue(chunk.size() <= 10);
+                        for (int[] item : chunk) {
+                            assertEquals(item[0] * 2, item[1]);
+                            written.add(item[0]);
+                        }
+                    }, progress::add, null);
+
+            assertEquals(size, processed);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                expected.add(i);
+            }
+            assertEquals(expected, written);
+            List<Integer> expectedProgress = new ArrayList<>();
+            for (int i = 10; i < size + 10; i += 10) {
+                expectedProgress.add(Math.min(i, size));
+            }
+            assertEquals(expectedProgress, progress);
+        }
+    }
+
+    @Test
+    public void readsNoMoreThanTheWindowAhead() {
+        RangeSource source = new RangeSource(1000);
+        int[] writes = new int[1];
+        new CorpusPipeline<int[]>(pool, 10, 3).run(source, item -> { }, chunk -> {
+            // Chunks read minus chunks written, this one included
+            assertTrue(source.reads - writes[0] <= 3);
+            writes[0]++;
+        }, null, null);
+        assertEquals(100, writes[0]);
+    }
+
+    @Test
+    public void stopsWhenCancelled() {
+        RangeSource source = new RangeSource(1000);
+        AtomicInteger processed = new AtomicInteger();
+        int[] writes = new int[1];
+        int written = new CorpusPipeline<int[]>(pool, 10, 2).run(source, item -> processed.incrementAndGet(),
+                chunk -> writes[0]++, null, () -> writes[0] == 5);
+
+        assertEquals(50, written);
+        assertTrue(source.reads <= 7);
+        assertTrue(processed.get() <= 70);
+    }
+
+    @Test
+    public void rethrowsTheProcessorsException() {
+        List<Integer> written = new ArrayList<>();
+        try {
+            new CorpusPipeline<int[]>(pool, 10, 3).run(new RangeSource(100), item -> {
+                if (item[0] == 42) {
+                    throw new IllegalStateException("Item 42");
+                }
+            }, chunk -> written.add(chunk.get(0)[0]), null, null);
+            fail("The processor's exception was not rethrown");
+        } catch (IllegalStateException expected) {
+            // Rethrown from the pool, possibly wrapped in one of the same type
+            assertTrue(expected.getMessage().endsWith("Item 42"));
+        }
+        // The chunks before the failed one were written
+        assertEquals(Arrays.asList(0, 10, 20, 30), written);
+    }
+
+    @Test
+    public void analyzesSentimentTheSameOnAnyThreadCount() {
+        TestLexicons.install();
+        Random random = new Random(11);
+        String[] words = {"happy", "sad", "not", "very", "calm", "but", "worried", "today", "the", "work",
+                "over the moon", "fed up", "and", "I", "felt", "a little", "grateful"};
+        List<String> texts = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = 50 + random.nextInt(400);
+            for (int j = 0; j < length; j++) {
+                text.append(words[random.nextInt(words.length)]).append(j % 12 == 11 ? ". " : " ");
+            }
+            texts.add(text.toString());
+            indices.add(i);
+        }
+        float[] expected = new float[texts.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = SentimentAnalyzer.analyze(texts.get(i)).getScore();
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(cores, 2); threads *= 2) {
+            ForkJoinPool threadPool = new ForkJoinPool(threads);
+            try {
+                float[] scores = new float[texts.size()];
+                int analyzed = new CorpusPipeline<Integer>(threadPool, 200, 4).run(new ListSource<>(indices),
+                        i -> scores[i] = SentimentAnalyzer.analyze(texts.get(i)).getScore(), chunk -> { }, null, null);
+                assertEquals(texts.size(), analyzed);
+                assertArrayEquals(expected, scores, 0f);
+            } finally {
+                threadPool.shutdownNow();
+            }
+        }
+    }
+
+    /** Items {i, 0} for i from 0 up to a size, counting the reads. */
+    private static final class RangeSource implements CorpusPipeline.Source<int[]> {
+        private final int size;
+        private int next;
+        int reads;
+
+        RangeSource(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public List<int[]> read(int limit) {
+            reads++;
+            List<int[]> items = new ArrayList<>();
+            while (items.size() < limit && next < size) {
+                items.add(new int[]{next++, 0});
+            }
+            return items;
+        }
+    }
+
+    private static final class ListSource<T> implements CorpusPipeline.Source<T> {
+        private final List<T> items;
+        private int next;
+
+        ListSource(List<T> items) {
+            this.items = items;
+        }
+
+        @Override
+        public List<T> read(int limit) {
+            int end = Math.min(next + limit, items.size());
+            List<T> chunk = items.subList(next, end);
+            next = end;
+            return chunk;
+        }
+    }
+}
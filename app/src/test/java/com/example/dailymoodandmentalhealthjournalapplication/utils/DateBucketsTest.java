@@ -0,0 +1,74 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the local day and month buckets, checked against Calendar.
+ */
+public class DateBucketsTest {
+    private static final String[] ZONES = {"UTC", "America/New_York", "Asia/Kolkata", "Pacific/Auckland"};
+
+    @Test
+    public void epochDayMatchesCalendarAcrossZonesAndDst() {
+        for (String id : ZONES) {
+            TimeZone zone = TimeZone.getTimeZone(id);
+            Calendar calendar = Calendar.getInstance(zone);
+            calendar.clear();
+            calendar.set(2023, Calendar.JANUARY, 1, 0, 0, 0);
+            for (int day = 0; day < 800; day++) {
+                long start = calendar.getTimeInMillis();
+                long epochDay = DateBuckets.epochDay(start, zone);
+
+                assertEquals(id, start, DateBuckets.startOfDay(epochDay, zone));
+                assertEquals(id, epochDay, DateBuckets.epochDay(start + 13 * 3_600_000L, zone));
+                assertEquals(id, epochDay - 1, DateBuckets.epochDay(start - 1, zone));
+
+                int expectedMonth = calendar.get(Calendar.YEAR) * 100 + calendar.get(Calendar.MONTH) + 1;
+                assertEquals(id, expectedMonth, DateBuckets.monthKey(epochDay));
+
+                calendar.add(Calendar.DAY_OF_MONTH, 1);
+                assertEquals(id, calendar.getTimeInMillis() - 1, DateBuckets.endOfDay(epochDay, zone));
+            }
+        }
+    }
+
+    @Test
+    public void monthKeyHandlesEpochAndLeapDays() {
+        assertEquals(197001, DateBuckets.monthKey(0));
+        assertEquals(196912, DateBuckets.monthKey(-1));
+        // 2024-02-29 and 2024-03-01
+        assertEquals(202402, DateBuckets.monthKey(19782));
+        assertEquals(202403, DateBuckets.monthKey(19783));
+    }
+
+    @Test
+    public void weekAndMonthBoundsMatchIsoCalendar() {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setFirstDayOfWeek(Calendar.MONDAY);
+        calendar.setMinimalDaysInFirstWeek(4);
+        calendar.clear();
+        calendar.set(1999, Calendar.DECEMBER, 1, 0, 0, 0);
+        for (int day = 0; day < 12_000; day++) {
+            long epochDay = Math.floorDiv(calendar.getTimeInMillis(), DateBuckets.MILLIS_PER_DAY);
+            int year = calendar.get(Calendar.YEAR);
+            int month = calendar.get(Calendar.MONTH) + 1;
+            int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
+
+            assertEquals(epochDay, DateBuckets.epochDay(year, month, dayOfMonth));
+            int expectedWeek = calendar.getWeekYear() * 100 + calendar.get(Calendar.WEEK_OF_YEAR);
+            assertEquals("Week of " + epochDay, expectedWeek, DateBuckets.weekKey(epochDay));
+            int daysFromMonday = (calendar.get(Calendar.DAY_OF_WEEK) + 5) % 7;
+            assertEquals(epochDay - daysFromMonday, DateBuckets.startOfWeek(epochDay));
+            assertEquals(epochDay - dayOfMonth + 1, DateBuckets.startOfMonth(epochDay));
+            assertEquals(epochDay - dayOfMonth + calendar.getActualMaximum(Calendar.DAY_OF_MONTH),
+                    DateBuckets.endOfMonth(epochDay));
+
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the packed emotion counts stored with journal entries.
+ */
+public class EmotionVectorTest {
+
+    @BeforeClass
+    public static void installLexicons() {
+        TestLexicons.install();
+    }
+
+    @Test
+    public void countersAreIndependentAndSaturate() {
+        long vector = 0;
+        for (int i = 0; i < 20; i++) {
+            vector = EmotionVector.increment(vector, 0);
+        }
+        vector = EmotionVector.increment(vector, 7);
+        int last = EmotionVector.EMOTIONS.length - 1;
+        for (int i = 0; i < 3; i++) {
+            vector = EmotionVector.increment(vector, last);
+        }
+
+        assertEquals(EmotionVector.MAX_COUNT, EmotionVector.get(vector, 0));
+        assertEquals(0, EmotionVector.get(vector, 1));
+        assertEquals(1, EmotionVector.get(vector, 7));
+        assertEquals(3, EmotionVector.get(vector, last));
+
+        int[] totals = new int[EmotionVector.EMOTIONS.length];
+        EmotionVector.addTo(vector, totals);
+        EmotionVector.addTo(vector, totals);
+        assertEquals(2 * EmotionVector.MAX_COUNT, totals[0]);
+        assertEquals(6, totals[last]);
+    }
+
+    @Test
+    public void topIsOrderedByCount() {
+        int[] totals = new int[EmotionVector.EMOTIONS.length];
+        totals[2] = 4;
+        totals[5] = 9;
+        totals[9] = 4;
+        totals[12] = 1;
+
+        Map<String, Integer> top = EmotionVector.top(totals, 3);
+        assertEquals(Arrays.asList("anxiety", "sadness", "love"), new ArrayList<>(top.keySet()));
+        assertEquals(Integer.valueOf(9), top.get("anxiety"));
+        assertTrue(EmotionVector.top(new int[EmotionVector.EMOTIONS.length], 3).isEmpty());
+    }
+
+    @Test
+    public void analyzerCountsEmotionWords() {
+        String text = "Happy and calm today, though a little worried. So happy!";
+        long vector = SentimentAnalyzer.getEmotionVector(text);
+
+        Map<String, Integer> emotions = SentimentAnalyzer.getEmotions(text, 5);
+        assertEquals(Arrays.asList("happiness", "anxiety", "calmness"), new ArrayList<>(emotions.keySet()));
+        assertEquals(Integer.valueOf(2), emotions.get("happiness"));
+        assertEquals(emotions, EmotionVector.top(vector, 5));
+        assertEquals(0L, SentimentAnalyzer.getEmotionVector(""));
+    }
+}
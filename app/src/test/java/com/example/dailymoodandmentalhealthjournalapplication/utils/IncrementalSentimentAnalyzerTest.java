@@ -0,0 +1,73 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the incremental sentiment analyzer, against analyzing the
+ * whole text after every edit.
+ */
+public class IncrementalSentimentAnalyzerTest {
+    private static final String[] PIECES = {
+            "happy", "sad", "not", "very", "calm", "but", "worried", "today", "over the moon", "fed up",
+            "a little", "grateful", "lonely", "don't", "I", " ", " ", " ", "\n", "\n\n", "\r\n", ".", ","
+    };
+
+    @BeforeClass
+    public static void installLexicons() {
+        TestLexicons.install();
+    }
+
+    @Test
+    public void matchesAnalyzingTheWholeText() {
+        Random random = new Random(3);
+        IncrementalSentimentAnalyzer analyzer = new IncrementalSentimentAnalyzer(Locale.ENGLISH);
+        StringBuilder text = new StringBuilder();
+        for (int edit = 0; edit < 3000; edit++) {
+            int start = random.nextInt(text.length() + 1);
+            int end = Math.min(text.length(), start + (random.nextInt(4) == 0 ? random.nextInt(40) : 0));
+            String inserted = random.nextInt(5) == 0 ? "" : randomText(random, 1 + random.nextInt(4));
+            text.replace(start, end, inserted);
+            if (text.length() > 2000) {
+                text.delete(0, 1000);
+            }
+            assertSameResult(text.toString(), analyzer.update(text.toString()));
+        }
+    }
+
+    @Test
+    public void handlesEditsAcrossParagraphs() {
+        IncrementalSentimentAnalyzer analyzer = new IncrementalSentimentAnalyzer(Locale.ENGLISH);
+        String[] versions = {
+                "I am happy", "I am happy\nbut sad", "I am happy\nbut sad\n", "I am not happy\nbut sad\n",
+                // Joining and splitting paragraphs
+                "I am not happy but sad\n", "I am not\nhappy but sad\n", "\nI am not\nhappy but sad\n\n",
+                "over the\nmoon", "over the moon", "", "\n", "sad", "sad"
+        };
+        for (String version : versions) {
+            assertSameResult(version, analyzer.update(version));
+        }
+    }
+
+    private static void assertSameResult(String text, SentimentAnalyzer.Result result) {
+        SentimentAnalyzer.Result expected = SentimentAnalyzer.analyze(text, Locale.ENGLISH);
+        assertEquals(text, expected.getScore(), result.getScore(), 1e-4f);
+        assertEquals(text, expected.getEmotionVector(), result.getEmotionVector());
+    }
+
+    private static String randomText(Random random, int pieces) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < pieces; i++) {
+            text.append(PIECES[random.nextInt(PIECES.length)]);
+            if (random.nextBoolean()) {
+                text.append(' ');
+            }
+        }
+        return text.toString();
+    }
+}
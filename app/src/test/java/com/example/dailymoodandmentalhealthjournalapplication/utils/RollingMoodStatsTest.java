@@ -0,0 +1,111 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the streaming mood statistics, checked against computing
+ * each statistic from scratch.
+ */
+public class RollingMoodStatsTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void windowsMatchRecomputedStatistics() {
+        Random random = new Random(29);
+        RollingMoodStats stats = new RollingMoodStats(7, 30, 0.25);
+        List<long[]> values = new ArrayList<>();
+        long day = 19_000;
+        for (int i = 0; i < 2_000; i++) {
+            // Several entries on some days, and gaps of up to 40 days
+            int step = random.nextInt(10);
+            day += step < 6 ? 0 : step < 9 ? 1 : random.nextInt(40);
+            int intensity = 1 + random.nextInt(10);
+            stats.add(day, intensity);
+            values.add(new long[]{day, intensity});
+
+            assertWindow(stats.getShortWindow(), values, day);
+            assertWindow(stats.getLongWindow(), values, day);
+        }
+
+        // Days without entries move the windows too
+        stats.advanceTo(day + 10);
+        assertWindow(stats.getShortWindow(), values, day + 10);
+        assertWindow(stats.getLongWindow(), values, day + 10);
+        stats.advanceTo(day + 45);
+        assertEquals(0, stats.getLongWindow().getCount());
+        assertEquals(0, stats.getLongWindow().getStdDev(), 0);
+    }
+
+    @Test
+    public void lateValuesJoinTheirDay() {
+        RollingMoodStats stats = new RollingMoodStats(7, 30, 0.25);
+        stats.add(100, 4);
+        stats.add(105, 8);
+        stats.add(101, 6);
+        // Too old for the short window, but still in the long one
+        stats.add(90, 2);
+        assertEquals(3, stats.getShortWindow().getCount());
+        assertEquals(6, stats.getShortWindow().getMean(), EPSILON);
+        assertEquals(2, stats.getShortWindow().getStdDev(), EPSILON);
+        assertEquals(4, stats.getLongWindow().getCount());
+        assertEquals(5, stats.getLongWindow().getMean(), EPSILON);
+
+        stats.advanceTo(108);
+        assertEquals(1, stats.getShortWindow().getCount());
+        assertEquals(8, stats.getShortWindow().getMean(), EPSILON);
+    }
+
+    @Test
+    public void trendAndVolatilityAreExponentiallyWeighted() {
+        double alpha = 0.25;
+        RollingMoodStats stats = new RollingMoodStats(7, 30, alpha);
+        int[] values = {5, 7, 3, 3, 9, 6, 6, 2};
+        double trend = values[0];
+        double squaredChange = 0;
+        stats.add(0, values[0]);
+        for (int i = 1; i < values.length; i++) {
+            stats.add(i, values[i]);
+            trend = alpha * values[i] + (1 - alpha) * trend;
+            double change = values[i] - values[i - 1];
+            squaredChange = alpha * change * change + (1 - alpha) * squaredChange;
+        }
+        assertEquals(trend, stats.getTrend(), EPSILON);
+        assertEquals(Math.sqrt(squaredChange), stats.getVolatility(), EPSILON);
+
+        // A steady mood has no volatility, whatever its level
+        stats.reset();
+        for (int i = 0; i < 10; i++) {
+            stats.add(i, 2);
+        }
+        assertEquals(2, stats.getTrend(), EPSILON);
+        assertEquals(0, stats.getVolatility(), EPSILON);
+    }
+
+    private static void assertWindow(RollingMoodStats.Window window, List<long[]> values, long endDay) {
+        long count = 0;
+        double sum = 0;
+        for (long[] value : values) {
+            if (value[0] > endDay - window.getDays() && value[0] <= endDay) {
+                count++;
+                sum += value[1];
+            }
+        }
+        double mean = count > 0 ? sum / count : 0;
+        double squares = 0;
+        for (long[] value : values) {
+            if (value[0] > endDay - window.getDays() && value[0] <= endDay) {
+                squares += (value[1] - mean) * (value[1] - mean);
+            }
+        }
+        double stdDev = count > 1 ? Math.sqrt(squares / (count - 1)) : 0;
+        assertEquals(count, window.getCount());
+        assertEquals(mean, window.getMean(), EPSILON);
+        assertEquals(stdDev, window.getStdDev(), 1e-7);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the sentiment analyzer's scoring model. The word counting
+ * analyzer of version 1 is kept as a baseline for the accuracy on the
+ * labeled corpus in the test resources; SentimentBenchmarkTest times the
+ * analyzer on a device.
+ */
+public class SentimentAnalyzerTest {
+    private static final String CORPUS = "sentiment_corpus.tsv";
+
+    private static final List<String> LEGACY_POSITIVE_WORDS = Arrays.asList(
+            "happy", "joy", "excited", "amazing", "wonderful", "great", "good", "excellent",
+            "fantastic", "delighted", "pleased", "glad", "cheerful", "content", "satisfied",
+            "grateful", "thankful", "blessed", "love", "loving", "hope", "hopeful", "positive",
+            "optimistic", "motivated", "inspired", "proud", "confident", "peaceful", "calm",
+            "relaxed", "energetic", "enthusiastic", "thrilled", "accomplished", "successful"
+    );
+
+    private static final List<String> LEGACY_NEGATIVE_WORDS = Arrays.asList(
+            "sad", "unhappy", "depressed", "miserable", "gloomy", "disappointed", "upset",
+            "frustrated", "angry", "mad", "annoyed", "irritated", "furious", "enraged",
+            "anxious", "worried", "nervous", "stressed", "tense", "afraid", "scared", "fearful",
+            "terrified", "lonely", "alone", "isolated", "abandoned", "rejected", "hurt",
+            "pain", "suffering", "grief", "regret", "guilty", "ashamed", "embarrassed",
+            "hopeless", "helpless", "worthless", "tired", "exhausted", "sick", "ill"
+    );
+
+    @BeforeClass
+    public static void installLexicons() {
+        TestLexicons.install();
+    }
+
+    @Test
+    public void negationFlipsAndDampsNearbyTerms() {
+        float sad = SentimentAnalyzer.analyzeSentiment("sad");
+        float notHappy = SentimentAnalyzer.analyzeSentiment("not happy");
+        assertTrue(notHappy < 0);
+        assertTrue(notHappy > sad);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("I don't feel bad") > 0);
+        // Negated terms do not count their emotions
+        assertEquals(0L, SentimentAnalyzer.getEmotionVector("I am not happy"));
+
+        // A negation reaches three words, and not past the end of its clause
+        assertTrue(SentimentAnalyzer.analyzeSentiment("not that much of a happy") > 0);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("not tired, just happy") > 0);
+        assertEquals(sad, SentimentAnalyzer.analyzeSentiment("nothing to do, sad"), 0);
+    }
+
+    @Test
+    public void modifiersScaleTheNextTerm() {
+        float[] scores = {
+                SentimentAnalyzer.analyzeSentiment("extremely happy"),
+                SentimentAnalyzer.analyzeSentiment("very happy"),
+                SentimentAnalyzer.analyzeSentiment("happy"),
+                SentimentAnalyzer.analyzeSentiment("a little happy"),
+                SentimentAnalyzer.analyzeSentiment("slightly happy")
+        };
+        for (int i = 1; i < scores.length; i++) {
+            assertTrue(scores[i - 1] >= scores[i]);
+            assertTrue(scores[i] > 0);
+        }
+        assertTrue(scores[0] > scores[1] && scores[1] > scores[2] && scores[2] > scores[3]);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("very stressed")
+                < SentimentAnalyzer.analyzeSentiment("stressed"));
+        // Modifiers stack, and only reach the next sentiment term
+        assertTrue(SentimentAnalyzer.analyzeSentiment("really very happy") > scores[1]);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("very happy and sad") > 0);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("happy and very sad") < 0);
+        assertEquals(scores[2], SentimentAnalyzer.analyzeSentiment("so I went out, happy"), 0);
+    }
+
+    @Test
+    public void phrasesScoreAsOneTerm() {
+        assertTrue(SentimentAnalyzer.analyzeSentiment("I was over the moon") > 0);
+        assertEquals(Arrays.asList("happiness"),
+                new ArrayList<>(SentimentAnalyzer.getEmotions("I was over the moon", 5).keySet()));
+        // "stressed out" counts once, not as "stressed" and "out"
+        assertEquals(SentimentAnalyzer.analyzeSentiment("stressed"),
+                SentimentAnalyzer.analyzeSentiment("stressed out"), 0);
+        assertEquals(Integer.valueOf(1), SentimentAnalyzer.getEmotions("stressed out", 5).get("anxiety"));
+        assertTrue(SentimentAnalyzer.analyzeSentiment("totally fed up") < SentimentAnalyzer.analyzeSentiment("fed up"));
+
+        // Words of a phrase mean nothing alone, and a failed prefix can still start a phrase
+        assertEquals(0.0f, SentimentAnalyzer.analyzeSentiment("on top of the table, over the fence"), 0);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("on on top of the world") > 0);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("down down in the dumps") < 0);
+        // Phrases do not span sentences
+        assertEquals(0.0f, SentimentAnalyzer.analyzeSentiment("It was over. The moon rose."), 0);
+    }
+
+    @Test
+    public void sentencesAreScoredSeparately() {
+        float happy = SentimentAnalyzer.analyzeSentiment("happy");
+        float sad = SentimentAnalyzer.analyzeSentiment("sad");
+        assertEquals(0.0f, SentimentAnalyzer.analyzeSentiment("I was sad. Now I am happy!"), 1e-6f);
+        // Sentences without sentiment terms do not dilute the score
+        assertEquals(happy, SentimentAnalyzer.analyzeSentiment("Went out. Happy. Came home."), 0);
+        // More sentiment in a sentence saturates towards 1
+        float moreSad = SentimentAnalyzer.analyzeSentiment("sad and lonely and tired");
+        assertTrue(moreSad < sad && moreSad > -1);
+        assertEquals((moreSad + happy) / 2,
+                SentimentAnalyzer.analyzeSentiment("Sad and lonely and tired? Happy."), 1e-6f);
+
+        // What follows a contrast weighs more
+        assertTrue(SentimentAnalyzer.analyzeSentiment("tired but happy") > 0);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("happy, but tired") < 0);
+    }
+
+    @Test
+    public void tokenizerDropsApostrophesAndSplitsOnAnythingElse() {
+        assertTrue(SentimentAnalyzer.analyzeSentiment("I don\u2019t feel sad") > 0);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("I don't feel sad") > 0);
+        assertEquals(SentimentAnalyzer.analyzeSentiment("happy"), SentimentAnalyzer.analyzeSentiment("HAPPY"), 0);
+        assertEquals(SentimentAnalyzer.analyzeSentiment("ill"), SentimentAnalyzer.analyzeSentiment("\u0130LL"), 0);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("happy2day") > 0);
+        assertTrue(SentimentAnalyzer.analyzeSentiment("well-being\u00A0good") > 0);
+        assertEquals(0.0f, SentimentAnalyzer.analyzeSentiment("enthusiasticallyoverwhelmed happyish"), 0);
+        assertEquals(0.0f, SentimentAnalyzer.analyzeSentiment(null), 0);
+        assertEquals(0L, SentimentAnalyzer.analyze("   ").getEmotionVector());
+        SentimentAnalyzer.Result result = SentimentAnalyzer.analyze("Happy and calm");
+        assertEquals(result.getScore(), SentimentAnalyzer.analyzeSentiment("Happy and calm"), 0);
+        assertEquals(result.getEmotionVector(), SentimentAnalyzer.getEmotionVector("Happy and calm"));
+    }
+
+    @Test
+    public void beatsWordCountingOnTheCorpus() throws IOException {
+        int total = 0;
+        int correct = 0;
+        int legacyCorrect = 0;
+        Map<String, int[]> labels = new TreeMap<>();
+        InputStream input = getClass().getClassLoader().getResourceAsStream(CORPUS);
+        assertNotNull(CORPUS, input);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", 2);
+                String label = columns[0];
+                int[] counts = labels.get(label);
+                if (counts == null) {
+                    counts = new int[2];
+                    labels.put(label, counts);
+                }
+                boolean right = label.equals(label(SentimentAnalyzer.analyzeSentiment(columns[1])));
+                total++;
+                counts[0]++;
+                if (right) {
+                    correct++;
+                    counts[1]++;
+                }
+                if (label.equals(label(legacySentiment(columns[1])))) {
+                    legacyCorrect++;
+                }
+            }
+        }
+
+        // Better than word counting overall, and no label left behind
+        for (Map.Entry<String, int[]> label : labels.entrySet()) {
+            assertTrue(label.getKey() + ": " + label.getValue()[1] + "/" + label.getValue()[0],
+                    label.getValue()[1] >= label.getValue()[0] * 0.8);
+        }
+        assertTrue(correct + " vs " + legacyCorrect + " with word counting", correct > legacyCorrect);
+        assertTrue(correct + "/" + total, correct >= total * 0.9);
+    }
+
+    private static String label(float score) {
+        return score > 0 ? "positive" : score < 0 ? "negative" : "neutral";
+    }
+
+    private static String[] legacyWords(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^a-zA-Z\\s]", "").split("\\s+");
+    }
+
+    private static float legacySentiment(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0.0f;
+        }
+        int positiveCount = 0;
+        int negativeCount = 0;
+        for (String word : legacyWords(text)) {
+            if (LEGACY_POSITIVE_WORDS.contains(word)) {
+                positiveCount++;
+            } else if (LEGACY_NEGATIVE_WORDS.contains(word)) {
+                negativeCount++;
+            }
+        }
+        int totalSentimentWords = positiveCount + negativeCount;
+        if (totalSentimentWords == 0) {
+            return 0.0f;
+        }
+        return (float) (positiveCount - negativeCount) / totalSentimentWords;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the binary sentiment lexicon format and its loading.
+ */
+public class SentimentLexiconFileTest {
+
+    @After
+    public void restoreLexicons() {
+        TestLexicons.install();
+    }
+
+    @Test
+    public void termsMatchTheSource() throws IOException {
+        List<String> lines = Files.readAllLines(new File(TestLexicons.SOURCE_DIR, "sentiment_en.tsv").toPath(),
+                StandardCharsets.UTF_8);
+        SentimentLexiconFile lexicon = SentimentLexiconFile.open(TestLexicons.app("en"));
+
+        int terms = 0;
+        for (String line : lines) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t");
+            int term = columns[0].indexOf(' ') < 0 ? find(lexicon, columns[0]) : findPhrase(lexicon, columns[0]);
+            assertTrue(line, term >= 0);
+            assertEquals(line, columns[0], lexicon.getTerm(term));
+            int kind = Arrays.asList("", "sentiment", "negation", "modifier", "contrast").indexOf(columns[1]);
+            assertEquals(line, kind, lexicon.getKind(term));
+            assertEquals(line, columns.length > 2 ? Float.parseFloat(columns[2]) : 0, lexicon.getWeight(term), 0);
+            assertEquals(line, columns.length > 3 ? EmotionVector.indexOf(columns[3]) : -1, lexicon.getEmotion(term));
+            terms++;
+        }
+
+        // Words that only occur in phrases are terms of no kind
+        int moon = find(lexicon, "moon");
+        assertEquals(SentimentModel.NONE, lexicon.getKind(moon));
+        assertTrue(lexicon.getTermCount() > terms);
+        for (String word : new String[]{"", "happ", "happyy", "zzz", "unbelievablyyyyyyy"}) {
+            assertEquals(word, -1, find(lexicon, word));
+        }
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        ByteBuffer valid = TestLexicons.test("calm");
+
+        ByteBuffer badMagic = copy(valid);
+        badMagic.putInt(0, 0x12345678);
+        assertRejected(badMagic);
+        ByteBuffer newerVersion = copy(valid);
+        newerVersion.putInt(4, 2);
+        assertRejected(newerVersion);
+        ByteBuffer truncated = copy(valid);
+        truncated.limit(30);
+        assertRejected(truncated);
+        assertRejected(TestLexicons.test("unknown_emotion"));
+
+        // Slices of a larger buffer are read from their position
+        ByteBuffer padded = ByteBuffer.allocate(valid.capacity() + 3);
+        padded.position(3);
+        padded.put(copy(valid));
+        padded.position(3);
+        SentimentLexiconFile lexicon = SentimentLexiconFile.open(padded);
+        assertEquals(EmotionVector.indexOf("calmness"), lexicon.getEmotion(find(lexicon, "calm")));
+        assertEquals(1, lexicon.getPhraseCount());
+        assertEquals("so calm", lexicon.getTerm(lexicon.getPhraseTerm(0)));
+    }
+
+    @Test
+    public void loadsEachLanguageOnFirstUse() throws IOException {
+        Map<String, ByteBuffer> lexicons = new HashMap<>();
+        lexicons.put("en", TestLexicons.app("en"));
+        lexicons.put("xx", TestLexicons.test("sentiment_xx"));
+        List<String> opened = new ArrayList<>();
+        SentimentAnalyzer.setLexiconSource(language -> {
+            opened.add(language);
+            ByteBuffer lexicon = lexicons.get(language);
+            return lexicon != null ? lexicon.duplicate() : null;
+        });
+
+        Locale xx = new Locale("xx");
+        for (int i = 0; i < 3; i++) {
+            assertTrue(SentimentAnalyzer.analyze("Ich bin sehr GL\u00DCCKLICH", xx).getScore() > 0);
+            assertTrue(SentimentAnalyzer.analyze("Ich bin nicht gl\u00FCcklich", xx).getScore() < 0);
+            assertEquals(0, SentimentAnalyzer.analyze("I am happy", xx).getScore(), 0);
+            // A language without a lexicon of its own uses the default one
+            assertTrue(SentimentAnalyzer.analyze("I am happy", Locale.GERMAN).getScore() > 0);
+        }
+        assertEquals(Arrays.asList("xx", "de", "en"), opened);
+        assertEquals("xx", SentimentAnalyzer.getLexiconLanguage(xx));
+        assertEquals(SentimentAnalyzer.DEFAULT_LANGUAGE, SentimentAnalyzer.getLexiconLanguage(Locale.GERMAN));
+    }
+
+    private static int find(SentimentLexiconFile lexicon, String term) {
+        return lexicon.find(term.toCharArray(), term.length());
+    }
+
+    private static int findPhrase(SentimentLexiconFile lexicon, String phrase) {
+        for (int i = 0; i < lexicon.getPhraseCount(); i++) {
+            if (lexicon.getTerm(lexicon.getPhraseTerm(i)).equals(phrase)) {
+                return lexicon.getPhraseTerm(i);
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+        copy.put(buffer.duplicate());
+        copy.flip();
+        return copy;
+    }
+
+    private static void assertRejected(ByteBuffer buffer) {
+        try {
+            new SentimentModel(SentimentLexiconFile.open(buffer));
+            fail("Opened an invalid lexicon");
+        } catch (IOException expected) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import com.example.dailymoodandmentalhealthjournalapplication.data.model.EntryDelta;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test applying change feed deltas to a sorted in-memory list.
+ */
+public class SortedEntryListTest {
+    // Newest first, as the list screens show entries
+    private static final Comparator<Item> ORDER = (a, b) -> a.date != b.date
+            ? Long.compare(b.date, a.date)
+            : Long.compare(b.id, a.id);
+
+    @Test
+    public void appliesInsertsUpdatesAndDeletesInOrder() {
+        SortedEntryList<Item> list = newList();
+        list.apply(EntryDelta.reset(byId(new Item(1, 100), new Item(2, 300), new Item(3, 200))));
+        assertEquals(Arrays.asList(2L, 3L, 1L), ids(list));
+
+        // Item 1 moves to the top, item 3 is deleted, item 4 is inserted
+        list.apply(EntryDelta.changes(byId(new Item(1, 400), new Item(4, 250)),
+                new HashSet<>(Collections.singletonList(3L))));
+        assertEquals(Arrays.asList(1L, 2L, 4L), ids(list));
+    }
+
+    @Test
+    public void mergedDeltasMatchAppliedDeltas() {
+        EntryDelta<Item> first = EntryDelta.changes(byId(new Item(5, 50)),
+                new HashSet<>(Collections.singletonList(1L)));
+        EntryDelta<Item> second = EntryDelta.changes(byId(new Item(1, 10)),
+                new HashSet<>(Collections.singletonList(5L)));
+        EntryDelta<Item> merged = first.merge(second);
+
+        assertEquals(Collections.singleton(1L), merged.getUpserted().keySet());
+        assertEquals(Collections.singleton(5L), merged.getDeletedIds());
+        assertTrue(EntryDelta.reset(byId(new Item(1, 1))).merge(merged).isReset());
+    }
+
+    @Test
+    public void randomDeltasMatchFullResort() {
+        Random random = new Random(42);
+        SortedEntryList<Item> list = newList();
+        Map<Long, Item> expected = new LinkedHashMap<>();
+        list.apply(EntryDelta.reset(expected));
+        for (int round = 0; round < 500; round++) {
+            Map<Long, Item> upserted = new LinkedHashMap<>();
+            HashSet<Long> deleted = new HashSet<>();
+            for (int i = 0; i < 5; i++) {
+                long id = random.nextInt(100);
+                if (random.nextInt(4) == 0) {
+                    deleted.add(id);
+                    upserted.remove(id);
+                } else {
+                    upserted.put(id, new Item(id, random.nextInt(50)));
+                    deleted.remove(id);
+                }
+            }
+            list.apply(EntryDelta.changes(upserted, deleted));
+            for (Long id : deleted) {
+                expected.remove(id);
+            }
+            expected.putAll(upserted);
+
+            List<Item> resorted = new ArrayList<>(expected.values());
+            Collections.sort(resorted, ORDER);
+            List<Long> expectedIds = new ArrayList<>();
+            for (Item item : resorted) {
+                expectedIds.add(item.id);
+            }
+            assertEquals(expectedIds, ids(list));
+        }
+    }
+
+    private static SortedEntryList<Item> newList() {
+        return new SortedEntryList<>(ORDER, item -> item.id);
+    }
+
+    private static Map<Long, Item> byId(Item... items) {
+        Map<Long, Item> map = new LinkedHashMap<>();
+        for (Item item : items) {
+            map.put(item.id, item);
+        }
+        return map;
+    }
+
+    private static List<Long> ids(SortedEntryList<Item> list) {
+        List<Long> ids = new ArrayList<>();
+        for (Item item : list.snapshot()) {
+            ids.add(item.id);
+        }
+        return ids;
+    }
+
+    private static final class Item {
+        final long id;
+        final long date;
+
+        Item(long id, long date) {
+            this.id = id;
+            this.date = date;
+        }
+    }
+}
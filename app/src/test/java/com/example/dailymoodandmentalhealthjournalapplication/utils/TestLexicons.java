@@ -0,0 +1,61 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * The sentiment lexicons for unit tests, as converted by the
+ * convertSentimentLexicons task in app/build.gradle.kts: the app's, from
+ * src/main/lexicon, and the small ones in src/test/lexicon. Gradle passes
+ * their directories to the tests.
+ */
+final class TestLexicons {
+    static final File SOURCE_DIR = new File("src/main/lexicon");
+
+    private TestLexicons() {
+    }
+
+    /**
+     * Make SentimentAnalyzer load the app's lexicons.
+     */
+    static void install() {
+        SentimentAnalyzer.setLexiconSource(language -> {
+            File lexicon = new File(directory("lexicon.dir"), "sentiment_" + language + ".lex");
+            return lexicon.exists() ? read(lexicon) : null;
+        });
+    }
+
+    /**
+     * Read one of the app's lexicons.
+     *
+     * @param language The language of the lexicon
+     * @return The lexicon
+     */
+    static ByteBuffer app(String language) throws IOException {
+        return read(new File(directory("lexicon.dir"), "sentiment_" + language + ".lex"));
+    }
+
+    /**
+     * Read one of the lexicons in src/test/lexicon.
+     *
+     * @param name The name of its source, without the extension
+     * @return The lexicon
+     */
+    static ByteBuffer test(String name) throws IOException {
+        return read(new File(directory("lexicon.testDir"), name + ".lex"));
+    }
+
+    private static ByteBuffer read(File file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+    }
+
+    private static File directory(String property) {
+        String path = System.getProperty(property);
+        if (path == null) {
+            throw new IllegalStateException("No " + property + " set; run the unit tests through Gradle");
+        }
+        return new File(path);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.dailymoodandmentalhealthjournalapplication.utils;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the Deflate text compression used by the journal archive.
+ */
+public class TextCompressorTest {
+
+    @Test
+    public void roundTripsText() {
+        StringBuilder longText = new StringBuilder();
+        Random random = new Random(3);
+        while (longText.length() < 100_000) {
+            longText.append((char) ('a' + random.nextInt(26)));
+            if (random.nextInt(6) == 0) {
+                longText.append(' ');
+            }
+        }
+        String[] texts = {"", "A short walk.", "Za\u017c\u00f3\u0142\u0107 \ud83d\ude42", longText.toString()};
+        for (String text : texts) {
+            byte[] compressed = TextCompressor.compress(text);
+            assertEquals(text.getBytes(StandardCharsets.UTF_8).length, TextCompressor.originalLength(compressed));
+            assertEquals(text, TextCompressor.decompress(compressed));
+        }
+    }
+
+    @Test
+    public void compressesRepetitiveText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("Went for a walk in the park and felt calm afterwards. ");
+        }
+        byte[] compressed = TextCompressor.compress(text.toString());
+        assertTrue(compressed.length < text.length() / 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTruncatedValues() {
+        byte[] compressed = TextCompressor.compress("Went for a walk in the park and felt calm afterwards.");
+        TextCompressor.decompress(Arrays.copyOf(compressed, compressed.length / 2));
+    }
+}